@@ -28,6 +28,7 @@ public final class Messages {
     public static final String NOT_FOUND_DEFECT = "The work item does not exist: please verify the ID, or it has perhaps been removed.";
     public static final String NOT_FOUND_ERROR = "The error does not exist: it has perhaps been removed.";
     public static final String NOT_FOUND_EXECUTION = "The execution does not exist: it has perhaps been removed.";
+    public static final String NOT_FOUND_EXECUTION_ARCHIVE = "The execution archive does not exist: it has perhaps been restored or removed.";
     public static final String NOT_FOUND_FUNCTIONALITY = "The functionality does not exist: it has perhaps been removed.";
     public static final String NOT_FOUND_FUNCTIONALITY_FOLDER = "The folder does not exist: it has perhaps been removed.";
     public static final String NOT_FOUND_FUNCTIONALITY_OR_FOLDER = "The functionality or folder does not exist: it has perhaps been removed.";
@@ -84,6 +85,8 @@ public final class Messages {
     public static final String RULE_SOURCE_USED_BY_SCENARIO = "The source is used by at least one scenario in Version Control System: you cannot remove such source.";
     public static final String RULE_SOURCE_USED_BY_TYPE = "The source is used by at least one type: please remove such types.";
     public static final String RULE_DISCARDED_EXECUTIONS_MUST_HAVE_REASON = "A reason is mandatory when discarding an execution.";
+    public static final String RULE_EXECUTION_ARCHIVE_ALREADY_RESTORED = "An execution of the same cycle at the same test date-time already exists.";
+    public static final String RULE_EXECUTION_ARCHIVE_UNREADABLE = "The execution archive cannot be read: it is either corrupted or written by a newer version of ARA.";
     public static final String RULE_EXECUTED_SCENARIO_HISTORY_MANDATORY_CUCUMBER_ID = "The cucumber ID of the scenario to get history is mandatory.";
     public static final String RULE_FUNCTIONALITY_EXCLUSIVE_STARTED_AND_NOT_AUTOMATABLE = "A functionality cannot be both non-automatable and started.";
     public static final String RULE_FUNCTIONALITY_FOLDER_MANDATORY_NAME = "A folder must have a name.";
@@ -0,0 +1,125 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the cached entities and collections updated or deleted through Hibernate, for the other nodes of the cluster to
+ * evict them from their own cache: Hibernate only updates the cache of the node that made the change.<br>
+ * Bulk JPQL and native updates are not seen here: they must be followed by a call to
+ * {@link CacheInvalidationService#evictAfterCommit(String, java.util.Collection)}, or stay stale on the other nodes
+ * until their cache expires.
+ */
+@Component
+@ConditionalOnProperty(name = "ara.cache.invalidation.replicated", havingValue = "true")
+public class CacheInvalidationListener implements PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener, PostCollectionRecreateEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient EntityManagerFactory entityManagerFactory;
+
+    private final transient CacheInvalidationService cacheInvalidationService;
+
+    public CacheInvalidationListener(EntityManagerFactory entityManagerFactory, CacheInvalidationService cacheInvalidationService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    @PostConstruct
+    void register() {
+        final EventListenerRegistry registry = entityManagerFactory
+                .unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onEntityChange(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onEntityChange(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void onEntityChange(EntityPersister persister, Serializable id) {
+        if (persister.canWriteToCache() && id instanceof Long) {
+            cacheInvalidationService.publishAfterCommit(persister.getRootEntityName(), Collections.singleton((Long) id));
+        }
+    }
+
+    private void onCollectionChange(AbstractCollectionEvent event) {
+        final String role = event.getCollection().getRole();
+        final Serializable ownerId = event.getAffectedOwnerIdOrNull();
+        if (role != null && ownerId instanceof Long
+                && event.getSession().getFactory().getMetamodel().collectionPersister(role).hasCache()) {
+            cacheInvalidationService.publishAfterCommit(role, Collections.singleton((Long) ownerId));
+        }
+    }
+
+}
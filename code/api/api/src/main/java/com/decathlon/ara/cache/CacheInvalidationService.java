@@ -0,0 +1,282 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.decathlon.ara.cache.bean.CacheEvictedEvent;
+import com.decathlon.ara.configuration.ReplicaRouter;
+import com.decathlon.ara.domain.CacheInvalidation;
+import com.decathlon.ara.repository.CacheInvalidationRepository;
+import com.decathlon.ara.repository.custom.util.JpaCacheManager;
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.service.ScheduledJobLeaseService;
+import com.decathlon.ara.service.util.DateService;
+
+/**
+ * Keeps the second-level caches of the nodes of an ARA cluster coherent, without any external service.<br>
+ * When {@link #replicated}, the evictions of a node are logged in the cache_invalidation table once its transaction is
+ * committed, and the other nodes poll this table to replay them on their own cache. Nodes compare invalidation dates
+ * with their own clock: their clocks must be synchronized (eg. with NTP).<br>
+ * A {@link CacheEvictedEvent} is published after each eviction made by {@link #evictAfterCommit(String, Collection)}
+ * or replayed from another node.
+ */
+@Service
+public class CacheInvalidationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private static final String CLEANUP_JOB = "cache-invalidation-cleanup";
+
+    /**
+     * How far back each poll looks before the previous one, to get the invalidations committed late or made by a node
+     * whose clock is a bit late.
+     */
+    static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+    /**
+     * How long invalidations are kept, for all nodes to replay them.
+     */
+    static final Duration RETENTION = Duration.ofHours(1);
+
+    /**
+     * True when several ARA nodes share the database, and must replay the cache evictions of each other.
+     */
+    @Value("${ara.cache.invalidation.replicated:false}")
+    private boolean replicated;
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+
+    private final JpaCacheManager jpaCacheManager;
+
+    private final TransactionAppenderUtil transactionAppenderUtil;
+
+    private final ScheduledJobLeaseService scheduledJobLeaseService;
+
+    private final DateService dateService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final ReplicaRouter replicaRouter;
+
+    /**
+     * The invalidations of the other nodes replayed during the last {@link #POLL_OVERLAP}, not to replay them twice.
+     */
+    private final Map<Long, Date> replayedInvalidations = new HashMap<>();
+
+    private Date lastPollDateTime = new Date();
+
+    public CacheInvalidationService(CacheInvalidationRepository cacheInvalidationRepository, JpaCacheManager jpaCacheManager,
+            TransactionAppenderUtil transactionAppenderUtil, ScheduledJobLeaseService scheduledJobLeaseService,
+            DateService dateService, ApplicationEventPublisher applicationEventPublisher, ReplicaRouter replicaRouter) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.jpaCacheManager = jpaCacheManager;
+        this.transactionAppenderUtil = transactionAppenderUtil;
+        this.scheduledJobLeaseService = scheduledJobLeaseService;
+        this.dateService = dateService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.replicaRouter = replicaRouter;
+    }
+
+    /**
+     * Evict the given instances of an entity or a collection from the cache of all nodes, once the current transaction is
+     * committed.
+     *
+     * @param region      the name of an entity or a "collection role" (in form [owner-entity-name].[collection-property-name])
+     * @param identifiers the identifiers of the entities or of the owning entities
+     */
+    public void evictAfterCommit(String region, Collection<Long> identifiers) {
+        if (identifiers.isEmpty()) {
+            return;
+        }
+        transactionAppenderUtil.doAfterCommit(() -> {
+            // Not to cache again the evicted data from a lagging read-only replica
+            replicaRouter.recordWrite();
+            jpaCacheManager.evict(region, identifiers);
+            applicationEventPublisher.publishEvent(new CacheEvictedEvent(region, identifiers));
+        });
+        publishAfterCommit(region, identifiers);
+    }
+
+    /**
+     * Log an eviction already made on the cache of this node, for the other nodes to replay it once the current
+     * transaction is committed. The evictions of a transaction are logged together, one row per region.
+     *
+     * @param region      the name of an entity or a "collection role" (in form [owner-entity-name].[collection-property-name])
+     * @param identifiers the identifiers of the entities or of the owning entities, or null if all instances were evicted
+     */
+    public void publishAfterCommit(String region, Collection<Long> identifiers) {
+        if (!replicated) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            final PendingInvalidations invalidations = new PendingInvalidations();
+            invalidations.add(region, identifiers);
+            publish(invalidations);
+            return;
+        }
+        PendingInvalidations invalidations = (PendingInvalidations) TransactionSynchronizationManager.getResource(PendingInvalidations.class);
+        if (invalidations == null) {
+            final PendingInvalidations newInvalidations = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(PendingInvalidations.class, newInvalidations);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(newInvalidations);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PendingInvalidations.class);
+                }
+            });
+            invalidations = newInvalidations;
+        }
+        invalidations.add(region, identifiers);
+    }
+
+    private void publish(PendingInvalidations invalidations) {
+        final String node = scheduledJobLeaseService.getNodeId();
+        for (Map.Entry<String, Set<Long>> entry : invalidations.getRegions().entrySet()) {
+            final Set<Long> identifiers = entry.getValue();
+            final String ownerIds = jpaCacheManager.isBulk(identifiers) ? null : StringUtils.join(new TreeSet<>(identifiers), ',');
+            try {
+                cacheInvalidationRepository.save(new CacheInvalidation(entry.getKey(), ownerIds, node, dateService.now()));
+            } catch (RuntimeException e) {
+                LOG.warn("Cannot log the eviction of cache {}: other nodes will serve stale data until it expires", entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Replay on the cache of this node the evictions made by the other nodes since the previous poll.
+     */
+    @Scheduled(fixedDelayString = "${ara.cache.invalidation.poll-delay-in-milliseconds:1000}")
+    public void poll() {
+        if (replicated) {
+            replayPeerInvalidations();
+        }
+    }
+
+    /**
+     * Replay at once the evictions made by the other nodes if some are not replayed yet, so that a client reading
+     * from this node what it just wrote through another node does not get stale cached data.
+     */
+    public void catchUp() {
+        // Only the identifiers are read: invalidations are not ordered by identifier once committed, so a peer
+        // invalidation committed late can have a lower identifier than an already replayed one
+        final List<Long> peerIds = cacheInvalidationRepository
+                .findIdsByNodeNotAndCreationDateTimeGreaterThanEqual(scheduledJobLeaseService.getNodeId(), getPollStart());
+        if (!isReplayed(peerIds)) {
+            replayPeerInvalidations();
+        }
+    }
+
+    private synchronized Date getPollStart() {
+        return new Date(lastPollDateTime.getTime() - POLL_OVERLAP.toMillis());
+    }
+
+    private synchronized boolean isReplayed(Collection<Long> invalidationIds) {
+        return replayedInvalidations.keySet().containsAll(invalidationIds);
+    }
+
+    synchronized void replayPeerInvalidations() {
+        final Date now = dateService.now();
+        final Date since = getPollStart();
+        final List<CacheInvalidation> invalidations = cacheInvalidationRepository
+                .findAllByNodeNotAndCreationDateTimeGreaterThanEqualOrderById(scheduledJobLeaseService.getNodeId(), since);
+        for (CacheInvalidation invalidation : invalidations) {
+            if (replayedInvalidations.putIfAbsent(invalidation.getId(), invalidation.getCreationDateTime()) == null) {
+                LOG.debug("Replaying the eviction of cache {} made by node {}", invalidation.getRegion(), invalidation.getNode());
+                final Set<Long> identifiers = toIdentifiers(invalidation.getOwnerIds());
+                replicaRouter.recordWrite();
+                jpaCacheManager.evict(invalidation.getRegion(), identifiers);
+                applicationEventPublisher.publishEvent(new CacheEvictedEvent(invalidation.getRegion(), identifiers));
+            }
+        }
+        lastPollDateTime = now;
+        replayedInvalidations.values().removeIf(creationDateTime -> creationDateTime.before(since));
+    }
+
+    private static Set<Long> toIdentifiers(String ownerIds) {
+        if (ownerIds == null) {
+            return null; // NOSONAR The whole region was evicted
+        }
+        return Arrays.stream(ownerIds.split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Delete the invalidations old enough to have been replayed by all nodes, from one node of the cluster.
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 600000)
+    public void cleanUp() {
+        if (replicated) {
+            scheduledJobLeaseService.runExclusively(CLEANUP_JOB, Duration.ofMinutes(10), Duration.ofMinutes(30), () -> {
+                final Date maxCreationDateTime = new Date(dateService.now().getTime() - RETENTION.toMillis());
+                LOG.debug("{} cache invalidation(s) deleted", Integer.valueOf(cacheInvalidationRepository.deleteByCreationDateTimeBefore(maxCreationDateTime)));
+            });
+        }
+    }
+
+    /**
+     * The evictions of a transaction, per region: a null set of identifiers means the whole region was evicted.
+     */
+    static class PendingInvalidations {
+
+        private final Map<String, Set<Long>> regions = new LinkedHashMap<>();
+
+        void add(String region, Collection<Long> identifiers) {
+            if (identifiers == null) {
+                regions.put(region, null);
+            } else if (!regions.containsKey(region)) {
+                regions.put(region, new HashSet<>(identifiers));
+            } else if (regions.get(region) != null) {
+                regions.get(region).addAll(identifiers);
+            }
+        }
+
+        Map<String, Set<Long>> getRegions() {
+            return regions;
+        }
+
+    }
+
+}
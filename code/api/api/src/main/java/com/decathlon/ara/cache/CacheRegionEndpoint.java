@@ -0,0 +1,82 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.decathlon.ara.cache.bean.CacheRegionStatistics;
+import com.decathlon.ara.cache.bean.CacheStatistics;
+
+/**
+ * The entitycaches actuator endpoint: statistics of the second-level cache regions, and change of their limits.
+ * <ul>
+ * <li>GET /actuator/entitycaches: all regions</li>
+ * <li>GET /actuator/entitycaches/{name}: one region, with its measured heap size</li>
+ * <li>POST /actuator/entitycaches {"memoryBudget": "512MB"}: the memory shared by all regions, when sized by memory
+ * budget</li>
+ * <li>POST /actuator/entitycaches/{name} {"maxEntries": 50000}: the maximum entries of a region, when sized by number
+ * of entries</li>
+ * </ul>
+ * Changes are not persisted: they last until the next restart.
+ */
+@Component
+@Endpoint(id = "entitycaches")
+public class CacheRegionEndpoint {
+
+    private final CacheRegionService cacheRegionService;
+
+    public CacheRegionEndpoint(CacheRegionService cacheRegionService) {
+        this.cacheRegionService = cacheRegionService;
+    }
+
+    @ReadOperation
+    public CacheStatistics regions() {
+        return cacheRegionService.getStatistics();
+    }
+
+    @ReadOperation
+    public CacheRegionStatistics region(@Selector String name) {
+        return cacheRegionService.getStatistics(name).orElse(null);
+    }
+
+    @WriteOperation
+    public CacheStatistics setMemoryBudget(String memoryBudget) {
+        try {
+            cacheRegionService.setMemoryBudget(DataSize.parse(memoryBudget).toBytes());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return cacheRegionService.getStatistics();
+    }
+
+    @WriteOperation
+    public CacheRegionStatistics setMaxEntries(@Selector String name, long maxEntries) {
+        try {
+            return cacheRegionService.setMaxEntries(name, maxEntries).orElse(null);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+}
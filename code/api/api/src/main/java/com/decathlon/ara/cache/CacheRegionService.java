@@ -0,0 +1,231 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.cache.ehcache.internal.EhcacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.decathlon.ara.cache.bean.CacheRegionStatistics;
+import com.decathlon.ara.cache.bean.CacheStatistics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.statistics.StatisticsGateway;
+
+/**
+ * Exposes the statistics of the second-level cache regions, as cache.* metrics and through the entitycaches actuator
+ * endpoint, and lets their limits be changed at runtime.<br>
+ * Regions are sized either by number of entries (ehcache.xml, the default), or by a memory budget shared by all
+ * regions (ehcache-memory-budget.xml, see {@link #memoryBudget}). Ehcache cannot switch between both at runtime.
+ */
+@Service
+public class CacheRegionService implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheRegionService.class);
+
+    private static final Tags TAGS = Tags.of("cacheManager", "hibernate");
+
+    /**
+     * The heap memory shared by all regions, when they are sized by memory budget: it overrides the one of
+     * ehcache-memory-budget.xml.
+     */
+    @Value("${ara.cache.memory-budget:}")
+    private DataSize memoryBudget;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheRegionService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void applyMemoryBudget() {
+        if (memoryBudget == null) {
+            return;
+        }
+        if (isMemoryBudgeted()) {
+            setMemoryBudget(memoryBudget.toBytes());
+        } else {
+            LOG.warn("CACHE|ara.cache.memory-budget is ignored: cache regions are sized by number of entries (set ara.cache.configuration to ehcache-memory-budget.xml)");
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        final boolean memoryBudgeted = isMemoryBudgeted();
+        for (String name : getCacheManager().getCacheNames()) {
+            final Ehcache cache = getCacheManager().getEhcache(name);
+            final Tags tags = TAGS.and("cache", name);
+            final StatisticsGateway statistics = cache.getStatistics();
+            FunctionCounter.builder("cache.gets", statistics, StatisticsGateway::cacheHitCount)
+                    .tags(tags).tag("result", "hit")
+                    .description("The number of times cache lookup methods have returned a cached value.")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", statistics, StatisticsGateway::cacheMissCount)
+                    .tags(tags).tag("result", "miss")
+                    .description("The number of times cache lookup methods have not returned a value.")
+                    .register(registry);
+            FunctionCounter.builder("cache.puts", statistics, StatisticsGateway::cachePutCount)
+                    .tags(tags)
+                    .description("The number of entries added to the cache.")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", statistics, StatisticsGateway::cacheEvictedCount)
+                    .tags(tags)
+                    .description("The number of entries removed because the cache was full.")
+                    .register(registry);
+            FunctionCounter.builder("cache.expirations", statistics, StatisticsGateway::cacheExpiredCount)
+                    .tags(tags)
+                    .description("The number of entries removed because they lived or idled too long.")
+                    .register(registry);
+            Gauge.builder("cache.size", statistics, StatisticsGateway::getLocalHeapSize)
+                    .tags(tags)
+                    .description("The number of entries in the cache.")
+                    .register(registry);
+            if (memoryBudgeted) {
+                // Only cheap when the memory pool keeps track of the size of its entries
+                Gauge.builder("cache.heap.size", statistics, StatisticsGateway::getLocalHeapSizeInBytes)
+                        .tags(tags)
+                        .baseUnit("bytes")
+                        .description("The heap memory used by the entries of the cache.")
+                        .register(registry);
+            }
+        }
+    }
+
+    /**
+     * @return the statistics of all regions: their heap size is only given when they are sized by memory budget, as
+     * measuring it is expensive otherwise
+     */
+    public CacheStatistics getStatistics() {
+        final boolean memoryBudgeted = isMemoryBudgeted();
+        final String[] names = getCacheManager().getCacheNames();
+        final List<CacheRegionStatistics> regions = Arrays.stream(names)
+                .sorted()
+                .map(name -> toStatistics(getCacheManager().getEhcache(name), memoryBudgeted))
+                .collect(Collectors.toList());
+        return new CacheStatistics(getMemoryBudget(), regions);
+    }
+
+    /**
+     * @param name the name of a region: an entity name or a collection role
+     * @return the statistics of the region, with its heap size (measured by walking all its entries if the region is
+     * sized by number of entries), or empty if there is no such region
+     */
+    public Optional<CacheRegionStatistics> getStatistics(String name) {
+        return Optional.ofNullable(getCacheManager().getEhcache(name))
+                .map(cache -> toStatistics(cache, true));
+    }
+
+    /**
+     * Change the maximum number of entries of a region: if lowered, extra entries are evicted as new ones are added.
+     *
+     * @param name       the name of a region: an entity name or a collection role
+     * @param maxEntries the new maximum number of entries of the region, or 0 for no limit
+     * @return the statistics of the region, or empty if there is no such region
+     * @throws IllegalStateException if the regions are sized by memory budget
+     */
+    public Optional<CacheRegionStatistics> setMaxEntries(String name, long maxEntries) {
+        if (isMemoryBudgeted()) {
+            throw new IllegalStateException("Cache regions are sized by memory budget: change the budget instead");
+        }
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("The maximum number of entries cannot be negative");
+        }
+        final Ehcache cache = getCacheManager().getEhcache(name);
+        if (cache == null) {
+            return Optional.empty();
+        }
+        LOG.info("CACHE|Maximum entries of cache region {} changed from {} to {}", name,
+                Long.valueOf(cache.getCacheConfiguration().getMaxEntriesLocalHeap()), Long.valueOf(maxEntries));
+        cache.getCacheConfiguration().setMaxEntriesLocalHeap(maxEntries);
+        return Optional.of(toStatistics(cache, false));
+    }
+
+    /**
+     * Change the heap memory shared by all regions: if lowered, entries are evicted as new ones are added.
+     *
+     * @param bytes the new memory budget
+     * @throws IllegalStateException if the regions are sized by number of entries
+     */
+    public void setMemoryBudget(long bytes) {
+        if (!isMemoryBudgeted()) {
+            throw new IllegalStateException("Cache regions are sized by number of entries: change the maximum entries of each region instead");
+        }
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("The memory budget must be positive");
+        }
+        LOG.info("CACHE|Memory budget of the cache regions changed to {} bytes", Long.valueOf(bytes));
+        getCacheManager().getConfiguration().setMaxBytesLocalHeap(Long.valueOf(bytes));
+    }
+
+    /**
+     * @return the heap memory shared by all regions, or null if each region is sized by its own number of entries
+     */
+    public Long getMemoryBudget() {
+        return isMemoryBudgeted() ? Long.valueOf(getCacheManager().getConfiguration().getMaxBytesLocalHeap()) : null;
+    }
+
+    private boolean isMemoryBudgeted() {
+        return getCacheManager().getConfiguration().isMaxBytesLocalHeapSet();
+    }
+
+    private static CacheRegionStatistics toStatistics(Ehcache cache, boolean withHeapSize) {
+        final CacheConfiguration configuration = cache.getCacheConfiguration();
+        final StatisticsGateway statistics = cache.getStatistics();
+        return new CacheRegionStatistics(
+                cache.getName(),
+                configuration.isCountBasedTuned() ? Long.valueOf(configuration.getMaxEntriesLocalHeap()) : null,
+                statistics.getLocalHeapSize(),
+                withHeapSize ? Long.valueOf(statistics.getLocalHeapSizeInBytes()) : null,
+                statistics.cacheHitCount(),
+                statistics.cacheMissCount(),
+                statistics.cachePutCount(),
+                statistics.cacheEvictedCount(),
+                statistics.cacheExpiredCount(),
+                configuration.getTimeToLiveSeconds(),
+                configuration.getTimeToIdleSeconds());
+    }
+
+    CacheManager getCacheManager() {
+        final EhcacheRegionFactory regionFactory = (EhcacheRegionFactory) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+        return regionFactory.getCacheManager();
+    }
+
+}
@@ -0,0 +1,203 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.decathlon.ara.configuration.ReplicaRouter;
+import com.decathlon.ara.domain.ProjectDataVersion;
+import com.decathlon.ara.repository.ProjectDataVersionRepository;
+
+/**
+ * Keeps a version of the data of each project, for REST clients to validate what they cached with a strong ETag: the
+ * dashboards answer 304 (Not Modified) without computing anything while the version did not change.<br>
+ * The write paths changing what the dashboards show (indexing, functionalities, problems and settings) call
+ * {@link #incrementAfterCommit(long)}. The version is stored in database, so that all nodes of a cluster give the same
+ * ETag for the same data.<br>
+ * The changes of functionalities or of their coverage also increment a functionality version, for the caches of the
+ * functionality trees not to be dropped by each indexed execution.
+ */
+@Service
+public class DataVersionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataVersionService.class);
+
+    private final ProjectDataVersionRepository projectDataVersionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReplicaRouter replicaRouter;
+
+    /**
+     * The last data version read for each project, to know when a project changed through another node.
+     */
+    private final Map<Long, Long> lastReadVersions = new ConcurrentHashMap<>();
+
+    /**
+     * The last functionality version read for each project, to know when its functionalities changed through another node.
+     */
+    private final Map<Long, Long> lastReadFunctionalityVersions = new ConcurrentHashMap<>();
+
+    public DataVersionService(ProjectDataVersionRepository projectDataVersionRepository, PlatformTransactionManager transactionManager,
+            ReplicaRouter replicaRouter) {
+        this.projectDataVersionRepository = projectDataVersionRepository;
+        this.replicaRouter = replicaRouter;
+        // Its own short transaction, run after the commit of the change: the version row stays locked only a few milliseconds
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Increment the data version of a project once the current transaction is committed: the ETags given to clients
+     * before the change will not match anymore. The versions of a transaction are incremented once, whatever the
+     * number of calls.
+     *
+     * @param projectId the ID of the project whose data changes
+     */
+    public void incrementAfterCommit(long projectId) {
+        incrementAfterCommit(projectId, false);
+    }
+
+    /**
+     * Increment the data version and the functionality version of a project once the current transaction is committed,
+     * for a change of its functionalities or of their coverage.
+     *
+     * @param projectId the ID of the project whose functionalities change
+     */
+    public void incrementFunctionalityVersionAfterCommit(long projectId) {
+        incrementAfterCommit(projectId, true);
+    }
+
+    private void incrementAfterCommit(long projectId, boolean functionalities) {
+        final Long id = Long.valueOf(projectId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(Set.of(id), functionalities ? Set.of(id) : Set.of());
+            return;
+        }
+        PendingVersions pendingVersions = (PendingVersions) TransactionSynchronizationManager.getResource(PendingVersions.class);
+        if (pendingVersions == null) {
+            final PendingVersions newPendingVersions = new PendingVersions();
+            TransactionSynchronizationManager.bindResource(PendingVersions.class, newPendingVersions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(newPendingVersions.projectIds, newPendingVersions.functionalityProjectIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PendingVersions.class);
+                }
+            });
+            pendingVersions = newPendingVersions;
+        }
+        pendingVersions.projectIds.add(id);
+        if (functionalities) {
+            pendingVersions.functionalityProjectIds.add(id);
+        }
+    }
+
+    private void increment(Set<Long> projectIds, Set<Long> functionalityProjectIds) {
+        // Until the read-only replicas replicated the change, its dashboards are computed on the primary database
+        replicaRouter.recordWrite();
+        for (Long projectId : projectIds) {
+            final boolean functionalities = functionalityProjectIds.contains(projectId);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    final int incremented = (functionalities
+                            ? projectDataVersionRepository.incrementVersionAndFunctionalityVersion(projectId.longValue())
+                            : projectDataVersionRepository.incrementVersion(projectId.longValue()));
+                    if (incremented == 0) {
+                        projectDataVersionRepository.save(new ProjectDataVersion(projectId, 1, functionalities ? 1 : 0));
+                    }
+                });
+            } catch (RuntimeException e) {
+                LOG.warn("CACHE|Cannot increment the data version of the project {}: clients will keep their data until its next change",
+                        projectId, e);
+            }
+        }
+    }
+
+    /**
+     * A new version of a project changed through another node is a write not replicated yet: the response tagged with
+     * it must not be computed from a lagging read-only replica.
+     *
+     * @param projectId the ID of a project
+     * @return the current data version of the project (0 if its data never changed since versions exist)
+     */
+    public long getVersion(long projectId) {
+        final Long version = projectDataVersionRepository.findVersionByProjectId(projectId).orElse(Long.valueOf(0));
+        recordWriteIfChanged(lastReadVersions, projectId, version);
+        return version.longValue();
+    }
+
+    /**
+     * Like {@link #getVersion(long)}, but only changed by functionality changes: indexing executions does not change it.
+     *
+     * @param projectId the ID of a project
+     * @return the current functionality version of the project (0 if its functionalities never changed since versions exist)
+     */
+    public long getFunctionalityVersion(long projectId) {
+        final Long version = projectDataVersionRepository.findFunctionalityVersionByProjectId(projectId).orElse(Long.valueOf(0));
+        recordWriteIfChanged(lastReadFunctionalityVersions, projectId, version);
+        return version.longValue();
+    }
+
+    private void recordWriteIfChanged(Map<Long, Long> lastReads, long projectId, Long version) {
+        final Long previousVersion = lastReads.put(Long.valueOf(projectId), version);
+        if (previousVersion != null && !previousVersion.equals(version)) {
+            replicaRouter.recordWrite();
+        }
+    }
+
+    /**
+     * Read the version BEFORE computing the response: if the data changes meanwhile, the response is tagged with the
+     * previous version, and the next request of the client will be recomputed.
+     *
+     * @param projectId the ID of a project
+     * @return the strong ETag (quoted, as sent in HTTP headers) of the current data version of the project
+     */
+    public String getETag(long projectId) {
+        return "\"" + projectId + "-" + getVersion(projectId) + "\"";
+    }
+
+    /**
+     * The projects whose data version must be incremented after the commit of a transaction.
+     */
+    static class PendingVersions {
+
+        private final Set<Long> projectIds = new LinkedHashSet<>();
+
+        private final Set<Long> functionalityProjectIds = new HashSet<>();
+
+    }
+
+}
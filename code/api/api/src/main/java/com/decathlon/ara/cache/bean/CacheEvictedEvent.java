@@ -0,0 +1,31 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache.bean;
+
+import java.util.Collection;
+
+/**
+ * Published once a second-level cache region was evicted on this node, be it by this node after its transaction was
+ * committed, or by another node of the cluster, for the caches built on top of the evicted entities to be refreshed.
+ *
+ * @param region      the name of an entity or a collection role
+ * @param identifiers the identifiers of the evicted entities or of the owning entities, or null if the whole region
+ *                    was evicted
+ */
+public record CacheEvictedEvent(String region, Collection<Long> identifiers) {
+}
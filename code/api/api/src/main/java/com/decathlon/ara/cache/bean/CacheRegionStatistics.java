@@ -0,0 +1,134 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache.bean;
+
+/**
+ * The configuration and statistics of a second-level cache region, since startup.
+ */
+public class CacheRegionStatistics {
+
+    private final String name;
+
+    private final Long maxEntries;
+
+    private final long size;
+
+    private final Long heapSizeInBytes;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long puts;
+
+    private final long evictions;
+
+    private final long expirations;
+
+    private final long timeToLiveSeconds;
+
+    private final long timeToIdleSeconds;
+
+    @SuppressWarnings("squid:S00107") // Methods should not have too many parameters
+    public CacheRegionStatistics(String name, Long maxEntries, long size, Long heapSizeInBytes, long hits, long misses,
+            long puts, long evictions, long expirations, long timeToLiveSeconds, long timeToIdleSeconds) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.size = size;
+        this.heapSizeInBytes = heapSizeInBytes;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.timeToIdleSeconds = timeToIdleSeconds;
+    }
+
+    /**
+     * @return the name of the region: an entity name or a collection role
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the maximum number of entries of the region, or null if the region is sized by the memory budget of
+     * all regions
+     */
+    public Long getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return the number of entries of the region
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the heap memory used by the entries of the region, or null if not measured
+     */
+    public Long getHeapSizeInBytes() {
+        return heapSizeInBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the ratio of the reads found in the region, between 0 and 1, or 0 if the region was never read
+     */
+    public double getHitRatio() {
+        final long gets = hits + misses;
+        return gets == 0 ? 0 : (double) hits / gets;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    /**
+     * @return the number of entries removed because the region was full
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of entries removed because they lived or idled too long
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getTimeToLiveSeconds() {
+        return timeToLiveSeconds;
+    }
+
+    public long getTimeToIdleSeconds() {
+        return timeToIdleSeconds;
+    }
+
+}
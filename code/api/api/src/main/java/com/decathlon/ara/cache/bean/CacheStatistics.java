@@ -0,0 +1,47 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache.bean;
+
+import java.util.List;
+
+/**
+ * The statistics of all second-level cache regions.
+ */
+public class CacheStatistics {
+
+    private final Long memoryBudgetInBytes;
+
+    private final List<CacheRegionStatistics> regions;
+
+    public CacheStatistics(Long memoryBudgetInBytes, List<CacheRegionStatistics> regions) {
+        this.memoryBudgetInBytes = memoryBudgetInBytes;
+        this.regions = regions;
+    }
+
+    /**
+     * @return the heap memory shared by all regions, or null if each region is sized by its own number of entries
+     */
+    public Long getMemoryBudgetInBytes() {
+        return memoryBudgetInBytes;
+    }
+
+    public List<CacheRegionStatistics> getRegions() {
+        return regions;
+    }
+
+}
@@ -1,6 +1,8 @@
 package com.decathlon.ara.cartography;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,7 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.decathlon.ara.service.dto.functionality.FunctionalityDTO;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -28,33 +30,29 @@ public class AraCartographyMapper {
     private ObjectMapper objectMapper = new ObjectMapper();
 
     /**
-     * Serialize the given list of functionalities into a String representation (typically JSON).
+     * Serialize the given list of functionalities (typically as JSON) directly into the given output stream.
      *
-     * If an error occurs during the Serialization process, then log the exception in error level and return an empty
-     * JSON object (which makes it easy to differentiate from an empty functionalities list which will return an empty
-     * JSON array).
+     * The output stream is left open, so that the caller can finish (or encode) it.
      *
      * @param functionalities the functionalities to serialize
-     * @return the String representation of all the functionalities.
+     * @param outputStream the stream receiving the serialized functionalities
+     * @throws IOException if the functionalities cannot be serialized or written
      */
-    String asString(List<FunctionalityDTO> functionalities) {
-        try {
-            return objectMapper.writeValueAsString(functionalities);
-        } catch (JsonProcessingException ex) {
-            LOG.error("FEATURE|Unable to serialize the wanted cartography into an ARA export.", ex);
-            return "{}";
-        }
+    void write(List<FunctionalityDTO> functionalities, OutputStream outputStream) throws IOException {
+        objectMapper.writerFor(TYPE_REFERENCE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValue(outputStream, functionalities);
     }
 
     /**
-     * Unserialize the given String into a list of Functionality objects.
+     * Unserialize the given stream (mostly JSON) into a list of Functionality objects, parsing it while it is read.
      *
-     * @param jsonRepresentation the serialized string (mostly JSON)
+     * @param jsonRepresentation the serialized stream (mostly JSON)
      * @return the List of functionalities or an empty list if the JSON is empty or malformed.
      */
-    public List<FunctionalityDTO> asFunctionalities(String jsonRepresentation) {
+    public List<FunctionalityDTO> asFunctionalities(InputStream jsonRepresentation) {
         try {
-            return objectMapper.readValue(jsonRepresentation, TYPE_REFERENCE);
+            return objectMapper.readerFor(TYPE_REFERENCE).readValue(jsonRepresentation);
         } catch (IOException ex) {
             LOG.error("FEATURE|Unable to deserialize the given JSON into a list of Functionalities.", ex);
             return new ArrayList<>();
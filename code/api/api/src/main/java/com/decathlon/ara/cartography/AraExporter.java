@@ -3,7 +3,8 @@ package com.decathlon.ara.cartography;
 import com.decathlon.ara.service.dto.functionality.FunctionalityDTO;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -35,7 +36,7 @@ public class AraExporter extends Exporter {
     }
 
     @Override
-    public byte[] generate(List<FunctionalityDTO> functionalities, Map<String, String> requiredInfos) {
-        return MAPPER.asString(functionalities).getBytes(StandardCharsets.UTF_8);
+    protected void write(List<FunctionalityDTO> functionalities, Map<String, String> requiredInfos, OutputStream outputStream) throws IOException {
+        MAPPER.write(functionalities, outputStream);
     }
 }
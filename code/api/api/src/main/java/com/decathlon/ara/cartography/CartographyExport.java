@@ -0,0 +1,20 @@
+package com.decathlon.ara.cartography;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A cartography export, ready to be streamed (typically to an HTTP response) once all its functionalities are loaded.
+ */
+@FunctionalInterface
+public interface CartographyExport {
+
+    /**
+     * Write the export into the given output stream, and close it.
+     *
+     * @param outputStream the stream receiving the export
+     * @throws IOException if the export cannot be written to the stream
+     */
+    void writeTo(OutputStream outputStream) throws IOException;
+
+}
@@ -2,6 +2,8 @@ package com.decathlon.ara.cartography;
 
 import com.decathlon.ara.service.dto.functionality.FunctionalityDTO;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
@@ -36,24 +38,30 @@ public abstract class Exporter {
     public abstract String getFormat();
 
     /**
-     * Generate the byte array of functionalities to export and encode it in Base64.
+     * Stream the functionalities export, encoded in Base64, into the given output stream.
      *
-     * @param functionalities the functionalities to import
+     * The output stream is closed once the export is written.
+     *
+     * @param functionalities the functionalities to export
      * @param requiredInfos any required additional infos
-     * @return the b64 encoded byte array
+     * @param outputStream the stream receiving the b64 encoded export (typically the HTTP response)
+     * @throws IOException if the export cannot be written to the stream
      */
-    public byte[] generateAndEncodeB64(List<FunctionalityDTO> functionalities, Map<String,String> requiredInfos) {
-        return Base64.getEncoder().encode(this.generate(functionalities, requiredInfos));
+    public void generateAndEncodeB64(List<FunctionalityDTO> functionalities, Map<String, String> requiredInfos, OutputStream outputStream) throws IOException {
+        try (OutputStream encodingStream = Base64.getEncoder().wrap(outputStream)) {
+            this.write(functionalities, requiredInfos, encodingStream);
+        }
     }
 
     /**
-     * Generate the byte array functionalities export to transmit through HTTP.
+     * Write the functionalities export into the given output stream, without buffering the whole export in memory.
      *
      * @param functionalities the functionalities to export
      * @param requiredInfos any required additional infos
-     * @return the byte array representing the functionalities in the implemented class.
+     * @param outputStream the stream receiving the functionalities in the implemented format
+     * @throws IOException if the export cannot be written to the stream
      */
-    protected abstract byte[] generate(List<FunctionalityDTO> functionalities, Map<String,String> requiredInfos);
+    protected abstract void write(List<FunctionalityDTO> functionalities, Map<String, String> requiredInfos, OutputStream outputStream) throws IOException;
 
     /**
      * Check if the implemented exporter is suitable for the given export name.
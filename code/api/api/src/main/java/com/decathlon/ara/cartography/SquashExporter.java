@@ -1,20 +1,18 @@
 package com.decathlon.ara.cartography;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +31,7 @@ public class SquashExporter extends Exporter {
 
     static final String PROJECT_NAME = "squash_project_name";
     static final String USER = "squash_user";
+    private static final int ROWS_IN_MEMORY = 100;
     private static final Map<String, String> CRITICALITY_MAPPING = new HashMap<>();
     private static final String[] HEADERS = { "ACTION", "PROJECT_ID", "PROJECT_NAME", "REQ_PATH", "REQ_NUM", "REQ_VERSION_NUM", "REQ_VERSION_NAME",
             "REQ_VERSION_CRITICALITY", "REQ_VERSION_CATEGORY", "REQ_VERSION_STATUS", "REQ_VERSION_DESCRIPTION", "REQ_VERSION_#_TC",
@@ -57,42 +56,41 @@ public class SquashExporter extends Exporter {
 
     @Override
     public String getFormat() {
-        return "xls";
+        return "xlsx";
     }
 
     @Override
-    public byte[] generate(List<FunctionalityDTO> functionalities, Map<String, String> requiredInfos) {
+    protected void write(List<FunctionalityDTO> functionalities, Map<String, String> requiredInfos, OutputStream outputStream) throws IOException {
         String projectNameInSquash = requiredInfos.get(PROJECT_NAME);
         String userWhichMakesTheImport = requiredInfos.get(USER);
-
-        HSSFWorkbook workbook = new HSSFWorkbook();
-        Sheet sheet = workbook.createSheet("REQUIREMENT");
-
-        this.createHeaderRow(sheet);
-        Date importDate = new Date();
-        int idx = 1;
-        for (FunctionalityDTO functionality : functionalities) {
-            StringBuilder pathBuilder = new StringBuilder("/");
-            if (FunctionalityType.FUNCTIONALITY.name().equals(functionality.getType())) {
-                String criticity = CRITICALITY_MAPPING.get(functionality.getSeverity());
-                String funcName = functionality.getName();
-                pathBuilder.append(projectNameInSquash)
-                        .append(this.getFunctionalityPath(functionality, functionalities))
-                        .append("/").append(funcName);
-                this.addRowToSheet(sheet, idx++, projectNameInSquash,
-                        pathBuilder.toString(), functionality.getComment(), criticity,
-                        importDate, userWhichMakesTheImport);
+        Map<Long, String> paths = this.getFunctionalityPaths(functionalities);
+
+        // Only the last rows are kept in memory: the others are flushed to a temporary file until the workbook is written
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROWS_IN_MEMORY);
+        try {
+            Sheet sheet = workbook.createSheet("REQUIREMENT");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("d/m/yy"));
+
+            this.createHeaderRow(sheet);
+            Date importDate = new Date();
+            int idx = 1;
+            for (FunctionalityDTO functionality : functionalities) {
+                if (FunctionalityType.FUNCTIONALITY.name().equals(functionality.getType())) {
+                    String criticity = CRITICALITY_MAPPING.get(functionality.getSeverity());
+                    String path = "/" + projectNameInSquash + paths.get(functionality.getId()) + "/" + functionality.getName();
+                    this.addRowToSheet(sheet, idx++, projectNameInSquash, path, functionality.getComment(), criticity,
+                            importDate, dateStyle, userWhichMakesTheImport);
+                }
             }
-        }
 
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             workbook.write(outputStream);
+        } finally {
+            if (!workbook.dispose()) {
+                LOG.warn("FEATURE|squash|export|Unable to delete the temporary files of the Squash export");
+            }
             workbook.close();
-            return outputStream.toByteArray();
-        } catch (IOException ex) {
-            LOG.error("FEATURE|squash|export|Unable to write the Squash export", ex);
         }
-        return new byte[0];
     }
 
     @Override
@@ -113,7 +111,7 @@ public class SquashExporter extends Exporter {
         }
     }
 
-    void addRowToSheet(Sheet sheet, int index, String projectName, String path, String comment, String criticity, Date creationDate, String username) {
+    void addRowToSheet(Sheet sheet, int index, String projectName, String path, String comment, String criticity, Date creationDate, CellStyle dateStyle, String username) {
         Row row = sheet.createRow(index);
         this.addCellToRow(row, 0, "C");
         this.addCellToRow(row, 2, projectName);
@@ -124,9 +122,9 @@ public class SquashExporter extends Exporter {
         this.addCellToRow(row, 8, "CAT_UNDEFINED");
         this.addCellToRow(row, 9, "WORK_IN_PROGRESS");
         this.addCellToRow(row, 10, comment);
-        this.addCellToRow(row, 13, creationDate);
+        this.addCellToRow(row, 13, creationDate, dateStyle);
         this.addCellToRow(row, 14, username);
-        this.addCellToRow(row, 15, creationDate);
+        this.addCellToRow(row, 15, creationDate, dateStyle);
         this.addCellToRow(row, 16, username);
     }
 
@@ -135,28 +133,41 @@ public class SquashExporter extends Exporter {
         result.setCellValue(value);
     }
 
-    private void addCellToRow(Row row, int position, Date value) {
+    private void addCellToRow(Row row, int position, Date value, CellStyle dateStyle) {
         Cell result = row.createCell(position);
-        Workbook workbook = row.getSheet().getWorkbook();
-        CreationHelper creationHelper = workbook.getCreationHelper();
-        CellStyle dateStyle = workbook.createCellStyle();
-        dateStyle.setDataFormat(creationHelper.createDataFormat().getFormat("d/m/yy"));
         result.setCellStyle(dateStyle);
         result.setCellValue(value);
     }
 
-    private String getFunctionalityPath(FunctionalityDTO functionality, List<FunctionalityDTO> functionalities) {
-        if (null == functionality.getParentId()) {
-            return "";
+    /**
+     * Compute, for each functionality, the path of its parent folders (eg. "/folder/sub-folder"), or an empty string
+     * for root functionalities or functionalities whose parent is not exported.
+     *
+     * Each folder path is computed once and reused by all its descendants.
+     *
+     * @param functionalities the exported functionalities
+     * @return the parent path of each functionality, by functionality ID
+     */
+    Map<Long, String> getFunctionalityPaths(List<FunctionalityDTO> functionalities) {
+        Map<Long, FunctionalityDTO> functionalitiesById = new HashMap<>();
+        for (FunctionalityDTO functionality : functionalities) {
+            functionalitiesById.put(functionality.getId(), functionality);
+        }
+        Map<Long, String> paths = new HashMap<>();
+        for (FunctionalityDTO functionality : functionalities) {
+            this.computeFunctionalityPath(functionality, functionalitiesById, paths);
         }
-        Long parentId = functionality.getParentId();
-        FunctionalityDTO parent = functionalities.stream()
-                .filter(f -> f.getId().equals(parentId))
-                .findFirst()
-                .orElse(null);
-        if (parent == null) {
-            return "";
+        return paths;
+    }
+
+    private String computeFunctionalityPath(FunctionalityDTO functionality, Map<Long, FunctionalityDTO> functionalitiesById, Map<Long, String> paths) {
+        String path = paths.get(functionality.getId());
+        if (path != null) {
+            return path;
         }
-        return this.getFunctionalityPath(parent, functionalities) + "/" + parent.getName();
+        FunctionalityDTO parent = (functionality.getParentId() == null ? null : functionalitiesById.get(functionality.getParentId()));
+        path = (parent == null ? "" : this.computeFunctionalityPath(parent, functionalitiesById, paths) + "/" + parent.getName());
+        paths.put(functionality.getId(), path);
+        return path;
     }
 }
@@ -0,0 +1,60 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.ci.bean;
+
+/**
+ * The stages of an execution indexing, each one timed separately. Stages can nest: asset uploads happen while parsing reports.
+ */
+public enum IndexingStage {
+
+    /**
+     * Unzip the uploaded execution report.
+     */
+    UNZIP,
+
+    /**
+     * Parse the reports of a run into executed scenarios and errors.
+     */
+    PARSE,
+
+    /**
+     * Save screenshots and HTTP logs extracted from reports.
+     */
+    ASSET_UPLOAD,
+
+    /**
+     * Save the execution, its runs, executed scenarios and errors.
+     */
+    PERSIST,
+
+    /**
+     * Assign the new errors to the problems having a matching pattern.
+     */
+    PATTERN_MATCHING,
+
+    /**
+     * Update the first and last seen dates of the problems having new errors.
+     */
+    DENORMALIZATION,
+
+    /**
+     * The whole indexing of an execution, from parsing to denormalization.
+     */
+    TOTAL
+
+}
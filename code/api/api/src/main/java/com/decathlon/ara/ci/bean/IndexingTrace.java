@@ -0,0 +1,116 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.ci.bean;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * What the indexing of one execution spent its time on, and what it indexed: logged when the indexing ends.
+ */
+public class IndexingTrace {
+
+    private final long projectId;
+
+    private final String jobLink;
+
+    private final long startNanos;
+
+    private final Map<IndexingStage, Long> stageNanos = new EnumMap<>(IndexingStage.class);
+
+    private String jobUrl;
+
+    private long scenarios;
+
+    private long errors;
+
+    private long assets;
+
+    private long assetBytes;
+
+    public IndexingTrace(long projectId, String jobLink, long startNanos) {
+        this.projectId = projectId;
+        this.jobLink = jobLink;
+        this.startNanos = startNanos;
+    }
+
+    public synchronized void addStageDuration(IndexingStage stage, long nanos) {
+        stageNanos.merge(stage, Long.valueOf(nanos), Long::sum);
+    }
+
+    public synchronized void addScenarios(long scenarioCount, long errorCount) {
+        scenarios += scenarioCount;
+        errors += errorCount;
+    }
+
+    public synchronized void addAsset(long bytes) {
+        assets++;
+        assetBytes += bytes;
+    }
+
+    public long getElapsedNanos(long nowNanos) {
+        return nowNanos - startNanos;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public String getJobLink() {
+        return jobLink;
+    }
+
+    public String getJobUrl() {
+        return jobUrl;
+    }
+
+    public void setJobUrl(String jobUrl) {
+        this.jobUrl = jobUrl;
+    }
+
+    public synchronized long getStageNanos(IndexingStage stage) {
+        return stageNanos.getOrDefault(stage, Long.valueOf(0)).longValue();
+    }
+
+    public synchronized long getScenarios() {
+        return scenarios;
+    }
+
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    public synchronized long getAssets() {
+        return assets;
+    }
+
+    public synchronized long getAssetBytes() {
+        return assetBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        var stages = stageNanos.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + TimeUnit.NANOSECONDS.toMillis(entry.getValue().longValue()) + "ms")
+                .collect(Collectors.joining(", "));
+        return "[" + stages + "], " + scenarios + " scenario(s), " + errors + " error(s), " + assets + " asset(s) of " + assetBytes + " byte(s)";
+    }
+
+}
@@ -17,6 +17,10 @@
 
 package com.decathlon.ara.ci.service;
 
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.ci.bean.ExecutionIndexedEvent;
+import com.decathlon.ara.ci.bean.IndexingStage;
+import com.decathlon.ara.ci.bean.IndexingTrace;
 import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.domain.CycleDefinition;
 import com.decathlon.ara.domain.Error;
@@ -25,11 +29,16 @@ import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.enumeration.JobStatus;
 import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.scenario.common.service.ExecutedScenarioService;
+import com.decathlon.ara.service.DistinctValueService;
 import com.decathlon.ara.service.ErrorService;
 import com.decathlon.ara.service.ExecutionFilesProcessorService;
 import com.decathlon.ara.service.ProblemDenormalizationService;
+import com.decathlon.ara.service.StabilityService;
+import com.decathlon.ara.service.support.DistinctValueCounts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -55,16 +64,37 @@ public class ExecutionIndexerService {
 
     private final TransactionAppenderUtil transactionAppenderUtil;
 
+    private final ExecutedScenarioService executedScenarioService;
+
+    private final StabilityService stabilityService;
+
+    private final DistinctValueService distinctValueService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final IndexingMetrics indexingMetrics;
+
+    private final DataVersionService dataVersionService;
+
     public ExecutionIndexerService(ExecutionRepository executionRepository,
             ExecutionFilesProcessorService executionFilesProcessorService, ErrorService errorService,
             QualityEmailService qualityEmailService, ProblemDenormalizationService problemDenormalizationService,
-            TransactionAppenderUtil transactionAppenderUtil) {
+            TransactionAppenderUtil transactionAppenderUtil, ExecutedScenarioService executedScenarioService,
+            StabilityService stabilityService, DistinctValueService distinctValueService,
+            ApplicationEventPublisher applicationEventPublisher,
+            IndexingMetrics indexingMetrics, DataVersionService dataVersionService) {
         this.executionRepository = executionRepository;
         this.executionFilesProcessorService = executionFilesProcessorService;
         this.errorService = errorService;
         this.qualityEmailService = qualityEmailService;
         this.problemDenormalizationService = problemDenormalizationService;
         this.transactionAppenderUtil = transactionAppenderUtil;
+        this.executedScenarioService = executedScenarioService;
+        this.stabilityService = stabilityService;
+        this.distinctValueService = distinctValueService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.indexingMetrics = indexingMetrics;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -100,33 +130,74 @@ public class ExecutionIndexerService {
         String link = rawExecutionFolder.getAbsolutePath() + File.separator;
         LOG.info("EXECUTION|Began execution indexing {}/{} for link {}", branch, cycle, link);
 
-        Optional<Execution> previousExecution = executionRepository.findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(projectId, link);
-        List<Long> existingErrorIds = getErrorIds(previousExecution);
-
-        Optional<Execution> processedExecution = executionFilesProcessorService.getExecution(plannedIndexation);
-
-        if (!processedExecution.isPresent()) {
-            LOG.warn("EXECUTION|Could not extract any execution from the directory {}", link);
-            LOG.warn("EXECUTION|Some of the files may be incorrect, please check again");
-            return;
-        }
-
-        final Execution savedExecution = executionRepository.save(processedExecution.get());
-
-        List<Long> newErrorIds = new ArrayList<>(getErrorIds(Optional.of(savedExecution)));
-
-        newErrorIds.removeAll(existingErrorIds);
-        if (!newErrorIds.isEmpty()) {
-            final Set<Problem> updatedProblems = errorService.autoAssignProblemsToNewErrors(projectId, newErrorIds);
-            problemDenormalizationService.updateFirstAndLastSeenDateTimes(updatedProblems);
-        }
-
-        if (JobStatus.DONE.equals(savedExecution.getStatus())) {
-            transactionAppenderUtil.doAfterCommit(() -> safelySendQualityEmail(savedExecution));
+        IndexingTrace trace = indexingMetrics.startTrace(projectId.longValue(), link);
+        try {
+            Optional<Execution> previousExecution = executionRepository.findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(projectId, link);
+            List<Long> existingErrorIds = getErrorIds(previousExecution);
+            // Re-indexing removes the previous errors no longer there: their problems would keep counting them
+            Set<Long> existingProblemIds = problemDenormalizationService.findProblemIds(existingErrorIds);
+            DistinctValueCounts existingValues = previousExecution.map(DistinctValueCounts::of).orElseGet(DistinctValueCounts::new);
+
+            Optional<Execution> processedExecution = executionFilesProcessorService.getExecution(plannedIndexation);
+
+            if (!processedExecution.isPresent()) {
+                LOG.warn("EXECUTION|Could not extract any execution from the directory {}", link);
+                LOG.warn("EXECUTION|Some of the files may be incorrect, please check again");
+                return;
+            }
+
+            final Execution savedExecution = indexingMetrics.time(IndexingStage.PERSIST, IndexingMetrics.NO_TECHNOLOGY, () -> {
+                Execution execution = executionRepository.save(processedExecution.get());
+                executedScenarioService.appendToHistory(execution);
+                return execution;
+            });
+
+            List<Long> errorIds = getErrorIds(Optional.of(savedExecution));
+            List<Long> newErrorIds = new ArrayList<>(errorIds);
+            newErrorIds.removeAll(new HashSet<>(existingErrorIds));
+            if (!newErrorIds.isEmpty()) {
+                final Set<Problem> updatedProblems = indexingMetrics.time(IndexingStage.PATTERN_MATCHING, IndexingMetrics.NO_TECHNOLOGY,
+                        () -> errorService.autoAssignProblemsToNewErrors(projectId, newErrorIds));
+                indexingMetrics.time(IndexingStage.DENORMALIZATION, IndexingMetrics.NO_TECHNOLOGY, () -> {
+                    // Only the new errors are read: problems can have hundreds of thousands of older occurrences
+                    problemDenormalizationService.addOccurrences(
+                            updatedProblems.stream().map(Problem::getId).toList(), newErrorIds, savedExecution.getTestDateTime());
+                    return null;
+                });
+            }
+            List<Long> removedErrorIds = new ArrayList<>(existingErrorIds);
+            removedErrorIds.removeAll(new HashSet<>(errorIds));
+            if (!removedErrorIds.isEmpty() && !existingProblemIds.isEmpty()) {
+                indexingMetrics.time(IndexingStage.DENORMALIZATION, IndexingMetrics.NO_TECHNOLOGY, () -> {
+                    // The removed errors and their occurrences are deleted on flush
+                    executionRepository.flush();
+                    problemDenormalizationService.recomputeOccurrences(existingProblemIds);
+                    return null;
+                });
+            }
+
+            // Only the values added or removed by this indexing are applied: re-indexing an execution does not count it twice
+            DistinctValueCounts addedValues = DistinctValueCounts.of(savedExecution).minus(existingValues);
+            transactionAppenderUtil.doAfterCommit(() ->
+                    distinctValueService.record(projectId.longValue(), addedValues, savedExecution.getTestDateTime()));
+
+            if (JobStatus.DONE.equals(savedExecution.getStatus())) {
+                // Separate actions: a failing email must not prevent the stability from being recorded
+                transactionAppenderUtil.doAfterCommit(() -> safelySendQualityEmail(savedExecution));
+                transactionAppenderUtil.doAfterCommit(() -> stabilityService.recordExecution(savedExecution.getId().longValue()));
+            }
+
+            String url = processedExecution.get().getJobUrl();
+            trace.setJobUrl(url);
+
+            // Clients waiting for the quality status are notified once the transaction is committed
+            applicationEventPublisher.publishEvent(new ExecutionIndexedEvent(projectId.longValue(), url));
+            dataVersionService.incrementAfterCommit(projectId.longValue());
+
+            LOG.info("EXECUTION|Ended indexing execution {}/{} job URL {} and link {}", branch, cycle, url, link);
+        } finally {
+            indexingMetrics.endTrace(trace);
         }
-
-        String url = processedExecution.get().getJobUrl();
-        LOG.info("EXECUTION|Ended indexing execution {}/{} job URL {} and link {}", branch, cycle, url, link);
     }
 
     /**
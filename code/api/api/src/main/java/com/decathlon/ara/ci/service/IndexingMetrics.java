@@ -0,0 +1,269 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.ci.service;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.decathlon.ara.ci.bean.IndexingStage;
+import com.decathlon.ara.ci.bean.IndexingTrace;
+import com.decathlon.ara.domain.ExecutedScenario;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+/**
+ * Time the stages of execution indexings and count what they index, tagged by project and technology, for dashboards and
+ * alerts on indexing durations.<br>
+ * Stages run while indexing an execution are also added to the trace of this execution, logged when its indexing ends.
+ */
+@Component
+public class IndexingMetrics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IndexingMetrics.class);
+
+    static final String STAGE_METRIC = "ara.indexing.stage";
+
+    static final String ACTIVE_METRIC = "ara.indexing.active";
+
+    static final String SCENARIOS_METRIC = "ara.indexing.scenarios";
+
+    static final String ERRORS_METRIC = "ara.indexing.errors";
+
+    static final String ASSETS_METRIC = "ara.indexing.assets";
+
+    static final String BYTES_METRIC = "ara.indexing.bytes";
+
+    /**
+     * The technology tag of the stages and counters not specific to a scenario technology.
+     */
+    public static final String NO_TECHNOLOGY = "NONE";
+
+    private static final String UNKNOWN_PROJECT = "unknown";
+
+    private static final String PROJECT_TAG = "project";
+
+    private static final String TECHNOLOGY_TAG = "technology";
+
+    private final ThreadLocal<IndexingTrace> currentTrace = new ThreadLocal<>();
+
+    private final ThreadLocal<LongTaskTimer.Sample> activeSamples = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public IndexingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Some work done during a stage of an indexing.
+     *
+     * @param <T> the result of the work
+     * @param <E> the exception the work can throw
+     */
+    @FunctionalInterface
+    public interface StageWork<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Start tracing the indexing of an execution in the current thread: until {@link #endTrace(IndexingTrace)}, all stages and counts
+     * of the thread are added to this trace.
+     *
+     * @param projectId the ID of the project of the execution
+     * @param jobLink   the folder of the execution being indexed
+     * @return the trace of the indexing
+     */
+    public IndexingTrace startTrace(long projectId, String jobLink) {
+        var trace = new IndexingTrace(projectId, jobLink, System.nanoTime());
+        var activeSample = LongTaskTimer.builder(ACTIVE_METRIC)
+                .description("Execution indexings in progress, to detect stuck ones")
+                .tag(PROJECT_TAG, String.valueOf(projectId))
+                .register(meterRegistry)
+                .start();
+        currentTrace.set(trace);
+        activeSamples.set(activeSample);
+        return trace;
+    }
+
+    /**
+     * Stop tracing the indexing of an execution in the current thread: record its total duration and log its trace.
+     *
+     * @param trace the trace returned by {@link #startTrace(long, String)}
+     */
+    public void endTrace(IndexingTrace trace) {
+        currentTrace.remove();
+        var activeSample = activeSamples.get();
+        activeSamples.remove();
+        if (activeSample != null) {
+            activeSample.stop();
+        }
+        var nanos = trace.getElapsedNanos(System.nanoTime());
+        timer(IndexingStage.TOTAL, String.valueOf(trace.getProjectId()), NO_TECHNOLOGY).record(nanos, TimeUnit.NANOSECONDS);
+        LOG.info("EXECUTION|Indexed {} (job URL {}) in {} ms: {}", trace.getJobLink(), trace.getJobUrl(), Long.valueOf(TimeUnit.NANOSECONDS.toMillis(nanos)), trace);
+    }
+
+    /**
+     * Let some work of the indexing traced in the current thread run in another thread (like an asset upload), while still adding its
+     * stages and counts to this trace.
+     *
+     * @param work the work to run in another thread
+     * @param <T>  the result of the work
+     * @return the work, running in the trace of the current thread whatever the thread running it
+     */
+    public <T> Supplier<T> inCurrentTrace(Supplier<T> work) {
+        var trace = currentTrace.get();
+        return () -> {
+            var previousTrace = currentTrace.get();
+            currentTrace.set(trace);
+            try {
+                return work.get();
+            } finally {
+                if (previousTrace == null) {
+                    currentTrace.remove();
+                } else {
+                    currentTrace.set(previousTrace);
+                }
+            }
+        };
+    }
+
+    /**
+     * Time a stage of the indexing traced in the current thread, if any.
+     *
+     * @param stage      the stage to time
+     * @param technology the technology of the scenarios concerned by this stage, or {@link #NO_TECHNOLOGY}
+     * @param work       the work of the stage
+     * @param <T>        the result of the work
+     * @param <E>        the exception the work can throw
+     * @return the result of the work
+     * @throws E if the work failed (it is timed all the same)
+     */
+    public <T, E extends Exception> T time(IndexingStage stage, String technology, StageWork<T, E> work) throws E {
+        var trace = currentTrace.get();
+        return time(stage, trace == null ? UNKNOWN_PROJECT : String.valueOf(trace.getProjectId()), technology, trace, work);
+    }
+
+    /**
+     * Time a stage done outside of a traced indexing, like unzipping an uploaded report.
+     *
+     * @param stage      the stage to time
+     * @param projectId  the ID of the project of the execution
+     * @param technology the technology of the scenarios concerned by this stage, or {@link #NO_TECHNOLOGY}
+     * @param work       the work of the stage
+     * @param <T>        the result of the work
+     * @param <E>        the exception the work can throw
+     * @return the result of the work
+     * @throws E if the work failed (it is timed all the same)
+     */
+    public <T, E extends Exception> T time(IndexingStage stage, long projectId, String technology, StageWork<T, E> work) throws E {
+        return time(stage, String.valueOf(projectId), technology, currentTrace.get(), work);
+    }
+
+    private <T, E extends Exception> T time(IndexingStage stage, String project, String technology, IndexingTrace trace, StageWork<T, E> work) throws E {
+        var start = System.nanoTime();
+        try {
+            return work.run();
+        } finally {
+            var nanos = System.nanoTime() - start;
+            timer(stage, project, technology).record(nanos, TimeUnit.NANOSECONDS);
+            if (trace != null) {
+                trace.addStageDuration(stage, nanos);
+            }
+        }
+    }
+
+    /**
+     * Count the executed scenarios parsed from the reports of a run, and their errors.
+     *
+     * @param technology        the technology of the parsed reports
+     * @param executedScenarios the parsed executed scenarios
+     */
+    public void countScenarios(String technology, Collection<ExecutedScenario> executedScenarios) {
+        var errorCount = executedScenarios.stream().mapToLong(executedScenario -> executedScenario.getErrors().size()).sum();
+        var trace = currentTrace.get();
+        var project = trace == null ? UNKNOWN_PROJECT : String.valueOf(trace.getProjectId());
+        counter(SCENARIOS_METRIC, "Executed scenarios parsed from execution reports", project, technology).increment(executedScenarios.size());
+        counter(ERRORS_METRIC, "Errors parsed from execution reports", project, technology).increment(errorCount);
+        if (trace != null) {
+            trace.addScenarios(executedScenarios.size(), errorCount);
+        }
+    }
+
+    /**
+     * Count an asset (screenshot, HTTP logs...) saved while indexing the execution traced in the current thread, if any.
+     *
+     * @param technology the technology of the report the asset comes from
+     * @param bytes      the size of the asset
+     */
+    public void countAsset(String technology, long bytes) {
+        var trace = currentTrace.get();
+        var project = trace == null ? UNKNOWN_PROJECT : String.valueOf(trace.getProjectId());
+        counter(ASSETS_METRIC, "Screenshots and HTTP logs saved from execution reports", project, technology).increment();
+        bytesCounter(project, technology, "asset").increment(bytes);
+        if (trace != null) {
+            trace.addAsset(bytes);
+        }
+    }
+
+    /**
+     * Count the bytes of an uploaded execution report.
+     *
+     * @param projectId the ID of the project of the execution
+     * @param bytes     the size of the report
+     */
+    public void countReportBytes(long projectId, long bytes) {
+        bytesCounter(String.valueOf(projectId), NO_TECHNOLOGY, "report").increment(bytes);
+    }
+
+    private Timer timer(IndexingStage stage, String project, String technology) {
+        return Timer.builder(STAGE_METRIC)
+                .description("Time taken by each stage of execution indexings")
+                .tag("stage", stage.name())
+                .tag(PROJECT_TAG, project)
+                .tag(TECHNOLOGY_TAG, technology)
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String name, String description, String project, String technology) {
+        return Counter.builder(name)
+                .description(description)
+                .tag(PROJECT_TAG, project)
+                .tag(TECHNOLOGY_TAG, technology)
+                .register(meterRegistry);
+    }
+
+    private Counter bytesCounter(String project, String technology, String source) {
+        return Counter.builder(BYTES_METRIC)
+                .description("Bytes of uploaded execution reports and of the assets saved from them")
+                .baseUnit(BaseUnits.BYTES)
+                .tag(PROJECT_TAG, project)
+                .tag(TECHNOLOGY_TAG, technology)
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+}
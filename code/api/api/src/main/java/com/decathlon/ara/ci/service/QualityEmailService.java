@@ -18,6 +18,7 @@
 package com.decathlon.ara.ci.service;
 
 import com.decathlon.ara.configuration.AraConfiguration;
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
 import com.decathlon.ara.domain.Project;
 import com.decathlon.ara.domain.Team;
 import com.decathlon.ara.domain.enumeration.QualityStatus;
@@ -38,6 +39,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -75,6 +77,15 @@ public class QualityEmailService {
         this.settingService = settingService;
     }
 
+    /**
+     * Send the quality email of an execution, if the project has email recipients.<br>
+     * Runs in background, on the email pool, for the SMTP server to not slow down indexing.
+     *
+     * @param projectId   the ID of the project of the execution
+     * @param executionId the ID of the indexed execution
+     * @throws NotFoundException if the execution does not exist (logged by the asynchronous exception handler)
+     */
+    @Async(ExecutorsConfiguration.EMAIL_EXECUTOR)
     @Transactional(readOnly = true, noRollbackFor = Exception.class)
     public void sendQualityEmail(long projectId, long executionId) throws NotFoundException {
         ExecutionHistoryPointDTO execution = executionHistoryService.getExecution(projectId, executionId);
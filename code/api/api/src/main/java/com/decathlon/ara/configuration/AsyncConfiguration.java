@@ -19,6 +19,7 @@ package com.decathlon.ara.configuration;
 
 import java.util.concurrent.Executor;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -28,14 +29,29 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 @EnableAsync
 public class AsyncConfiguration implements AsyncConfigurer {
 
+    private final ExecutorsConfiguration executorsConfiguration;
+
+    private final ExecutorsProperties properties;
+
+    public AsyncConfiguration(ExecutorsConfiguration executorsConfiguration, ExecutorsProperties properties) {
+        this.executorsConfiguration = executorsConfiguration;
+        this.properties = properties;
+    }
+
+    /**
+     * The executor of @Async methods without qualifier, sized by ara.executors.async (see {@link ExecutorsProperties}).
+     * Other background work has its own pool in {@link ExecutorsConfiguration}.
+     *
+     * @return the default executor of @Async methods
+     */
+    @Bean
+    public ThreadPoolTaskExecutor asyncTaskExecutor() {
+        return executorsConfiguration.executor("async", properties.getAsync());
+    }
+
     @Override
     public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(1);
-        executor.setMaxPoolSize(1);
-        executor.setThreadNamePrefix("Async-");
-        executor.initialize();
-        return executor;
+        return asyncTaskExecutor();
     }
 
     @Override
@@ -0,0 +1,200 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.configuration;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * The named thread pools running ARA's background work, sized by {@link ExecutorsProperties}.<br>
+ * Bean names end with "TaskExecutor" or "TaskScheduler", and the pools are monitored as "executor.*" metrics tagged
+ * with the bean name without this suffix (eg. name=indexing).
+ */
+@Configuration
+public class ExecutorsConfiguration {
+
+    public static final String INDEXING_EXECUTOR = "indexingTaskExecutor";
+
+    public static final String ASSET_EXECUTOR = "assetTaskExecutor";
+
+    public static final String DEFECT_SYNC_EXECUTOR = "defectSyncTaskExecutor";
+
+    public static final String EMAIL_EXECUTOR = "emailTaskExecutor";
+
+    public static final String JIRA_SEARCH_EXECUTOR = "jiraSearchTaskExecutor";
+
+    public static final String RECORDING_EXECUTOR = "recordingTaskExecutor";
+
+    public static final String PURGE_SCHEDULER = "purgingTaskScheduler";
+
+    public static final String SCHEDULING_SCHEDULER = "schedulingTaskScheduler";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutorsConfiguration.class);
+
+    private final ExecutorsProperties properties;
+
+    public ExecutorsConfiguration(ExecutorsProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean(INDEXING_EXECUTOR)
+    public ThreadPoolTaskExecutor indexingTaskExecutor() {
+        return executor("indexing", properties.getIndexing());
+    }
+
+    /**
+     * @return the pool saving assets while indexing waits for their URLs: a discarded upload would make indexing wait forever,
+     * so the DISCARD policies are replaced by CALLER_RUNS
+     */
+    @Bean(ASSET_EXECUTOR)
+    public ThreadPoolTaskExecutor assetTaskExecutor() {
+        ExecutorsProperties.Pool pool = properties.getAsset();
+        if (pool.getRejectionPolicy() == ExecutorsProperties.RejectionPolicy.DISCARD ||
+                pool.getRejectionPolicy() == ExecutorsProperties.RejectionPolicy.DISCARD_OLDEST) {
+            LOG.warn("The asset pool cannot discard uploads: using the CALLER_RUNS rejection policy instead of {}", pool.getRejectionPolicy());
+            pool.setRejectionPolicy(ExecutorsProperties.RejectionPolicy.CALLER_RUNS);
+        }
+        return executor("asset", pool);
+    }
+
+    @Bean(DEFECT_SYNC_EXECUTOR)
+    public ThreadPoolTaskExecutor defectSyncTaskExecutor() {
+        return executor("defectSync", properties.getDefectSync());
+    }
+
+    @Bean(EMAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor emailTaskExecutor() {
+        return executor("email", properties.getEmail());
+    }
+
+    @Bean(JIRA_SEARCH_EXECUTOR)
+    public ThreadPoolTaskExecutor jiraSearchTaskExecutor() {
+        return executor("jiraSearch", properties.getJiraSearch());
+    }
+
+    @Bean(RECORDING_EXECUTOR)
+    public ThreadPoolTaskExecutor recordingTaskExecutor() {
+        return executor("recording", properties.getRecording());
+    }
+
+    @Bean(PURGE_SCHEDULER)
+    public ThreadPoolTaskScheduler purgingTaskScheduler() {
+        return scheduler("purging", properties.getPurge());
+    }
+
+    @Bean(SCHEDULING_SCHEDULER)
+    public ThreadPoolTaskScheduler schedulingTaskScheduler() {
+        return scheduler("scheduling", properties.getScheduling());
+    }
+
+    /**
+     * @param executors  all thread pool executors of the application, by bean name
+     * @param schedulers all thread pool schedulers of the application, by bean name
+     * @return a binder exporting the size, queue and completed tasks of each pool
+     */
+    @Bean
+    public MeterBinder executorMetrics(Map<String, ThreadPoolTaskExecutor> executors, Map<String, ThreadPoolTaskScheduler> schedulers) {
+        return registry -> {
+            executors.forEach((beanName, executor) -> bind(registry, beanName, "TaskExecutor", executor.getThreadPoolExecutor()));
+            schedulers.forEach((beanName, scheduler) -> bind(registry, beanName, "TaskScheduler", scheduler.getScheduledThreadPoolExecutor()));
+        };
+    }
+
+    private static void bind(MeterRegistry registry, String beanName, String suffix, ThreadPoolExecutor pool) {
+        String name = beanName.endsWith(suffix) ? beanName.substring(0, beanName.length() - suffix.length()) : beanName;
+        new ExecutorServiceMetrics(pool, name, Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * @param name the name of the pool, prefixing the names of its threads
+     * @param pool the sizing of the pool
+     * @return a pool with a fixed number of threads (stopped when idle) and a bounded queue, running its tasks on
+     * virtual threads if enabled and supported
+     */
+    ThreadPoolTaskExecutor executor(String name, ExecutorsProperties.Pool pool) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, pool.getSize()));
+        executor.setMaxPoolSize(Math.max(1, pool.getSize()));
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setQueueCapacity(Math.max(0, pool.getQueueCapacity()));
+        executor.setRejectedExecutionHandler(toHandler(pool.getRejectionPolicy()));
+        executor.setThreadNamePrefix(name + "-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        if (properties.isVirtualThreads()) {
+            ThreadFactory virtualThreadFactory = virtualThreadFactory(name + "-");
+            if (virtualThreadFactory != null) {
+                executor.setThreadFactory(virtualThreadFactory);
+            }
+        }
+        return executor;
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String name, ExecutorsProperties.Pool pool) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, pool.getSize()));
+        scheduler.setThreadNamePrefix(name + "-");
+        return scheduler;
+    }
+
+    static RejectedExecutionHandler toHandler(ExecutorsProperties.RejectionPolicy policy) {
+        if (policy == null) {
+            return new ThreadPoolExecutor.AbortPolicy();
+        }
+        return switch (policy) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+        };
+    }
+
+    /**
+     * @param prefix the prefix of the names of the created threads
+     * @return a factory of virtual threads, or null if the JDK does not support them (the API is called by reflection,
+     * for ARA to still build and run on Java 17)
+     */
+    static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, Long.valueOf(1));
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.warn("Virtual threads are not supported by Java {}: using platform threads", System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,253 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>Sizing of the thread pools running ARA's background work (see {@link ExecutorsConfiguration}).</p>
+ * <p>
+ * Each pool has a fixed number of threads and a bounded queue: once the queue is full, new tasks are handled by the
+ * rejection policy of the pool. Pools are monitored as "executor.*" metrics, tagged with the name of the pool.
+ * </p>
+ */
+@Configuration
+@ConfigurationProperties("ara.executors")
+public class ExecutorsProperties {
+
+    /**
+     * What to do with a task submitted to a pool whose threads are all busy and whose queue is full.
+     */
+    public enum RejectionPolicy {
+
+        /**
+         * Refuse the task: the caller gets an error (eg. an uploaded execution is refused with HTTP 503).
+         */
+        ABORT,
+
+        /**
+         * Run the task in the thread submitting it, slowing down the producer of tasks.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Silently drop the task.
+         */
+        DISCARD,
+
+        /**
+         * Drop the oldest queued task, and queue the new one.
+         */
+        DISCARD_OLDEST
+
+    }
+
+    /**
+     * The sizing of one pool.
+     */
+    public static class Pool {
+
+        /**
+         * The number of threads of the pool.
+         */
+        private int size;
+
+        /**
+         * The maximum number of tasks waiting for a thread of the pool (not used by scheduler pools).
+         */
+        private int queueCapacity;
+
+        /**
+         * What to do with new tasks once the queue is full (not used by scheduler pools).
+         */
+        private RejectionPolicy rejectionPolicy;
+
+        public Pool() {
+            this(1, 0, RejectionPolicy.CALLER_RUNS);
+        }
+
+        Pool(int size, int queueCapacity, RejectionPolicy rejectionPolicy) {
+            this.size = size;
+            this.queueCapacity = queueCapacity;
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+    }
+
+    /**
+     * Run the tasks of the executor pools on virtual threads, when the JDK supports them (Java 21 and later): the pools
+     * keep their size and queue limits, but blocked tasks (database, SSH, SMTP...) no longer hold a platform thread.
+     * Ignored, with a warning, on older JDKs.
+     */
+    private boolean virtualThreads;
+
+    /**
+     * Indexes the uploaded executions: an upload arriving when the queue is full is refused with HTTP 503.
+     */
+    private Pool indexing = new Pool(2, 100, RejectionPolicy.ABORT);
+
+    /**
+     * Saves the screenshots and HTTP logs of the indexed executions: once the queue is full, the indexing thread saves
+     * the assets itself (DISCARD policies are not allowed, as indexing waits for all assets).
+     */
+    private Pool asset = new Pool(4, 200, RejectionPolicy.CALLER_RUNS);
+
+    /**
+     * Synchronizes the defects of projects with their defect tracking systems.
+     */
+    private Pool defectSync = new Pool(4, 100, RejectionPolicy.ABORT);
+
+    /**
+     * Sends the quality emails of the indexed executions.
+     */
+    private Pool email = new Pool(1, 100, RejectionPolicy.CALLER_RUNS);
+
+    /**
+     * Requests the pages of Jira search results concurrently: once the queue is full, the synchronizing thread requests
+     * its pages itself.
+     */
+    private Pool jiraSearch = new Pool(4, 100, RejectionPolicy.CALLER_RUNS);
+
+    /**
+     * Records the stability and the distinct values of the indexed executions, after their commit: the queue is
+     * unbounded, as a refused recording would be lost for good.
+     */
+    private Pool recording = new Pool(1, Integer.MAX_VALUE, RejectionPolicy.ABORT);
+
+    /**
+     * Runs the methods annotated with @Async without qualifier: a task arriving when the queue is full is refused
+     * (and logged).
+     */
+    private Pool async = new Pool(1, 1000, RejectionPolicy.ABORT);
+
+    /**
+     * Schedules and runs the purges of executions (scheduler pool).
+     */
+    private Pool purge = new Pool(1, 0, RejectionPolicy.ABORT);
+
+    /**
+     * Runs the methods annotated with @Scheduled, like the defect synchronization dispatch (scheduler pool).
+     */
+    private Pool scheduling = new Pool(2, 0, RejectionPolicy.ABORT);
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public Pool getIndexing() {
+        return indexing;
+    }
+
+    public void setIndexing(Pool indexing) {
+        this.indexing = indexing;
+    }
+
+    public Pool getAsset() {
+        return asset;
+    }
+
+    public void setAsset(Pool asset) {
+        this.asset = asset;
+    }
+
+    public Pool getDefectSync() {
+        return defectSync;
+    }
+
+    public void setDefectSync(Pool defectSync) {
+        this.defectSync = defectSync;
+    }
+
+    public Pool getEmail() {
+        return email;
+    }
+
+    public void setEmail(Pool email) {
+        this.email = email;
+    }
+
+    public Pool getRecording() {
+        return recording;
+    }
+
+    public void setRecording(Pool recording) {
+        this.recording = recording;
+    }
+
+    public Pool getJiraSearch() {
+        return jiraSearch;
+    }
+
+    public void setJiraSearch(Pool jiraSearch) {
+        this.jiraSearch = jiraSearch;
+    }
+
+    public Pool getAsync() {
+        return async;
+    }
+
+    public void setAsync(Pool async) {
+        this.async = async;
+    }
+
+    public Pool getPurge() {
+        return purge;
+    }
+
+    public void setPurge(Pool purge) {
+        this.purge = purge;
+    }
+
+    public Pool getScheduling() {
+        return scheduling;
+    }
+
+    public void setScheduling(Pool scheduling) {
+        this.scheduling = scheduling;
+    }
+
+}
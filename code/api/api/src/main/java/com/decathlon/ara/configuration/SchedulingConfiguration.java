@@ -17,13 +17,32 @@
 
 package com.decathlon.ara.configuration;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
 @Configuration
 @ConditionalOnProperty(value = "ara.scheduling.enable", havingValue = "true", matchIfMissing = true)
 @EnableScheduling
-public class SchedulingConfiguration {
+public class SchedulingConfiguration implements SchedulingConfigurer {
+
+    private final ThreadPoolTaskScheduler schedulingTaskScheduler;
+
+    public SchedulingConfiguration(@Qualifier(ExecutorsConfiguration.SCHEDULING_SCHEDULER) ThreadPoolTaskScheduler schedulingTaskScheduler) {
+        this.schedulingTaskScheduler = schedulingTaskScheduler;
+    }
+
+    /**
+     * Run @Scheduled methods on their own pool, and not on the first scheduler found in the context (like the one of
+     * the purge).
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.setTaskScheduler(schedulingTaskScheduler);
+    }
 
 }
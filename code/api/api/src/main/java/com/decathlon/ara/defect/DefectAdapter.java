@@ -83,6 +83,17 @@ public interface DefectAdapter {
      */
     String getName();
 
+    /**
+     * Projects sharing the same endpoint of the same adapter share their failures: when it fails too often, the
+     * synchronization of all these projects is paused for a while.
+     *
+     * @param projectId the ID of the project in which to work
+     * @return the address of the defect tracking system used by the project (by default, one system for all projects)
+     */
+    default String getEndpoint(long projectId) {
+        return getCode();
+    }
+
     /**
      * @return the list of settings to configure this fetcher for a given project
      */
@@ -0,0 +1,122 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect.bean;
+
+import java.util.Date;
+
+/**
+ * The health of the defect synchronization of a project, updated by the synchronization threads and read by the API.
+ */
+public class DefectSyncHealth {
+
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final long projectId;
+
+    private volatile String adapterCode;
+
+    private volatile boolean running;
+
+    private volatile Date lastStartDateTime;
+
+    private volatile Date lastSuccessDateTime;
+
+    private volatile Date lastErrorDateTime;
+
+    private volatile String lastError;
+
+    private volatile int consecutiveFailures;
+
+    private volatile Date nextSyncDateTime;
+
+    private volatile CircuitState circuitState = CircuitState.CLOSED;
+
+    public DefectSyncHealth(long projectId) {
+        this.projectId = projectId;
+    }
+
+    public synchronized void start(String startedAdapterCode, Date now) {
+        this.adapterCode = startedAdapterCode;
+        this.running = true;
+        this.lastStartDateTime = now;
+    }
+
+    public synchronized void succeed(Date now, Date nextSync) {
+        this.running = false;
+        this.lastSuccessDateTime = now;
+        this.consecutiveFailures = 0;
+        this.nextSyncDateTime = nextSync;
+    }
+
+    public synchronized void fail(Date now, String error, Date nextSync) {
+        this.running = false;
+        this.lastErrorDateTime = now;
+        this.lastError = error;
+        this.consecutiveFailures++;
+        this.nextSyncDateTime = nextSync;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public String getAdapterCode() {
+        return adapterCode;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Date getLastStartDateTime() {
+        return lastStartDateTime;
+    }
+
+    public Date getLastSuccessDateTime() {
+        return lastSuccessDateTime;
+    }
+
+    public Date getLastErrorDateTime() {
+        return lastErrorDateTime;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public Date getNextSyncDateTime() {
+        return nextSyncDateTime;
+    }
+
+    public CircuitState getCircuitState() {
+        return circuitState;
+    }
+
+    public void setCircuitState(CircuitState circuitState) {
+        this.circuitState = circuitState;
+    }
+
+}
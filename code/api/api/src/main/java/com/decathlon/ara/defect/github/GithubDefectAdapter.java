@@ -61,18 +61,13 @@ public class GithubDefectAdapter implements DefectAdapter {
 
     @Override
     public List<Defect> getStatuses(long projectId, List<String> ids) throws FetchException {
-        String repositoryOwner = this.settingService.get(projectId, Settings.DEFECT_GITHUB_OWNER);
-        String repositoryName = this.settingService.get(projectId, Settings.DEFECT_GITHUB_REPONAME);
-        String authorizationToken = this.settingService.get(projectId, Settings.DEFECT_GITHUB_TOKEN);
         List<Long> issueIds = ids.stream()
                 .map(Long::valueOf)
                 .toList();
 
         try {
             return this.restClient
-                    .forOwnerAndRepository(repositoryOwner, repositoryName)
-                    .withToken(authorizationToken)
-                    .requestIssues(issueIds)
+                    .requestIssues(this.getRepository(projectId), issueIds)
                     .stream()
                     .map(this::toDefect)
                     .toList();
@@ -84,14 +79,9 @@ public class GithubDefectAdapter implements DefectAdapter {
 
     @Override
     public List<Defect> getChangedDefects(long projectId, Date since) throws FetchException {
-        String repositoryOwner = this.settingService.get(projectId, Settings.DEFECT_GITHUB_OWNER);
-        String repositoryName = this.settingService.get(projectId, Settings.DEFECT_GITHUB_REPONAME);
-        String authorizationToken = this.settingService.get(projectId, Settings.DEFECT_GITHUB_TOKEN);
         try {
             return this.restClient
-                    .forOwnerAndRepository(repositoryOwner, repositoryName)
-                    .withToken(authorizationToken)
-                    .getIssuesUpdatedSince(since)
+                    .getIssuesUpdatedSince(this.getRepository(projectId), since)
                     .stream()
                     .map(this::toDefect)
                     .toList();
@@ -126,11 +116,26 @@ public class GithubDefectAdapter implements DefectAdapter {
         return "GitHub";
     }
 
+    /**
+     * @return the GitHub repository of the project: projects sharing a repository share their failures
+     */
+    @Override
+    public String getEndpoint(long projectId) {
+        return this.getCode() + ":" + this.getRepository(projectId).path();
+    }
+
     @Override
     public List<SettingDTO> getSettingDefinitions() {
         return this.settingProviderService.getDefectGithubDefinitions();
     }
 
+    private GithubRepository getRepository(long projectId) {
+        return new GithubRepository(
+                this.settingService.get(projectId, Settings.DEFECT_GITHUB_OWNER),
+                this.settingService.get(projectId, Settings.DEFECT_GITHUB_REPONAME),
+                this.settingService.get(projectId, Settings.DEFECT_GITHUB_TOKEN));
+    }
+
     private Defect toDefect(GithubIssue issue) {
         String id = String.valueOf(issue.getNumber());
         ProblemStatus status = ProblemStatus.CLOSED;
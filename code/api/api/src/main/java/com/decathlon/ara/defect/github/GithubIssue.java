@@ -29,6 +29,16 @@ class GithubIssue {
     private Date updatedAt;
     private Date closedAt;
 
+    GithubIssue() {
+        // Used by Jackson to map the REST API responses
+    }
+
+    GithubIssue(long number, String state, Date closedAt) {
+        this.number = number;
+        this.state = state;
+        this.closedAt = closedAt;
+    }
+
     public String getUrl() {
         return url;
     }
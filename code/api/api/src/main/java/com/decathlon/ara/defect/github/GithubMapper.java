@@ -18,15 +18,25 @@
 package com.decathlon.ara.defect.github;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -82,4 +92,59 @@ class GithubMapper {
             return new ArrayList<>();
         }
     }
+
+    /**
+     * Build the body of a GitHub GraphQL API request.
+     *
+     * @param query     the GraphQL query
+     * @param variables the values of the variables of the query
+     * @return the json body to POST
+     * @throws JsonProcessingException if the variables cannot be serialized
+     */
+    String toGraphqlRequest(String query, Map<String, Object> variables) throws JsonProcessingException {
+        return this.objectMapper.writeValueAsString(Map.of("query", query, "variables", variables));
+    }
+
+    /**
+     * Map the issues (or pull requests) of the given GraphQL json response, queried as aliased fields of the
+     * repository. The issues not found are null fields with a NOT_FOUND error, and are skipped.<br>
+     * GraphQL states are upper case (and pull requests can be MERGED): they are lower cased to match the REST API.
+     *
+     * @param json the GitHub GraphQL API response json
+     * @return the list of GithubIssue found
+     * @throws IOException if the json is malformed, or if it has no repository or other errors (bad token, rate limit,
+     *                     unknown repository...): the issues it lacks must not be taken for deleted ones
+     */
+    List<GithubIssue> graphqlJsonToIssueList(String json) throws IOException {
+        List<GithubIssue> issues = new ArrayList<>();
+        try {
+            JsonNode root = this.objectMapper.readTree(json);
+            Set<String> notFoundAliases = new HashSet<>();
+            for (JsonNode error : root.path("errors")) {
+                JsonNode path = error.path("path");
+                if (!"NOT_FOUND".equals(error.path("type").asText()) || path.size() != 2) {
+                    throw new IOException("DEFECT|github|GraphQL error: " + error);
+                }
+                notFoundAliases.add(path.get(1).asText());
+            }
+            JsonNode repository = root.path("data").path("repository");
+            if (!repository.isObject()) {
+                throw new IOException("DEFECT|github|No repository in the GraphQL response: " + json);
+            }
+            for (Iterator<Map.Entry<String, JsonNode>> iterator = repository.fields(); iterator.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = iterator.next();
+                JsonNode issue = field.getValue();
+                if (issue.hasNonNull("number")) {
+                    String state = issue.path("state").asText("").toLowerCase(Locale.ROOT);
+                    Date closedAt = issue.hasNonNull("closedAt") ? Date.from(Instant.parse(issue.get("closedAt").asText())) : null;
+                    issues.add(new GithubIssue(issue.get("number").asLong(), state, closedAt));
+                } else if (!notFoundAliases.contains(field.getKey())) {
+                    throw new IOException("DEFECT|github|No issue and no NOT_FOUND error for " + field.getKey() + " in the GraphQL response");
+                }
+            }
+        } catch (DateTimeParseException ex) {
+            throw new IOException("DEFECT|github|Unable to cast this GraphQL json to a list of Github issues : " + json, ex);
+        }
+        return issues;
+    }
 }
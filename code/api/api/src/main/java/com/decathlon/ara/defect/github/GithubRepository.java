@@ -0,0 +1,43 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect.github;
+
+/**
+ * The GitHub repository of a project, with the token to access it: passed to each request of {@link GithubRestClient},
+ * which is shared by all projects.
+ *
+ * @param owner the owner (user or organization) of the repository
+ * @param name  the name of the repository
+ * @param token the Authorization token (usually a Personal Access Token)
+ */
+record GithubRepository(String owner, String name, String token) {
+
+    /**
+     * @return the owner and name of the repository, as in its URLs
+     */
+    String path() {
+        return owner + "/" + name;
+    }
+
+    @Override
+    public String toString() {
+        // Never log the token
+        return path();
+    }
+
+}
@@ -24,23 +24,41 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import org.apache.commons.collections4.ListUtils;
+
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
- * Provide Java implementation of the GitHub REST API.
+ * Provide Java implementation of the GitHub REST API.<br>
+ * Responses are cached with their ETag, so that requesting again an unchanged resource is a conditional request
+ * answered by 304 (Not Modified), which GitHub does not count in the rate limit. When the rate limit is exhausted, the
+ * client waits for its reset (up to {@link #maxRateLimitWaitSeconds}) before sending new requests.<br>
+ * The client is shared by all projects, synchronized concurrently: the repository and token are given to each request.
  *
  * @author Sylvain Nieuwlandt
  * @since 3.1.0
@@ -53,133 +71,307 @@ class GithubRestClient {
     static final String PROTOCOL = "https";
     static final String BASEPATH = "api.github.com";
 
+    /**
+     * Under this number of issues, {@link #requestIssues(GithubRepository, List)} requests them one by one: above, it
+     * looks them up with GraphQL queries of {@link #GRAPHQL_BATCH_SIZE} issues.
+     */
+    static final int BATCH_THRESHOLD = 10;
+
+    static final int GRAPHQL_BATCH_SIZE = 50;
+
+    private static final String GRAPHQL_ISSUE_FIELDS = "{ ... on Issue { number state closedAt } ... on PullRequest { number state closedAt } }";
+
+    /**
+     * The page size of GitHub when no per_page parameter is given.
+     */
+    static final int DEFAULT_PAGE_SIZE = 30;
+
+    private static final int MAX_CACHED_RESPONSES = 5000;
+
+    private static final int MILLISECONDS_PER_SECOND = 1000;
+
     @Autowired
     private GithubMapper githubMapper;
 
-    private HttpClient httpClient;
-    private String currentOwner;
-    private String currentRepo;
-    private String currentAuthToken;
+    /**
+     * The root URL of the GitHub REST API (to be changed for GitHub Enterprise).
+     */
+    @Value("${ara.defect.github.api-url:https://api.github.com}")
+    private String apiUrl = PROTOCOL + "://" + BASEPATH;
 
     /**
-     * Define the owner and repository to use for the next requests.
-     *
-     * @param owner the owner (user or organization) of the Repository
-     * @param repo  the name of the Repository
-     * @return the calling instance
+     * The maximum time to wait for the rate limit to reset before failing the requests.
      */
-    GithubRestClient forOwnerAndRepository(String owner, String repo) {
-        if (this.isNotEmpty(owner)) {
-            this.currentOwner = owner;
-        }
-        if (this.isNotEmpty(repo)) {
-            this.currentRepo = repo;
-        }
-        return this;
-    }
+    @Value("${ara.defect.github.max-rate-limit-wait-seconds:60}")
+    private long maxRateLimitWaitSeconds = 60;
 
     /**
-     * Sets the Authorization token to use for the next requests (usually a Personal Access Token).
-     *
-     * @param token the Authorization token
-     * @return the calling instance
+     * The maximum number of GraphQL queries (of {@link #GRAPHQL_BATCH_SIZE} issues) sent by a call to
+     * {@link #requestIssues(GithubRepository, List)}: above, the call fails rather than exhausting the rate limit.
      */
-    GithubRestClient withToken(String token) {
-        if (this.isNotEmpty(token)) {
-            this.currentAuthToken = token;
+    @Value("${ara.defect.github.max-batch-requests:100}")
+    private int maxBatchRequests = 100;
+
+    /**
+     * The last responses (parsed as issues) by request URI and token, with their ETag.
+     */
+    private final Map<String, CachedResponse> cachedResponses = Collections.synchronizedMap(new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > MAX_CACHED_RESPONSES;
         }
-        return this;
-    }
+    });
 
     /**
-     * Request the informations about the given issue, based on the owner and repository given before
-     * ({@link GithubRestClient#forOwnerAndRepository(String, String)})
+     * The time (in milliseconds) at which the exhausted rate limit of a token will reset.
+     */
+    private final Map<String, Long> rateLimitResets = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private HttpClient httpClient;
+
+    /**
+     * Request the informations about the given issue.
      *
-     * @param issueId the id of the wanted issue
+     * @param repository the repository of the issue, with the token to access it
+     * @param issueId    the id of the wanted issue
      * @return the informations about the issue in a POJO.
      * @throws IOException if Github can't be accessed
      * @throws URISyntaxException if the informations provided into the owner and repository name are invalid in the URI.
      */
-    Optional<GithubIssue> requestIssue(long issueId) throws IOException, URISyntaxException {
-        this.prepareClient();
-        String repoPath = this.currentOwner + "/" + this.currentRepo;
-        URI uri = new URIBuilder()
-                .setScheme(PROTOCOL)
-                .setHost(BASEPATH)
-                .setPath("/repos/" + repoPath + "/issues/" + issueId)
+    Optional<GithubIssue> requestIssue(GithubRepository repository, long issueId) throws IOException, URISyntaxException {
+        URI uri = this.uriBuilder("/repos/" + repository.path() + "/issues/" + issueId)
                 .setParameter("filter", "all")
                 .setParameter("state", "all")
                 .build();
-        HttpGet request = new HttpGet(uri);
-        request.addHeader("Authorization", "token " + this.currentAuthToken);
-        HttpResponse response = this.httpClient.execute(request);
-        int responseCode = response.getStatusLine().getStatusCode();
-        if (404 == responseCode || 410 == responseCode) {
-            return Optional.empty();
-        } else if (200 == responseCode) {
-            return this.githubMapper.jsonToIssue(this.getContentOf(response));
-        } else {
-            String msg = "DEFECT|github|Error while requesting issue " + issueId + " on repo " + repoPath + " : " + responseCode;
-            LOG.warn(msg);
-            throw new IOException(msg);
-        }
+        Optional<List<GithubIssue>> issues = this.get(repository, uri, "requesting issue " + issueId,
+                json -> this.githubMapper.jsonToIssue(json).map(List::of).orElse(Collections.emptyList()));
+        return issues.flatMap(list -> list.stream().findFirst());
     }
 
     /**
-     * Request the informations about several issues, based on the owner and repository given before
-     * ({@link GithubRestClient#forOwnerAndRepository(String, String)})
+     * Request the informations about several issues.<br>
+     * Up to {@link #BATCH_THRESHOLD} issues, they are requested one by one. Above, they are looked up by their number,
+     * {@link #GRAPHQL_BATCH_SIZE} at a time, with GraphQL queries (at most {@link #maxBatchRequests}).
      *
-     * @param issueIds the list of id of the wanted issues
+     * @param repository the repository of the issues, with the token to access it
+     * @param issueIds   the list of id of the wanted issues
      * @return the informations about the issues in a POJO. The list will contains only the issue with existing ids.
-     * @throws IOException if Github can't be accessed
+     * @throws IOException if Github can't be accessed or answers with errors, or if there are too many issues to look up
      * @throws URISyntaxException if the informations provided into the owner and repository name are invalid in the URI.
      */
-    List<GithubIssue> requestIssues(List<Long> issueIds) throws IOException, URISyntaxException {
+    List<GithubIssue> requestIssues(GithubRepository repository, List<Long> issueIds) throws IOException, URISyntaxException {
         List<GithubIssue> result = new ArrayList<>();
-        for (Long issueId : issueIds) {
-            this.requestIssue(issueId).ifPresent(result::add);
+        if (issueIds.size() <= BATCH_THRESHOLD) {
+            for (Long issueId : issueIds) {
+                this.requestIssue(repository, issueId).ifPresent(result::add);
+            }
+            return result;
+        }
+
+        List<List<Long>> batches = ListUtils.partition(issueIds.stream().distinct().toList(), GRAPHQL_BATCH_SIZE);
+        if (batches.size() > this.maxBatchRequests) {
+            String msg = "DEFECT|github|Too many issues to look up on repo " + repository.path() + " : " + issueIds.size();
+            LOG.warn(msg);
+            throw new IOException(msg);
+        }
+        URI uri = this.graphqlUri();
+        for (List<Long> batch : batches) {
+            String query = batch.stream()
+                    .map(issueId -> "i" + issueId + ": issueOrPullRequest(number: " + issueId + ") " + GRAPHQL_ISSUE_FIELDS)
+                    .collect(Collectors.joining(" ", "query($owner: String!, $name: String!) { repository(owner: $owner, name: $name) { ", " } }"));
+            HttpPost request = new HttpPost(uri);
+            request.setEntity(new StringEntity(
+                    this.githubMapper.toGraphqlRequest(query, Map.of("owner", repository.owner(), "name", repository.name())),
+                    ContentType.APPLICATION_JSON));
+            String json = this.execute(repository, request, "looking up " + batch.size() + " issues");
+            try {
+                result.addAll(this.githubMapper.graphqlJsonToIssueList(json));
+            } catch (IOException e) {
+                // A partial response must not make the issues it lacks look deleted
+                LOG.warn("DEFECT|github|Invalid response while looking up issues on repo {}", repository.path(), e);
+                throw e;
+            }
         }
         return result;
     }
 
     /**
-     * Request the informations about all the issues which has been updated since the given date, based on the owner
-     * and repository given before ({@link GithubRestClient#forOwnerAndRepository(String, String)})
+     * Request the informations about all the issues which has been updated since the given date.
      *
-     * @param time the start timestamp to search issues.
+     * @param repository the repository of the issues, with the token to access it
+     * @param time       the start timestamp to search issues.
      * @return the informations about the issues in a POJO.
      * @throws IOException if Github can't be accessed
      * @throws URISyntaxException if the informations provided into the owner and repository name are invalid in the URI.
      */
-    List<GithubIssue> getIssuesUpdatedSince(Date time) throws IOException, URISyntaxException {
-        this.prepareClient();
+    List<GithubIssue> getIssuesUpdatedSince(GithubRepository repository, Date time) throws IOException, URISyntaxException {
         List<GithubIssue> result = new ArrayList<>();
-        String repoPath = this.currentOwner + "/" + this.currentRepo;
         String date = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(time);
-        URI uri = new URIBuilder()
-                .setScheme(PROTOCOL)
-                .setHost(BASEPATH)
-                .setPath("/repos/" + repoPath + "/issues")
-                .setParameter("filter", "all")
-                .setParameter("state", "all")
-                .setParameter("since", date)
-                .build();
-        HttpGet request = new HttpGet(uri);
-        request.addHeader("Authorization", "token " + this.currentAuthToken);
-        HttpResponse response = this.httpClient.execute(request);
-        int responseCode = response.getStatusLine().getStatusCode();
-        if (200 == responseCode) {
-            result.addAll(this.githubMapper.jsonToIssueList(this.getContentOf(response)));
-        } else if (404 != responseCode) {
-            String msg = "DEFECT|github|Error while retrieving issues updated since " + date + " on repo " + repoPath + " : " + responseCode;
+        int page = 1;
+        List<GithubIssue> pageIssues;
+        do {
+            URIBuilder uriBuilder = this.uriBuilder("/repos/" + repository.path() + "/issues")
+                    .setParameter("filter", "all")
+                    .setParameter("state", "all")
+                    .setParameter("since", date);
+            if (page > 1) {
+                uriBuilder.setParameter("page", String.valueOf(page));
+            }
+            page++;
+            pageIssues = this.get(repository, uriBuilder.build(), "retrieving issues updated since " + date, this.githubMapper::jsonToIssueList)
+                    .orElse(Collections.emptyList());
+            result.addAll(pageIssues);
+        } while (pageIssues.size() == DEFAULT_PAGE_SIZE);
+        return result;
+    }
+
+    /**
+     * GET the given URI, conditionally if it was already requested with the same token.
+     *
+     * @param repository the requested repository, with the token to access it
+     * @param uri        the URI to request
+     * @param action     the description of the request, for error messages
+     * @param mapper     the mapper of the response body
+     * @return the issues of the response (from cache if not modified), or empty if the resource does not exist
+     * @throws IOException if Github can't be accessed, or if its rate limit does not reset soon enough
+     */
+    private Optional<List<GithubIssue>> get(GithubRepository repository, URI uri, String action, ResponseMapper mapper) throws IOException {
+        this.prepareClient();
+        String cacheKey = uri + "|" + Objects.hashCode(repository.token());
+        CachedResponse cachedResponse = this.cachedResponses.get(cacheKey);
+        for (boolean retry = true; ; retry = false) {
+            this.waitForRateLimitReset(repository);
+            HttpGet request = new HttpGet(uri);
+            request.addHeader("Authorization", "token " + repository.token());
+            if (cachedResponse != null) {
+                request.addHeader("If-None-Match", cachedResponse.eTag);
+            }
+            HttpResponse response = this.httpClient.execute(request);
+            int responseCode = response.getStatusLine().getStatusCode();
+            boolean rateLimited = this.recordRateLimit(repository, response, responseCode);
+            if (304 == responseCode && cachedResponse != null) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                return Optional.of(cachedResponse.issues);
+            } else if (404 == responseCode || 410 == responseCode) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                this.cachedResponses.remove(cacheKey);
+                return Optional.empty();
+            } else if (200 == responseCode) {
+                List<GithubIssue> issues = mapper.map(this.getContentOf(response));
+                String eTag = this.getHeader(response, "ETag");
+                if (eTag != null) {
+                    this.cachedResponses.put(cacheKey, new CachedResponse(eTag, issues));
+                }
+                return Optional.of(issues);
+            }
+            EntityUtils.consumeQuietly(response.getEntity());
+            if (!rateLimited || !retry) {
+                String msg = "DEFECT|github|Error while " + action + " on repo " + repository.path() + " : " + responseCode;
+                LOG.warn(msg);
+                throw new IOException(msg);
+            }
+        }
+    }
+
+    /**
+     * POST the given GraphQL request (never cached: GraphQL responses have no ETag).
+     *
+     * @param repository the requested repository, with the token to access it
+     * @param request    the request to send
+     * @param action     the description of the request, for error messages
+     * @return the body of the response
+     * @throws IOException if Github can't be accessed, or if its rate limit does not reset soon enough
+     */
+    private String execute(GithubRepository repository, HttpRequestBase request, String action) throws IOException {
+        this.prepareClient();
+        request.addHeader("Authorization", "bearer " + repository.token());
+        for (boolean retry = true; ; retry = false) {
+            this.waitForRateLimitReset(repository);
+            HttpResponse response = this.httpClient.execute(request);
+            int responseCode = response.getStatusLine().getStatusCode();
+            boolean rateLimited = this.recordRateLimit(repository, response, responseCode);
+            if (200 == responseCode) {
+                return this.getContentOf(response);
+            }
+            EntityUtils.consumeQuietly(response.getEntity());
+            if (!rateLimited || !retry) {
+                String msg = "DEFECT|github|Error while " + action + " on repo " + repository.path() + " : " + responseCode;
+                LOG.warn(msg);
+                throw new IOException(msg);
+            }
+        }
+    }
+
+    /**
+     * Remember when the rate limit will reset, if it is exhausted.
+     *
+     * @return true if the request was rejected because of the (primary or secondary) rate limit
+     */
+    private boolean recordRateLimit(GithubRepository repository, HttpResponse response, int responseCode) {
+        String remaining = this.getHeader(response, "X-RateLimit-Remaining");
+        String reset = this.getHeader(response, "X-RateLimit-Reset");
+        String retryAfter = this.getHeader(response, "Retry-After");
+        Long resetTime = null;
+        try {
+            if (retryAfter != null && (403 == responseCode || 429 == responseCode)) {
+                resetTime = Long.valueOf(System.currentTimeMillis() + Long.parseLong(retryAfter.trim()) * MILLISECONDS_PER_SECOND);
+            } else if ("0".equals(remaining) && reset != null) {
+                resetTime = Long.valueOf(Long.parseLong(reset.trim()) * MILLISECONDS_PER_SECOND);
+            }
+        } catch (NumberFormatException e) {
+            LOG.debug("DEFECT|github|Ignoring malformed rate limit headers", e);
+        }
+        String token = String.valueOf(repository.token());
+        if (resetTime == null) {
+            this.rateLimitResets.remove(token);
+            return false;
+        }
+        this.rateLimitResets.put(token, resetTime);
+        return 403 == responseCode || 429 == responseCode;
+    }
+
+    private void waitForRateLimitReset(GithubRepository repository) throws IOException {
+        Long resetTime = this.rateLimitResets.get(String.valueOf(repository.token()));
+        if (resetTime == null) {
+            return;
+        }
+        long waitMillis = resetTime.longValue() - System.currentTimeMillis();
+        if (waitMillis <= 0) {
+            return;
+        }
+        if (waitMillis > this.maxRateLimitWaitSeconds * MILLISECONDS_PER_SECOND) {
+            String msg = "DEFECT|github|Rate limit exceeded for repo " + repository.path() + " until " + new Date(resetTime.longValue());
             LOG.warn(msg);
             throw new IOException(msg);
         }
-        return result;
+        LOG.info("DEFECT|github|Rate limit exceeded: waiting {} ms before requesting repo {}", Long.valueOf(waitMillis), repository.path());
+        try {
+            Thread.sleep(waitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("DEFECT|github|Interrupted while waiting for the rate limit reset", e);
+        }
+    }
+
+    private String getHeader(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+
+    private URIBuilder uriBuilder(String path) throws URISyntaxException {
+        URIBuilder uriBuilder = new URIBuilder(this.apiUrl);
+        String basePath = uriBuilder.getPath() == null ? "" : uriBuilder.getPath().replaceAll("/+$", "");
+        return uriBuilder.setPath(basePath + path);
     }
 
-    private boolean isNotEmpty(String str) {
-        return null != str && !str.trim().isEmpty();
+    /**
+     * @return the GraphQL endpoint: https://api.github.com/graphql, or https://host/api/graphql for GitHub Enterprise
+     *         (whose REST API is https://host/api/v3)
+     */
+    private URI graphqlUri() throws URISyntaxException {
+        URIBuilder uriBuilder = new URIBuilder(this.apiUrl);
+        String basePath = uriBuilder.getPath() == null ? "" : uriBuilder.getPath().replaceAll("/+$", "");
+        return uriBuilder.setPath(basePath.replaceAll("/v3$", "") + "/graphql").build();
     }
 
     private String getContentOf(HttpResponse response) throws IOException {
@@ -195,9 +387,24 @@ class GithubRestClient {
         return content.toString();
     }
 
-    private void prepareClient() {
+    private synchronized void prepareClient() {
         if (null == this.httpClient) {
             this.httpClient = HttpClients.createDefault();
         }
     }
+
+    @FunctionalInterface
+    private interface ResponseMapper {
+        List<GithubIssue> map(String json);
+    }
+
+    private static class CachedResponse {
+        private final String eTag;
+        private final List<GithubIssue> issues;
+
+        CachedResponse(String eTag, List<GithubIssue> issues) {
+            this.eTag = eTag;
+            this.issues = issues;
+        }
+    }
 }
@@ -109,6 +109,18 @@ public class JiraDefectAdapter implements DefectAdapter {
         return "Jira";
     }
 
+    /**
+     * @return the Jira base URL of the project, or the adapter code if it is not configured
+     */
+    @Override
+    public String getEndpoint(long projectId) {
+        try {
+            return jiraRestClient.getJiraBaseUrl(projectId);
+        } catch (BadRequestException e) {
+            return getCode();
+        }
+    }
+
     @Override
     public List<SettingDTO> getSettingDefinitions() {
         return this.settingProviderService.getDefectJiraDefinitions();
@@ -18,15 +18,21 @@
 package com.decathlon.ara.defect.jira.api;
 
 import com.decathlon.ara.Entities;
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
 import com.decathlon.ara.defect.jira.api.model.JiraIssue;
 import com.decathlon.ara.defect.jira.api.model.JiraIssueSearchResults;
 import com.decathlon.ara.service.SettingService;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.support.Settings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
@@ -36,23 +42,74 @@ import org.springframework.web.client.RestTemplate;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 @Service
 public class JiraRestClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(JiraRestClient.class);
 
+    private static final String JQL_DATE_FORMAT = "yyyy-MM-dd HH:mm";
+
     @Autowired
     private SettingService settingService;
 
     @Autowired
     private RestTemplate restTemplate;
 
-    public JiraRestClient(SettingService settingService, RestTemplate restTemplate) {
+    /**
+     * The period after which all the issues of a project are downloaded again, instead of only the updated ones: it is
+     * how deleted issues are noticed.
+     */
+    @Value("${ara.defect.jira.full-sync-interval-in-hours:24}")
+    private long fullSyncIntervalInHours = 24;
+
+    /**
+     * The last downloaded issues, by key, by ARA project ID: they are downloaded again only if they were updated since
+     * the previous synchronization.
+     */
+    private final Map<Long, Map<String, JiraIssue>> cachedIssues = new ConcurrentHashMap<>();
+
+    /**
+     * The start date of the previous synchronization, by ARA project ID.
+     */
+    private final Map<Long, Date> lastSyncDates = new ConcurrentHashMap<>();
+
+    /**
+     * The start date of the previous download of all the issues, by ARA project ID.
+     */
+    private final Map<Long, Date> lastFullSyncDates = new ConcurrentHashMap<>();
+
+    private final Timer pageTimer;
+
+    private final Counter downloadedIssuesCounter;
+
+    private final Counter cachedIssuesCounter;
+
+    private final Executor jiraSearchExecutor;
+
+    public JiraRestClient(SettingService settingService, RestTemplate restTemplate, MeterRegistry meterRegistry,
+            @Qualifier(ExecutorsConfiguration.JIRA_SEARCH_EXECUTOR) Executor jiraSearchExecutor) {
         this.settingService = settingService;
         this.restTemplate = restTemplate;
+        this.jiraSearchExecutor = jiraSearchExecutor;
+        this.pageTimer = Timer.builder("ara.defect.jira.search.page")
+                .description("Time taken by Jira to answer a page of search results")
+                .register(meterRegistry);
+        this.downloadedIssuesCounter = Counter.builder("ara.defect.jira.issues")
+                .description("Jira issues of problems, downloaded or reused from the previous synchronization")
+                .tag("source", "downloaded")
+                .register(meterRegistry);
+        this.cachedIssuesCounter = Counter.builder("ara.defect.jira.issues")
+                .description("Jira issues of problems, downloaded or reused from the previous synchronization")
+                .tag("source", "cached")
+                .register(meterRegistry);
     }
 
     /**
@@ -95,7 +152,7 @@ public class JiraRestClient {
      * @return the Jira base url
      * @throws BadRequestException thrown if not found
      */
-    private String getJiraBaseUrl(Long projectId) throws BadRequestException {
+    public String getJiraBaseUrl(Long projectId) throws BadRequestException {
         String baseUrl = settingService.get(projectId, Settings.DEFECT_JIRA_BASE_URL);
         if (StringUtils.isBlank(baseUrl)) {
             LOG.error("DEFECT|jira|Jira base url not found for this project ({})", projectId);
@@ -134,7 +191,9 @@ public class JiraRestClient {
     }
 
     /**
-     * Get Jira issues matching a list of keys
+     * Get Jira issues matching a list of keys.<br>
+     * The first time for a project (and then every {@link #fullSyncIntervalInHours}), all issues are downloaded. Next
+     * times, only the issues updated since the previous call (or not downloaded yet) are searched and downloaded again.
      * @param projectId the project id
      * @param issueKeys the Jira issue keys
      * @return the matching Jira issues
@@ -145,10 +204,50 @@ public class JiraRestClient {
             return new ArrayList<>();
         }
 
-        String codes = String.join(", ", issueKeys);
-        String jql = String.format("issueKey in (%s)", codes);
+        Date syncDate = new Date();
+        Map<String, JiraIssue> previousIssues = cachedIssues.get(projectId);
+        Date lastSyncDate = lastSyncDates.get(projectId);
+        Date lastFullSyncDate = lastFullSyncDates.get(projectId);
+        if (previousIssues == null || lastSyncDate == null || lastFullSyncDate == null ||
+                syncDate.getTime() - lastFullSyncDate.getTime() >= TimeUnit.HOURS.toMillis(fullSyncIntervalInHours)) {
+            List<JiraIssue> issues = searchJiraIssues(projectId, getIssueKeysJql(issueKeys));
+            downloadedIssuesCounter.increment(issues.size());
+            cachedIssues.put(projectId, issues.stream()
+                    .collect(Collectors.toConcurrentMap(JiraIssue::getKey, issue -> issue, (first, second) -> second)));
+            lastSyncDates.put(projectId, syncDate);
+            lastFullSyncDates.put(projectId, syncDate);
+            return issues;
+        }
+
+        // JQL dates have a minute precision: search from the minute before the previous synchronization
+        String updatedDateJql = String.format("updated >= \"%s\"",
+                new SimpleDateFormat(JQL_DATE_FORMAT).format(new Date(lastSyncDate.getTime() - TimeUnit.MINUTES.toMillis(1))));
+        List<String> unknownIssueKeys = issueKeys.stream()
+                .filter(key -> !previousIssues.containsKey(key))
+                .toList();
+        String jql = String.format("%s AND (%s", getIssueKeysJql(issueKeys), updatedDateJql);
+        if (!unknownIssueKeys.isEmpty()) {
+            jql += " OR " + getIssueKeysJql(unknownIssueKeys);
+        }
+        jql += ")";
+        List<JiraIssue> updatedIssues = searchJiraIssues(projectId, jql);
+        updatedIssues.forEach(issue -> previousIssues.put(issue.getKey(), issue));
+        lastSyncDates.put(projectId, syncDate);
+
+        List<JiraIssue> issues = issueKeys.stream()
+                .distinct()
+                .map(previousIssues::get)
+                .filter(Objects::nonNull)
+                .toList();
+        LOG.debug("DEFECT|jira|[Jira] {} issues downloaded, {} unchanged issues reused", updatedIssues.size(),
+                issues.size() - updatedIssues.size());
+        downloadedIssuesCounter.increment(updatedIssues.size());
+        cachedIssuesCounter.increment((double) Math.max(0, issues.size() - updatedIssues.size()));
+        return issues;
+    }
 
-        return searchJiraIssues(projectId, jql);
+    private static String getIssueKeysJql(List<String> issueKeys) {
+        return String.format("issueKey in (%s)", String.join(", ", issueKeys));
     }
 
     /**
@@ -183,7 +282,7 @@ public class JiraRestClient {
         final Integer firstResultsNumber = initialMaxResults <= actualMaxResults ? initialMaxResults : actualMaxResults;
         final Integer remainingResultsNumber = total - firstResultsNumber;
 
-        List<JiraIssue> allIssues = searchResult.getIssues();
+        List<JiraIssue> allIssues = new ArrayList<>(searchResult.getIssues());
         LOG.debug("DEFECT|jira|[Jira] Getting issues from [{}]", finalUrl);
         LOG.debug("DEFECT|jira|[Jira] Planning to load {} issues...", total);
         if (remainingResultsNumber > 0) {
@@ -196,21 +295,53 @@ public class JiraRestClient {
                     .map(startIndex -> String.format("%s&startAt=%s&maxResults=%d", urlWithJQL, startIndex, actualMaxResults))
                     .toList();
             LOG.debug("DEFECT|jira|[Jira] {} API calls required", paginatedUrls.size());
+            allIssues.addAll(getPaginatedIssues(header, paginatedUrls));
+        }
+
+        LOG.debug("DEFECT|jira|[Jira] {} issues effectively loaded", allIssues.size());
+        return allIssues;
+    }
+
+    /**
+     * Request the given pages of search results concurrently, in the Jira search pool shared by all projects (sized by
+     * ara.executors.jira-search)
+     * @param header the Jira header
+     * @param paginatedUrls the URLs of the pages to request
+     * @return the issues of all pages, in the order of the pages
+     * @throws BadRequestException thrown if (one of) the API call(s) returned an error code
+     */
+    private List<JiraIssue> getPaginatedIssues(HttpHeaders header, List<String> paginatedUrls) throws BadRequestException {
+        List<FutureTask<JiraIssueSearchResults>> pages = new ArrayList<>();
+        try {
             for (String paginatedUrl : paginatedUrls) {
-                JiraIssueSearchResults paginatedSearchResult = getSearchResultsFromHeaderAndUrl(header, paginatedUrl);
+                FutureTask<JiraIssueSearchResults> page = new FutureTask<>(() -> getSearchResultsFromHeaderAndUrl(header, paginatedUrl));
+                pages.add(page);
+                jiraSearchExecutor.execute(page);
+            }
+            List<JiraIssue> issues = new ArrayList<>();
+            for (int i = 0; i < pages.size(); i++) {
+                JiraIssueSearchResults paginatedSearchResult = pages.get(i).get();
                 if (paginatedSearchResult != null) {
                     List<JiraIssue> paginatedIssues = paginatedSearchResult.getIssues();
-                    LOG.debug("DEFECT|jira|[Jira] Pagination: loaded {} issues from url [{}]", paginatedIssues.size(), paginatedUrl);
-                    allIssues = Stream.of(allIssues, paginatedIssues)
-                            .flatMap(Collection::stream)
-                            .toList();
-                    LOG.debug("DEFECT|jira|[Jira] Pagination: Now reaching {} issues", allIssues.size());
+                    LOG.debug("DEFECT|jira|[Jira] Pagination: loaded {} issues from url [{}]", paginatedIssues.size(), paginatedUrls.get(i));
+                    issues.addAll(paginatedIssues);
                 }
             }
+            return issues;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BadRequestException badRequestException) {
+                throw badRequestException;
+            } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BadRequestException("DEFECT|jira|[Jira] Interrupted while searching issues", Entities.SETTING, "jira_request_interrupted");
+        } finally {
+            // Do not request the remaining pages of a failed search
+            pages.forEach(page -> page.cancel(true));
         }
-
-        LOG.debug("DEFECT|jira|[Jira] {} issues effectively loaded", allIssues.size());
-        return allIssues;
     }
 
     /**
@@ -226,7 +357,13 @@ public class JiraRestClient {
         HttpEntity<JiraIssueSearchResults> request = new HttpEntity<>(header);
         final ParameterizedTypeReference<JiraIssueSearchResults> responseType = new ParameterizedTypeReference<>() {
         };
-        ResponseEntity<JiraIssueSearchResults> response = restTemplate.exchange(url, HttpMethod.GET, request, responseType);
+        long start = System.nanoTime();
+        ResponseEntity<JiraIssueSearchResults> response;
+        try {
+            response = restTemplate.exchange(url, HttpMethod.GET, request, responseType);
+        } finally {
+            pageTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
 
         HttpStatus httpStatus = response.getStatusCode();
         boolean responseIsNotOK = !HttpStatus.OK.equals(httpStatus);
@@ -255,12 +392,17 @@ public class JiraRestClient {
             projectCodesJQL = String.format("project in (%s) AND ", String.join(", ", splitProjectCodes));
         }
 
-        DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        DateFormat dateFormat = new SimpleDateFormat(JQL_DATE_FORMAT);
         String formattedUpdateDate = dateFormat.format(updateDate);
         String updatedDateJQL = String.format("updated > \"%s\"", formattedUpdateDate);
         String finalJql = String.format("%s%s", projectCodesJQL, updatedDateJQL);
 
-        return searchJiraIssues(projectId, finalJql);
+        List<JiraIssue> issues = searchJiraIssues(projectId, finalJql);
+        Map<String, JiraIssue> previousIssues = cachedIssues.get(projectId);
+        if (previousIssues != null) {
+            issues.forEach(issue -> previousIssues.computeIfPresent(issue.getKey(), (key, previousIssue) -> issue));
+        }
+        return issues;
     }
 
 }
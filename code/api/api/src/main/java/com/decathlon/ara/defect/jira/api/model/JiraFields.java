@@ -82,6 +82,10 @@ public class JiraFields {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
     private ZonedDateTime resolutionDate;
 
+    @JsonProperty("updated")
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    private ZonedDateTime updateDate;
+
     public List<String> getLabels() {
         return labels;
     }
@@ -157,4 +161,8 @@ public class JiraFields {
     public ZonedDateTime getResolutionDate() {
         return resolutionDate;
     }
+
+    public ZonedDateTime getUpdateDate() {
+        return updateDate;
+    }
 }
@@ -188,6 +188,14 @@ public class RtcDefectAdapter implements DefectAdapter {
         return "RTC (IBM Rational Team Concert)";
     }
 
+    /**
+     * @return the RTC root URL of the project
+     */
+    @Override
+    public String getEndpoint(long projectId) {
+        return settingService.get(projectId, Settings.DEFECT_RTC_ROOT_URL);
+    }
+
     @Override
     public List<SettingDTO> getSettingDefinitions() {
         return settingProviderService.getDefectRtcDefinitions();
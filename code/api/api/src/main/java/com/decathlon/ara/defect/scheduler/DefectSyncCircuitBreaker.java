@@ -0,0 +1,74 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect.scheduler;
+
+import java.util.Date;
+
+import com.decathlon.ara.defect.bean.DefectSyncHealth.CircuitState;
+
+/**
+ * Stops synchronizing defects with a defect tracking system after too many consecutive failures, whatever the
+ * project, and lets one trial synchronization through once the tracking system was left alone for a while.
+ */
+class DefectSyncCircuitBreaker {
+
+    private final int failureThreshold;
+
+    private final long openDurationInMilliseconds;
+
+    private CircuitState state = CircuitState.CLOSED;
+
+    private int consecutiveFailures;
+
+    private Date openUntil;
+
+    DefectSyncCircuitBreaker(int failureThreshold, long openDurationInMilliseconds) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationInMilliseconds = openDurationInMilliseconds;
+    }
+
+    /**
+     * @param now the current date and time
+     * @return true if a synchronization can be started now: in HALF_OPEN state, only the first asker gets a true
+     */
+    synchronized boolean tryAcquire(Date now) {
+        if (state == CircuitState.OPEN && !now.before(openUntil)) {
+            state = CircuitState.HALF_OPEN;
+            return true;
+        }
+        return state == CircuitState.CLOSED;
+    }
+
+    synchronized void recordSuccess() {
+        state = CircuitState.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void recordFailure(Date now) {
+        consecutiveFailures++;
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = CircuitState.OPEN;
+            openUntil = new Date(now.getTime() + openDurationInMilliseconds);
+        }
+    }
+
+    synchronized CircuitState getState() {
+        return state;
+    }
+
+}
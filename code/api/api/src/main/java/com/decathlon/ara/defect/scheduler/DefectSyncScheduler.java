@@ -0,0 +1,258 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect.scheduler;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.decathlon.ara.ci.util.FetchException;
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
+import com.decathlon.ara.defect.DefectAdapter;
+import com.decathlon.ara.defect.bean.DefectSyncHealth;
+import com.decathlon.ara.domain.Project;
+import com.decathlon.ara.repository.ProjectRepository;
+import com.decathlon.ara.service.DefectService;
+import com.decathlon.ara.service.ScheduledJobLeaseService;
+import com.decathlon.ara.service.util.DateService;
+
+/**
+ * Synchronizes the defects of each project independently: a slow or failing defect tracking system only delays the
+ * projects using it.<br>
+ * Each project synchronization runs in its own thread with a timeout. A failing project is retried with an
+ * exponential backoff, and a defect tracking system failing for too many consecutive synchronizations is left alone
+ * for a while by all projects using it.
+ */
+@Component
+public class DefectSyncScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DefectSyncScheduler.class);
+
+    private static final String DEFECT_SYNC_JOB = "defect-sync";
+
+    /**
+     * The delay between the end of a successful synchronization of a project and its next synchronization.
+     */
+    @Value("${ara.defectSyncSchedulingDelayInMilliseconds}")
+    private long syncDelayInMilliseconds;
+
+    @Value("${ara.defect.sync.timeout-in-seconds:300}")
+    private long timeoutInSeconds;
+
+    @Value("${ara.defect.sync.max-backoff-in-seconds:3600}")
+    private long maxBackoffInSeconds;
+
+    @Value("${ara.defect.sync.circuit-failure-threshold:5}")
+    private int circuitFailureThreshold;
+
+    @Value("${ara.defect.sync.circuit-open-in-seconds:300}")
+    private long circuitOpenInSeconds;
+
+    /**
+     * The node dispatching the synchronizations keeps doing so while it renews its lease at each dispatch: another node
+     * takes over if the lease is not renewed for this duration.
+     */
+    @Value("${ara.defect.sync.leader-lease-in-seconds:30}")
+    private long leaderLeaseInSeconds;
+
+    private final Map<Long, DefectSyncHealth> healths = new ConcurrentHashMap<>();
+
+    private final Map<Long, RunningSync> runningSyncs = new ConcurrentHashMap<>();
+
+    private final Map<String, DefectSyncCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private final ProjectRepository projectRepository;
+
+    private final DefectService defectService;
+
+    private final DateService dateService;
+
+    private final ScheduledJobLeaseService scheduledJobLeaseService;
+
+    private final AsyncTaskExecutor executor;
+
+    public DefectSyncScheduler(ProjectRepository projectRepository, DefectService defectService, DateService dateService,
+            ScheduledJobLeaseService scheduledJobLeaseService,
+            @Qualifier(ExecutorsConfiguration.DEFECT_SYNC_EXECUTOR) AsyncTaskExecutor executor) {
+        this.projectRepository = projectRepository;
+        this.defectService = defectService;
+        this.dateService = dateService;
+        this.scheduledJobLeaseService = scheduledJobLeaseService;
+        this.executor = executor;
+    }
+
+    /**
+     * If this node holds the defect synchronization lease of the cluster, cancel the synchronizations running for too
+     * long, and start the ones of the projects that are due.
+     */
+    @Scheduled(fixedDelayString = "${ara.defect.sync.dispatch-delay-in-milliseconds:5000}",
+            initialDelayString = "${ara.defectSyncSchedulingInitialDelayInMilliseconds}")
+    public void dispatch() {
+        final Duration leaderLease = Duration.ofSeconds(leaderLeaseInSeconds);
+        scheduledJobLeaseService.runExclusively(DEFECT_SYNC_JOB, leaderLease, leaderLease, this::dispatchDueProjects);
+    }
+
+    private void dispatchDueProjects() {
+        final Date now = dateService.now();
+        cancelTimedOutSyncs(now);
+
+        final Set<Long> projectIdsWithAdapter = new HashSet<>();
+        for (Project project : projectRepository.findAllByOrderByName()) {
+            final Optional<DefectAdapter> adapter;
+            try {
+                adapter = defectService.getAdapter(project.getId().longValue());
+            } catch (RuntimeException e) {
+                LOG.error("DEFECT|Cannot get the defect adapter of project {}", project.getName(), e);
+                continue;
+            }
+            if (adapter.isPresent()) {
+                projectIdsWithAdapter.add(project.getId());
+                dispatch(project, adapter.get(), now);
+            }
+        }
+        healths.keySet().retainAll(projectIdsWithAdapter);
+    }
+
+    private void dispatch(Project project, DefectAdapter adapter, Date now) {
+        final Long projectId = project.getId();
+        final DefectSyncHealth health = healths.computeIfAbsent(projectId, DefectSyncHealth::new);
+        if (runningSyncs.containsKey(projectId) ||
+                (health.getNextSyncDateTime() != null && now.before(health.getNextSyncDateTime()))) {
+            return;
+        }
+
+        final DefectSyncCircuitBreaker circuitBreaker = getCircuitBreaker(projectId.longValue(), adapter);
+        final boolean acquired = circuitBreaker.tryAcquire(now);
+        health.setCircuitState(circuitBreaker.getState());
+        if (!acquired) {
+            return;
+        }
+
+        final RunningSync run = new RunningSync(health, circuitBreaker, now);
+        runningSyncs.put(projectId, run);
+        health.start(adapter.getCode(), now);
+        try {
+            run.future = executor.submit(() -> sync(project, adapter, run));
+        } catch (TaskRejectedException e) {
+            if (runningSyncs.remove(projectId, run)) {
+                LOG.error("DEFECT|Too many defect synchronizations waiting: project {} will be synchronized later", project.getName());
+                fail(run, now, "Too many defect synchronizations waiting");
+            }
+        }
+    }
+
+    private DefectSyncCircuitBreaker getCircuitBreaker(long projectId, DefectAdapter adapter) {
+        String endpoint;
+        try {
+            endpoint = adapter.getEndpoint(projectId);
+        } catch (RuntimeException e) {
+            endpoint = null;
+        }
+        return circuitBreakers.computeIfAbsent(adapter.getCode() + "|" + endpoint,
+                key -> new DefectSyncCircuitBreaker(circuitFailureThreshold, circuitOpenInSeconds * 1000));
+    }
+
+    private void sync(Project project, DefectAdapter adapter, RunningSync run) {
+        try {
+            defectService.updateStatuses(project, adapter);
+            if (runningSyncs.remove(project.getId(), run)) {
+                final Date now = dateService.now();
+                run.circuitBreaker.recordSuccess();
+                run.health.succeed(now, new Date(now.getTime() + syncDelayInMilliseconds));
+                run.health.setCircuitState(run.circuitBreaker.getState());
+            }
+        } catch (FetchException | RuntimeException e) {
+            // Also catch RuntimeException to not impact other projects in case of a faulty DefectAdapter in a custom ARA
+            if (runningSyncs.remove(project.getId(), run)) {
+                LOG.error("DEFECT|Failed to index defects of project {}: will perhaps have a better chance later...",
+                        project.getName(), e);
+                fail(run, dateService.now(), e.getMessage());
+            }
+        }
+    }
+
+    private void cancelTimedOutSyncs(Date now) {
+        final long timeoutInMilliseconds = timeoutInSeconds * 1000;
+        runningSyncs.forEach((projectId, run) -> {
+            if (now.getTime() - run.startDateTime.getTime() > timeoutInMilliseconds &&
+                    runningSyncs.remove(projectId, run)) {
+                run.future.cancel(true);
+                LOG.error("DEFECT|Defect indexing of project {} timed out after {} seconds: cancelled", projectId,
+                        Long.valueOf(timeoutInSeconds));
+                fail(run, now, "Timed out after " + timeoutInSeconds + " seconds");
+            }
+        });
+    }
+
+    private void fail(RunningSync run, Date now, String error) {
+        run.circuitBreaker.recordFailure(now);
+        run.health.fail(now, error, new Date(now.getTime() + getBackoffInMilliseconds(run.health.getConsecutiveFailures() + 1)));
+        run.health.setCircuitState(run.circuitBreaker.getState());
+    }
+
+    /**
+     * @param consecutiveFailures the number of consecutive failed synchronizations of a project, including the last one
+     * @return the delay before the next synchronization of the project: doubled at each failure, up to the maximum backoff
+     */
+    long getBackoffInMilliseconds(int consecutiveFailures) {
+        final long maxBackoffInMilliseconds = maxBackoffInSeconds * 1000;
+        final int doublings = Math.min(Math.max(consecutiveFailures - 1, 0), 30);
+        return Math.min(syncDelayInMilliseconds << doublings, maxBackoffInMilliseconds);
+    }
+
+    /**
+     * @param projectId the ID of the project
+     * @return the defect synchronization health of the project, if it has a defect adapter
+     */
+    public Optional<DefectSyncHealth> getHealth(long projectId) {
+        return Optional.ofNullable(healths.get(Long.valueOf(projectId)));
+    }
+
+    private static class RunningSync {
+
+        private final DefectSyncHealth health;
+
+        private final DefectSyncCircuitBreaker circuitBreaker;
+
+        private final Date startDateTime;
+
+        private volatile Future<?> future;
+
+        RunningSync(DefectSyncHealth health, DefectSyncCircuitBreaker circuitBreaker, Date startDateTime) {
+            this.health = health;
+            this.circuitBreaker = circuitBreaker;
+            this.startDateTime = startDateTime;
+        }
+
+    }
+
+}
@@ -0,0 +1,392 @@
+package com.decathlon.ara.purge.bean;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.CountryDeployment;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.domain.Type;
+import com.decathlon.ara.domain.enumeration.ExecutionAcceptance;
+import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.decathlon.ara.domain.enumeration.QualityStatus;
+import com.decathlon.ara.domain.enumeration.Result;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * The content of an archive file: a purged execution with all its children (country deployments, runs, executed
+ * scenarios, errors and the IDs of the problem patterns that matched these errors).<br>
+ * The file is self-describing: it starts with the format version and a summary of the execution, so that archives can
+ * be listed without parsing the whole execution. Countries and types are referenced by code, to be restorable even if
+ * they were re-created since the purge.
+ */
+@JsonPropertyOrder({ "formatVersion", "summary", "execution" })
+public class ExecutionArchive {
+
+    public static final int FORMAT_VERSION = 1;
+
+    private int formatVersion = FORMAT_VERSION;
+
+    private ExecutionArchiveSummary summary;
+
+    private ArchivedExecution execution;
+
+    public ExecutionArchive() {
+    }
+
+    public ExecutionArchive(Execution execution) {
+        this.summary = new ExecutionArchiveSummary(execution);
+        this.execution = new ArchivedExecution(execution);
+    }
+
+    public int getFormatVersion() {
+        return formatVersion;
+    }
+
+    public ExecutionArchiveSummary getSummary() {
+        return summary;
+    }
+
+    public ArchivedExecution getExecution() {
+        return execution;
+    }
+
+    public static class ArchivedExecution {
+
+        private String branch;
+        private String name;
+        private String release;
+        private String version;
+        private Date buildDateTime;
+        private Date testDateTime;
+        private String jobUrl;
+        private String jobLink;
+        private JobStatus status;
+        private Result result;
+        private ExecutionAcceptance acceptance;
+        private String discardReason;
+        private Boolean blockingValidation;
+        private String qualityThresholds;
+        private QualityStatus qualityStatus;
+        private String qualitySeverities;
+        private Long duration;
+        private Long estimatedDuration;
+        private List<ArchivedCountryDeployment> countryDeployments = new ArrayList<>();
+        private List<ArchivedRun> runs = new ArrayList<>();
+
+        public ArchivedExecution() {
+        }
+
+        public ArchivedExecution(Execution execution) {
+            branch = execution.getBranch();
+            name = execution.getName();
+            release = execution.getRelease();
+            version = execution.getVersion();
+            buildDateTime = execution.getBuildDateTime();
+            testDateTime = execution.getTestDateTime();
+            jobUrl = execution.getJobUrl();
+            jobLink = execution.getJobLink();
+            status = execution.getStatus();
+            result = execution.getResult();
+            acceptance = execution.getAcceptance();
+            discardReason = execution.getDiscardReason();
+            blockingValidation = execution.getBlockingValidation();
+            qualityThresholds = execution.getQualityThresholds();
+            qualityStatus = execution.getQualityStatus();
+            qualitySeverities = execution.getQualitySeverities();
+            duration = execution.getDuration();
+            estimatedDuration = execution.getEstimatedDuration();
+            execution.getCountryDeployments().forEach(countryDeployment -> countryDeployments.add(new ArchivedCountryDeployment(countryDeployment)));
+            execution.getRuns().forEach(run -> runs.add(new ArchivedRun(run)));
+        }
+
+        /**
+         * @param cycleDefinition    the cycle definition of the restored execution
+         * @param countries          the countries of the project, by code
+         * @param types              the types of the project, by code
+         * @param problemPatternIds  filled with the IDs of the problem patterns that matched each restored error
+         * @return a new (not persisted) execution, with all its children
+         */
+        public Execution toExecution(CycleDefinition cycleDefinition, Map<String, Country> countries, Map<String, Type> types,
+                Map<Error, List<Long>> problemPatternIds) {
+            Execution restored = new Execution();
+            restored.setCycleDefinition(cycleDefinition);
+            restored.setBranch(branch);
+            restored.setName(name);
+            restored.setRelease(release);
+            restored.setVersion(version);
+            restored.setBuildDateTime(buildDateTime);
+            restored.setTestDateTime(testDateTime);
+            restored.setJobUrl(jobUrl);
+            restored.setJobLink(jobLink);
+            restored.setStatus(status);
+            restored.setResult(result);
+            restored.setAcceptance(acceptance);
+            restored.setDiscardReason(discardReason);
+            restored.setBlockingValidation(blockingValidation);
+            restored.setQualityThresholds(qualityThresholds);
+            restored.setQualityStatus(qualityStatus);
+            restored.setQualitySeverities(qualitySeverities);
+            restored.setDuration(duration);
+            restored.setEstimatedDuration(estimatedDuration);
+            countryDeployments.forEach(countryDeployment -> restored.addCountryDeployment(countryDeployment.toCountryDeployment(countries)));
+            runs.forEach(run -> restored.addRun(run.toRun(countries, types, problemPatternIds)));
+            return restored;
+        }
+
+        public List<ArchivedRun> getRuns() {
+            return runs;
+        }
+
+    }
+
+    public static class ArchivedCountryDeployment {
+
+        private String countryCode;
+        private String platform;
+        private String jobUrl;
+        private String jobLink;
+        private JobStatus status;
+        private Result result;
+        private Date startDateTime;
+        private Long estimatedDuration;
+        private Long duration;
+
+        public ArchivedCountryDeployment() {
+        }
+
+        public ArchivedCountryDeployment(CountryDeployment countryDeployment) {
+            countryCode = countryDeployment.getCountry().getCode();
+            platform = countryDeployment.getPlatform();
+            jobUrl = countryDeployment.getJobUrl();
+            jobLink = countryDeployment.getJobLink();
+            status = countryDeployment.getStatus();
+            result = countryDeployment.getResult();
+            startDateTime = countryDeployment.getStartDateTime();
+            estimatedDuration = countryDeployment.getEstimatedDuration();
+            duration = countryDeployment.getDuration();
+        }
+
+        CountryDeployment toCountryDeployment(Map<String, Country> countries) {
+            CountryDeployment restored = new CountryDeployment();
+            restored.setCountry(countries.get(countryCode));
+            restored.setPlatform(platform);
+            restored.setJobUrl(jobUrl);
+            restored.setJobLink(jobLink);
+            restored.setStatus(status);
+            restored.setResult(result);
+            restored.setStartDateTime(startDateTime);
+            restored.setEstimatedDuration(estimatedDuration);
+            restored.setDuration(duration);
+            return restored;
+        }
+
+        public String getCountryCode() {
+            return countryCode;
+        }
+
+    }
+
+    public static class ArchivedRun {
+
+        private String countryCode;
+        private String typeCode;
+        private String comment;
+        private String platform;
+        private String jobUrl;
+        private String jobLink;
+        private JobStatus status;
+        private String countryTags;
+        private Date startDateTime;
+        private Long estimatedDuration;
+        private Long duration;
+        private String severityTags;
+        private Boolean includeInThresholds;
+        private List<ArchivedExecutedScenario> executedScenarios = new ArrayList<>();
+
+        public ArchivedRun() {
+        }
+
+        public ArchivedRun(Run run) {
+            countryCode = run.getCountry().getCode();
+            typeCode = run.getType().getCode();
+            comment = run.getComment();
+            platform = run.getPlatform();
+            jobUrl = run.getJobUrl();
+            jobLink = run.getJobLink();
+            status = run.getStatus();
+            countryTags = run.getCountryTags();
+            startDateTime = run.getStartDateTime();
+            estimatedDuration = run.getEstimatedDuration();
+            duration = run.getDuration();
+            severityTags = run.getSeverityTags();
+            includeInThresholds = run.getIncludeInThresholds();
+            run.getExecutedScenarios().forEach(executedScenario -> executedScenarios.add(new ArchivedExecutedScenario(executedScenario)));
+        }
+
+        Run toRun(Map<String, Country> countries, Map<String, Type> types, Map<Error, List<Long>> problemPatternIds) {
+            Run restored = new Run();
+            restored.setCountry(countries.get(countryCode));
+            restored.setType(types.get(typeCode));
+            restored.setComment(comment);
+            restored.setPlatform(platform);
+            restored.setJobUrl(jobUrl);
+            restored.setJobLink(jobLink);
+            restored.setStatus(status);
+            restored.setCountryTags(countryTags);
+            restored.setStartDateTime(startDateTime);
+            restored.setEstimatedDuration(estimatedDuration);
+            restored.setDuration(duration);
+            restored.setSeverityTags(severityTags);
+            restored.setIncludeInThresholds(includeInThresholds);
+            executedScenarios.forEach(executedScenario -> restored.addExecutedScenario(executedScenario.toExecutedScenario(problemPatternIds)));
+            return restored;
+        }
+
+        public String getCountryCode() {
+            return countryCode;
+        }
+
+        public String getTypeCode() {
+            return typeCode;
+        }
+
+        public List<ArchivedExecutedScenario> getExecutedScenarios() {
+            return executedScenarios;
+        }
+
+    }
+
+    public static class ArchivedExecutedScenario {
+
+        private String featureFile;
+        private String featureName;
+        private String featureTags;
+        private String tags;
+        private String severity;
+        private String name;
+        private String cucumberId;
+        private int line;
+        private String content;
+        private Date startDateTime;
+        private String screenshotUrl;
+        private String videoUrl;
+        private String logsUrl;
+        private String httpRequestsUrl;
+        private String javaScriptErrorsUrl;
+        private String diffReportUrl;
+        private String cucumberReportUrl;
+        private String apiServer;
+        private String seleniumNode;
+        private List<ArchivedError> errors = new ArrayList<>();
+
+        public ArchivedExecutedScenario() {
+        }
+
+        public ArchivedExecutedScenario(ExecutedScenario executedScenario) {
+            featureFile = executedScenario.getFeatureFile();
+            featureName = executedScenario.getFeatureName();
+            featureTags = executedScenario.getFeatureTags();
+            tags = executedScenario.getTags();
+            severity = executedScenario.getSeverity();
+            name = executedScenario.getName();
+            cucumberId = executedScenario.getCucumberId();
+            line = executedScenario.getLine();
+            content = executedScenario.getContent();
+            startDateTime = executedScenario.getStartDateTime();
+            screenshotUrl = executedScenario.getScreenshotUrl();
+            videoUrl = executedScenario.getVideoUrl();
+            logsUrl = executedScenario.getLogsUrl();
+            httpRequestsUrl = executedScenario.getHttpRequestsUrl();
+            javaScriptErrorsUrl = executedScenario.getJavaScriptErrorsUrl();
+            diffReportUrl = executedScenario.getDiffReportUrl();
+            cucumberReportUrl = executedScenario.getCucumberReportUrl();
+            apiServer = executedScenario.getApiServer();
+            seleniumNode = executedScenario.getSeleniumNode();
+            executedScenario.getErrors().forEach(error -> errors.add(new ArchivedError(error)));
+        }
+
+        ExecutedScenario toExecutedScenario(Map<Error, List<Long>> problemPatternIds) {
+            ExecutedScenario restored = new ExecutedScenario();
+            restored.setFeatureFile(featureFile);
+            restored.setFeatureName(featureName);
+            restored.setFeatureTags(featureTags);
+            restored.setTags(tags);
+            restored.setSeverity(severity);
+            restored.setName(name);
+            restored.setCucumberId(cucumberId);
+            restored.setLine(line);
+            restored.setContent(content);
+            restored.setStartDateTime(startDateTime);
+            restored.setScreenshotUrl(screenshotUrl);
+            restored.setVideoUrl(videoUrl);
+            restored.setLogsUrl(logsUrl);
+            restored.setHttpRequestsUrl(httpRequestsUrl);
+            restored.setJavaScriptErrorsUrl(javaScriptErrorsUrl);
+            restored.setDiffReportUrl(diffReportUrl);
+            restored.setCucumberReportUrl(cucumberReportUrl);
+            restored.setApiServer(apiServer);
+            restored.setSeleniumNode(seleniumNode);
+            for (ArchivedError error : errors) {
+                Error restoredError = error.toError();
+                restored.addError(restoredError);
+                problemPatternIds.put(restoredError, error.problemPatternIds);
+            }
+            return restored;
+        }
+
+        public String getCucumberId() {
+            return cucumberId;
+        }
+
+        public List<ArchivedError> getErrors() {
+            return errors;
+        }
+
+    }
+
+    public static class ArchivedError {
+
+        private String step;
+        private String stepDefinition;
+        private int stepLine;
+        private String exception;
+        private List<Long> problemPatternIds = new ArrayList<>();
+
+        public ArchivedError() {
+        }
+
+        public ArchivedError(Error error) {
+            step = error.getStep();
+            stepDefinition = error.getStepDefinition();
+            stepLine = error.getStepLine();
+            exception = error.getException();
+            error.getProblemOccurrences().forEach(occurrence -> problemPatternIds.add(occurrence.getProblemPatternId()));
+        }
+
+        Error toError() {
+            Error restored = new Error();
+            restored.setStep(step);
+            restored.setStepDefinition(stepDefinition);
+            restored.setStepLine(stepLine);
+            restored.setException(exception);
+            return restored;
+        }
+
+        public String getStep() {
+            return step;
+        }
+
+        public List<Long> getProblemPatternIds() {
+            return problemPatternIds;
+        }
+
+    }
+
+}
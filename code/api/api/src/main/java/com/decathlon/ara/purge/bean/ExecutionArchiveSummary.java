@@ -0,0 +1,105 @@
+package com.decathlon.ara.purge.bean;
+
+import java.util.Date;
+
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.decathlon.ara.domain.enumeration.QualityStatus;
+import com.decathlon.ara.domain.enumeration.Result;
+
+/**
+ * The header of an execution archive: enough to list the archives without reading their whole content.
+ */
+public class ExecutionArchiveSummary {
+
+    private long executionId;
+
+    private long projectId;
+
+    private String branch;
+
+    private String cycleName;
+
+    private String release;
+
+    private String version;
+
+    private Date testDateTime;
+
+    private String jobUrl;
+
+    private JobStatus status;
+
+    private Result result;
+
+    private QualityStatus qualityStatus;
+
+    private Date archiveDateTime;
+
+    public ExecutionArchiveSummary() {
+    }
+
+    public ExecutionArchiveSummary(Execution execution) {
+        executionId = execution.getId().longValue();
+        projectId = execution.getCycleDefinition().getProjectId();
+        branch = execution.getBranch();
+        cycleName = execution.getName();
+        release = execution.getRelease();
+        version = execution.getVersion();
+        testDateTime = execution.getTestDateTime();
+        jobUrl = execution.getJobUrl();
+        status = execution.getStatus();
+        result = execution.getResult();
+        qualityStatus = execution.getQualityStatus();
+        archiveDateTime = new Date();
+    }
+
+    public long getExecutionId() {
+        return executionId;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public String getBranch() {
+        return branch;
+    }
+
+    public String getCycleName() {
+        return cycleName;
+    }
+
+    public String getRelease() {
+        return release;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Date getTestDateTime() {
+        return testDateTime;
+    }
+
+    public String getJobUrl() {
+        return jobUrl;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public Result getResult() {
+        return result;
+    }
+
+    public QualityStatus getQualityStatus() {
+        return qualityStatus;
+    }
+
+    public Date getArchiveDateTime() {
+        return archiveDateTime;
+    }
+
+}
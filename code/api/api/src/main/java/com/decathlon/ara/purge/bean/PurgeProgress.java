@@ -0,0 +1,99 @@
+package com.decathlon.ara.purge.bean;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.decathlon.ara.domain.ProjectPurgeProgress;
+
+/**
+ * The progress of the purge of a project, updated by the purge thread while it runs, saved as a
+ * {@link ProjectPurgeProgress} and read back from it by the API of any node.
+ */
+public class PurgeProgress {
+
+    public enum Status {
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private final long projectId;
+
+    private final long executionsToDelete;
+
+    private final Date startDateTime;
+
+    private final AtomicLong deletedExecutions = new AtomicLong();
+
+    private final AtomicLong deletedRows = new AtomicLong();
+
+    private volatile Status status = Status.RUNNING;
+
+    private volatile Date endDateTime;
+
+    public PurgeProgress(long projectId, long executionsToDelete) {
+        this.projectId = projectId;
+        this.executionsToDelete = executionsToDelete;
+        this.startDateTime = new Date();
+    }
+
+    public PurgeProgress(ProjectPurgeProgress saved) {
+        this.projectId = saved.getProjectId().longValue();
+        this.executionsToDelete = saved.getExecutionsToDelete();
+        this.startDateTime = saved.getStartDateTime();
+        this.deletedExecutions.set(saved.getDeletedExecutions());
+        this.deletedRows.set(saved.getDeletedRows());
+        this.status = Status.valueOf(saved.getStatus());
+        this.endDateTime = saved.getEndDateTime();
+    }
+
+    public void addDeletedRows(long rows) {
+        deletedRows.addAndGet(rows);
+    }
+
+    public void addDeletedExecution() {
+        deletedExecutions.incrementAndGet();
+    }
+
+    public void end(Status endStatus) {
+        this.status = endStatus;
+        this.endDateTime = new Date();
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public long getExecutionsToDelete() {
+        return executionsToDelete;
+    }
+
+    public Date getStartDateTime() {
+        return startDateTime;
+    }
+
+    public long getDeletedExecutions() {
+        return deletedExecutions.get();
+    }
+
+    public long getDeletedRows() {
+        return deletedRows.get();
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Date getEndDateTime() {
+        return endDateTime;
+    }
+
+    /**
+     * @return a snapshot of this progress, to be saved
+     */
+    public ProjectPurgeProgress toSaved() {
+        return new ProjectPurgeProgress(Long.valueOf(projectId), status.name(), executionsToDelete, deletedExecutions.get(), deletedRows.get(),
+                startDateTime, endDateTime);
+    }
+
+}
@@ -10,18 +10,39 @@ import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Component;
 
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
 import com.decathlon.ara.purge.service.PurgeService;
+import com.decathlon.ara.service.ScheduledJobLeaseService;
 
 @Component
 public class PurgeTaskScheduler {
 
     private static final Logger LOG = LoggerFactory.getLogger(PurgeTaskScheduler.class);
 
+    private static final String PURGE_JOB = "purge";
+
+    /**
+     * If the node running the purge dies, another node will resume the purge at its next schedule after this delay.
+     */
+    private static final Duration PURGE_MAX_LEASE = Duration.ofHours(12);
+
+    /**
+     * The other nodes, scheduled at the same time, must not purge again when the purge ends quickly.
+     */
+    private static final Duration PURGE_MIN_LEASE = Duration.ofMinutes(5);
+
+    private static final String HISTORY_PARTITIONS_JOB = "history-partitions";
+
+    private static final Duration HISTORY_PARTITIONS_MAX_LEASE = Duration.ofHours(1);
+
     @Value("${ara.purge.schedule:}")
     private String purgeCronScheduleValue;
 
@@ -29,10 +50,13 @@ public class PurgeTaskScheduler {
 
     private final PurgeService purgeService;
 
-    public PurgeTaskScheduler(ThreadPoolTaskScheduler taskScheduler,
-            PurgeService purgeService) {
+    private final ScheduledJobLeaseService scheduledJobLeaseService;
+
+    public PurgeTaskScheduler(@Qualifier(ExecutorsConfiguration.PURGE_SCHEDULER) ThreadPoolTaskScheduler taskScheduler,
+            PurgeService purgeService, ScheduledJobLeaseService scheduledJobLeaseService) {
         this.taskScheduler = taskScheduler;
         this.purgeService = purgeService;
+        this.scheduledJobLeaseService = scheduledJobLeaseService;
     }
 
     /**
@@ -55,7 +79,21 @@ public class PurgeTaskScheduler {
         }
     }
 
+    /**
+     * Prepare the executed scenario history partitions of all projects once the application is started, in background
+     * and by only one node of the cluster.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareHistoryPartitions() {
+        taskScheduler.execute(() -> scheduledJobLeaseService.runExclusively(HISTORY_PARTITIONS_JOB, HISTORY_PARTITIONS_MAX_LEASE,
+                PURGE_MIN_LEASE, purgeService::prepareHistoryPartitionsOfAllProjects));
+    }
+
+    /**
+     * @return the purge of all projects, run by only one node of the cluster
+     */
     public Runnable getPurgeRunnable() {
-        return purgeService::purgeAllProjects;
+        return () -> scheduledJobLeaseService.runExclusively(PURGE_JOB, PURGE_MAX_LEASE, PURGE_MIN_LEASE,
+                purgeService::purgeAllProjects);
     }
 }
@@ -1,15 +0,0 @@
-package com.decathlon.ara.purge.scheduler;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
-
-@Configuration
-public class PurgeTaskSchedulerConfiguration {
-
-    @Bean
-    public ThreadPoolTaskScheduler threadPoolTaskScheduler(){
-        return new ThreadPoolTaskScheduler();
-    }
-
-}
@@ -0,0 +1,318 @@
+package com.decathlon.ara.purge.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.Entities;
+import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.ProblemOccurrence;
+import com.decathlon.ara.domain.ProblemPattern;
+import com.decathlon.ara.domain.Type;
+import com.decathlon.ara.purge.bean.ExecutionArchive;
+import com.decathlon.ara.purge.bean.ExecutionArchiveSummary;
+import com.decathlon.ara.repository.CountryRepository;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProblemOccurrenceRepository;
+import com.decathlon.ara.repository.ProblemPatternRepository;
+import com.decathlon.ara.repository.TypeRepository;
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.scenario.common.service.ExecutedScenarioService;
+import com.decathlon.ara.service.DistinctValueService;
+import com.decathlon.ara.service.ProblemDenormalizationService;
+import com.decathlon.ara.service.exception.BadRequestException;
+import com.decathlon.ara.service.exception.NotFoundException;
+import com.decathlon.ara.service.support.DistinctValueCounts;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Archives executions to gzipped JSON files before they are purged, and restores them on demand.<br>
+ * Archives are stored in {@code <ara.purge.archive-folder>/<projectId>/execution-<executionId>.json.gz}.
+ */
+@Service
+public class ExecutionArchiveService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecutionArchiveService.class);
+
+    private static final String FILE_PREFIX = "execution-";
+
+    private static final String FILE_SUFFIX = ".json.gz";
+
+    /**
+     * The folder where to archive purged executions, or empty to not archive them.
+     */
+    @Value("${ara.purge.archive-folder:}")
+    private String archiveFolder;
+
+    private final ObjectMapper archiveMapper;
+
+    private final ExecutionRepository executionRepository;
+
+    private final CycleDefinitionRepository cycleDefinitionRepository;
+
+    private final CountryRepository countryRepository;
+
+    private final TypeRepository typeRepository;
+
+    private final ProblemPatternRepository problemPatternRepository;
+
+    private final ProblemOccurrenceRepository problemOccurrenceRepository;
+
+    private final ExecutedScenarioService executedScenarioService;
+
+    private final TransactionAppenderUtil transactionAppenderUtil;
+
+    private final ProblemDenormalizationService problemDenormalizationService;
+
+    private final DistinctValueService distinctValueService;
+
+    private final DataVersionService dataVersionService;
+
+    public ExecutionArchiveService(ObjectMapper objectMapper, ExecutionRepository executionRepository,
+            CycleDefinitionRepository cycleDefinitionRepository, CountryRepository countryRepository,
+            TypeRepository typeRepository, ProblemPatternRepository problemPatternRepository,
+            ProblemOccurrenceRepository problemOccurrenceRepository, ExecutedScenarioService executedScenarioService,
+            TransactionAppenderUtil transactionAppenderUtil, ProblemDenormalizationService problemDenormalizationService,
+            DistinctValueService distinctValueService, DataVersionService dataVersionService) {
+        // Archive beans are plain data holders: only their fields make the file format
+        this.archiveMapper = objectMapper.copy()
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        this.executionRepository = executionRepository;
+        this.cycleDefinitionRepository = cycleDefinitionRepository;
+        this.countryRepository = countryRepository;
+        this.typeRepository = typeRepository;
+        this.problemPatternRepository = problemPatternRepository;
+        this.problemOccurrenceRepository = problemOccurrenceRepository;
+        this.executedScenarioService = executedScenarioService;
+        this.transactionAppenderUtil = transactionAppenderUtil;
+        this.problemDenormalizationService = problemDenormalizationService;
+        this.distinctValueService = distinctValueService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * @return true if purged executions are to be archived before being deleted
+     */
+    public boolean isEnabled() {
+        return StringUtils.isNotBlank(archiveFolder);
+    }
+
+    /**
+     * Write the archive of an execution, if not already archived: an archive written before an interrupted purge is
+     * kept, as the execution may have been partially deleted since then.
+     *
+     * @param executionId the ID of the execution to archive
+     * @throws IOException if the archive could not be written: the execution must then not be purged
+     */
+    @Transactional(readOnly = true)
+    public void archive(long executionId) throws IOException {
+        Optional<Execution> execution = executionRepository.findById(Long.valueOf(executionId));
+        if (execution.isEmpty()) {
+            return;
+        }
+        Path file = getArchiveFile(execution.get().getCycleDefinition().getProjectId(), executionId);
+        if (Files.exists(file)) {
+            return;
+        }
+        Files.createDirectories(file.getParent());
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temporaryFile))) {
+            archiveMapper.writeValue(outputStream, new ExecutionArchive(execution.get()));
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOG.debug("PURGE|Archived execution {} to {}", Long.valueOf(executionId), file);
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @return the summaries of all archived executions of the project, the most recently tested first (unreadable
+     * archives are logged and skipped)
+     */
+    public List<ExecutionArchiveSummary> findAll(long projectId) {
+        Path projectFolder = Paths.get(archiveFolder, String.valueOf(projectId));
+        if (!isEnabled() || !Files.isDirectory(projectFolder)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(projectFolder)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(FILE_PREFIX) && file.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .map(this::readSummary)
+                    .flatMap(Optional::stream)
+                    .sorted(Comparator.comparing(ExecutionArchiveSummary::getTestDateTime, Comparator.nullsLast(Comparator.reverseOrder())))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            LOG.error("PURGE|Cannot list execution archives in {}", projectFolder, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Only parse the header of the archive, without reading the (big) archived execution.
+     */
+    private Optional<ExecutionArchiveSummary> readSummary(Path file) {
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file));
+                JsonParser parser = archiveMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("formatVersion".equals(field) && parser.getIntValue() > ExecutionArchive.FORMAT_VERSION) {
+                    throw new IOException("Unsupported format version " + parser.getIntValue());
+                } else if ("summary".equals(field)) {
+                    return Optional.of(archiveMapper.readValue(parser, ExecutionArchiveSummary.class));
+                }
+                parser.skipChildren();
+            }
+            throw new IOException("No summary");
+        } catch (IOException e) {
+            LOG.warn("PURGE|Skipping unreadable execution archive {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Insert back an archived execution into the database, and delete its archive once committed.<br>
+     * The restored execution goes through the same post-indexing updates as a newly indexed one (problem occurrences,
+     * distinct values, data version), and is flagged as restored so that it is never purged again.
+     *
+     * @param projectId   the ID of the project in which to work
+     * @param executionId the ID the execution had when it was archived
+     * @return the new ID of the restored execution
+     * @throws NotFoundException   if the archive, or the cycle definition, a country or a type of the execution does
+     *                             not exist anymore
+     * @throws BadRequestException if the archive cannot be read or if the execution is already in database
+     */
+    @Transactional
+    public long restore(long projectId, long executionId) throws BadRequestException {
+        Path file = getArchiveFile(projectId, executionId);
+        if (!isEnabled() || !Files.exists(file)) {
+            throw new NotFoundException(Messages.NOT_FOUND_EXECUTION_ARCHIVE, Entities.EXECUTION);
+        }
+        ExecutionArchive archive;
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file))) {
+            archive = archiveMapper.readValue(inputStream, ExecutionArchive.class);
+        } catch (IOException e) {
+            LOG.error("PURGE|Cannot read execution archive {}", file, e);
+            throw new BadRequestException(Messages.RULE_EXECUTION_ARCHIVE_UNREADABLE, Entities.EXECUTION, "unreadable_archive");
+        }
+        if (archive.getFormatVersion() > ExecutionArchive.FORMAT_VERSION) {
+            throw new BadRequestException(Messages.RULE_EXECUTION_ARCHIVE_UNREADABLE, Entities.EXECUTION, "unreadable_archive");
+        }
+
+        ExecutionArchiveSummary summary = archive.getSummary();
+        CycleDefinition cycleDefinition = cycleDefinitionRepository
+                .findByProjectIdAndBranchAndName(Long.valueOf(projectId), summary.getBranch(), summary.getCycleName())
+                .orElseThrow(() -> new NotFoundException(Messages.NOT_FOUND_CYCLE_DEFINITION, Entities.CYCLE_DEFINITION));
+        if (executionRepository.existsByCycleDefinitionIdAndTestDateTime(cycleDefinition.getId(), summary.getTestDateTime())) {
+            throw new BadRequestException(Messages.RULE_EXECUTION_ARCHIVE_ALREADY_RESTORED, Entities.EXECUTION, "already_restored");
+        }
+
+        Map<String, Country> countries = countryRepository.findAllByProjectIdOrderByCode(projectId).stream()
+                .collect(Collectors.toMap(Country::getCode, Function.identity()));
+        Map<String, Type> types = typeRepository.findAllByProjectIdOrderByCode(projectId).stream()
+                .collect(Collectors.toMap(Type::getCode, Function.identity()));
+        for (ExecutionArchive.ArchivedRun run : archive.getExecution().getRuns()) {
+            if (!countries.containsKey(run.getCountryCode())) {
+                throw new NotFoundException(Messages.NOT_FOUND_COUNTRY, Entities.COUNTRY);
+            }
+            if (!types.containsKey(run.getTypeCode())) {
+                throw new NotFoundException(Messages.NOT_FOUND_TYPE, Entities.TYPE);
+            }
+        }
+
+        // Errors change their hashCode once persisted
+        Map<Error, List<Long>> problemPatternIds = new IdentityHashMap<>();
+        Execution execution = archive.getExecution().toExecution(cycleDefinition, countries, types, problemPatternIds);
+        execution.setRestored(true);
+        Execution restored = executionRepository.save(execution);
+        List<ProblemOccurrence> problemOccurrences = restoreProblemOccurrences(problemPatternIds);
+        executedScenarioService.appendToHistory(restored);
+
+        if (!problemOccurrences.isEmpty()) {
+            problemDenormalizationService.addOccurrences(
+                    problemOccurrences.stream().map(occurrence -> occurrence.getProblemPattern().getProblem().getId()).collect(Collectors.toSet()),
+                    problemOccurrences.stream().map(occurrence -> occurrence.getError().getId()).collect(Collectors.toSet()),
+                    restored.getTestDateTime());
+        }
+        DistinctValueCounts restoredValues = DistinctValueCounts.of(restored);
+        transactionAppenderUtil.doAfterCommit(() -> distinctValueService.record(projectId, restoredValues, restored.getTestDateTime()));
+        dataVersionService.incrementAfterCommit(projectId);
+
+        transactionAppenderUtil.doAfterCommit(() -> deleteArchive(file));
+        LOG.info("PURGE|Restored archived execution {} as execution {}", Long.valueOf(executionId), restored.getId());
+        return restored.getId().longValue();
+    }
+
+    /**
+     * Link the restored errors to the problem patterns they matched when archived, if these patterns still exist.
+     *
+     * @param problemPatternIds the IDs of matched problem patterns, by persisted error
+     * @return the restored problem occurrences
+     */
+    private List<ProblemOccurrence> restoreProblemOccurrences(Map<Error, List<Long>> problemPatternIds) {
+        Set<Long> allProblemPatternIds = new HashSet<>();
+        problemPatternIds.values().forEach(allProblemPatternIds::addAll);
+        if (allProblemPatternIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ProblemPattern> problemPatterns = problemPatternRepository.findAllById(allProblemPatternIds).stream()
+                .collect(Collectors.toMap(ProblemPattern::getId, Function.identity()));
+        List<ProblemOccurrence> problemOccurrences = new ArrayList<>();
+        problemPatternIds.forEach((error, ids) -> ids.stream()
+                .map(problemPatterns::get)
+                .filter(problemPattern -> problemPattern != null)
+                .forEach(problemPattern -> problemOccurrences.add(new ProblemOccurrence(error, problemPattern))));
+        problemOccurrenceRepository.saveAll(problemOccurrences);
+        return problemOccurrences;
+    }
+
+    private void deleteArchive(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.warn("PURGE|Cannot delete restored execution archive {}", file, e);
+        }
+    }
+
+    private Path getArchiveFile(long projectId, long executionId) {
+        return Paths.get(archiveFolder, String.valueOf(projectId), FILE_PREFIX + executionId + FILE_SUFFIX);
+    }
+
+}
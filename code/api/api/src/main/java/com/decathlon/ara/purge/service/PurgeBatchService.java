@@ -0,0 +1,119 @@
+package com.decathlon.ara.purge.service;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.repository.CountryDeploymentRepository;
+import com.decathlon.ara.repository.ErrorRepository;
+import com.decathlon.ara.repository.ExecutedScenarioHistoryRepository;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProblemOccurrenceRepository;
+import com.decathlon.ara.repository.RunRepository;
+import com.decathlon.ara.service.DistinctValueService;
+import com.decathlon.ara.service.ProblemDenormalizationService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Deletes one bounded chunk of purged rows per call, each call being committed in its own transaction, children tables
+ * first: an interrupted purge thus leaves no half-deleted chunk, and the next purge resumes where it stopped.
+ */
+@Service
+public class PurgeBatchService {
+
+    static final String DELETED_ROWS_METRIC = "ara.purge.deleted.rows";
+
+    private final ExecutionRepository executionRepository;
+
+    private final CountryDeploymentRepository countryDeploymentRepository;
+
+    private final RunRepository runRepository;
+
+    private final ExecutedScenarioRepository executedScenarioRepository;
+
+    private final ExecutedScenarioHistoryRepository executedScenarioHistoryRepository;
+
+    private final ErrorRepository errorRepository;
+
+    private final ProblemOccurrenceRepository problemOccurrenceRepository;
+
+    private final DistinctValueService distinctValueService;
+
+    private final ProblemDenormalizationService problemDenormalizationService;
+
+    private final MeterRegistry meterRegistry;
+
+    public PurgeBatchService(ExecutionRepository executionRepository,
+            CountryDeploymentRepository countryDeploymentRepository, RunRepository runRepository,
+            ExecutedScenarioRepository executedScenarioRepository,
+            ExecutedScenarioHistoryRepository executedScenarioHistoryRepository, ErrorRepository errorRepository,
+            ProblemOccurrenceRepository problemOccurrenceRepository,
+            DistinctValueService distinctValueService, ProblemDenormalizationService problemDenormalizationService,
+            MeterRegistry meterRegistry) {
+        this.executionRepository = executionRepository;
+        this.countryDeploymentRepository = countryDeploymentRepository;
+        this.runRepository = runRepository;
+        this.executedScenarioRepository = executedScenarioRepository;
+        this.executedScenarioHistoryRepository = executedScenarioHistoryRepository;
+        this.errorRepository = errorRepository;
+        this.problemOccurrenceRepository = problemOccurrenceRepository;
+        this.distinctValueService = distinctValueService;
+        this.problemDenormalizationService = problemDenormalizationService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Delete executed scenarios, with their errors, problem occurrences and history rows, and remove their values from
+     * the distinct value dictionaries.
+     *
+     * @param projectId           the ID of the project of the executed scenarios
+     * @param executionId         the ID of the execution of the executed scenarios
+     * @param executedScenarioIds the IDs of the executed scenarios to delete
+     * @return the total number of deleted rows
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deleteExecutedScenarios(long projectId, long executionId, List<Long> executedScenarioIds) {
+        int deletedRows = 0;
+        List<Long> errorIds = errorRepository.findIdsByExecutedScenarioIdIn(executedScenarioIds);
+        distinctValueService.forgetExecutedScenarios(projectId, executedScenarioIds, errorIds);
+        if (!errorIds.isEmpty()) {
+            // Committed with the chunk: an interrupted purge leaves no problem counting deleted occurrences
+            Set<Long> touchedProblemIds = problemDenormalizationService.findProblemIds(errorIds);
+            problemDenormalizationService.removeOccurrences(touchedProblemIds, errorIds);
+            deletedRows += count("problem_occurrence", problemOccurrenceRepository.deleteByErrorIdIn(errorIds));
+            deletedRows += count("error", errorRepository.deleteByIdIn(errorIds));
+            problemDenormalizationService.recomputeSeenDateTimes(touchedProblemIds, executionId);
+        }
+        deletedRows += count("executed_scenario_history", executedScenarioHistoryRepository.deleteByExecutedScenarioIdIn(executedScenarioIds));
+        deletedRows += count("executed_scenario", executedScenarioRepository.deleteByIdIn(executedScenarioIds));
+        return deletedRows;
+    }
+
+    /**
+     * Delete an execution whose executed scenarios have already been deleted, with its runs and country deployments,
+     * and remove their values from the distinct value dictionaries.
+     *
+     * @param projectId   the ID of the project of the execution
+     * @param executionId the ID of the execution to delete
+     * @return the total number of deleted rows
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deleteExecution(long projectId, long executionId) {
+        distinctValueService.forgetExecution(projectId, executionId);
+        int deletedRows = count("country_deployment", countryDeploymentRepository.deleteByExecutionId(executionId));
+        deletedRows += count("run", runRepository.deleteByExecutionId(executionId));
+        deletedRows += count("execution", executionRepository.deleteExecutionById(executionId));
+        return deletedRows;
+    }
+
+    private int count(String table, int deletedRows) {
+        meterRegistry.counter(DELETED_ROWS_METRIC, "table", table).increment(deletedRows);
+        return deletedRows;
+    }
+
+}
@@ -1,45 +1,104 @@
 package com.decathlon.ara.purge.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.purge.bean.PurgeProgress;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProjectPurgeProgressRepository;
+import com.decathlon.ara.repository.RunRepository;
+import com.decathlon.ara.repository.custom.util.HistoryPartitionManager;
+import com.decathlon.ara.service.DistinctValueService;
 import com.decathlon.ara.service.ProjectService;
 import com.decathlon.ara.service.SettingService;
+import com.decathlon.ara.service.StabilityService;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.support.Settings;
 import com.decathlon.ara.service.util.DateService;
 
 @Service
-@Transactional
 public class PurgeService {
 
     private static final Logger LOG = LoggerFactory.getLogger(PurgeService.class);
 
+    private static final int EXECUTION_PAGE_SIZE = 100;
+
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /**
+     * The maximum number of executed scenarios deleted (with their children) per transaction.
+     */
+    @Value("${ara.purge.chunk-size:" + DEFAULT_CHUNK_SIZE + "}")
+    private int chunkSize;
+
+    /**
+     * The maximum average number of rows deleted per second, or 0 to not throttle the purge.
+     */
+    @Value("${ara.purge.max-rows-per-second:0}")
+    private long maxRowsPerSecond;
+
     private final ExecutionRepository executionRepository;
 
+    private final RunRepository runRepository;
+
+    private final ExecutedScenarioRepository executedScenarioRepository;
+
+    private final PurgeBatchService purgeBatchService;
+
+    private final ExecutionArchiveService executionArchiveService;
+
+    private final HistoryPartitionManager historyPartitionManager;
+
     private final ProjectService projectService;
 
     private final SettingService settingService;
 
     private final DateService dateService;
 
-    public PurgeService(ExecutionRepository executionRepository, ProjectService projectService,
-            SettingService settingService, DateService dateService) {
+    private final DataVersionService dataVersionService;
+
+    private final DistinctValueService distinctValueService;
+
+    private final StabilityService stabilityService;
+
+    private final ProjectPurgeProgressRepository projectPurgeProgressRepository;
+
+    public PurgeService(ExecutionRepository executionRepository, RunRepository runRepository,
+            ExecutedScenarioRepository executedScenarioRepository, PurgeBatchService purgeBatchService,
+            ExecutionArchiveService executionArchiveService, HistoryPartitionManager historyPartitionManager,
+            ProjectService projectService, SettingService settingService, DateService dateService,
+            DataVersionService dataVersionService, DistinctValueService distinctValueService, StabilityService stabilityService,
+            ProjectPurgeProgressRepository projectPurgeProgressRepository) {
         this.executionRepository = executionRepository;
+        this.runRepository = runRepository;
+        this.executedScenarioRepository = executedScenarioRepository;
+        this.purgeBatchService = purgeBatchService;
+        this.executionArchiveService = executionArchiveService;
+        this.historyPartitionManager = historyPartitionManager;
         this.projectService = projectService;
         this.settingService = settingService;
         this.dateService = dateService;
+        this.dataVersionService = dataVersionService;
+        this.distinctValueService = distinctValueService;
+        this.stabilityService = stabilityService;
+        this.projectPurgeProgressRepository = projectPurgeProgressRepository;
     }
 
     /**
@@ -63,6 +122,8 @@ public class PurgeService {
      * @param projectId the project id
      */
     public void purgeExecutionsByProjectId(long projectId) {
+        var historyPartitioned = isHistoryPartitioned();
+
         var durationValue = settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE);
 
         var durationValueAsInt = 0;
@@ -95,21 +156,213 @@ public class PurgeService {
             return;
         }
 
-        var executionsToDelete = executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId, purgeThresholdDate.get());
+        if (historyPartitioned) {
+            // Servers running for months would otherwise run out of partitions created ahead of time at startup
+            prepareHistoryPartitions(projectId);
+            // Partitions would also drop the history of the restored executions, which are never purged
+            if (!executionRepository.existsByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredTrue(projectId, purgeThresholdDate.get())) {
+                dropHistoryPartitions(projectId, purgeThresholdDate.get());
+            }
+        }
 
-        var numberOfDeletedExecutions = executionsToDelete.size();
-        var executionsPlural = numberOfDeletedExecutions > 1 ? "s" : "";
+        var numberOfExecutionsToDelete = executionRepository.countByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredFalse(projectId, purgeThresholdDate.get());
+        var executionsPlural = numberOfExecutionsToDelete > 1 ? "s" : "";
 
         var simpleDateFormat = new SimpleDateFormat("dd/MM/yyyy");
-        LOG.info("Preparing to delete {} execution{} (older than {})...", numberOfDeletedExecutions, executionsPlural, simpleDateFormat.format(purgeThresholdDate.get()));
-        var executionIdsToDelete = executionsToDelete.stream().map(Execution::getId).toList();
+        LOG.info("Preparing to delete {} execution{} (older than {})...", numberOfExecutionsToDelete, executionsPlural, simpleDateFormat.format(purgeThresholdDate.get()));
+        var progress = new PurgeProgress(projectId, numberOfExecutionsToDelete);
+        saveProgress(progress);
         var purgeRunStartDate = LocalDateTime.now();
-        executionRepository.deleteAllByIdInBatch(executionIdsToDelete);
+        try {
+            List<Long> executionIdsToDelete;
+            while (!(executionIdsToDelete = executionRepository.findIdsToPurge(projectId, purgeThresholdDate.get(), PageRequest.of(0, EXECUTION_PAGE_SIZE))).isEmpty()) {
+                var deletedRowsBeforePage = progress.getDeletedRows();
+                for (Long executionId : executionIdsToDelete) {
+                    purgeExecution(projectId, executionId.longValue(), progress);
+                    saveProgress(progress);
+                }
+                if (progress.getDeletedRows() == deletedRowsBeforePage) {
+                    // The same executions would be returned again and again
+                    throw new IllegalStateException("No row deleted for executions " + executionIdsToDelete);
+                }
+            }
+            progress.end(PurgeProgress.Status.DONE);
+            saveProgress(progress);
+        } catch (RuntimeException e) {
+            progress.end(PurgeProgress.Status.FAILED);
+            saveProgress(progress);
+            LOG.error("Purge failed after {} deleted execution(s): it will resume at next purge", progress.getDeletedExecutions(), e);
+            return;
+        } finally {
+            deleteStaleStabilities(projectId, purgeThresholdDate.get());
+            if (progress.getDeletedExecutions() > 0) {
+                deleteUnusedDistinctValues(projectId);
+                dataVersionService.incrementAfterCommit(projectId);
+            }
+        }
         var purgeRunEndDate = LocalDateTime.now();
         var purgeDurationDescription = dateService.getFormattedDurationBetween2Dates(purgeRunStartDate, purgeRunEndDate);
         DateTimeFormatter detailedDateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss.SSS");
         LOG.info("Purge ran from {} to {} - ({})", purgeRunStartDate.format(detailedDateFormat), purgeRunEndDate.format(detailedDateFormat), purgeDurationDescription);
-        LOG.info("{} execution{} successfully deleted", numberOfDeletedExecutions, executionsPlural);
+        LOG.info("{} execution{} successfully deleted ({} rows)", progress.getDeletedExecutions(), executionsPlural, progress.getDeletedRows());
+    }
+
+    /**
+     * Archive the execution if enabled, then delete it bottom-up: its executed scenarios (and their children) by chunks of {@link #chunkSize}, then
+     * the execution itself. Each chunk is committed separately and throttled to {@link #maxRowsPerSecond}.
+     *
+     * @param projectId         the ID of the project of the execution
+     * @param executionId       the ID of the execution to delete
+     * @param progress          the progress of the current purge, to update
+     */
+    private void purgeExecution(long projectId, long executionId, PurgeProgress progress) {
+        if (executionArchiveService.isEnabled()) {
+            try {
+                executionArchiveService.archive(executionId);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot archive execution " + executionId + ": not purging it", e);
+            }
+        }
+        var runIds = runRepository.findIdsByExecutionId(executionId);
+        if (!runIds.isEmpty()) {
+            var chunk = PageRequest.of(0, chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE);
+            List<Long> executedScenarioIds;
+            while (!(executedScenarioIds = executedScenarioRepository.findIdsByRunIdIn(runIds, chunk)).isEmpty()) {
+                progress.addDeletedRows(purgeBatchService.deleteExecutedScenarios(projectId, executionId, executedScenarioIds));
+                throttle(progress);
+            }
+        }
+        progress.addDeletedRows(purgeBatchService.deleteExecution(projectId, executionId));
+        progress.addDeletedExecution();
+        throttle(progress);
+    }
+
+    /**
+     * Delete the distinct values no longer used by any execution, once for the whole purge.
+     *
+     * @param projectId the project id
+     */
+    private void deleteUnusedDistinctValues(long projectId) {
+        try {
+            LOG.info("{} unused distinct value(s) deleted", distinctValueService.deleteUnusedValues(projectId));
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot delete the unused distinct values: they will be deleted by the next purge", e);
+        }
+    }
+
+    /**
+     * Delete the scenario and problem stabilities last recorded in purged executions, once for the whole purge.
+     *
+     * @param projectId          the project id
+     * @param purgeThresholdDate the date before which executions are purged
+     */
+    private void deleteStaleStabilities(long projectId, Date purgeThresholdDate) {
+        try {
+            LOG.info("{} stale stability(ies) deleted", stabilityService.deleteStaleStabilities(projectId, purgeThresholdDate));
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot delete the stale stabilities: they will be deleted by the next purge", e);
+        }
+    }
+
+    /**
+     * @return true if the executed scenario history is partitioned, and its expired months can be dropped at once
+     */
+    private boolean isHistoryPartitioned() {
+        try {
+            return historyPartitionManager.isPartitioned();
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot check whether the executed scenario history is partitioned: the history will be purged row by row", e);
+            return false;
+        }
+    }
+
+    /**
+     * When the executed scenario history is partitioned, create the partitions of all projects for the coming months,
+     * and move the rows of their default partitions to their own partitions. Run once at startup, then by each purge of
+     * a project.
+     */
+    public void prepareHistoryPartitionsOfAllProjects() {
+        if (!isHistoryPartitioned()) {
+            return;
+        }
+        for (var project : projectService.findAll()) {
+            try {
+                historyPartitionManager.preparePartitions(project.getId().longValue());
+            } catch (RuntimeException e) {
+                LOG.warn("Cannot prepare the executed scenario history partitions of project '{}': its new history will be purged row by row",
+                        project.getCode(), e);
+            }
+        }
+    }
+
+    /**
+     * Create the partitions of the coming months of a project, as they elapse since startup.
+     *
+     * @param projectId the project id
+     */
+    private void prepareHistoryPartitions(long projectId) {
+        try {
+            historyPartitionManager.preparePartitions(projectId);
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot prepare the executed scenario history partitions: the new history will be purged row by row", e);
+        }
+    }
+
+    /**
+     * Drop the expired months of history at once, instead of deleting them row by row with their executions.
+     *
+     * @param projectId          the project id
+     * @param purgeThresholdDate the date before which executions are purged
+     */
+    private void dropHistoryPartitions(long projectId, Date purgeThresholdDate) {
+        try {
+            var droppedPartitions = historyPartitionManager.dropPartitionsBefore(projectId, purgeThresholdDate);
+            LOG.info("{} executed scenario history partition(s) dropped", droppedPartitions);
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot drop the executed scenario history partitions: the history will be purged row by row", e);
+        }
+    }
+
+    /**
+     * Sleep as long as needed for the purge not to delete more than {@link #maxRowsPerSecond} rows per second on average.
+     *
+     * @param progress the progress of the current purge
+     */
+    private void throttle(PurgeProgress progress) {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        var minimumElapsedMillis = progress.getDeletedRows() * 1000 / maxRowsPerSecond;
+        var elapsedMillis = System.currentTimeMillis() - progress.getStartDateTime().getTime();
+        if (minimumElapsedMillis > elapsedMillis) {
+            try {
+                Thread.sleep(minimumElapsedMillis - elapsedMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Purge interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * Save the progress of a purge, for the API of all nodes to report it: failing to save it does not stop the purge.
+     *
+     * @param progress the progress of the current purge
+     */
+    private void saveProgress(PurgeProgress progress) {
+        try {
+            projectPurgeProgressRepository.save(progress.toSaved());
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot save the progress of the purge of project {}", Long.valueOf(progress.getProjectId()), e);
+        }
+    }
+
+    /**
+     * @param projectId the project id
+     * @return the progress of the running or last purge of the project, whatever the node running it, if any
+     */
+    public Optional<PurgeProgress> getProgress(long projectId) {
+        return projectPurgeProgressRepository.findById(Long.valueOf(projectId)).map(PurgeProgress::new);
     }
 
     /**
@@ -17,11 +17,13 @@
 
 package com.decathlon.ara.scenario.common.service;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -32,8 +34,11 @@ import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.ExecutedScenarioHistory;
+import com.decathlon.ara.domain.Execution;
 import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.repository.ErrorRepository;
+import com.decathlon.ara.repository.ExecutedScenarioHistoryRepository;
 import com.decathlon.ara.repository.ExecutedScenarioRepository;
 import com.decathlon.ara.repository.FunctionalityRepository;
 import com.decathlon.ara.scenario.cucumber.util.ScenarioExtractorUtil;
@@ -54,6 +59,8 @@ public class ExecutedScenarioService {
 
     private final ExecutedScenarioRepository executedScenarioRepository;
 
+    private final ExecutedScenarioHistoryRepository executedScenarioHistoryRepository;
+
     private final ErrorRepository errorRepository;
 
     private final FunctionalityRepository functionalityRepository;
@@ -61,9 +68,11 @@ public class ExecutedScenarioService {
     private final GenericMapper mapper;
 
     public ExecutedScenarioService(ExecutedScenarioRepository executedScenarioRepository,
+            ExecutedScenarioHistoryRepository executedScenarioHistoryRepository,
             ErrorRepository errorRepository, FunctionalityRepository functionalityRepository,
             GenericMapper mapper) {
         this.executedScenarioRepository = executedScenarioRepository;
+        this.executedScenarioHistoryRepository = executedScenarioHistoryRepository;
         this.errorRepository = errorRepository;
         this.functionalityRepository = functionalityRepository;
         this.mapper = mapper;
@@ -72,22 +81,25 @@ public class ExecutedScenarioService {
     /**
      * @param projectId the ID of the project in which to work
      * @param input     containing the mandatory cucumberId of the scenario to get history, and optional filter parameters
-     * @return history of the execution of a scenario by its cucumberId
+     * @return history of the execution of a scenario by its cucumberId, read from the executed scenario history table
      * @throws BadRequestException if the mandatory cucumberId is null or empty
      */
+    @Transactional(readOnly = true)
     public List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> findHistory(long projectId, ExecutedScenarioHistoryInputDTO input) throws BadRequestException {
         if (StringUtils.isEmpty(input.getCucumberId())) {
             throw new BadRequestException(Messages.RULE_EXECUTED_SCENARIO_HISTORY_MANDATORY_CUCUMBER_ID, Entities.EXECUTED_SCENARIO, "mandatory_cucumber_id");
         }
 
-        final List<ExecutedScenario> executedScenarios = executedScenarioRepository.findHistory(
+        final List<ExecutedScenarioHistory> history = executedScenarioHistoryRepository.findHistory(
                 projectId,
                 input.getCucumberId(),
                 input.getBranch(),
                 input.getCycleName(),
                 input.getCountryCode(),
                 input.getRunTypeCode(),
-                input.getDuration());
+                input.getDuration(),
+                input.getLimit());
+        final List<ExecutedScenario> executedScenarios = findAllInHistoryOrder(history);
 
         final List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> dtoList =
                 mapper.mapCollection(executedScenarios, ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO.class);
@@ -98,6 +110,19 @@ public class ExecutedScenarioService {
         return dtoList;
     }
 
+    /**
+     * Append all executed scenarios of a freshly saved execution to the executed scenario history table.
+     * If the execution was already indexed before, its previous history rows are replaced.
+     *
+     * @param execution the saved execution
+     */
+    public void appendToHistory(Execution execution) {
+        // The INSERT ... SELECT statement reads the executed scenarios from database: they must be written first
+        executedScenarioHistoryRepository.flush();
+        executedScenarioHistoryRepository.deleteByExecutionId(execution.getId());
+        executedScenarioHistoryRepository.appendExecution(execution.getId());
+    }
+
     /**
      * Return the basic informations of an executed scenario from its id.
      *
@@ -110,18 +135,37 @@ public class ExecutedScenarioService {
         return mapper.map(executedScenario, ExecutedScenarioDTO.class);
     }
 
+    private List<ExecutedScenario> findAllInHistoryOrder(List<ExecutedScenarioHistory> history) {
+        if (history.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Map<Long, ExecutedScenario> executedScenariosById = executedScenarioRepository.findAllById(history.stream()
+                .map(ExecutedScenarioHistory::getExecutedScenarioId)
+                .toList()).stream()
+                .collect(Collectors.toMap(ExecutedScenario::getId, Function.identity()));
+        return history.stream()
+                .map(row -> executedScenariosById.get(row.getExecutedScenarioId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     private void assignProblemsToErrors(List<ExecutedScenario> executedScenarios, List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> dtoList) {
         // Error has problemPatterns, leading to problems, but ErrorWithProblemsDTO directly has a list of problems: fill list manually
-        Map<Error, List<Problem>> errorsProblems = errorRepository.getErrorsProblems(flattenErrors(executedScenarios));
+        Map<Long, List<Problem>> errorsProblems = errorRepository.getErrorsProblems(flattenErrors(executedScenarios)).entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().getId(), Map.Entry::getValue));
         for (ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO executedScenarioDto : dtoList) {
             for (ErrorWithProblemsDTO errorDto : executedScenarioDto.getErrors()) {
-                errorDto.setProblems(mapper.mapCollection(getErrorProblems(errorsProblems, errorDto.getId()), ProblemDTO.class));
+                errorDto.setProblems(mapper.mapCollection(errorsProblems.getOrDefault(errorDto.getId(), Collections.emptyList()), ProblemDTO.class));
             }
         }
     }
 
     private void assignTeamsToExecutedScenarios(long projectId, List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> executedScenarios) {
-        final Map<Long, Long> functionalityTeamIds = functionalityRepository.getFunctionalityTeamIds(projectId);
+        // Only the functionalities covered by the returned scenarios are read, not all the ones of the project
+        final Set<Long> functionalityIds = executedScenarios.stream()
+                .flatMap(executedScenario -> ScenarioExtractorUtil.extractFunctionalityIds(executedScenario.getName()).stream())
+                .collect(Collectors.toSet());
+        final Map<Long, Long> functionalityTeamIds = functionalityRepository.getFunctionalityTeamIds(projectId, functionalityIds);
         for (ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO executedScenario : executedScenarios) {
             executedScenario.setTeamIds(ScenarioExtractorUtil.extractFunctionalityIds(executedScenario.getName()).stream()
                     .map(functionalityTeamIds::get)
@@ -136,13 +180,4 @@ public class ExecutedScenarioService {
                 .toList();
     }
 
-    private List<Problem> getErrorProblems(Map<Error, List<Problem>> errorsProblems, Long errorId) {
-        for (Map.Entry<Error, List<Problem>> entry : errorsProblems.entrySet()) {
-            if (entry.getKey().getId().equals(errorId)) {
-                return entry.getValue();
-            }
-        }
-        return new ArrayList<>();
-    }
-
 }
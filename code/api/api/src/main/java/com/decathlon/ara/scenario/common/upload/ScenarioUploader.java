@@ -2,6 +2,7 @@ package com.decathlon.ara.scenario.common.upload;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.*;
 import com.decathlon.ara.domain.enumeration.FunctionalityType;
 import com.decathlon.ara.domain.enumeration.Technology;
@@ -42,15 +43,18 @@ public class ScenarioUploader {
 
     private final CountryRepository countryRepository;
 
+    private final DataVersionService dataVersionService;
+
     public ScenarioUploader(ScenarioRepository scenarioRepository, FunctionalityRepository functionalityRepository,
             SourceRepository sourceRepository, EntityManager entityManager, SeverityRepository severityRepository,
-            CountryRepository countryRepository) {
+            CountryRepository countryRepository, DataVersionService dataVersionService) {
         this.scenarioRepository = scenarioRepository;
         this.functionalityRepository = functionalityRepository;
         this.sourceRepository = sourceRepository;
         this.entityManager = entityManager;
         this.severityRepository = severityRepository;
         this.countryRepository = countryRepository;
+        this.dataVersionService = dataVersionService;
     }
 
     public void processUploadedContent(long projectId, String sourceCode, Technology expectedTechnology, ScenarioListSupplier scenarioExtractor) throws BadRequestException {
@@ -88,6 +92,7 @@ public class ScenarioUploader {
         functionalityRepository.saveAll(functionalities);
         LOG.info("SCENARIO|{} features updated for source {}", functionalities.size(), sourceCode);
         LOG.info("SCENARIO|Coverage complete!");
+        dataVersionService.incrementFunctionalityVersionAfterCommit(projectId);
     }
 
     private Set<Functionality> deleteScenariosFromSameSource(Source source, Set<Functionality> functionalities) {
@@ -178,15 +183,23 @@ public class ScenarioUploader {
 
     /**
      * @param functionalities the functionalities in which to append matching scenarios for the list of new scenarios
-     * @param newScenarios    the new scenarios to append to matching functionalities (excluding folders)
+     * @param newScenarios    the new scenarios to append to matching functionalities (excluding folders), and for
+     *                        which to maintain the functionality count and errors flag
      */
-    private static void assignCoverage(Collection<Functionality> functionalities, List<Scenario> newScenarios) {
-        for (Functionality functionality : functionalities) {
-            for (Scenario scenario : newScenarios) {
-                if (ScenarioExtractorUtil.extractFunctionalityIds(scenario.getName()).contains(functionality.getId())) {
+    static void assignCoverage(Collection<Functionality> functionalities, List<Scenario> newScenarios) {
+        Map<Long, Functionality> functionalitiesById = functionalities.stream()
+                .collect(Collectors.toMap(Functionality::getId, Function.identity()));
+        for (Scenario scenario : newScenarios) {
+            int functionalityCount = 0;
+            for (Long functionalityId : new LinkedHashSet<>(ScenarioExtractorUtil.extractFunctionalityIds(scenario.getName()))) {
+                Functionality functionality = functionalitiesById.get(functionalityId);
+                if (functionality != null) {
                     functionality.addScenario(scenario);
+                    functionalityCount++;
                 }
             }
+            scenario.setFunctionalityCount(functionalityCount);
+            scenario.updateFunctionalityErrors();
         }
     }
 
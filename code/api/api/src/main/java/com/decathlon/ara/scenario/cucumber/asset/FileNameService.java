@@ -20,6 +20,8 @@ package com.decathlon.ara.scenario.cucumber.asset;
 import static com.decathlon.ara.lib.embed.producer.StructuredEmbeddingsBuilder.HUMAN_AND_MACHINE_READABLE_TIMESTAMP_PATTERN;
 
 import java.text.SimpleDateFormat;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
@@ -36,6 +38,13 @@ public class FileNameService {
 
     private final DateService dateService;
 
+    /**
+     * The file names generated during the current millisecond: assets are saved in parallel, and must not overwrite each other.
+     */
+    private final Set<String> currentMillisecondNames = new HashSet<>();
+
+    private String currentMillisecond;
+
     public FileNameService(DateService dateService) {
         this.dateService = dateService;
     }
@@ -44,13 +53,23 @@ public class FileNameService {
      * @param scenarioName the raw scenario name, as displayed to users
      * @param extension    file extension without the dot; can be null or empty to generate a file name without extension (for a folder, for
      *                     instance)
-     * @return a file or folder name with current date, time and scenario name escaped
+     * @return a file or folder name with current date, time and scenario name escaped (and suffixed with a number if the same name was
+     * already generated during the same millisecond)
      */
-    String generateReportFileName(final String scenarioName, final String extension) {
+    synchronized String generateReportFileName(final String scenarioName, final String extension) {
         final String truncatedScenarioName = StringUtils.left(scenarioName, MAX_SCENARIO_NAME_LENGTH);
         final String safeScenarioName = truncatedScenarioName.replace(' ', '-').replaceAll("[^a-zA-Z0-9\\-]", "");
         final String formattedDate = new SimpleDateFormat(HUMAN_AND_MACHINE_READABLE_TIMESTAMP_PATTERN).format(dateService.now());
-        return formattedDate + "-" + safeScenarioName + (StringUtils.isEmpty(extension) ? "" : ("." + extension));
+        if (!formattedDate.equals(currentMillisecond)) {
+            currentMillisecond = formattedDate;
+            currentMillisecondNames.clear();
+        }
+        final String baseName = formattedDate + "-" + safeScenarioName;
+        String name = baseName;
+        for (int index = 2; !currentMillisecondNames.add(name); index++) {
+            name = baseName + "-" + index;
+        }
+        return name + (StringUtils.isEmpty(extension) ? "" : ("." + extension));
     }
 
 }
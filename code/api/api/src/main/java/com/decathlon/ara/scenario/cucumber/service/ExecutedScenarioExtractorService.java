@@ -26,12 +26,19 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import com.decathlon.ara.ci.bean.IndexingStage;
+import com.decathlon.ara.ci.service.IndexingMetrics;
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
 import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.enumeration.Technology;
 import com.decathlon.ara.lib.embed.consumer.StructuredEmbeddingsHolder;
 import com.decathlon.ara.scenario.cucumber.asset.AssetService;
 import com.decathlon.ara.scenario.cucumber.bean.Element;
@@ -52,8 +59,15 @@ public class ExecutedScenarioExtractorService {
 
     private final AssetService assetService;
 
-    public ExecutedScenarioExtractorService(AssetService assetService) {
+    private final IndexingMetrics indexingMetrics;
+
+    private final Executor assetExecutor;
+
+    public ExecutedScenarioExtractorService(AssetService assetService, IndexingMetrics indexingMetrics,
+            @Qualifier(ExecutorsConfiguration.ASSET_EXECUTOR) Executor assetExecutor) {
         this.assetService = assetService;
+        this.indexingMetrics = indexingMetrics;
+        this.assetExecutor = assetExecutor;
     }
 
     /**
@@ -61,22 +75,25 @@ public class ExecutedScenarioExtractorService {
      * @param stepDefinitions a parsed stepDefinitions.json file/stream generated by functional-test-base-core's CliRunner containing a list of
      *                        regular expressions for all known Cucumber' steps
      * @param runJobUrl       the continuous integration job URL of the run of these features
-     * @return a list of executed-scenarios, with errors for failed scenarios; screenshots have been uploaded; all errors have no Run associated with
+     * @return a list of executed-scenarios, with errors for failed scenarios; screenshots have been uploaded (in parallel, on the asset pool);
+     * all errors have no Run associated with
      */
     public List<ExecutedScenario> extractExecutedScenarios(List<Feature> features, List<String> stepDefinitions, String runJobUrl) {
         final List<ExecutedScenario> executedScenarios = new ArrayList<>();
+        final List<CompletableFuture<Void>> screenshotUploads = new ArrayList<>();
         ExecutedScenario lastBackground = null;
         for (Feature feature : features) {
             for (Element element : feature.getElements()) {
                 if (element.isBackground()) {
                     lastBackground = extractBackground(stepDefinitions, element);
                 } else if (element.isScenario()) {
-                    executedScenarios.add(extractExecutedScenario(stepDefinitions, feature, element, runJobUrl, lastBackground));
+                    executedScenarios.add(extractExecutedScenario(stepDefinitions, feature, element, runJobUrl, lastBackground, screenshotUploads));
                     lastBackground = null;
                 }
             }
             lastBackground = null;
         }
+        CompletableFuture.allOf(screenshotUploads.toArray(CompletableFuture[]::new)).join();
         return executedScenarios;
     }
 
@@ -87,7 +104,8 @@ public class ExecutedScenarioExtractorService {
         return background;
     }
 
-    private ExecutedScenario extractExecutedScenario(List<String> stepDefinitions, Feature feature, Element scenario, String runJobUrl, ExecutedScenario lastBackground) {
+    private ExecutedScenario extractExecutedScenario(List<String> stepDefinitions, Feature feature, Element scenario, String runJobUrl, ExecutedScenario lastBackground,
+            List<CompletableFuture<Void>> screenshotUploads) {
         Set<String> featureTags = Tag.names(feature.getTags());
         Set<String> scenarioTags = Tag.names(scenario.getTags());
         Set<String> allTags = Sets.union(featureTags, scenarioTags);
@@ -106,7 +124,12 @@ public class ExecutedScenarioExtractorService {
         executedScenario.setLine(scenario.getLine().intValue());
         executedScenario.setContent(CucumberReportUtil.extractScenarioContent(scenario, lastBackground == null ? null : lastBackground.getContent()));
         executedScenario.setStartDateTime(extractStartDateTime(structuredEmbeddings));
-        executedScenario.setScreenshotUrl(extractScreenshotUrl(structuredEmbeddings, scenario));
+        executedScenario.setScreenshotUrl(extractStringData(structuredEmbeddings, "screenshotUrl"));
+        if (executedScenario.getScreenshotUrl() == null) {
+            scenario.extractScreenshot().ifPresent(screenshot -> screenshotUploads.add(CompletableFuture
+                    .supplyAsync(indexingMetrics.inCurrentTrace(() -> saveScreenshot(screenshot, scenario.getName())), assetExecutor)
+                    .thenAccept(executedScenario::setScreenshotUrl)));
+        }
         executedScenario.setVideoUrl(extractVideoUrl(structuredEmbeddings, scenario));
         executedScenario.setLogsUrl(extractStringData(structuredEmbeddings, "logsUrl"));
         executedScenario.setHttpRequestsUrl(extractStringData(structuredEmbeddings, "httpRequestsUrl"));
@@ -127,12 +150,13 @@ public class ExecutedScenarioExtractorService {
         return executedScenario;
     }
 
-    private String extractScreenshotUrl(Optional<StructuredEmbeddingsHolder> structuredEmbeddings, Element scenario) {
-        return structuredEmbeddings
-                .flatMap(e -> e.extractStringData("screenshotUrl"))
-                .orElseGet(() -> scenario.extractScreenshot()
-                        .map(bytes -> assetService.saveScreenshot(bytes, scenario.getName()))
-                        .orElse(null));
+    private String saveScreenshot(byte[] screenshot, String scenarioName) {
+        String technology = Technology.CUCUMBER.name();
+        String url = indexingMetrics.time(IndexingStage.ASSET_UPLOAD, technology, () -> assetService.saveScreenshot(screenshot, scenarioName));
+        if (url != null) {
+            indexingMetrics.countAsset(technology, screenshot.length);
+        }
+        return url;
     }
 
     private String extractVideoUrl(Optional<StructuredEmbeddingsHolder> structuredEmbeddings, Element scenario) {
@@ -31,6 +31,8 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
@@ -44,12 +46,17 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
+import com.decathlon.ara.ci.bean.IndexingStage;
+import com.decathlon.ara.ci.service.IndexingMetrics;
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
 import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.domain.Source;
+import com.decathlon.ara.domain.enumeration.Technology;
 import com.decathlon.ara.scenario.cucumber.asset.AssetService;
 import com.decathlon.ara.scenario.cucumber.bean.Status;
 import com.decathlon.ara.scenario.cucumber.bean.Tag;
@@ -99,9 +106,16 @@ public class PostmanService {
 
     private final AssetService assetService;
 
-    public PostmanService(ObjectMapper objectMapper, AssetService assetService) {
+    private final IndexingMetrics indexingMetrics;
+
+    private final Executor assetExecutor;
+
+    public PostmanService(ObjectMapper objectMapper, AssetService assetService, IndexingMetrics indexingMetrics,
+            @Qualifier(ExecutorsConfiguration.ASSET_EXECUTOR) Executor assetExecutor) {
         this.objectMapper = objectMapper;
         this.assetService = assetService;
+        this.indexingMetrics = indexingMetrics;
+        this.assetExecutor = assetExecutor;
     }
 
     /**
@@ -689,13 +703,22 @@ public class PostmanService {
 
         final String collectionFileName = toCollectionFileName(run.getType().getSource(), newmanReportPath);
         final String collectionName = result.getCollection().getInfo().getName();
+        final List<CompletableFuture<Void>> httpLogUploads = new ArrayList<>();
         for (NewmanScenario newmanScenario : newmanScenarios) {
             newmanScenario.getScenario().setFeatureFile(collectionFileName);
             newmanScenario.getScenario().setFeatureName(collectionName);
-            newmanScenario.getScenario().setHttpRequestsUrl(uploadHttpLog(newmanScenario));
+            if (newmanScenario.getFailures().isEmpty()) {
+                newmanScenario.getScenario().setHttpRequestsUrl(uploadHttpLog(newmanScenario));
+            } else {
+                // Failed requests have their HTTP logs uploaded in parallel, on the asset pool
+                httpLogUploads.add(CompletableFuture
+                        .supplyAsync(indexingMetrics.inCurrentTrace(() -> uploadHttpLog(newmanScenario)), assetExecutor)
+                        .thenAccept(newmanScenario.getScenario()::setHttpRequestsUrl));
+            }
             newmanScenario.getScenario().setCucumberReportUrl(run.getJobUrl() + "Postman_Collection_Results/");
             newmanScenario.getScenario().setStartDateTime(getStartDateTime(newmanScenario.getExecution().getResponse()).map(Date::from).orElse(null));
         }
+        CompletableFuture.allOf(httpLogUploads.toArray(CompletableFuture[]::new)).join();
 
         return newmanScenarios.stream()
                 .map(NewmanScenario::getScenario)
@@ -749,7 +772,12 @@ public class PostmanService {
             String html = generateHttpLogHtml(newmanScenario);
 
             try {
-                return assetService.saveHttpLogs(html);
+                String technology = Technology.POSTMAN.name();
+                String url = indexingMetrics.time(IndexingStage.ASSET_UPLOAD, technology, () -> assetService.saveHttpLogs(html));
+                if (url != null) {
+                    indexingMetrics.countAsset(technology, html.length());
+                }
+                return url;
             } finally {
                 deleteTempFile(newmanScenario.getExecution().getResponse());
             }
@@ -24,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Country;
 import com.decathlon.ara.repository.CountryDeploymentRepository;
 import com.decathlon.ara.repository.CountryRepository;
@@ -60,10 +61,12 @@ public class CountryService {
 
     private final GenericMapper mapper;
 
+    private final DataVersionService dataVersionService;
+
     public CountryService(CountryRepository repository, CountryDeploymentRepository countryDeploymentRepository,
             RunRepository runRepository, ProblemPatternRepository problemPatternRepository,
             FunctionalityRepository functionalityRepository, ScenarioRepository scenarioRepository,
-            GenericMapper mapper) {
+            GenericMapper mapper, DataVersionService dataVersionService) {
         this.repository = repository;
         this.countryDeploymentRepository = countryDeploymentRepository;
         this.runRepository = runRepository;
@@ -71,6 +74,7 @@ public class CountryService {
         this.functionalityRepository = functionalityRepository;
         this.scenarioRepository = scenarioRepository;
         this.mapper = mapper;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -93,6 +97,7 @@ public class CountryService {
 
         final Country entity = mapper.map(dtoToCreate, Country.class);
         entity.setProjectId(projectId);
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(repository.save(entity), CountryDTO.class);
     }
 
@@ -114,6 +119,7 @@ public class CountryService {
         entity.setId(dataBaseEntity == null ? null : dataBaseEntity.getId());
         entity.setProjectId(projectId);
         final CountryDTO dto = mapper.map(repository.save(entity), CountryDTO.class);
+        dataVersionService.incrementAfterCommit(projectId);
         return new UpsertResultDTO<>(dto, operation);
     }
 
@@ -145,6 +151,7 @@ public class CountryService {
         checkNotUsed(entity);
 
         repository.delete(entity);
+        dataVersionService.incrementAfterCommit(projectId);
     }
 
     private void validateBusinessRules(long projectId, CountryDTO dto) throws NotUniqueException {
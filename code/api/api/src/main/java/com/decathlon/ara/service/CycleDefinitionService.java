@@ -25,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.CycleDefinition;
 import com.decathlon.ara.repository.CycleDefinitionRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
@@ -47,11 +48,14 @@ public class CycleDefinitionService {
 
     private final ExecutionRepository executionRepository;
 
+    private final DataVersionService dataVersionService;
+
     public CycleDefinitionService(CycleDefinitionRepository repository, GenericMapper mapper,
-            ExecutionRepository executionRepository) {
+            ExecutionRepository executionRepository, DataVersionService dataVersionService) {
         this.repository = repository;
         this.mapper = mapper;
         this.executionRepository = executionRepository;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -68,6 +72,7 @@ public class CycleDefinitionService {
         entity.setProjectId(projectId);
         final CycleDefinition savedEntity = repository.save(entity);
         updateBranchPositions(projectId, savedEntity.getBranch(), savedEntity.getBranchPosition());
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(savedEntity, CycleDefinitionDTO.class);
     }
 
@@ -93,6 +98,7 @@ public class CycleDefinitionService {
         entity.setProjectId(projectId);
         final CycleDefinition savedEntity = repository.save(entity);
         updateBranchPositions(projectId, savedEntity.getBranch(), savedEntity.getBranchPosition());
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(savedEntity, CycleDefinitionDTO.class);
     }
 
@@ -126,6 +132,7 @@ public class CycleDefinitionService {
         }
 
         repository.delete(entity);
+        dataVersionService.incrementAfterCommit(projectId);
     }
 
     private void validateBusinessRules(long projectId, CycleDefinitionDTO dto) throws NotUniqueException {
@@ -17,6 +17,7 @@
 
 package com.decathlon.ara.service;
 
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.ci.util.FetchException;
 import com.decathlon.ara.common.NotGonnaHappenException;
 import com.decathlon.ara.defect.DefectAdapter;
@@ -26,21 +27,22 @@ import com.decathlon.ara.domain.Project;
 import com.decathlon.ara.domain.enumeration.DefectExistence;
 import com.decathlon.ara.domain.enumeration.ProblemStatus;
 import com.decathlon.ara.repository.ProblemRepository;
-import com.decathlon.ara.repository.ProjectRepository;
 import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.support.Settings;
 import com.decathlon.ara.service.util.DateService;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Handles synchronization of problem statuses with their external defects.<br>
@@ -53,13 +55,21 @@ public class DefectService {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefectService.class);
 
+    private static final int BULK_UPDATE_CHUNK_SIZE = 1000;
+
+    private static final int DEFAULT_BULK_UPDATE_THRESHOLD = 100;
+
+    /**
+     * The number of changed problems from which they are updated in bulk instead of one by one.
+     */
+    @Value("${ara.defect.bulk-update-threshold:" + DEFAULT_BULK_UPDATE_THRESHOLD + "}")
+    private int bulkUpdateThreshold = DEFAULT_BULK_UPDATE_THRESHOLD;
+
     final Map<Long, Date> lastFullIndexDates = new ConcurrentHashMap<>();
     final Map<Long, Date> lastIncrementalIndexDates = new ConcurrentHashMap<>();
 
     private final SettingService settingService;
 
-    private final ProjectRepository projectRepository;
-
     private final ProblemRepository problemRepository;
 
     private final DateService dateService;
@@ -68,20 +78,22 @@ public class DefectService {
 
     private final ApplicationContext applicationContext;
 
+    private final DataVersionService dataVersionService;
+
     /**
      * Lazy-loaded: to be used through {@link #getAdapters()}.
      */
     private List<DefectAdapter> adapters;
 
-    public DefectService(@Lazy SettingService settingService, ProjectRepository projectRepository,
-            ProblemRepository problemRepository, DateService dateService,
-            TransactionAppenderUtil transactionAppenderUtil, ApplicationContext applicationContext) {
+    public DefectService(@Lazy SettingService settingService, ProblemRepository problemRepository, DateService dateService,
+            TransactionAppenderUtil transactionAppenderUtil, ApplicationContext applicationContext,
+            DataVersionService dataVersionService) {
         this.settingService = settingService;
-        this.projectRepository = projectRepository;
         this.problemRepository = problemRepository;
         this.dateService = dateService;
         this.transactionAppenderUtil = transactionAppenderUtil;
         this.applicationContext = applicationContext;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -122,38 +134,27 @@ public class DefectService {
         return adapters;
     }
 
-    @Scheduled(fixedDelayString = "${ara.defectSyncSchedulingDelayInMilliseconds}",
-            initialDelayString = "${ara.defectSyncSchedulingInitialDelayInMilliseconds}")
+    /**
+     * Index the defects of a project: all of them once an hour, only the changed ones otherwise.<br>
+     * Called for each project by {@link com.decathlon.ara.defect.scheduler.DefectSyncScheduler}.
+     *
+     * @param project       the project in which to work
+     * @param defectAdapter the defect adapter configured for the project
+     * @throws FetchException if the defect tracking system failed: the indexing dates are left untouched, so
+     *                        failed-to-index defects will have a chance to be re-indexed next time
+     */
     @Transactional
-    public void updateStatuses() {
-        for (Project project : projectRepository.findAllByOrderByName()) {
-            getAdapter(project.getId().longValue())
-                    .ifPresent(adapter -> updateStatuses(project, adapter));
-        }
-    }
-
-    void updateStatuses(Project project, DefectAdapter defectAdapter) {
+    public void updateStatuses(Project project, DefectAdapter defectAdapter) throws FetchException {
         final Long projectId = project.getId();
         final Date startDate = dateService.now();
 
-        try {
-            if (needFullIndexing(projectId, startDate)) {
-                fullIndex(project, defectAdapter);
-                lastFullIndexDates.put(projectId, startDate);
-            } else {
-                incrementalIndex(project, defectAdapter, lastIncrementalIndexDates.get(projectId));
-            }
-
-            // Only fullIndex() and incrementalIndex() are @Transactional
-            // This is to ensure everything went well (no exception before or on commit)
-            // before changing the last indexing date
-            // (to be sure failed-to-index defects will have a chance to be re-indexed next time)
-            lastIncrementalIndexDates.put(projectId, startDate);
-        } catch (FetchException e) {
-            // Also catch RuntimeException to not impact calling code in case of a faulty DefectAdapter in a custom ARA
-            LOG.error("DEFECT|Failed to index defects of project " + project.getName() + ": " +
-                    "will perhaps have a better chance later...", e);
+        if (needFullIndexing(projectId, startDate)) {
+            fullIndex(project, defectAdapter);
+            lastFullIndexDates.put(projectId, startDate);
+        } else {
+            incrementalIndex(project, defectAdapter, lastIncrementalIndexDates.get(projectId));
         }
+        lastIncrementalIndexDates.put(projectId, startDate);
     }
 
     boolean needFullIndexing(Long projectId, Date now) {
@@ -194,8 +195,8 @@ public class DefectService {
      */
     @Transactional
     public void refreshDefectExistences(long projectId) {
-        problemRepository.findByProjectIdAndDefectExistenceIsNotAndDefectIdIsNotNull(projectId, DefectExistence.UNKNOWN)
-                .forEach(problem -> problem.setDefectExistence(DefectExistence.UNKNOWN));
+        problemRepository.updateDefectExistenceByProjectId(projectId, DefectExistence.UNKNOWN);
+        dataVersionService.incrementAfterCommit(projectId);
 
         // Flag the project to get new full indexing (indexing is done in another thread)
         transactionAppenderUtil.doAfterCommit(() -> lastFullIndexDates.remove(projectId));
@@ -203,24 +204,15 @@ public class DefectService {
 
     private void incrementalIndex(long projectId, DefectAdapter defectAdapter, Date since, List<Problem> problems) throws FetchException {
         // Get updated/created defects since last successful indexing, and update associated problems, if any
-        final List<Problem> problemsToUpdate = new ArrayList<>();
+        final Map<String, List<Problem>> problemsByDefectId = problems.stream()
+                .collect(Collectors.groupingBy(Problem::getDefectId));
+        final Map<DefectState, List<Problem>> changes = new HashMap<>();
         for (Defect defect : defectAdapter.getChangedDefects(projectId, since)) {
-            final Optional<Problem> maybeProblem = problems.stream()
-                    .filter(p -> defect.getId().equals(p.getDefectId()))
-                    .findFirst();
-            if (maybeProblem.isPresent()) {
-                Problem problem = maybeProblem.get();
-                if (problem.getDefectExistence() != DefectExistence.EXISTS ||
-                        problem.getStatus() != defect.getStatus() ||
-                        !areEqualDownToSeconds(problem.getClosingDateTime(), defect.getCloseDateTime())) {
-                    problem.setDefectExistence(DefectExistence.EXISTS);
-                    problem.setStatus(defect.getStatus());
-                    problem.setClosingDateTime(defect.getCloseDateTime());
-                    problemsToUpdate.add(problem);
-                }
+            for (Problem problem : problemsByDefectId.getOrDefault(defect.getId(), Collections.emptyList())) {
+                addIfChanged(changes, problem, DefectState.of(defect));
             }
         }
-        problemRepository.saveAll(problemsToUpdate);
+        applyDefectStates(changes);
 
         // Force indexing UNKNOWN for defects assigned while the defect tracking system was down
         final List<Problem> unknownProblems = problems.stream()
@@ -235,33 +227,58 @@ public class DefectService {
     }
 
     void updateDefectAssignations(List<Problem> problems, List<Defect> statuses) {
-        final List<Problem> problemsToUpdate = new ArrayList<>();
+        final Map<String, Defect> defectsById = statuses.stream()
+                .collect(Collectors.toMap(Defect::getId, Function.identity(), (first, second) -> first));
+        final Map<DefectState, List<Problem>> changes = new HashMap<>();
         for (Problem problem : problems) {
-            final Optional<Defect> defect = statuses.stream()
-                    .filter(d -> problem.getDefectId().equals(d.getId()))
-                    .findFirst();
-            if (defect.isPresent()) {
-                if (problem.getDefectExistence() != DefectExistence.EXISTS ||
-                        problem.getStatus() != defect.get().getStatus() ||
-                        !areEqualDownToSeconds(problem.getClosingDateTime(), defect.get().getCloseDateTime())) {
-                    problem.setDefectExistence(DefectExistence.EXISTS);
-                    problem.setStatus(defect.get().getStatus());
-                    problem.setClosingDateTime(defect.get().getCloseDateTime());
-                    problemsToUpdate.add(problem);
-                }
-            } else {
-                if (problem.getDefectExistence() != DefectExistence.NONEXISTENT ||
-                        problem.getStatus() != ProblemStatus.OPEN ||
-                        problem.getClosingDateTime() != null) {
-                    problem.setDefectExistence(DefectExistence.NONEXISTENT);
-                    problem.setStatus(ProblemStatus.OPEN); // In case defect was closed and removed: it should be acted on
-                    problem.setClosingDateTime(null); // Not CLOSED anymore (if it was)
-                    problemsToUpdate.add(problem);
-                }
-            }
+            final Defect defect = defectsById.get(problem.getDefectId());
+            // A problem whose defect was closed and removed is reopened: it should be acted on
+            addIfChanged(changes, problem, defect == null ? DefectState.NONEXISTENT : DefectState.of(defect));
         }
+        applyDefectStates(changes);
+    }
 
-        problemRepository.saveAll(problemsToUpdate);
+    private void addIfChanged(Map<DefectState, List<Problem>> changes, Problem problem, DefectState state) {
+        if (problem.getDefectExistence() != state.defectExistence() ||
+                problem.getStatus() != state.status() ||
+                !areEqualDownToSeconds(problem.getClosingDateTime(), state.closingDateTime())) {
+            changes.computeIfAbsent(state, key -> new ArrayList<>()).add(problem);
+        }
+    }
+
+    /**
+     * Save the new defect states of the changed problems.<br>
+     * A few changes are saved problem by problem, so their second-level cache entries are updated in place.
+     * Above {@link #bulkUpdateThreshold}, problems are updated with one statement per target state (and per
+     * {@link #BULK_UPDATE_CHUNK_SIZE} problems): such a statement evicts all cached problems, but once instead of
+     * issuing thousands of updates.
+     *
+     * @param changes the problems to update, grouped by their new defect state
+     */
+    private void applyDefectStates(Map<DefectState, List<Problem>> changes) {
+        final List<Problem> problemsToUpdate = changes.values().stream()
+                .flatMap(List::stream)
+                .toList();
+        problemsToUpdate.stream()
+                .mapToLong(Problem::getProjectId)
+                .distinct()
+                .forEach(dataVersionService::incrementAfterCommit);
+        if (problemsToUpdate.size() < bulkUpdateThreshold) {
+            changes.forEach((state, problems) -> problems.forEach(state::applyTo));
+            problemRepository.saveAll(problemsToUpdate);
+            return;
+        }
+
+        changes.forEach((state, problems) -> {
+            final List<Long> ids = problems.stream().map(Problem::getId).toList();
+            for (int i = 0; i < ids.size(); i += BULK_UPDATE_CHUNK_SIZE) {
+                problemRepository.updateDefectStates(ids.subList(i, Math.min(i + BULK_UPDATE_CHUNK_SIZE, ids.size())),
+                        state.defectExistence(), state.status(), state.closingDateTime());
+            }
+        });
+        // The updates cleared the persistence context: keep the now-detached problems up to date for the caller
+        changes.forEach((state, problems) -> problems.forEach(state::applyTo));
+        LOG.debug("DEFECT|Bulk-updated {} problems to {} defect states", problemsToUpdate.size(), changes.size());
     }
 
     /**
@@ -287,4 +304,23 @@ public class DefectService {
         return bothNull || (bothNotNull && (date1.getTime() / 1000) == (date2.getTime() / 1000));
     }
 
+    /**
+     * The defect-related properties of a problem, as reported by the defect tracking system.
+     */
+    record DefectState(DefectExistence defectExistence, ProblemStatus status, Date closingDateTime) {
+
+        static final DefectState NONEXISTENT = new DefectState(DefectExistence.NONEXISTENT, ProblemStatus.OPEN, null);
+
+        static DefectState of(Defect defect) {
+            return new DefectState(DefectExistence.EXISTS, defect.getStatus(), defect.getCloseDateTime());
+        }
+
+        void applyTo(Problem problem) {
+            problem.setDefectExistence(defectExistence);
+            problem.setStatus(status);
+            problem.setClosingDateTime(closingDateTime);
+        }
+
+    }
+
 }
@@ -21,6 +21,7 @@ import static com.decathlon.ara.loader.DemoLoaderConstants.PROJECT_CODE_DEMO;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +34,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.CacheInvalidationService;
 import com.decathlon.ara.domain.Project;
 import com.decathlon.ara.loader.DemoExecutionLoader;
 import com.decathlon.ara.loader.DemoFunctionalityLoader;
@@ -72,11 +74,14 @@ public class DemoService {
 
     private final DemoSettingsLoader demoSettingsLoader;
 
+    private final CacheInvalidationService cacheInvalidationService;
+
     @Autowired
     public DemoService(ProjectRepository projectRepository, ProjectService projectService,
             SettingService settingService, DemoExecutionLoader demoExecutionLoader,
             DemoFunctionalityLoader demoFunctionalityLoader, DemoProblemLoader demoProblemLoader,
-            DemoScenarioLoader demoScenarioLoader, DemoSettingsLoader demoSettingsLoader) {
+            DemoScenarioLoader demoScenarioLoader, DemoSettingsLoader demoSettingsLoader,
+            CacheInvalidationService cacheInvalidationService) {
         this.projectRepository = projectRepository;
         this.projectService = projectService;
         this.settingService = settingService;
@@ -85,6 +90,7 @@ public class DemoService {
         this.demoProblemLoader = demoProblemLoader;
         this.demoScenarioLoader = demoScenarioLoader;
         this.demoSettingsLoader = demoSettingsLoader;
+        this.cacheInvalidationService = cacheInvalidationService;
     }
 
     /**
@@ -138,6 +144,7 @@ public class DemoService {
                 Settings.EXECUTION_INDEXER_FILE_EXECUTION_BASE_PATH);
 
         projectRepository.delete(project);
+        cacheInvalidationService.evictAfterCommit(ProjectRegistry.PROJECT_REGION, Collections.singleton(project.getId()));
 
         if (executionBasePath.contains(Settings.PROJECT_VARIABLE)) {
             final String projectExecutionsFolder = executionBasePath
@@ -0,0 +1,232 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.DistinctValue;
+import com.decathlon.ara.domain.Type;
+import com.decathlon.ara.domain.enumeration.DistinctProperty;
+import com.decathlon.ara.domain.projection.ValueCount;
+import com.decathlon.ara.repository.CountryRepository;
+import com.decathlon.ara.repository.DistinctValueRepository;
+import com.decathlon.ara.repository.TypeRepository;
+import com.decathlon.ara.service.dto.country.CountryDTO;
+import com.decathlon.ara.service.dto.response.DistinctStatisticsDTO;
+import com.decathlon.ara.service.dto.response.DistinctValueDTO;
+import com.decathlon.ara.service.dto.type.TypeWithSourceDTO;
+import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.service.support.DistinctValueCounts;
+
+/**
+ * Maintains the dictionaries of the distinct values of error properties (releases, countries, steps...) of each
+ * project, with their occurrence counts: indexing adds the values of new executions, purge removes the values of
+ * deleted ones, and the problem pattern editor reads them without scanning all errors of the project.
+ */
+@Service
+@Transactional
+public class DistinctValueService {
+
+    /**
+     * The maximum number of values returned by a prefix search.
+     */
+    static final int MAX_LIMIT = 100;
+
+    /**
+     * The number of times a new value is inserted, or incremented if another node inserted it meanwhile, before giving up.
+     */
+    static final int MAX_ADD_ATTEMPTS = 3;
+
+    private final DistinctValueRepository distinctValueRepository;
+
+    private final CountryRepository countryRepository;
+
+    private final TypeRepository typeRepository;
+
+    private final GenericMapper mapper;
+
+    public DistinctValueService(DistinctValueRepository distinctValueRepository, CountryRepository countryRepository,
+            TypeRepository typeRepository, GenericMapper mapper) {
+        this.distinctValueRepository = distinctValueRepository;
+        this.countryRepository = countryRepository;
+        this.typeRepository = typeRepository;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Add the values of a newly indexed (or re-indexed) execution to the dictionaries of its project.<br>
+     * Runs in background. Indexings can run concurrently on several nodes: values are updated in a stable order, and a new
+     * value inserted meanwhile by another indexing is incremented instead.
+     *
+     * @param projectId    the ID of the project of the execution
+     * @param counts       the values added by the indexing, negative for values no longer in a re-indexed execution
+     * @param seenDateTime the test date-time of the execution, to update the last seen date-time of its values
+     */
+    @Async(ExecutorsConfiguration.RECORDING_EXECUTOR)
+    @Transactional
+    public void record(long projectId, DistinctValueCounts counts, Date seenDateTime) {
+        for (DistinctProperty property : DistinctProperty.values()) {
+            for (Map.Entry<String, Long> entry : new TreeMap<>(counts.get(property)).entrySet()) {
+                long count = entry.getValue().longValue();
+                if (count < 0) {
+                    distinctValueRepository.decrement(projectId, property, entry.getKey(), -count);
+                } else {
+                    add(projectId, property, entry.getKey(), count, seenDateTime);
+                }
+            }
+        }
+    }
+
+    private void add(long projectId, DistinctProperty property, String value, long count, Date seenDateTime) {
+        for (int attempt = 1; distinctValueRepository.increment(projectId, property, value, count, seenDateTime) == 0 && count > 0; attempt++) {
+            try {
+                distinctValueRepository.saveAndFlush(new DistinctValue(projectId, property, value, count, seenDateTime));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Inserted meanwhile by another node: increment it
+                if (attempt >= MAX_ADD_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove from the dictionaries the values of executed scenarios and errors about to be deleted.
+     *
+     * @param projectId           the ID of the project of the executed scenarios
+     * @param executedScenarioIds the IDs of the executed scenarios
+     * @param errorIds            the IDs of the errors of these executed scenarios
+     */
+    public void forgetExecutedScenarios(long projectId, Collection<Long> executedScenarioIds, Collection<Long> errorIds) {
+        forget(projectId, DistinctProperty.FEATURE_NAMES, distinctValueRepository.countFeatureNamesByExecutedScenarioIdIn(executedScenarioIds));
+        forget(projectId, DistinctProperty.FEATURE_FILES, distinctValueRepository.countFeatureFilesByExecutedScenarioIdIn(executedScenarioIds));
+        forget(projectId, DistinctProperty.SCENARIO_NAMES, distinctValueRepository.countScenarioNamesByExecutedScenarioIdIn(executedScenarioIds));
+        if (!errorIds.isEmpty()) {
+            forget(projectId, DistinctProperty.STEPS, distinctValueRepository.countStepsByErrorIdIn(errorIds));
+            forget(projectId, DistinctProperty.STEP_DEFINITIONS, distinctValueRepository.countStepDefinitionsByErrorIdIn(errorIds));
+        }
+    }
+
+    /**
+     * Remove from the dictionaries the values of an execution and its runs about to be deleted.
+     *
+     * @param projectId   the ID of the project of the execution
+     * @param executionId the ID of the execution
+     */
+    public void forgetExecution(long projectId, long executionId) {
+        forget(projectId, DistinctProperty.RELEASES, distinctValueRepository.countReleasesByExecutionId(executionId));
+        forget(projectId, DistinctProperty.COUNTRIES, distinctValueRepository.countCountriesByExecutionId(executionId));
+        forget(projectId, DistinctProperty.TYPES, distinctValueRepository.countTypesByExecutionId(executionId));
+        forget(projectId, DistinctProperty.PLATFORMS, distinctValueRepository.countPlatformsByExecutionId(executionId));
+    }
+
+    private void forget(long projectId, DistinctProperty property, List<ValueCount> valueCounts) {
+        for (ValueCount valueCount : valueCounts) {
+            distinctValueRepository.decrement(projectId, property, valueCount.getValue(), valueCount.getCount());
+        }
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @return the number of deleted values, no longer used by any indexed row
+     */
+    public int deleteUnusedValues(long projectId) {
+        return distinctValueRepository.deleteUnused(projectId);
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @param property  the REST name of a {@link DistinctProperty}
+     * @return all distinct values of the property, or no value at all if the property is unknown
+     */
+    @Transactional(readOnly = true)
+    public DistinctStatisticsDTO findDistinctProperties(long projectId, String property) {
+        DistinctStatisticsDTO distinctValues = new DistinctStatisticsDTO();
+        DistinctProperty distinctProperty = DistinctProperty.fromCode(property).orElse(null);
+        if (distinctProperty == null) {
+            return distinctValues;
+        }
+
+        List<String> values = distinctValueRepository.findValues(projectId, distinctProperty);
+        switch (distinctProperty) {
+            case RELEASES -> distinctValues.setReleases(values);
+            case COUNTRIES -> {
+                Set<String> codes = new HashSet<>(values);
+                distinctValues.setCountries(mapper.mapCollection(countryRepository.findAllByProjectIdOrderByCode(projectId).stream()
+                        .filter(country -> codes.contains(country.getCode()))
+                        .sorted(Comparator.comparing(Country::getName))
+                        .toList(), CountryDTO.class));
+            }
+            case TYPES -> {
+                Set<String> codes = new HashSet<>(values);
+                distinctValues.setTypes(mapper.mapCollection(typeRepository.findAllByProjectIdOrderByCode(projectId).stream()
+                        .filter(type -> codes.contains(type.getCode()))
+                        .sorted(Comparator.comparing(Type::getName))
+                        .toList(), TypeWithSourceDTO.class));
+            }
+            case PLATFORMS -> distinctValues.setPlatforms(values);
+            case FEATURE_NAMES -> distinctValues.setFeatureNames(values);
+            case FEATURE_FILES -> distinctValues.setFeatureFiles(values);
+            case SCENARIO_NAMES -> distinctValues.setScenarioNames(values);
+            case STEPS -> distinctValues.setSteps(values);
+            case STEP_DEFINITIONS -> distinctValues.setStepDefinitions(values);
+        }
+        return distinctValues;
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @param property  the REST name of a {@link DistinctProperty}
+     * @param prefix    the case-sensitive start of the values to return (all values if empty)
+     * @param limit     the maximum number of values to return (capped to {@link #MAX_LIMIT})
+     * @return the values of the property starting with the prefix, the most frequent first, or no value at all if the
+     * property is unknown
+     */
+    @Transactional(readOnly = true)
+    public List<DistinctValueDTO> findValuesByPrefix(long projectId, String property, String prefix, int limit) {
+        DistinctProperty distinctProperty = DistinctProperty.fromCode(property).orElse(null);
+        if (distinctProperty == null) {
+            return List.of();
+        }
+        String pattern = escapeLike(prefix == null ? "" : prefix) + "%";
+        return mapper.mapCollection(distinctValueRepository.findByPrefix(projectId, distinctProperty, pattern,
+                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT)))), DistinctValueDTO.class);
+    }
+
+    private static String escapeLike(String text) {
+        String escape = String.valueOf(DistinctValueRepository.LIKE_ESCAPE);
+        return text.replace(escape, escape + escape).replace("%", escape + "%").replace("_", escape + "_");
+    }
+
+}
@@ -35,25 +35,18 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.CacheInvalidationService;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.ProblemOccurrence;
 import com.decathlon.ara.domain.ProblemPattern;
 import com.decathlon.ara.repository.ErrorRepository;
-import com.decathlon.ara.repository.ExecutedScenarioRepository;
-import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.ProblemOccurrenceRepository;
 import com.decathlon.ara.repository.ProblemPatternRepository;
-import com.decathlon.ara.repository.RunRepository;
-import com.decathlon.ara.repository.custom.util.JpaCacheManager;
-import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
-import com.decathlon.ara.service.dto.country.CountryDTO;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionAndProblemsDTO;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.dto.problem.ProblemDTO;
 import com.decathlon.ara.service.dto.problempattern.ProblemPatternDTO;
-import com.decathlon.ara.service.dto.response.DistinctStatisticsDTO;
-import com.decathlon.ara.service.dto.type.TypeWithSourceDTO;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.mapper.GenericMapper;
 
@@ -72,12 +65,6 @@ public class ErrorService {
 
     private final ErrorRepository errorRepository;
 
-    private final ExecutedScenarioRepository executedScenarioRepository;
-
-    private final ExecutionRepository executionRepository;
-
-    private final RunRepository runRepository;
-
     private final ProblemService problemService;
 
     private final ProblemOccurrenceRepository problemOccurrenceRepository;
@@ -86,26 +73,18 @@ public class ErrorService {
 
     private final GenericMapper mapper;
 
-    private final JpaCacheManager jpaCacheManager;
-
-    private final TransactionAppenderUtil transactionAppenderUtil;
+    private final CacheInvalidationService cacheInvalidationService;
 
     @Autowired
-    public ErrorService(ErrorRepository errorRepository, ExecutedScenarioRepository executedScenarioRepository,
-            ExecutionRepository executionRepository, RunRepository runRepository,
-            ProblemService problemService, ProblemOccurrenceRepository problemOccurrenceRepository,
-            ProblemPatternRepository problemPatternRepository,
-            GenericMapper mapper, JpaCacheManager jpaCacheManager, TransactionAppenderUtil transactionService) {
+    public ErrorService(ErrorRepository errorRepository, ProblemService problemService,
+            ProblemOccurrenceRepository problemOccurrenceRepository, ProblemPatternRepository problemPatternRepository,
+            GenericMapper mapper, CacheInvalidationService cacheInvalidationService) {
         this.errorRepository = errorRepository;
-        this.executedScenarioRepository = executedScenarioRepository;
-        this.executionRepository = executionRepository;
-        this.runRepository = runRepository;
         this.problemService = problemService;
         this.problemOccurrenceRepository = problemOccurrenceRepository;
         this.problemPatternRepository = problemPatternRepository;
         this.mapper = mapper;
-        this.jpaCacheManager = jpaCacheManager;
-        this.transactionAppenderUtil = transactionService;
+        this.cacheInvalidationService = cacheInvalidationService;
     }
 
     /**
@@ -148,49 +127,6 @@ public class ErrorService {
         }));
     }
 
-    @Transactional(readOnly = true)
-    public DistinctStatisticsDTO findDistinctProperties(long projectId, String property) {
-        DistinctStatisticsDTO distinctValues = new DistinctStatisticsDTO();
-
-        if ("releases".equals(property)) {
-            distinctValues.setReleases(executionRepository.findDistinctReleaseByProjectId(projectId));
-        }
-
-        if ("countries".equals(property)) {
-            distinctValues.setCountries(mapper.mapCollection(runRepository.findDistinctCountryByProjectId(projectId), CountryDTO.class));
-        }
-
-        if ("types".equals(property)) {
-            distinctValues.setTypes(mapper.mapCollection(runRepository.findDistinctTypeByProjectId(projectId), TypeWithSourceDTO.class));
-        }
-
-        if ("platforms".equals(property)) {
-            distinctValues.setPlatforms(runRepository.findDistinctPlatformByProjectId(projectId));
-        }
-
-        if ("featureNames".equals(property)) {
-            distinctValues.setFeatureNames(executedScenarioRepository.findDistinctFeatureNameByProjectId(projectId));
-        }
-
-        if ("featureFiles".equals(property)) {
-            distinctValues.setFeatureFiles(executedScenarioRepository.findDistinctFeatureFileByProjectId(projectId));
-        }
-
-        if ("scenarioNames".equals(property)) {
-            distinctValues.setScenarioNames(executedScenarioRepository.findDistinctNameByProjectId(projectId));
-        }
-
-        if ("steps".equals(property)) {
-            distinctValues.setSteps(errorRepository.findDistinctStepByProjectId(projectId));
-        }
-
-        if ("stepDefinitions".equals(property)) {
-            distinctValues.setStepDefinitions(errorRepository.findDistinctStepDefinitionByProjectId(projectId));
-        }
-
-        return distinctValues;
-    }
-
     public Page<ErrorWithExecutedScenarioAndRunAndExecutionDTO> getErrors(List<ProblemPattern> problemPatterns, Pageable pageable) {
         Page<Error> errors = errorRepository.findDistinctByProblemOccurrencesProblemPatternIn(problemPatterns, pageable);
         if (errors == null) {
@@ -218,7 +154,7 @@ public class ErrorService {
             matchingErrorIds.add(error.getId());
         }
 
-        transactionAppenderUtil.doAfterCommit(() -> jpaCacheManager.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, matchingErrorIds));
+        cacheInvalidationService.evictAfterCommit(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, matchingErrorIds);
 
         problemOccurrenceRepository.saveAll(problemOccurrences);
 
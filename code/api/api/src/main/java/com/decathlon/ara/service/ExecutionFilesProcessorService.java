@@ -19,8 +19,10 @@ package com.decathlon.ara.service;
 
 import com.decathlon.ara.ci.bean.Build;
 import com.decathlon.ara.ci.bean.CycleDef;
+import com.decathlon.ara.ci.bean.IndexingStage;
 import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.ci.bean.PlatformRule;
+import com.decathlon.ara.ci.service.IndexingMetrics;
 import com.decathlon.ara.ci.service.QualityService;
 import com.decathlon.ara.common.NotGonnaHappenException;
 import com.decathlon.ara.domain.*;
@@ -73,12 +75,14 @@ public class ExecutionFilesProcessorService {
 
     private final FileProcessorService fileProcessorService;
 
+    private final IndexingMetrics indexingMetrics;
+
     @Autowired
     public ExecutionFilesProcessorService(SettingService settingService, ObjectMapper objectMapper,
             ExecutionCompletionRequestRepository executionCompletionRequestRepository,
             ExecutionRepository executionRepository, CountryRepository countryRepository, TypeRepository typeRepository,
             QualityService qualityService, ScenariosIndexerStrategy scenariosIndexerStrategy,
-            FileProcessorService fileProcessorService) {
+            FileProcessorService fileProcessorService, IndexingMetrics indexingMetrics) {
         this.settingService = settingService;
         this.objectMapper = objectMapper;
         this.executionCompletionRequestRepository = executionCompletionRequestRepository;
@@ -88,6 +92,7 @@ public class ExecutionFilesProcessorService {
         this.qualityService = qualityService;
         this.scenariosIndexerStrategy = scenariosIndexerStrategy;
         this.fileProcessorService = fileProcessorService;
+        this.indexingMetrics = indexingMetrics;
     }
 
     /**
@@ -342,7 +347,9 @@ public class ExecutionFilesProcessorService {
                         Technology technology = source.getTechnology();
                         Optional<ScenariosIndexer> scenariosIndexer = scenariosIndexerStrategy.getScenariosIndexer(technology);
                         scenariosIndexer.ifPresent(indexer -> {
-                            final List<ExecutedScenario> executedScenarios = indexer.getExecutedScenarios(typeJobFolder.get(), run, projectId);
+                            final List<ExecutedScenario> executedScenarios = indexingMetrics.time(IndexingStage.PARSE, technology.name(),
+                                    () -> indexer.getExecutedScenarios(typeJobFolder.get(), run, projectId));
+                            indexingMetrics.countScenarios(technology.name(), executedScenarios);
                             run.addExecutedScenarios(new TreeSet<>(executedScenarios));
                         });
 
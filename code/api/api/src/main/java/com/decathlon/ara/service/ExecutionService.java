@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
@@ -37,6 +38,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -45,8 +48,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.ci.bean.IndexingStage;
 import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.ci.service.ExecutionIndexerService;
+import com.decathlon.ara.ci.service.IndexingMetrics;
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
 import com.decathlon.ara.domain.CycleDefinition;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.ExecutedScenario;
@@ -85,7 +92,7 @@ public class ExecutionService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ExecutionService.class);
 
-    private static final String STILL_COMPUTING = "STILL_COMPUTING";
+    static final String STILL_COMPUTING = "STILL_COMPUTING";
 
     private final ExecutionRepository executionRepository;
 
@@ -107,12 +114,20 @@ public class ExecutionService {
 
     private final ProblemService problemService;
 
+    private final IndexingMetrics indexingMetrics;
+
+    private final Executor indexingExecutor;
+
+    private final DataVersionService dataVersionService;
+
     @Autowired
     public ExecutionService(ExecutionRepository executionRepository,
             ExecutionCompletionRequestRepository executionCompletionRequestRepository,
             FunctionalityRepository functionalityRepository, GenericMapper mapper, ExecutionHistoryService executionHistoryService,
             ArchiveService archiveService, SettingService settingService,
-            ExecutionIndexerService executionIndexerService, CycleDefinitionRepository cycleDefinitionRepository, ProblemService problemService) {
+            ExecutionIndexerService executionIndexerService, CycleDefinitionRepository cycleDefinitionRepository, ProblemService problemService,
+            IndexingMetrics indexingMetrics, @Qualifier(ExecutorsConfiguration.INDEXING_EXECUTOR) Executor indexingExecutor,
+            DataVersionService dataVersionService) {
         this.executionRepository = executionRepository;
         this.executionCompletionRequestRepository = executionCompletionRequestRepository;
         this.functionalityRepository = functionalityRepository;
@@ -123,6 +138,9 @@ public class ExecutionService {
         this.executionIndexerService = executionIndexerService;
         this.cycleDefinitionRepository = cycleDefinitionRepository;
         this.problemService = problemService;
+        this.indexingMetrics = indexingMetrics;
+        this.indexingExecutor = indexingExecutor;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -229,6 +247,7 @@ public class ExecutionService {
 
         execution.setAcceptance(ExecutionAcceptance.DISCARDED);
         execution.setDiscardReason(discardReason);
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(executionRepository.save(execution), ExecutionDTO.class);
     }
 
@@ -248,6 +267,7 @@ public class ExecutionService {
 
         execution.setAcceptance(ExecutionAcceptance.NEW);
         execution.setDiscardReason(null);
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(executionRepository.save(execution), ExecutionDTO.class);
     }
 
@@ -270,6 +290,7 @@ public class ExecutionService {
             // * The execution may not be crawled yet, so no row in database (severe enough if it was a column ;-) )
             // * A crawling might be in progress (with NOT up to date data) while setting the flag, and the crawling save would update the whole execution row, removing the flag before the next crawling would have a chance to run with the complete data (resulting in a non-definitive quality-status report meanwhile)
             executionCompletionRequestRepository.save(new ExecutionCompletionRequest(jobUrl));
+            dataVersionService.incrementAfterCommit(projectId);
         }
     }
 
@@ -351,34 +372,44 @@ public class ExecutionService {
                 .replace(Settings.CYCLE_VARIABLE, cycle);
         File destinationDirectory = new File(path, "incoming");
         String buildInformationFilePath = settingService.get(projectId, Settings.EXECUTION_INDEXER_FILE_BUILD_INFORMATION_PATH);
-        List<File> executionDirectories = unzipExecutions(destinationDirectory, zipFile, buildInformationFilePath);
+        List<File> executionDirectories = indexingMetrics.time(IndexingStage.UNZIP, projectId, IndexingMetrics.NO_TECHNOLOGY,
+                () -> unzipExecutions(destinationDirectory, zipFile, buildInformationFilePath));
+        indexingMetrics.countReportBytes(projectId, zipFile.getSize());
         launchExecutionDirectoriesProcessingThread(projectId, executionDirectories, cycleDefinition);
     }
 
     /**
-     * Process the execution directories asynchronously
+     * Process the execution directories asynchronously, on the indexing pool.
      * @param projectId the project id
      * @param executionDirectories the execution directories
      * @param cycleDefinition the cycle definition
+     * @throws TaskRejectedException if the indexing pool and its queue are full: the directories are then deleted
      */
-    public synchronized void launchExecutionDirectoriesProcessingThread(
+    public void launchExecutionDirectoriesProcessingThread(
                                                                         Long projectId,
                                                                         List<File> executionDirectories,
                                                                         CycleDefinition cycleDefinition) {
-        Thread processExecutionDirectoriesThread = new Thread(() -> {
-            LOG.info("EXECUTION|Processing execution files in a new thread");
-            for (final File executionDirectory : executionDirectories) {
-                try {
-                    processSpecificDirectory(cycleDefinition, executionDirectory);
-                } catch (Exception e) {
-                    LOG.warn("EXECUTION|A problem occurred while indexing this execution [{}]", executionDirectory.getPath(), e);
-                } finally {
-                    LOG.info("EXECUTION|Cleaning the incoming folder: {}", executionDirectory.getAbsolutePath());
-                    cleanExecutionFiles(projectId, executionDirectory);
+        try {
+            indexingExecutor.execute(() -> {
+                LOG.info("EXECUTION|Processing execution files in the indexing pool");
+                for (final File executionDirectory : executionDirectories) {
+                    try {
+                        processSpecificDirectory(cycleDefinition, executionDirectory);
+                    } catch (Exception e) {
+                        LOG.warn("EXECUTION|A problem occurred while indexing this execution [{}]", executionDirectory.getPath(), e);
+                    } finally {
+                        LOG.info("EXECUTION|Cleaning the incoming folder: {}", executionDirectory.getAbsolutePath());
+                        cleanExecutionFiles(projectId, executionDirectory);
+                    }
                 }
+            });
+        } catch (TaskRejectedException e) {
+            LOG.warn("EXECUTION|Too many executions waiting to be indexed: refusing {} uploaded execution(s)", Integer.valueOf(executionDirectories.size()));
+            for (final File executionDirectory : executionDirectories) {
+                FileUtils.deleteQuietly(executionDirectory);
             }
-        });
-        processExecutionDirectoriesThread.start();
+            throw e;
+        }
     }
 
     public void processSpecificDirectory(CycleDefinition cycleDefinition, File executionDirectory) {
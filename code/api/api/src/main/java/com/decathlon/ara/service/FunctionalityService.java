@@ -17,38 +17,48 @@
 
 package com.decathlon.ara.service;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.CacheInvalidationService;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.cartography.AraCartographyMapper;
 import com.decathlon.ara.cartography.AraExporter;
+import com.decathlon.ara.cartography.CartographyExport;
 import com.decathlon.ara.cartography.Exporter;
 import com.decathlon.ara.cartography.SquashExporter;
 import com.decathlon.ara.common.NotGonnaHappenException;
 import com.decathlon.ara.domain.Country;
 import com.decathlon.ara.domain.Functionality;
+import com.decathlon.ara.domain.Scenario;
 import com.decathlon.ara.domain.Team;
 import com.decathlon.ara.domain.enumeration.FunctionalitySeverity;
 import com.decathlon.ara.domain.enumeration.FunctionalityType;
 import com.decathlon.ara.repository.CountryRepository;
 import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.repository.ScenarioRepository;
 import com.decathlon.ara.repository.TeamRepository;
 import com.decathlon.ara.service.dto.functionality.ExporterInfoDTO;
 import com.decathlon.ara.service.dto.functionality.FunctionalityDTO;
@@ -63,6 +73,7 @@ import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.exception.NotUniqueException;
 import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.service.support.FunctionalityTree;
 import com.decathlon.ara.service.support.TreePosition;
 import com.google.common.collect.Lists;
 
@@ -83,6 +94,18 @@ public class FunctionalityService {
 
     private static final AraCartographyMapper CARTOGRAPHY_MAPPER = new AraCartographyMapper();
 
+    /**
+     * The number of siblings loaded at once when renumbering a folder.
+     */
+    private static final int RENUMBER_BATCH_SIZE = 1000;
+
+    /**
+     * The maximum number of scenario IDs per statement when recounting their coverage.
+     */
+    private static final int SCENARIO_BATCH_SIZE = 1000;
+
+    private static final String SCENARIO_REGION = Scenario.class.getName();
+
     private final FunctionalityRepository repository;
 
     private final CountryRepository countryRepository;
@@ -95,15 +118,28 @@ public class FunctionalityService {
 
     private final GenericMapper mapper;
 
+    private final DataVersionService dataVersionService;
+
+    private final ScenarioRepository scenarioRepository;
+
+    private final FunctionalityTreeService functionalityTreeService;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
     public FunctionalityService(FunctionalityRepository repository, CountryRepository countryRepository,
             TeamRepository teamRepository, TeamService teamService, ProjectService projectService,
-            GenericMapper mapper) {
+            GenericMapper mapper, DataVersionService dataVersionService, ScenarioRepository scenarioRepository,
+            FunctionalityTreeService functionalityTreeService, CacheInvalidationService cacheInvalidationService) {
         this.repository = repository;
         this.countryRepository = countryRepository;
         this.teamRepository = teamRepository;
         this.teamService = teamService;
         this.projectService = projectService;
         this.mapper = mapper;
+        this.dataVersionService = dataVersionService;
+        this.scenarioRepository = scenarioRepository;
+        this.functionalityTreeService = functionalityTreeService;
+        this.cacheInvalidationService = cacheInvalidationService;
     }
 
     private static boolean isFolder(FunctionalityDTO functionality) {
@@ -130,11 +166,11 @@ public class FunctionalityService {
      * Get all the entities as a hierarchy.
      *
      * @param projectId the ID of the project in which to work
-     * @return the list of root entities with children
+     * @return the list of root entities with children (shared with other callers: they must not be modified)
      */
     @Transactional(readOnly = true)
     public List<FunctionalityWithChildrenDTO> findAllAsTree(long projectId) {
-        return buildTree(repository.findAllByProjectIdOrderByOrder(projectId), null);
+        return functionalityTreeService.getTree(projectId).getDtoRoots();
     }
 
     /**
@@ -173,7 +209,27 @@ public class FunctionalityService {
         entityToUpdate.setCoveredCountryScenarios(dataBaseEntity.getCoveredCountryScenarios());
         entityToUpdate.setIgnoredScenarios(dataBaseEntity.getIgnoredScenarios());
         entityToUpdate.setIgnoredCountryScenarios(dataBaseEntity.getIgnoredCountryScenarios());
-        return mapper.map(repository.save(entityToUpdate), FunctionalityDTO.class);
+        // Coverage is not edited here: keeping its links spares recounting the covered scenarios
+        entityToUpdate.setScenarios(dataBaseEntity.getScenarios());
+        Functionality updatedEntity = repository.save(entityToUpdate);
+        functionalityTreeService.invalidate(projectId);
+        dataVersionService.incrementFunctionalityVersionAfterCommit(projectId);
+        return mapper.map(updatedEntity, FunctionalityDTO.class);
+    }
+
+    /**
+     * Deleting functionalities removes their coverage links: recount them and update the scenarios flagged as having
+     * functionality errors, so that listing them stays a single indexed read. The scenarios are then evicted from the
+     * cache of all nodes once committed.
+     *
+     * @param scenarioIds the IDs of the scenarios that covered the deleted functionalities
+     */
+    private void updateScenarioFunctionalityErrors(Collection<Long> scenarioIds) {
+        for (List<Long> batch : ListUtils.partition(new ArrayList<>(scenarioIds), SCENARIO_BATCH_SIZE)) {
+            scenarioRepository.updateFunctionalityCounts(batch);
+            scenarioRepository.updateFunctionalityErrors(batch);
+            cacheInvalidationService.evictAfterCommit(SCENARIO_REGION, batch);
+        }
     }
 
     private void validateBusinessRules(long projectId, FunctionalityDTO functionality) throws BadRequestException {
@@ -219,7 +275,7 @@ public class FunctionalityService {
      */
     public FunctionalityDTO create(Long projectId, NewFunctionalityDTO newDto) throws BadRequestException {
         // Compute new position and verify all technical rules related to the position of the node in the tree
-        TreePosition treePosition = computeDestinationTreePosition(projectId, newDto.getReferenceId(), newDto.getRelativePosition(), null);
+        TreePosition treePosition = computeDestinationTreePosition(projectId, newDto.getReferenceId(), newDto.getRelativePosition());
 
         // Define some properties (before toEntity for no NullPointerException)
         FunctionalityDTO dtoToCreate = newDto.getFunctionality();
@@ -242,6 +298,8 @@ public class FunctionalityService {
         entity.setIgnoredScenarios(isFolder ? null : 0);
         entity.setIgnoredCountryScenarios(null);
 
+        functionalityTreeService.invalidate(projectId);
+        dataVersionService.incrementFunctionalityVersionAfterCommit(projectId);
         return mapper.map(repository.save(entity), FunctionalityDTO.class);
     }
 
@@ -258,8 +316,12 @@ public class FunctionalityService {
         }
         Functionality entity = repository.findByProjectIdAndId(projectId, id)
                 .orElseThrow(() -> new NotFoundException(Messages.NOT_FOUND_FUNCTIONALITY_OR_FOLDER, Entities.FUNCTIONALITY));
+        List<Long> scenarioIds = scenarioRepository.findIdsByFunctionalityIdIn(Collections.singleton(entity.getId()));
         // Will cascade delete children
         repository.delete(entity);
+        updateScenarioFunctionalityErrors(scenarioIds);
+        functionalityTreeService.invalidate(projectId);
+        dataVersionService.incrementFunctionalityVersionAfterCommit(projectId);
     }
 
     /**
@@ -280,7 +342,11 @@ public class FunctionalityService {
             throw new NotFoundException(Messages.NOT_FOUND_FUNCTIONALITY_OR_FOLDER, Entities.FUNCTIONALITY);
         }
 
+        List<Long> scenarioIds = scenarioRepository.findIdsByFunctionalityIdIn(ids);
         repository.deleteAll(functionalitiesToDelete);
+        updateScenarioFunctionalityErrors(scenarioIds);
+        functionalityTreeService.invalidate(projectId);
+        dataVersionService.incrementFunctionalityVersionAfterCommit(projectId);
         return findAllAsTree(projectId);
     }
 
@@ -296,16 +362,16 @@ public class FunctionalityService {
         Functionality source = repository.findByProjectIdAndId(projectId, moveRequest.getSourceId())
                 .orElseThrow(() -> new NotFoundException(Messages.NOT_FOUND_FUNCTIONALITY_OR_FOLDER_TO_MOVE, Entities.FUNCTIONALITY));
 
-        // Compute new position and verify all technical rules related to the position of the node in the tree
-        TreePosition treePosition = computeDestinationTreePosition(projectId, moveRequest.getReferenceId(), moveRequest.getRelativePosition(), source);
-        source.setParentId(treePosition.parentId());
-        source.setOrder(treePosition.order());
+        moveAll(projectId, List.of(source), moveRequest.getReferenceId(), moveRequest.getRelativePosition());
 
+        functionalityTreeService.invalidate(projectId);
+        dataVersionService.incrementFunctionalityVersionAfterCommit(projectId);
         return mapper.map(repository.save(source), FunctionalityDTO.class);
     }
 
     /**
-     * Move a list of functionalities or folders to another place in the functionality tree.
+     * Move a list of functionalities or folders to another place in the functionality tree, next to each other and in
+     * the requested order.
      * @param projectId the project id
      * @param moveRequest the request containing the move details
      * @return the updated functionality tree
@@ -334,13 +400,17 @@ public class FunctionalityService {
             throw new NotFoundException(Messages.NOT_FOUND_FUNCTIONALITY_OR_FOLDER_REFERENCE, Entities.FUNCTIONALITY);
         }
 
-        for (Functionality sourceFunctionality : sourceFunctionalities) {
-            TreePosition treePosition = computeDestinationTreePosition(projectId, destinationId, moveRequest.getRelativePosition(), sourceFunctionality);
-            sourceFunctionality.setParentId(treePosition.parentId());
-            sourceFunctionality.setOrder(treePosition.order());
-        }
+        Map<Long, Functionality> sourceFunctionalitiesById = sourceFunctionalities.stream()
+                .collect(Collectors.toMap(Functionality::getId, Function.identity()));
+        List<Functionality> orderedSourceFunctionalities = sourceIds.stream()
+                .distinct()
+                .map(sourceFunctionalitiesById::get)
+                .toList();
+        moveAll(projectId, orderedSourceFunctionalities, destinationId, moveRequest.getRelativePosition());
 
         repository.saveAll(sourceFunctionalities);
+        functionalityTreeService.invalidate(projectId);
+        dataVersionService.incrementFunctionalityVersionAfterCommit(projectId);
         return findAllAsTree(projectId);
     }
 
@@ -379,13 +449,22 @@ public class FunctionalityService {
     /**
      * Generate the wanted functionalities export of the given functionalities.
      *
+     * The functionalities are loaded right away, but the export itself is only written when streamed, so that it never
+     * needs to be held in memory as a whole.
+     *
      * @param functionalitiesIds the functionalities to export
      * @param exportType the type of export to make
      * @param requiredInfos the required infos for the wanted exporter (can be empty or null if there is no required infos)
      * @return the functionalities in the export format ready to be streamed over HTTP connections
      * @throws BadRequestException the given export type doesn't exists.
      */
-    public ByteArrayResource generateExport(List<Long> functionalitiesIds, String exportType, Map<String, String> requiredInfos) throws BadRequestException {
+    public CartographyExport generateExport(List<Long> functionalitiesIds, String exportType, Map<String, String> requiredInfos) throws BadRequestException {
+        Exporter exporter = AVAILABLE_EXPORTERS
+                .stream()
+                .filter(e -> e.suitableFor(exportType))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException(Messages.EXPORT_FUNCTIONALITY_UKNOWN_EXPORTER, Entities.FUNCTIONALITY, "unknown_exporter"));
+
         List<Functionality> functionalities = repository.findAllById(functionalitiesIds);
         List<FunctionalityDTO> functionalityDTOS = mapper.mapCollection(functionalities, FunctionalityDTO.class);
         Map<String, String> infos = new HashMap<>();
@@ -393,22 +472,17 @@ public class FunctionalityService {
             infos.putAll(requiredInfos);
         }
 
-        return new ByteArrayResource(AVAILABLE_EXPORTERS
-                .stream()
-                .filter(e -> e.suitableFor(exportType))
-                .findFirst()
-                .orElseThrow(() -> new BadRequestException(Messages.EXPORT_FUNCTIONALITY_UKNOWN_EXPORTER, Entities.FUNCTIONALITY, "unknown_exporter"))
-                .generateAndEncodeB64(functionalityDTOS, infos));
+        return outputStream -> exporter.generateAndEncodeB64(functionalityDTOS, infos, outputStream);
     }
 
     /**
-     * Import the given functionalities (given as a JSON) into the given project.
+     * Import the given functionalities (given as a JSON stream) into the given project.
      *
      * @param projectCode the wanted project to store the functionalities in
-     * @param jsonFunctionalities the functionalities to import in the project
+     * @param jsonFunctionalities the functionalities to import in the project, parsed while read
      * @throws BadRequestException if the project doesn't exists or the json has a bad format.
      */
-    public void importJSONFunctionalities(String projectCode, String jsonFunctionalities) throws BadRequestException {
+    public void importJSONFunctionalities(String projectCode, InputStream jsonFunctionalities) throws BadRequestException {
         long projectId = projectService.toId(projectCode);
         List<String> countries = countryRepository.findAllByProjectIdOrderByCode(projectId)
                 .stream()
@@ -435,25 +509,35 @@ public class FunctionalityService {
         });
 
         Map<Long, Long> oldIdsToNewIds = new HashMap<>();
+        Map<Long, List<Functionality>> childrenByOldParentId = functionalities.stream()
+                .filter(f -> f.getParentId() != null)
+                .collect(Collectors.groupingBy(Functionality::getParentId));
 
-        // Extract the root ones from the list (ie. the ones with no parent) and save them directly.
-        List<Functionality> rootFunctionalities = functionalities.stream()
+        // Save the root ones (ie. the ones with no parent) first, then each level of children, whose parents are then already saved
+        List<Functionality> level = functionalities.stream()
                 .filter(f -> f.getParentId() == null)
                 .toList();
-        functionalities.removeAll(rootFunctionalities);
-        LOG.info("FEATURE|import|Saving {} root functionalities into the project {}", rootFunctionalities.size(), projectCode);
-        rootFunctionalities.forEach(f -> this.saveNewFunctionality(f, oldIdsToNewIds, false));
-
-        // While there is still functionalities to save...
-        while (!functionalities.isEmpty()) {
-            // Retrieve all the functionalities which have parents already saved & save them.
-            List<Functionality> childFunctionalities = functionalities.stream()
-                    .filter(f -> f.getParentId() != null && oldIdsToNewIds.containsKey(f.getParentId()))
-                    .toList();
-            functionalities.removeAll(childFunctionalities);
-            LOG.info("FEATURE|import|Saving {} child functionalities into the project {}", childFunctionalities.size(), projectCode);
-            childFunctionalities.forEach(f -> this.saveNewFunctionality(f, oldIdsToNewIds, true));
+        LOG.info("FEATURE|import|Saving {} root functionalities into the project {}", level.size(), projectCode);
+        boolean withParent = false;
+        while (!level.isEmpty()) {
+            List<Functionality> nextLevel = new ArrayList<>();
+            for (Functionality functionality : level) {
+                nextLevel.addAll(childrenByOldParentId.getOrDefault(functionality.getId(), List.of()));
+                childrenByOldParentId.remove(functionality.getId());
+                this.saveNewFunctionality(functionality, oldIdsToNewIds, withParent);
+            }
+            if (!nextLevel.isEmpty()) {
+                LOG.info("FEATURE|import|Saving {} child functionalities into the project {}", nextLevel.size(), projectCode);
+            }
+            level = nextLevel;
+            withParent = true;
         }
+        if (!childrenByOldParentId.isEmpty()) {
+            LOG.warn("FEATURE|import|Ignoring {} functionalities whose parent is not part of the import into the project {}",
+                    childrenByOldParentId.values().stream().mapToInt(List::size).sum(), projectCode);
+        }
+        functionalityTreeService.invalidate(projectId);
+        dataVersionService.incrementFunctionalityVersionAfterCommit(projectId);
     }
 
     private String extractExistingCountriesCodes(String functionalityCountries, List<String> existingCodes) {
@@ -476,7 +560,7 @@ public class FunctionalityService {
         oldIdsToNewIds.put(oldId, savedChildFunc.getId());
     }
 
-    private TreePosition computeDestinationTreePosition(long projectId, Long referenceId, FunctionalityPosition relativePosition, Functionality source) throws BadRequestException {
+    private TreePosition computeDestinationTreePosition(long projectId, Long referenceId, FunctionalityPosition relativePosition) throws BadRequestException {
         FunctionalityPosition effectivePosition = (relativePosition == null ? FunctionalityPosition.LAST_CHILD : relativePosition);
         Functionality reference = findAndEnsureReference(projectId, referenceId, effectivePosition);
 
@@ -493,11 +577,6 @@ public class FunctionalityService {
         // Verify functionalities will never get children
         ensureNotInsertingIntoFunctionality(projectId, effectivePosition, parentId);
 
-        // If moving (not creating), check not moving into itself or one of its children
-        if (reference != null && source != null && isDestinationInSource(projectId, reference, source)) {
-            throw new BadRequestException(Messages.RULE_FUNCTIONALITY_MOVE_TO_ITSELF_OR_SUB_FOLDER, Entities.FUNCTIONALITY, "cannot_move_to_itself_or_sub_folder");
-        }
-
         // Treat "insert LAST_CHILD" as "BELOW the last child of the parent in which to insert"
         List<Functionality> siblings = repository.findAllByProjectIdAndParentIdOrderByOrder(projectId, parentId);
         Boolean insertBelow = (effectivePosition == FunctionalityPosition.BELOW);
@@ -518,30 +597,117 @@ public class FunctionalityService {
         }
     }
 
-    private boolean isDestinationInSource(long projectId, Functionality destination, Functionality source) {
-        if (destination.getId().equals(source.getId())) {
-            return true;
+    /**
+     * Move functionalities or folders next to each other, in the given order, at a place of the tree.<br>
+     * The cached tree of the project gives the destination siblings and the ancestors of the reference without
+     * querying nor walking the whole tree. The moved nodes get orders evenly spread between their new neighbors, so
+     * only them are updated, as for a single move. If the neighbors are too close to each other for the orders to
+     * stay distinct, all the nodes of the destination folder are renumbered at once.
+     *
+     * @param projectId        the ID of the project in which to work
+     * @param sources          the functionalities or folders to move, in the order they must have once moved
+     * @param referenceId      the ID of the reference functionality or folder (can be null to append to the root)
+     * @param relativePosition the position where to move the sources, relative to the reference
+     * @throws BadRequestException if something is wrong in the request
+     */
+    private void moveAll(long projectId, List<Functionality> sources, Long referenceId, FunctionalityPosition relativePosition) throws BadRequestException {
+        FunctionalityTree tree = functionalityTreeService.getTree(projectId);
+        FunctionalityPosition effectivePosition = (relativePosition == null ? FunctionalityPosition.LAST_CHILD : relativePosition);
+
+        // Parent may be null if inserting at root level; reference is mandatory if inserting above/below
+        FunctionalityTree.Node reference = null;
+        if (referenceId != null) {
+            reference = tree.find(referenceId)
+                    .orElseThrow(() -> new NotFoundException(Messages.NOT_FOUND_FUNCTIONALITY_OR_FOLDER_REFERENCE, Entities.FUNCTIONALITY));
+        } else if (effectivePosition != FunctionalityPosition.LAST_CHILD) {
+            throw new BadRequestException(Messages.RULE_FUNCTIONALITY_NO_REFERENCE, Entities.FUNCTIONALITY, "no_reference");
         }
+        Long parentId = (effectivePosition == FunctionalityPosition.LAST_CHILD || reference == null ? referenceId : reference.getParentId());
 
-        FunctionalityWithChildrenDTO sourceInTree = find(findAllAsTree(projectId), source.getId());
-        if (sourceInTree == null) {
-            throw new NotGonnaHappenException("We found source & destination in database: if we query again and don't find them, the SQL transaction is tainted or we messed up the Hibernate cache!");
+        // Verify functionalities will never get children
+        if (effectivePosition == FunctionalityPosition.LAST_CHILD && reference != null && reference.getType() == FunctionalityType.FUNCTIONALITY) {
+            throw new BadRequestException(Messages.RULE_FUNCTIONALITY_HAVE_NO_CHILDREN, Entities.FUNCTIONALITY, "functionalities_cannot_have_children");
         }
 
-        return find(sourceInTree.getChildren(), destination.getId()) != null;
-    }
+        // Check not moving into itself or one of its children
+        for (Functionality source : sources) {
+            if (reference != null && tree.isInSubTree(reference.getId(), source.getId().longValue())) {
+                throw new BadRequestException(Messages.RULE_FUNCTIONALITY_MOVE_TO_ITSELF_OR_SUB_FOLDER, Entities.FUNCTIONALITY, "cannot_move_to_itself_or_sub_folder");
+            }
+        }
 
-    private FunctionalityWithChildrenDTO find(List<FunctionalityWithChildrenDTO> nodes, Long id) {
-        for (FunctionalityWithChildrenDTO node : nodes) {
-            if (id.equals(node.getId())) {
-                return node;
+        // Insert the sources among the siblings staying in place
+        Set<Long> sourceIds = sources.stream().map(Functionality::getId).collect(Collectors.toSet());
+        List<FunctionalityTree.Node> siblings = tree.getChildren(parentId).stream()
+                .filter(node -> !sourceIds.contains(Long.valueOf(node.getId())))
+                .toList();
+        int insertionIndex = siblings.size();
+        if (effectivePosition != FunctionalityPosition.LAST_CHILD) {
+            insertionIndex = siblings.indexOf(reference) + (effectivePosition == FunctionalityPosition.BELOW ? 1 : 0);
+        }
+        double lowerOrder = (insertionIndex > 0 ? siblings.get(insertionIndex - 1).getOrder() : 0);
+        double upperOrder = (insertionIndex < siblings.size() ? siblings.get(insertionIndex).getOrder() : Double.MAX_VALUE - 1);
+
+        double[] orders = spreadOrders(lowerOrder, upperOrder, sources.size());
+        if (orders != null) {
+            for (int i = 0; i < sources.size(); i++) {
+                sources.get(i).setParentId(parentId);
+                sources.get(i).setOrder(orders[i]);
             }
-            final FunctionalityWithChildrenDTO match = find(node.getChildren(), id);
-            if (match != null) {
-                return match;
+        } else {
+            renumber(projectId, parentId, siblings, insertionIndex, sources);
+        }
+    }
+
+    /**
+     * Give evenly spread orders to all the nodes of a folder once the sources are inserted, updating them in bulk.
+     */
+    private void renumber(long projectId, Long parentId, List<FunctionalityTree.Node> siblings, int insertionIndex, List<Functionality> sources) {
+        List<Long> siblingIds = siblings.stream().map(node -> Long.valueOf(node.getId())).toList();
+        LOG.info("FEATURE|move|Renumbering the {} functionalities of the folder {} in the project {}",
+                Integer.valueOf(siblingIds.size() + sources.size()), parentId, Long.valueOf(projectId));
+        Map<Long, Functionality> siblingsById = new HashMap<>();
+        for (List<Long> batch : ListUtils.partition(siblingIds, RENUMBER_BATCH_SIZE)) {
+            repository.findByProjectIdAndIdIn(Long.valueOf(projectId), batch).forEach(f -> siblingsById.put(f.getId(), f));
+        }
+
+        // Siblings deleted meanwhile are not renumbered
+        List<Functionality> renumbered = new ArrayList<>(siblingIds.size() + sources.size());
+        siblingIds.subList(0, insertionIndex).stream().map(siblingsById::get).filter(Objects::nonNull).forEach(renumbered::add);
+        renumbered.addAll(sources);
+        siblingIds.subList(insertionIndex, siblingIds.size()).stream().map(siblingsById::get).filter(Objects::nonNull).forEach(renumbered::add);
+
+        double[] orders = spreadOrders(0, Double.MAX_VALUE - 1, renumbered.size());
+        if (orders == null) {
+            throw new NotGonnaHappenException("Cannot spread " + renumbered.size() + " orders on the whole Double axis");
+        }
+        for (int i = 0; i < renumbered.size(); i++) {
+            renumbered.get(i).setParentId(parentId);
+            renumbered.get(i).setOrder(orders[i]);
+        }
+        repository.saveAll(renumbered);
+    }
+
+    /**
+     * @param lowerOrder the order of the node above the new ones (0 if none)
+     * @param upperOrder the order of the node below the new ones (the maximum Double value minus 1 if none)
+     * @param count      the number of new nodes to insert between them
+     * @return the new orders, evenly spread between lowerOrder and upperOrder (for a single node: the mean of both), or
+     * null if there is not enough precision left between them to get distinct orders
+     */
+    static double[] spreadOrders(double lowerOrder, double upperOrder, int count) {
+        // See computeNewOrder() for the rationale: multiplying by ratios keeps clear of Infinity with very big numbers
+        double[] orders = new double[count];
+        double previousOrder = lowerOrder;
+        for (int i = 0; i < count; i++) {
+            double ratio = (double) (i + 1) / (count + 1);
+            orders[i] = lowerOrder * (1 - ratio) + upperOrder * ratio;
+            if (orders[i] <= previousOrder || orders[i] >= upperOrder) {
+                return null;
             }
+            previousOrder = orders[i];
         }
-        return null;
+        return orders;
     }
 
     /**
@@ -674,14 +840,4 @@ public class FunctionalityService {
             throw new BadRequestException(Messages.RULE_FUNCTIONALITY_SEVERITY_WRONG, Entities.FUNCTIONALITY, "wrong_severity");
         }
     }
-
-    private List<FunctionalityWithChildrenDTO> buildTree(List<Functionality> flatFunctionalities, Long parentId) {
-        List<FunctionalityWithChildrenDTO> nodes = new ArrayList<>();
-        for (Functionality functionality : flatFunctionalities) {
-            if (Objects.equals(functionality.getParentId(), parentId)) {
-                nodes.add(mapper.map(functionality, FunctionalityWithChildrenDTO.class, (entity, dto) -> dto.setChildren(buildTree(flatFunctionalities, functionality.getId())))); // flatFunctionalities is already sorted by "order" column
-            }
-        }
-        return nodes;
-    }
 }
@@ -0,0 +1,136 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.service.dto.functionality.FunctionalityWithChildrenDTO;
+import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.service.support.FunctionalityTree;
+
+/**
+ * Keeps the functionality tree of each project in memory, for the tree to be served and edited without loading and
+ * walking all its functionalities for each request.<br>
+ * A cached tree is tagged with the functionality version of its project (see {@link DataVersionService}): any change
+ * of the functionalities or of their coverage, be it on this node or on another node of a cluster, increments the
+ * version and the tree is loaded again by its next reader. Indexing executions does not change this version.<br>
+ * Functionality writes also call {@link #invalidate(long)}, for the rest of their transaction to read its own changes.
+ */
+@Service
+public class FunctionalityTreeService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FunctionalityTreeService.class);
+
+    private final FunctionalityRepository repository;
+
+    private final GenericMapper mapper;
+
+    private final DataVersionService dataVersionService;
+
+    private final Map<Long, VersionedTree> trees = new ConcurrentHashMap<>();
+
+    public FunctionalityTreeService(FunctionalityRepository repository, GenericMapper mapper, DataVersionService dataVersionService) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @return the functionality tree of the project, from memory if its data did not change since it was loaded
+     */
+    public FunctionalityTree getTree(long projectId) {
+        if (isChangedByCurrentTransaction(projectId)) {
+            // Uncommitted changes must neither be shared with other transactions nor hidden from this one
+            return load(projectId);
+        }
+        // Read the version BEFORE loading the tree: if the data changes meanwhile, the tree will be loaded again
+        final long version = dataVersionService.getFunctionalityVersion(projectId);
+        final VersionedTree cached = trees.get(Long.valueOf(projectId));
+        if (cached != null && cached.version() == version) {
+            return cached.tree();
+        }
+        final FunctionalityTree tree = load(projectId);
+        trees.put(Long.valueOf(projectId), new VersionedTree(version, tree));
+        LOG.debug("FEATURE|tree|Loaded the {} functionalities of the project {} (functionality version {})", Integer.valueOf(tree.size()),
+                Long.valueOf(projectId), Long.valueOf(version));
+        return tree;
+    }
+
+    /**
+     * Drop the tree of a project whose functionalities are being changed: the current transaction, if any, will load
+     * it from database until its end, and other transactions will load it again once the change is committed.
+     *
+     * @param projectId the ID of the project whose functionalities change
+     */
+    public void invalidate(long projectId) {
+        trees.remove(Long.valueOf(projectId));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        ChangedProjects changedProjects = (ChangedProjects) TransactionSynchronizationManager.getResource(ChangedProjects.class);
+        if (changedProjects == null) {
+            final ChangedProjects newChangedProjects = new ChangedProjects();
+            TransactionSynchronizationManager.bindResource(ChangedProjects.class, newChangedProjects);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangedProjects.class);
+                    // A reader may have cached the previous tree meanwhile, with the version not incremented yet
+                    newChangedProjects.projectIds.forEach(trees::remove);
+                }
+            });
+            changedProjects = newChangedProjects;
+        }
+        changedProjects.projectIds.add(Long.valueOf(projectId));
+    }
+
+    private static boolean isChangedByCurrentTransaction(long projectId) {
+        final ChangedProjects changedProjects = (ChangedProjects) TransactionSynchronizationManager.getResource(ChangedProjects.class);
+        return changedProjects != null && changedProjects.projectIds.contains(Long.valueOf(projectId));
+    }
+
+    private FunctionalityTree load(long projectId) {
+        return new FunctionalityTree(repository.findAllByProjectIdOrderByOrder(projectId),
+                functionality -> mapper.map(functionality, FunctionalityWithChildrenDTO.class));
+    }
+
+    private record VersionedTree(long version, FunctionalityTree tree) {
+    }
+
+    /**
+     * The projects whose functionalities were changed by a transaction.
+     */
+    static class ChangedProjects {
+
+        private final Set<Long> projectIds = new HashSet<>();
+
+    }
+
+}
@@ -17,44 +17,145 @@
 
 package com.decathlon.ara.service;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.apache.commons.collections4.ListUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.decathlon.ara.cache.CacheInvalidationService;
 import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.projection.FirstAndLastProblemOccurrence;
 import com.decathlon.ara.repository.ProblemRepository;
 
 /**
- * Service for updating de-normalized fields of Problem.
+ * Service for updating de-normalized fields of Problem: first and last seen date-times, and occurrence count.<br>
+ * Problems loaded by the caller are updated in memory. For the others, only the problems touched by new or deleted
+ * occurrences are updated, with set-based statements run in database by batches of problems (and of errors), then
+ * evicted from the cache of all nodes once committed.
  */
 @Service
 @Transactional
 public class ProblemDenormalizationService {
 
+    /**
+     * The maximum number of problem IDs per statement.
+     */
+    static final int BATCH_SIZE = 1000;
+
+    private static final String PROBLEM_REGION = Problem.class.getName();
+
     private final ProblemRepository problemRepository;
 
-    public ProblemDenormalizationService(ProblemRepository problemRepository) {
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public ProblemDenormalizationService(ProblemRepository problemRepository, CacheInvalidationService cacheInvalidationService) {
         this.problemRepository = problemRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    /**
+     * @param errorIds the IDs of some errors
+     * @return the IDs of the problems to which these errors are assigned
+     */
+    public Set<Long> findProblemIds(Collection<Long> errorIds) {
+        final Set<Long> problemIds = new HashSet<>();
+        for (List<Long> batch : ListUtils.partition(new ArrayList<>(errorIds), BATCH_SIZE)) {
+            problemIds.addAll(problemRepository.findIdsByErrorIdIn(batch));
+        }
+        return problemIds;
     }
 
+    /**
+     * Recompute the de-normalized fields of problems loaded (and to be saved) by the caller.
+     *
+     * @param problems the problems whose occurrences changed
+     */
     public void updateFirstAndLastSeenDateTimes(Collection<Problem> problems) {
-        final List<FirstAndLastProblemOccurrence> occurrences =
-                problemRepository.findFirstAndLastProblemOccurrences(problems);
+        if (problems.isEmpty()) {
+            return;
+        }
+        final Map<Long, FirstAndLastProblemOccurrence> occurrences = problemRepository.findFirstAndLastProblemOccurrences(problems)
+                .stream()
+                .collect(Collectors.toMap(FirstAndLastProblemOccurrence::getProblemId, Function.identity()));
 
         for (Problem problem : problems) {
-            final Optional<FirstAndLastProblemOccurrence> occurrence = occurrences.stream()
-                    .filter(o -> problem.getId().equals(o.getProblemId()))
-                    .findFirst();
-            problem.setFirstSeenDateTime(occurrence
-                    .map(FirstAndLastProblemOccurrence::getFirstSeenDateTime)
-                    .orElse(null));
-            problem.setLastSeenDateTime(occurrence
-                    .map(FirstAndLastProblemOccurrence::getLastSeenDateTime)
-                    .orElse(null));
+            final FirstAndLastProblemOccurrence occurrence = occurrences.get(problem.getId());
+            problem.setFirstSeenDateTime(occurrence == null ? null : occurrence.getFirstSeenDateTime());
+            problem.setLastSeenDateTime(occurrence == null ? null : occurrence.getLastSeenDateTime());
+            problem.setOccurrenceCount(occurrence == null ? 0 : occurrence.getOccurrenceCount().longValue());
+        }
+    }
+
+    /**
+     * Update the de-normalized fields of problems to which new errors of an execution were just assigned, from these
+     * new occurrences only.
+     *
+     * @param problemIds   the IDs of the problems to which the new errors were assigned
+     * @param errorIds     the IDs of the new errors
+     * @param testDateTime the test date-time of the execution of the new errors
+     */
+    public void addOccurrences(Collection<Long> problemIds, Collection<Long> errorIds, Date testDateTime) {
+        // Counts of distinct batches of errors add up
+        final List<List<Long>> errorBatches = ListUtils.partition(new ArrayList<>(new HashSet<>(errorIds)), BATCH_SIZE);
+        for (List<Long> batch : ListUtils.partition(new ArrayList<>(problemIds), BATCH_SIZE)) {
+            for (List<Long> errorBatch : errorBatches) {
+                problemRepository.addOccurrences(batch, errorBatch, testDateTime);
+            }
+            cacheInvalidationService.evictAfterCommit(PROBLEM_REGION, batch);
+        }
+    }
+
+    /**
+     * Subtract the occurrences of errors about to be deleted from the occurrence count of their problems, from these
+     * occurrences only. To be called before deleting the occurrences, then followed by
+     * {@link #recomputeSeenDateTimes(Collection, long)} once they are deleted.
+     *
+     * @param problemIds the IDs of the problems to which the errors are assigned
+     * @param errorIds   the IDs of the errors whose occurrences are about to be deleted
+     */
+    public void removeOccurrences(Collection<Long> problemIds, Collection<Long> errorIds) {
+        // Counts of distinct batches of errors add up
+        final List<List<Long>> errorBatches = ListUtils.partition(new ArrayList<>(new HashSet<>(errorIds)), BATCH_SIZE);
+        for (List<Long> batch : ListUtils.partition(new ArrayList<>(problemIds), BATCH_SIZE)) {
+            for (List<Long> errorBatch : errorBatches) {
+                problemRepository.removeOccurrences(batch, errorBatch);
+            }
+            cacheInvalidationService.evictAfterCommit(PROBLEM_REGION, batch);
+        }
+    }
+
+    /**
+     * Recompute the first and last seen date-times of problems whose occurrences of an execution were just deleted,
+     * only for the problems first or last seen in this execution.
+     *
+     * @param problemIds  the IDs of the problems whose occurrences were deleted
+     * @param executionId the ID of the execution of the deleted occurrences
+     */
+    public void recomputeSeenDateTimes(Collection<Long> problemIds, long executionId) {
+        for (List<Long> batch : ListUtils.partition(new ArrayList<>(problemIds), BATCH_SIZE)) {
+            problemRepository.recomputeSeenDateTimes(batch, executionId);
+            cacheInvalidationService.evictAfterCommit(PROBLEM_REGION, batch);
+        }
+    }
+
+    /**
+     * Recompute the de-normalized fields of problems from all their occurrences, eg. after some were deleted.
+     *
+     * @param problemIds the IDs of the problems whose occurrences changed
+     */
+    public void recomputeOccurrences(Collection<Long> problemIds) {
+        for (List<Long> batch : ListUtils.partition(new ArrayList<>(problemIds), BATCH_SIZE)) {
+            problemRepository.recomputeOccurrences(batch);
+            cacheInvalidationService.evictAfterCommit(PROBLEM_REGION, batch);
         }
     }
 
@@ -36,6 +36,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.CacheInvalidationService;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Country;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.Problem;
@@ -46,8 +48,6 @@ import com.decathlon.ara.repository.CountryRepository;
 import com.decathlon.ara.repository.ProblemPatternRepository;
 import com.decathlon.ara.repository.ProblemRepository;
 import com.decathlon.ara.repository.TypeRepository;
-import com.decathlon.ara.repository.custom.util.JpaCacheManager;
-import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.dto.problem.ProblemDTO;
 import com.decathlon.ara.service.dto.problempattern.ProblemPatternDTO;
@@ -78,16 +78,16 @@ public class ProblemPatternService {
 
     private final GenericMapper mapper;
 
-    private final JpaCacheManager jpaCacheManager;
+    private final CacheInvalidationService cacheInvalidationService;
 
-    private final TransactionAppenderUtil transactionService;
+    private final DataVersionService dataVersionService;
 
     @Autowired
     public ProblemPatternService(ProblemDenormalizationService problemDenormalizationService,
             ProblemPatternRepository problemPatternRepository, ProblemRepository problemRepository,
             @Lazy ErrorService errorService, CountryRepository countryRepository, TypeRepository typeRepository,
             GenericMapper mapper,
-            JpaCacheManager jpaCacheManager, TransactionAppenderUtil transactionService) {
+            CacheInvalidationService cacheInvalidationService, DataVersionService dataVersionService) {
         this.problemDenormalizationService = problemDenormalizationService;
         this.problemPatternRepository = problemPatternRepository;
         this.problemRepository = problemRepository;
@@ -95,8 +95,8 @@ public class ProblemPatternService {
         this.countryRepository = countryRepository;
         this.typeRepository = typeRepository;
         this.mapper = mapper;
-        this.jpaCacheManager = jpaCacheManager;
-        this.transactionService = transactionService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -149,6 +149,7 @@ public class ProblemPatternService {
             problemDenormalizationService.updateFirstAndLastSeenDateTimes(Collections.singleton(sourceProblem));
         }
 
+        dataVersionService.incrementAfterCommit(projectId);
         return response;
     }
 
@@ -215,6 +216,7 @@ public class ProblemPatternService {
         errorService.assignPatternToErrors(projectId, problemPattern); // Also evict errors' cache of the NEW pattern
         problemDenormalizationService.updateFirstAndLastSeenDateTimes(Collections.singleton(problemPattern.getProblem()));
 
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(problemPattern, ProblemPatternDTO.class);
     }
 
@@ -231,7 +233,7 @@ public class ProblemPatternService {
                 .map(ProblemOccurrence::getError)
                 .map(Error::getId)
                 .collect(Collectors.toSet());
-        transactionService.doAfterCommit(() -> jpaCacheManager.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, errorIds));
+        cacheInvalidationService.evictAfterCommit(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, errorIds);
     }
 
     void assignExistingEntities(long projectId, ProblemPattern problemPattern) throws NotFoundException {
@@ -46,6 +46,8 @@ import org.springframework.transaction.annotation.Transactional;
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
 import com.decathlon.ara.SpringApplicationContext;
+import com.decathlon.ara.cache.CacheInvalidationService;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.ci.util.FetchException;
 import com.decathlon.ara.defect.DefectAdapter;
 import com.decathlon.ara.defect.bean.Defect;
@@ -68,8 +70,6 @@ import com.decathlon.ara.repository.ProblemPatternRepository;
 import com.decathlon.ara.repository.ProblemRepository;
 import com.decathlon.ara.repository.RootCauseRepository;
 import com.decathlon.ara.repository.TypeRepository;
-import com.decathlon.ara.repository.custom.util.JpaCacheManager;
-import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.dto.problem.ProblemAggregateDTO;
 import com.decathlon.ara.service.dto.problem.ProblemDTO;
@@ -137,9 +137,9 @@ public class ProblemService {
 
     private final GenericMapper mapper;
 
-    private final JpaCacheManager jpaCacheManager;
+    private final CacheInvalidationService cacheInvalidationService;
 
-    private final TransactionAppenderUtil transactionService;
+    private final DataVersionService dataVersionService;
 
     @Autowired
     public ProblemService(ProblemRepository problemRepository, CountryRepository countryRepository,
@@ -150,7 +150,7 @@ public class ProblemService {
             RootCauseService rootCauseService, TeamService teamService, DateService dateService,
             DefectService defectService,
             GenericMapper mapper,
-            JpaCacheManager jpaCacheManager, TransactionAppenderUtil transactionService) {
+            CacheInvalidationService cacheInvalidationService, DataVersionService dataVersionService) {
         this.problemRepository = problemRepository;
         this.countryRepository = countryRepository;
         this.typeRepository = typeRepository;
@@ -166,8 +166,8 @@ public class ProblemService {
         this.dateService = dateService;
         this.defectService = defectService;
         this.mapper = mapper;
-        this.jpaCacheManager = jpaCacheManager;
-        this.transactionService = transactionService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.dataVersionService = dataVersionService;
     }
 
     private static void validateClosedProblemHasRootCause(ProblemDTO problemDto) throws BadRequestException {
@@ -240,6 +240,7 @@ public class ProblemService {
 
         ProblemWithPatternsDTO result = mapper.map(problem, ProblemWithPatternsDTO.class);
         result.setDefectUrl(this.retrieveDefectUrl(problem));
+        dataVersionService.incrementAfterCommit(projectId);
         return result;
     }
 
@@ -289,6 +290,7 @@ public class ProblemService {
 
         ProblemDTO result = mapper.map(problemRepository.save(dataBaseEntity), ProblemDTO.class);
         result.setDefectUrl(this.retrieveDefectUrl(projectId, result));
+        dataVersionService.incrementAfterCommit(projectId);
         return result;
     }
 
@@ -456,6 +458,7 @@ public class ProblemService {
         evictErrorProblemPatternsCacheFor(problem);
 
         problemRepository.delete(problem);
+        dataVersionService.incrementAfterCommit(projectId);
     }
 
     /**
@@ -474,7 +477,7 @@ public class ProblemService {
                 .map(Error::getId)
                 .collect(Collectors.toSet());
 
-        transactionService.doAfterCommit(() -> jpaCacheManager.evictCollections(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, errorIds));
+        cacheInvalidationService.evictAfterCommit(Error.PROBLEM_OCCURRENCES_COLLECTION_CACHE, errorIds);
     }
 
     /**
@@ -621,6 +624,7 @@ public class ProblemService {
 
         problemDenormalizationService.updateFirstAndLastSeenDateTimes(Collections.singleton(problem));
 
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(newPattern, ProblemPatternDTO.class);
     }
 
@@ -680,6 +684,7 @@ public class ProblemService {
             response.setDeletedProblem(mapper.map(sourceProblem, ProblemDTO.class));
         }
 
+        dataVersionService.incrementAfterCommit(projectId);
         return response;
     }
 
@@ -714,6 +719,7 @@ public class ProblemService {
         problem.setClosingDateTime(dateService.now());
         problem.setRootCause(rootCause);
         problem.setPatterns(problem.getPatterns());
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(problemRepository.save(problem), ProblemDTO.class);
     }
 
@@ -740,6 +746,7 @@ public class ProblemService {
         // Change status, but keep other properties and patterns
         problem.setStatus(ProblemStatus.OPEN);
         problem.setClosingDateTime(null);
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(problemRepository.save(problem), ProblemDTO.class);
     }
 
@@ -784,6 +791,7 @@ public class ProblemService {
                 problem.setStatus(statuses.get(0).getStatus());
                 problem.setClosingDateTime(statuses.get(0).getCloseDateTime());
             }
+            dataVersionService.incrementAfterCommit(projectId);
             return mapper.map(problemRepository.save(problem), ProblemDTO.class);
         } catch (FetchException e) {
             // Also catch RuntimeException to not impact calling code in case of a faulty DefectAdapter in a custom ARA
@@ -795,17 +803,16 @@ public class ProblemService {
     }
 
     /**
-     * Recompute the firstSeenDateTime and lastSeenDateTime of all Problems. This should never be necessary, unless an
-     * external event modified data in database without using the ARA APIs.
+     * Recompute the firstSeenDateTime, lastSeenDateTime and occurrenceCount of all Problems. This should never be
+     * necessary, unless an external event modified data in database without using the ARA APIs.
      *
      * @param projectId the ID of the project in which to work
      */
     public void recomputeFirstAndLastSeenDateTimes(long projectId) {
-        final List<Problem> problems = problemRepository.findByProjectId(projectId);
-        for (int i = 0; i < problems.size(); i++) {
-            LOG.debug("PROBLEM|Recomputing problem {}/{} ", Integer.valueOf(i + 1), Integer.valueOf(problems.size()));
-            problemDenormalizationService.updateFirstAndLastSeenDateTimes(Collections.singleton(problems.get(i)));
-        }
+        final List<Long> problemIds = problemRepository.findIdsByProjectId(projectId);
+        LOG.debug("PROBLEM|Recomputing {} problems", Integer.valueOf(problemIds.size()));
+        problemDenormalizationService.recomputeOccurrences(problemIds);
+        dataVersionService.incrementAfterCommit(projectId);
     }
 
     private void assignProblemStabilities(long projectId, List<ProblemWithAggregateDTO> problems) {
@@ -0,0 +1,151 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.decathlon.ara.cache.bean.CacheEvictedEvent;
+import com.decathlon.ara.domain.Project;
+import com.decathlon.ara.repository.ProjectRepository;
+import com.decathlon.ara.service.support.ProjectSummary;
+
+/**
+ * Resolves project codes to project IDs from memory, as nearly all REST requests start by such a resolution.<br>
+ * All projects are loaded at once in an immutable snapshot, dropped when the Project cache region is evicted: after a
+ * project is created, updated or deleted, be it on this node or on another node of a cluster replicating its cache
+ * evictions (see {@link com.decathlon.ara.cache.CacheInvalidationService}).
+ */
+@Service
+public class ProjectRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectRegistry.class);
+
+    static final String PROJECT_REGION = Project.class.getName();
+
+    /**
+     * An unknown code reloads the projects at most once per interval, to find the projects created by nodes not
+     * replicating their cache evictions, without a query per request for mistyped codes.
+     */
+    static final long UNKNOWN_CODE_RELOAD_INTERVAL_MILLIS = 5000;
+
+    private final ProjectRepository projectRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Incremented by each invalidation, for a snapshot loaded concurrently to an invalidation not to be kept.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public ProjectRegistry(ProjectRepository projectRepository, PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        // Its own transaction, for the projects created by an uncommitted transaction not to be seen
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @param code the code of a project
+     * @return the project with this code, if any
+     */
+    public Optional<ProjectSummary> findByCode(String code) {
+        Snapshot current = getSnapshot();
+        ProjectSummary project = current.byCode().get(code);
+        if (project == null && System.currentTimeMillis() - current.loadDateTime() > UNKNOWN_CODE_RELOAD_INTERVAL_MILLIS) {
+            invalidate();
+            project = getSnapshot().byCode().get(code);
+        }
+        return Optional.ofNullable(project);
+    }
+
+    /**
+     * @param id the ID of a project
+     * @return the project with this ID, if any
+     */
+    public Optional<ProjectSummary> findById(long id) {
+        return Optional.ofNullable(getSnapshot().byId().get(Long.valueOf(id)));
+    }
+
+    /**
+     * @return all projects, ordered by name
+     */
+    public List<ProjectSummary> findAll() {
+        return getSnapshot().all();
+    }
+
+    /**
+     * Drop the projects loaded in memory: they will be loaded again by the next resolution.
+     */
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    @EventListener
+    public void onCacheEvicted(CacheEvictedEvent event) {
+        if (PROJECT_REGION.equals(event.region())) {
+            LOG.debug("PROJECT|Projects changed: reloading them at next resolution");
+            invalidate();
+        }
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        final long loadedGeneration = generation.get();
+        final List<ProjectSummary> projects = transactionTemplate.execute(status -> projectRepository.findAllByOrderByName()
+                .stream()
+                .map(project -> new ProjectSummary(project.getId().longValue(), project.getCode(), project.getName(),
+                        project.isDefaultAtStartup()))
+                .toList());
+        current = new Snapshot(
+                projects.stream().collect(Collectors.toUnmodifiableMap(ProjectSummary::code, Function.identity())),
+                projects.stream().collect(Collectors.toUnmodifiableMap(ProjectSummary::id, Function.identity())),
+                projects,
+                System.currentTimeMillis());
+        synchronized (this) {
+            if (generation.get() == loadedGeneration) {
+                snapshot = current;
+            }
+        }
+        return current;
+    }
+
+    private record Snapshot(Map<String, ProjectSummary> byCode, Map<Long, ProjectSummary> byId, List<ProjectSummary> all,
+            long loadDateTime) {
+    }
+
+}
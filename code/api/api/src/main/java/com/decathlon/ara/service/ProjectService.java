@@ -18,18 +18,25 @@
 package com.decathlon.ara.service;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.CacheInvalidationService;
 import com.decathlon.ara.domain.Project;
 import com.decathlon.ara.domain.RootCause;
 import com.decathlon.ara.repository.ProjectRepository;
 import com.decathlon.ara.repository.RootCauseRepository;
+import com.decathlon.ara.repository.custom.util.HistoryPartitionManager;
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.dto.project.ProjectDTO;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.exception.NotFoundException;
@@ -43,6 +50,8 @@ import com.decathlon.ara.service.mapper.GenericMapper;
 @Transactional
 public class ProjectService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ProjectService.class);
+
     private final ProjectRepository repository;
 
     private final RootCauseRepository rootCauseRepository;
@@ -51,12 +60,26 @@ public class ProjectService {
 
     private final CommunicationService communicationService;
 
+    private final ProjectRegistry projectRegistry;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final HistoryPartitionManager historyPartitionManager;
+
+    private final TransactionAppenderUtil transactionAppenderUtil;
+
     public ProjectService(ProjectRepository repository, RootCauseRepository rootCauseRepository, GenericMapper mapper,
-            CommunicationService communicationService) {
+            CommunicationService communicationService, ProjectRegistry projectRegistry,
+            CacheInvalidationService cacheInvalidationService, HistoryPartitionManager historyPartitionManager,
+            TransactionAppenderUtil transactionAppenderUtil) {
         this.repository = repository;
         this.rootCauseRepository = rootCauseRepository;
         this.mapper = mapper;
         this.communicationService = communicationService;
+        this.projectRegistry = projectRegistry;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.historyPartitionManager = historyPartitionManager;
+        this.transactionAppenderUtil = transactionAppenderUtil;
     }
 
     /**
@@ -79,9 +102,27 @@ public class ProjectService {
                 new RootCause(projectId, "Regression"),
                 new RootCause(projectId, "Test to update")));
 
+        cacheInvalidationService.evictAfterCommit(ProjectRegistry.PROJECT_REGION, Collections.singleton(createdProject.getId()));
+        transactionAppenderUtil.doAfterCommit(() -> prepareHistoryPartitions(projectId));
         return createdProject;
     }
 
+    /**
+     * Create the executed scenario history partitions of a new project, if the history is partitioned: the purge never
+     * creates them.
+     *
+     * @param projectId the ID of the new project
+     */
+    private void prepareHistoryPartitions(long projectId) {
+        try {
+            if (historyPartitionManager.isPartitioned()) {
+                historyPartitionManager.preparePartitions(projectId);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("PARTITION|Cannot create the history partitions of project {}: they will be created at next startup", Long.valueOf(projectId), e);
+        }
+    }
+
     /**
      * Update an entity.
      *
@@ -101,7 +142,9 @@ public class ProjectService {
 
         final Project entity = mapper.map(dtoToUpdate, Project.class);
         entity.setCommunications(dataBaseEntity.get().getCommunications());
-        return mapper.map(repository.save(entity), ProjectDTO.class);
+        final ProjectDTO updatedProject = mapper.map(repository.save(entity), ProjectDTO.class);
+        cacheInvalidationService.evictAfterCommit(ProjectRegistry.PROJECT_REGION, Collections.singleton(updatedProject.getId()));
+        return updatedProject;
     }
 
     /**
@@ -126,19 +169,18 @@ public class ProjectService {
     }
 
     /**
-     * Given a project code, returns its ID if it exists, or throw a {@link NotFoundException}.
+     * Given a project code, returns its ID if it exists, or throw a {@link NotFoundException}.<br>
+     * The code is resolved from memory, without any query once the projects are loaded by the {@link ProjectRegistry}.
      *
      * @param code the code of the mandatory project
      * @return the ID of the found project
      * @throws NotFoundException when the project code does not exist
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public long toId(String code) throws NotFoundException {
-        final Project project = repository.findOneByCode(code);
-        if (project == null) {
-            throw new NotFoundException(Messages.NOT_FOUND_PROJECT, Entities.PROJECT);
-        }
-        return project.getId().longValue();
-
+        return projectRegistry.findByCode(code)
+                .orElseThrow(() -> new NotFoundException(Messages.NOT_FOUND_PROJECT, Entities.PROJECT))
+                .id();
     }
 
     private void validateBusinessRules(ProjectDTO dto) throws NotUniqueException {
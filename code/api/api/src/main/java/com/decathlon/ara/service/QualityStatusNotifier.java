@@ -0,0 +1,129 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.decathlon.ara.ci.bean.ExecutionIndexedEvent;
+
+/**
+ * Lets CI pipelines wait for the quality status of their execution instead of polling it: all clients waiting for an execution are
+ * answered with a single read of its status, once its indexing is committed.
+ */
+@Service
+public class QualityStatusNotifier {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QualityStatusNotifier.class);
+
+    private final Map<AwaitedExecution, Set<CompletableFuture<String>>> waiters = new ConcurrentHashMap<>();
+
+    private final ExecutionService executionService;
+
+    public QualityStatusNotifier(ExecutionService executionService) {
+        this.executionService = executionService;
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @param jobUrl    the job URL of the execution
+     * @param timeout   the maximum duration to wait for a definitive quality status
+     * @return a future completed with the quality status (see {@link ExecutionService#getQualityStatus(long, String)}) as soon as it is
+     * definitive, or with STILL_COMPUTING after the timeout: the client then has to wait again
+     */
+    public CompletableFuture<String> awaitQualityStatus(long projectId, String jobUrl, Duration timeout) {
+        var key = new AwaitedExecution(projectId, jobUrl);
+        var future = new CompletableFuture<String>();
+
+        // Register before reading the status, so an indexing committed in between is not missed
+        waiters.compute(key, (k, futures) -> {
+            var set = futures == null ? ConcurrentHashMap.<CompletableFuture<String>> newKeySet() : futures;
+            set.add(future);
+            return set;
+        });
+        future.whenComplete((status, throwable) -> waiters.computeIfPresent(key, (k, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        }));
+
+        try {
+            var status = executionService.getQualityStatus(projectId, jobUrl);
+            if (!ExecutionService.STILL_COMPUTING.equals(status)) {
+                future.complete(status);
+                return future;
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        return future.completeOnTimeout(ExecutionService.STILL_COMPUTING, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Once an execution indexing is committed, read its quality status once and send it to all clients waiting for it, if it is definitive.<br>
+     * It runs synchronously in the indexing thread, rather than queuing behind the other @Async work: the status is only read when a client
+     * waits for it.
+     *
+     * @param event the indexed execution
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onExecutionIndexed(ExecutionIndexedEvent event) {
+        var futures = waiters.get(new AwaitedExecution(event.projectId(), event.jobUrl()));
+        if (futures == null || futures.isEmpty()) {
+            return;
+        }
+
+        String status;
+        try {
+            status = executionService.getQualityStatus(event.projectId(), event.jobUrl());
+        } catch (RuntimeException e) {
+            LOG.warn("EXECUTION|Cannot notify the quality status of the job {}: waiting clients will time out", event.jobUrl(), e);
+            return;
+        }
+        if (!ExecutionService.STILL_COMPUTING.equals(status)) {
+            LOG.debug("EXECUTION|Notifying {} client(s) of the quality status {} of the job {}", futures.size(), status, event.jobUrl());
+            // Completing a future removes it from the set
+            new ArrayList<>(futures).forEach(future -> future.complete(status));
+        }
+    }
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @param jobUrl    the job URL of the execution
+     * @return the number of clients currently waiting for the quality status of the execution
+     */
+    int getWaitingCount(long projectId, String jobUrl) {
+        var futures = waiters.get(new AwaitedExecution(projectId, jobUrl));
+        return futures == null ? 0 : futures.size();
+    }
+
+    private record AwaitedExecution(long projectId, String jobUrl) {
+    }
+
+}
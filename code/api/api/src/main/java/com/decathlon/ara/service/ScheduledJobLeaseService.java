@@ -0,0 +1,126 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Date;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.decathlon.ara.domain.ScheduledJobLease;
+import com.decathlon.ara.repository.ScheduledJobLeaseRepository;
+import com.decathlon.ara.service.util.DateService;
+
+/**
+ * Makes sure only one node of an ARA cluster runs a scheduled job at a time, through leases stored in database.<br>
+ * Nodes compare lease dates with their own clock: their clocks must be synchronized (eg. with NTP).
+ */
+@Service
+public class ScheduledJobLeaseService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScheduledJobLeaseService.class);
+
+    /**
+     * The identifier of this node in the leases: its process ID and host name by default.
+     */
+    @Value("${ara.scheduling.node-id:}")
+    private String nodeId;
+
+    private final ScheduledJobLeaseRepository scheduledJobLeaseRepository;
+
+    private final DateService dateService;
+
+    public ScheduledJobLeaseService(ScheduledJobLeaseRepository scheduledJobLeaseRepository, DateService dateService) {
+        this.scheduledJobLeaseRepository = scheduledJobLeaseRepository;
+        this.dateService = dateService;
+    }
+
+    @PostConstruct
+    void initNodeId() {
+        if (StringUtils.isBlank(nodeId)) {
+            nodeId = ManagementFactory.getRuntimeMXBean().getName();
+        }
+    }
+
+    /**
+     * Run a job if this node can take its lease, then record the run in the lease.<br>
+     * The lease is kept at least {@code lockAtLeastFor} after the start of the run, so the other nodes do not run the
+     * same job again when their own schedule fires a few seconds later. This node can take the lease again anytime.
+     *
+     * @param jobName        the name of the job, unique across the application
+     * @param lockAtMostFor  how long the lease is kept if this node dies while running the job, before another node can
+     *                       take it over
+     * @param lockAtLeastFor how long the lease is kept after the start of the run, even if the job ended before
+     * @param job            the job to run
+     * @return true if the job was run by this node, false if another node holds its lease
+     */
+    public boolean runExclusively(String jobName, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable job) {
+        final Date startDateTime = dateService.now();
+        if (!lock(jobName, startDateTime, new Date(startDateTime.getTime() + lockAtMostFor.toMillis()))) {
+            LOG.debug("Job {} skipped: its lease is held by another node", jobName);
+            return false;
+        }
+
+        boolean succeeded = false;
+        try {
+            job.run();
+            succeeded = true;
+        } finally {
+            final Date endDateTime = dateService.now();
+            final long duration = endDateTime.getTime() - startDateTime.getTime();
+            final Date lockedUntil = new Date(Math.max(endDateTime.getTime(), startDateTime.getTime() + lockAtLeastFor.toMillis()));
+            try {
+                if (scheduledJobLeaseRepository.unlock(jobName, nodeId, lockedUntil, startDateTime, duration, succeeded) == 0) {
+                    LOG.warn("Job {} ran for {} ms, longer than its lease: another node may have run it at the same time", jobName, Long.valueOf(duration));
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Cannot release the lease of job {}: it will expire by itself", jobName, e);
+            }
+        }
+        return true;
+    }
+
+    private boolean lock(String jobName, Date now, Date lockedUntil) {
+        if (scheduledJobLeaseRepository.lock(jobName, nodeId, now, lockedUntil) == 1) {
+            return true;
+        }
+        if (scheduledJobLeaseRepository.existsById(jobName)) {
+            return false;
+        }
+        try {
+            // First run of the job in the cluster: create its lease, already expired
+            scheduledJobLeaseRepository.saveAndFlush(new ScheduledJobLease(jobName, now));
+        } catch (DataIntegrityViolationException e) {
+            LOG.debug("The lease of job {} was created by another node", jobName);
+        }
+        return scheduledJobLeaseRepository.lock(jobName, nodeId, now, lockedUntil) == 1;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+}
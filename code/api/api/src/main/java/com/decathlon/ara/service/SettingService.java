@@ -32,6 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.common.NotGonnaHappenException;
 import com.decathlon.ara.domain.Setting;
 import com.decathlon.ara.repository.SettingRepository;
@@ -54,13 +55,17 @@ public class SettingService {
 
     private final SettingProviderService settingProviderService;
 
+    private final DataVersionService dataVersionService;
+
     // A SettingService can be used by several threads at once:
     // make sure the global cache is reliably thread-safe with ConcurrentHashMap.computeIfAbsent and synchronizedMap()
     private Map<Long, Map<String, String>> projectsValuesCache = new ConcurrentHashMap<>();
 
-    public SettingService(SettingRepository repository, SettingProviderService settingProviderService) {
+    public SettingService(SettingRepository repository, SettingProviderService settingProviderService,
+            DataVersionService dataVersionService) {
         this.repository = repository;
         this.settingProviderService = settingProviderService;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -181,6 +186,7 @@ public class SettingService {
 
         // Save was successful: update cache
         getValues(projectId).put(code, newValue);
+        dataVersionService.incrementAfterCommit(projectId);
     }
 
     /**
@@ -24,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Severity;
 import com.decathlon.ara.repository.SeverityRepository;
 import com.decathlon.ara.service.dto.severity.SeverityDTO;
@@ -45,9 +46,12 @@ public class SeverityService {
 
     private final GenericMapper mapper;
 
-    public SeverityService(SeverityRepository repository, GenericMapper mapper) {
+    private final DataVersionService dataVersionService;
+
+    public SeverityService(SeverityRepository repository, GenericMapper mapper, DataVersionService dataVersionService) {
         this.repository = repository;
         this.mapper = mapper;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -92,6 +96,7 @@ public class SeverityService {
 
         final Severity entity = mapper.map(dtoToCreate, Severity.class);
         entity.setProjectId(projectId);
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(repository.save(entity), SeverityDTO.class);
     }
 
@@ -113,6 +118,7 @@ public class SeverityService {
         entity.setId(dataBaseEntity == null ? null : dataBaseEntity.getId());
         entity.setProjectId(projectId);
         final SeverityDTO dto = mapper.map(repository.save(entity), SeverityDTO.class);
+        dataVersionService.incrementAfterCommit(projectId);
         return new UpsertResultDTO<>(dto, operation);
     }
 
@@ -141,6 +147,7 @@ public class SeverityService {
         }
 
         repository.delete(entity);
+        dataVersionService.incrementAfterCommit(projectId);
     }
 
     private void validateBusinessRules(long projectId, SeverityDTO dto) throws NotUniqueException {
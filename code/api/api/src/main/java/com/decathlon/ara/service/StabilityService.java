@@ -0,0 +1,270 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.collections4.ListUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.configuration.ExecutorsConfiguration;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.ProblemStability;
+import com.decathlon.ara.domain.ScenarioStability;
+import com.decathlon.ara.domain.StabilityWindow;
+import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.decathlon.ara.domain.projection.ExecutedScenarioResult;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProblemRepository;
+import com.decathlon.ara.repository.ProblemStabilityRepository;
+import com.decathlon.ara.repository.ScenarioStabilityRepository;
+import com.decathlon.ara.service.dto.stability.ProblemStabilityDTO;
+import com.decathlon.ara.service.dto.stability.ScenarioStabilityDTO;
+import com.decathlon.ara.service.mapper.GenericMapper;
+
+/**
+ * Maintains the pass/fail statistics of scenarios and problems across the executions of each cycle, so that the
+ * flakiest ones can be ranked without scanning the execution history.
+ */
+@Service
+@Transactional
+public class StabilityService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StabilityService.class);
+
+    /**
+     * The maximum number of ranked scenarios or problems returned at once.
+     */
+    static final int MAX_LIMIT = 500;
+
+    /**
+     * The maximum number of problem IDs per IN clause, to stay below the bind parameter limits of the databases.
+     */
+    private static final int PROBLEM_ID_BATCH_SIZE = 1000;
+
+    /**
+     * The maximum number of cucumber IDs per query of scenario stabilities.
+     */
+    private static final int CUCUMBER_ID_BATCH_SIZE = 500;
+
+    private final ExecutionRepository executionRepository;
+
+    private final CycleDefinitionRepository cycleDefinitionRepository;
+
+    private final ExecutedScenarioRepository executedScenarioRepository;
+
+    private final ProblemRepository problemRepository;
+
+    private final ScenarioStabilityRepository scenarioStabilityRepository;
+
+    private final ProblemStabilityRepository problemStabilityRepository;
+
+    private final GenericMapper mapper;
+
+    private final DataVersionService dataVersionService;
+
+    public StabilityService(ExecutionRepository executionRepository, CycleDefinitionRepository cycleDefinitionRepository,
+            ExecutedScenarioRepository executedScenarioRepository, ProblemRepository problemRepository, ScenarioStabilityRepository scenarioStabilityRepository,
+            ProblemStabilityRepository problemStabilityRepository, GenericMapper mapper,
+            DataVersionService dataVersionService) {
+        this.executionRepository = executionRepository;
+        this.cycleDefinitionRepository = cycleDefinitionRepository;
+        this.executedScenarioRepository = executedScenarioRepository;
+        this.problemRepository = problemRepository;
+        this.scenarioStabilityRepository = scenarioStabilityRepository;
+        this.problemStabilityRepository = problemStabilityRepository;
+        this.mapper = mapper;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * Record the results of a newly indexed execution into the stabilities of its cycle.<br>
+     * Runs in background. The cycle definition is locked for the duration of the transaction, so that the updates of
+     * the same cycle are serialized even when executions are indexed by several ARA nodes.<br>
+     * Executions not DONE, without test date-time, already recorded, or older than the last recorded one are ignored.
+     *
+     * @param executionId the ID of the committed execution to record
+     */
+    @Async(ExecutorsConfiguration.RECORDING_EXECUTOR)
+    @Transactional
+    public void recordExecution(long executionId) {
+        Optional<Execution> execution = executionRepository.findById(executionId);
+        if (execution.isEmpty() || !JobStatus.DONE.equals(execution.get().getStatus())) {
+            return;
+        }
+        if (execution.get().getTestDateTime() == null) {
+            // Executions are ordered in their cycle by their test date-time: one without it cannot be placed in the windows
+            LOG.debug("STABILITY|Execution {} has no test date-time: not recorded", executionId);
+            return;
+        }
+        cycleDefinitionRepository.findAndLockById(execution.get().getCycleDefinition().getId().longValue());
+        recordScenarios(execution.get());
+        recordProblems(execution.get());
+        dataVersionService.incrementAfterCommit(execution.get().getCycleDefinition().getProjectId());
+        LOG.debug("STABILITY|Recorded execution {}", executionId);
+    }
+
+    void recordScenarios(Execution execution) {
+        long cycleDefinitionId = execution.getCycleDefinition().getId();
+        long projectId = execution.getCycleDefinition().getProjectId();
+        Date testDateTime = execution.getTestDateTime();
+
+        // The same scenario can be executed several times in a run: it fails if any of its executions fails
+        Map<String, ExecutedScenarioResult> results = new HashMap<>();
+        for (ExecutedScenarioResult result : executedScenarioRepository.findAllResultsByExecutionId(execution.getId().longValue())) {
+            // Scenarios without cucumber ID cannot be followed from one execution to the next
+            if (result.getCucumberId() != null) {
+                results.merge(key(result.getCucumberId(), result.getCountryCode(), result.getTypeCode()), result,
+                        (previous, current) -> previous.isFailed() ? previous : current);
+            }
+        }
+
+        // Only the stabilities of the executed scenarios are loaded, and only the recorded ones are saved
+        Set<String> cucumberIds = results.values().stream().map(ExecutedScenarioResult::getCucumberId).collect(Collectors.toSet());
+        Map<String, ScenarioStability> stabilities = new HashMap<>();
+        for (List<String> batch : ListUtils.partition(new ArrayList<>(cucumberIds), CUCUMBER_ID_BATCH_SIZE)) {
+            for (ScenarioStability stability : scenarioStabilityRepository.findAllByCycleDefinitionIdAndCucumberIdIn(cycleDefinitionId, batch)) {
+                stabilities.put(key(stability.getCucumberId(), stability.getCountryCode(), stability.getTypeCode()), stability);
+            }
+        }
+
+        List<ScenarioStability> recordedStabilities = new ArrayList<>();
+        for (Map.Entry<String, ExecutedScenarioResult> entry : results.entrySet()) {
+            ExecutedScenarioResult result = entry.getValue();
+            ScenarioStability stability = stabilities.computeIfAbsent(entry.getKey(), k -> new ScenarioStability(projectId,
+                    cycleDefinitionId, result.getCucumberId(), result.getCountryCode(), result.getTypeCode()));
+            if (stability.getWindow().record(execution.getId().longValue(), testDateTime, result.isFailed())) {
+                stability.setName(result.getName());
+                recordedStabilities.add(stability);
+            }
+        }
+        scenarioStabilityRepository.saveAll(recordedStabilities);
+    }
+
+    /**
+     * Record the problems of the execution, as failed for the ones occurring in it, and as passed for the ones having
+     * failed in the window of the cycle.<br>
+     * The other problems (not occurring and not failing in their window) are left untouched, as passing again would
+     * not change their flakiness: their missed passes are recorded the next time they occur.
+     *
+     * @param execution the execution to record
+     */
+    void recordProblems(Execution execution) {
+        long cycleDefinitionId = execution.getCycleDefinition().getId();
+        long projectId = execution.getCycleDefinition().getProjectId();
+
+        Set<Long> occurringProblemIds = new HashSet<>(problemRepository.findIdsOccurringInExecution(execution.getId().longValue()));
+        List<ProblemStability> touchedStabilities = new ArrayList<>(problemStabilityRepository.findAllFailingInWindow(cycleDefinitionId));
+        for (List<Long> batch : ListUtils.partition(new ArrayList<>(occurringProblemIds), PROBLEM_ID_BATCH_SIZE)) {
+            touchedStabilities.addAll(problemStabilityRepository.findAllByCycleDefinitionIdAndProblemIdIn(cycleDefinitionId, batch));
+        }
+        Map<Long, ProblemStability> stabilities = touchedStabilities.stream()
+                .collect(Collectors.toMap(ProblemStability::getProblemId, Function.identity(), (first, second) -> first));
+        for (Long problemId : occurringProblemIds) {
+            stabilities.computeIfAbsent(problemId, id -> new ProblemStability(projectId, id.longValue(), cycleDefinitionId));
+        }
+
+        // Problems often share the same last recorded execution: count their missed executions once
+        Map<Date, Long> missedExecutionCounts = new HashMap<>();
+        for (ProblemStability stability : stabilities.values()) {
+            StabilityWindow window = stability.getWindow();
+            if (window.getLastTestDateTime() != null && window.getLastTestDateTime().before(execution.getTestDateTime())) {
+                long missedExecutionCount = missedExecutionCounts.computeIfAbsent(window.getLastTestDateTime(),
+                        lastTestDateTime -> Long.valueOf(countExecutionsBetween(cycleDefinitionId, lastTestDateTime, execution.getTestDateTime())))
+                        .longValue();
+                window.recordPasses((int) Math.min(missedExecutionCount, StabilityWindow.SIZE));
+            }
+            boolean failed = occurringProblemIds.contains(Long.valueOf(stability.getProblemId()));
+            window.record(execution.getId().longValue(), execution.getTestDateTime(), failed);
+        }
+        problemStabilityRepository.saveAll(stabilities.values());
+    }
+
+    private long countExecutionsBetween(long cycleDefinitionId, Date after, Date before) {
+        return executionRepository.countByCycleDefinitionIdAndStatusAndTestDateTimeAfterAndTestDateTimeBefore(cycleDefinitionId, JobStatus.DONE,
+                after, before);
+    }
+
+    /**
+     * Delete the stabilities not recorded since the given date: their last executions are being purged.
+     *
+     * @param projectId    the ID of the project in which to work
+     * @param testDateTime the date before which executions are purged
+     * @return the number of deleted stabilities
+     */
+    public int deleteStaleStabilities(long projectId, Date testDateTime) {
+        return scenarioStabilityRepository.deleteByProjectIdAndLastTestDateTimeBefore(projectId, testDateTime) +
+                problemStabilityRepository.deleteByProjectIdAndLastTestDateTimeBefore(projectId, testDateTime);
+    }
+
+    /**
+     * @param projectId         the ID of the project in which to work
+     * @param countryCode       optional country code filter
+     * @param typeCode          optional type code filter
+     * @param minExecutionCount the minimum number of recorded executions for a scenario to be ranked
+     * @param limit             the maximum number of scenarios to return (capped to {@link #MAX_LIMIT})
+     * @return the flakiest scenarios of the project, the flakiest first
+     */
+    @Transactional(readOnly = true)
+    public List<ScenarioStabilityDTO> findFlakiestScenarios(long projectId, String countryCode, String typeCode, int minExecutionCount, int limit) {
+        return mapper.mapCollection(scenarioStabilityRepository.findFlakiest(projectId, countryCode, typeCode, minExecutionCount, capLimit(limit)),
+                ScenarioStabilityDTO.class);
+    }
+
+    /**
+     * @param projectId         the ID of the project in which to work
+     * @param minExecutionCount the minimum number of recorded executions for a problem to be ranked
+     * @param limit             the maximum number of problems to return (capped to {@link #MAX_LIMIT})
+     * @return the flakiest problems of the project, the flakiest first
+     */
+    @Transactional(readOnly = true)
+    public List<ProblemStabilityDTO> findFlakiestProblems(long projectId, int minExecutionCount, int limit) {
+        List<ProblemStability> stabilities = problemStabilityRepository.findFlakiest(projectId, minExecutionCount, capLimit(limit));
+        Map<Long, String> problemNames = problemRepository.findAllById(stabilities.stream().map(ProblemStability::getProblemId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Problem::getId, Problem::getName));
+        return mapper.mapCollection(stabilities, ProblemStabilityDTO.class,
+                (stability, dto) -> dto.setProblemName(problemNames.get(Long.valueOf(stability.getProblemId()))));
+    }
+
+    private static int capLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private static String key(String cucumberId, String countryCode, String typeCode) {
+        return cucumberId + '|' + countryCode + '|' + typeCode;
+    }
+
+}
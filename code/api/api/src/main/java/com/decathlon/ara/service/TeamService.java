@@ -24,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Team;
 import com.decathlon.ara.repository.FunctionalityRepository;
 import com.decathlon.ara.repository.ProblemRepository;
@@ -49,12 +50,15 @@ public class TeamService {
 
     private final ProblemRepository problemRepository;
 
+    private final DataVersionService dataVersionService;
+
     public TeamService(TeamRepository repository, GenericMapper mapper, FunctionalityRepository functionalityRepository,
-            ProblemRepository problemRepository) {
+            ProblemRepository problemRepository, DataVersionService dataVersionService) {
         this.repository = repository;
         this.mapper = mapper;
         this.functionalityRepository = functionalityRepository;
         this.problemRepository = problemRepository;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -69,6 +73,7 @@ public class TeamService {
         validateBusinessRules(projectId, dtoToCreate);
         final Team entity = mapper.map(dtoToCreate, Team.class);
         entity.setProjectId(projectId);
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(repository.save(entity), TeamDTO.class);
     }
 
@@ -101,6 +106,7 @@ public class TeamService {
 
         final Team entity = mapper.map(dtoToUpdate, Team.class);
         entity.setProjectId(projectId);
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(repository.save(entity), TeamDTO.class);
     }
 
@@ -155,6 +161,7 @@ public class TeamService {
         }
 
         repository.delete(entity);
+        dataVersionService.incrementAfterCommit(projectId);
     }
 
     private void validateBusinessRules(long projectId, TeamDTO dto) throws NotUniqueException {
@@ -24,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Source;
 import com.decathlon.ara.domain.Type;
 import com.decathlon.ara.repository.ProblemPatternRepository;
@@ -55,13 +56,17 @@ public class TypeService {
 
     private final RunRepository runRepository;
 
+    private final DataVersionService dataVersionService;
+
     public TypeService(TypeRepository repository, SourceRepository sourceRepository, GenericMapper mapper,
-            ProblemPatternRepository problemPatternRepository, RunRepository runRepository) {
+            ProblemPatternRepository problemPatternRepository, RunRepository runRepository,
+            DataVersionService dataVersionService) {
         this.repository = repository;
         this.sourceRepository = sourceRepository;
         this.mapper = mapper;
         this.problemPatternRepository = problemPatternRepository;
         this.runRepository = runRepository;
+        this.dataVersionService = dataVersionService;
     }
 
     private void mapSourceCode(Type entity, TypeWithSourceCodeDTO dto) {
@@ -99,6 +104,7 @@ public class TypeService {
         final Type entity = mapper.map(dtoToCreate, Type.class, this::mapSourceCode);
         entity.setProjectId(projectId);
         assignExistingSource(projectId, entity);
+        dataVersionService.incrementAfterCommit(projectId);
         return mapper.map(repository.save(entity), TypeWithSourceCodeDTO.class, this::mapSourceCode);
     }
 
@@ -122,6 +128,7 @@ public class TypeService {
         entity.setProjectId(projectId);
         assignExistingSource(projectId, entity);
         final TypeWithSourceCodeDTO dto = mapper.map(repository.save(entity), TypeWithSourceCodeDTO.class, this::mapSourceCode);
+        dataVersionService.incrementAfterCommit(projectId);
         return new UpsertResultDTO<>(dto, operation);
     }
 
@@ -153,6 +160,7 @@ public class TypeService {
         checkNotUsed(entity.getId().longValue());
 
         repository.delete(entity);
+        dataVersionService.incrementAfterCommit(projectId);
     }
 
     private void validateBusinessRules(long projectId, TypeWithSourceCodeDTO dto) throws NotUniqueException {
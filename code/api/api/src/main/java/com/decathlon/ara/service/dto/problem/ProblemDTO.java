@@ -70,6 +70,11 @@ public class ProblemDTO {
      */
     private Date lastSeenDateTime;
 
+    /**
+     * The number of errors assigned to this problem.
+     */
+    private long occurrenceCount;
+
     public ProblemDTO() {
     }
 
@@ -177,4 +182,8 @@ public class ProblemDTO {
         return lastSeenDateTime;
     }
 
+    public long getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
 }
@@ -34,6 +34,12 @@ public class ExecutedScenarioHistoryInputDTO {
 
     private ExecutedScenarioHistoryDuration duration;
 
+    /**
+     * Optional maximum number of the most recent executions in which to return the scenario (all of them if not provided):
+     * the scenario is returned for all the countries and types of these executions.
+     */
+    private Integer limit;
+
     public Optional<Period> getDuration() {
         if (duration == null) {
             return Optional.empty();
@@ -60,4 +66,8 @@ public class ExecutedScenarioHistoryInputDTO {
     public String getRunTypeCode() {
         return runTypeCode;
     }
+
+    public Integer getLimit() {
+        return limit;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.dto.stability;
+
+public class ScenarioStabilityDTO {
+
+    private long cycleDefinitionId;
+    private String cucumberId;
+    private String name;
+    private String countryCode;
+    private String typeCode;
+    private StabilityWindowDTO window;
+
+    public long getCycleDefinitionId() {
+        return cycleDefinitionId;
+    }
+
+    public String getCucumberId() {
+        return cucumberId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public String getTypeCode() {
+        return typeCode;
+    }
+
+    public StabilityWindowDTO getWindow() {
+        return window;
+    }
+
+}
@@ -0,0 +1,75 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.dto.stability;
+
+import java.util.Date;
+
+public class StabilityWindowDTO {
+
+    private int executionCount;
+    private int failureCount;
+    private int transitionCount;
+    private boolean lastFailed;
+    private int streakLength;
+    private Long firstFailingExecutionId;
+    private Date firstFailingDateTime;
+    private Long lastExecutionId;
+    private Date lastTestDateTime;
+    private double flakiness;
+
+    public int getExecutionCount() {
+        return executionCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public int getTransitionCount() {
+        return transitionCount;
+    }
+
+    public boolean isLastFailed() {
+        return lastFailed;
+    }
+
+    public int getStreakLength() {
+        return streakLength;
+    }
+
+    public Long getFirstFailingExecutionId() {
+        return firstFailingExecutionId;
+    }
+
+    public Date getFirstFailingDateTime() {
+        return firstFailingDateTime;
+    }
+
+    public Long getLastExecutionId() {
+        return lastExecutionId;
+    }
+
+    public Date getLastTestDateTime() {
+        return lastTestDateTime;
+    }
+
+    public double getFlakiness() {
+        return flakiness;
+    }
+
+}
@@ -0,0 +1,98 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.support;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.domain.enumeration.DistinctProperty;
+
+/**
+ * The number of rows having each value of each {@link DistinctProperty}, to add to (or, when negative, to remove from)
+ * the distinct value dictionaries of a project.
+ */
+public class DistinctValueCounts {
+
+    private final Map<DistinctProperty, Map<String, Long>> counts = new EnumMap<>(DistinctProperty.class);
+
+    /**
+     * @param execution an execution, with its runs, executed scenarios and errors
+     * @return the values of the execution
+     */
+    public static DistinctValueCounts of(Execution execution) {
+        DistinctValueCounts values = new DistinctValueCounts();
+        values.add(DistinctProperty.RELEASES, execution.getRelease(), 1);
+        for (Run run : execution.getRuns()) {
+            values.add(DistinctProperty.COUNTRIES, run.getCountry() == null ? null : run.getCountry().getCode(), 1);
+            values.add(DistinctProperty.TYPES, run.getType() == null ? null : run.getType().getCode(), 1);
+            values.add(DistinctProperty.PLATFORMS, run.getPlatform(), 1);
+            for (ExecutedScenario executedScenario : run.getExecutedScenarios()) {
+                values.add(DistinctProperty.FEATURE_NAMES, executedScenario.getFeatureName(), 1);
+                values.add(DistinctProperty.FEATURE_FILES, executedScenario.getFeatureFile(), 1);
+                values.add(DistinctProperty.SCENARIO_NAMES, executedScenario.getName(), 1);
+                for (Error error : executedScenario.getErrors()) {
+                    values.add(DistinctProperty.STEPS, error.getStep(), 1);
+                    values.add(DistinctProperty.STEP_DEFINITIONS, error.getStepDefinition(), 1);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @param property the property of the value
+     * @param value    the value to count, ignored if null
+     * @param count    the number of rows having the value
+     */
+    public void add(DistinctProperty property, String value, long count) {
+        if (value != null) {
+            counts.computeIfAbsent(property, p -> new HashMap<>()).merge(value, Long.valueOf(count), Long::sum);
+        }
+    }
+
+    /**
+     * @param other the counts to subtract
+     * @return new counts: these ones minus the other ones, values of the other counts being kept when the difference
+     * is zero, for their last seen date-time to be updated
+     */
+    public DistinctValueCounts minus(DistinctValueCounts other) {
+        DistinctValueCounts difference = new DistinctValueCounts();
+        counts.forEach((property, values) -> values.forEach((value, count) -> difference.add(property, value, count.longValue())));
+        other.counts.forEach((property, values) -> values.forEach((value, count) -> difference.add(property, value, -count.longValue())));
+        return difference;
+    }
+
+    /**
+     * @param property a property
+     * @return the counts of the values of the property, by value
+     */
+    public Map<String, Long> get(DistinctProperty property) {
+        return Collections.unmodifiableMap(counts.getOrDefault(property, Collections.emptyMap()));
+    }
+
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+}
@@ -0,0 +1,175 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.decathlon.ara.domain.Functionality;
+import com.decathlon.ara.domain.enumeration.FunctionalityType;
+import com.decathlon.ara.service.dto.functionality.FunctionalityWithChildrenDTO;
+
+/**
+ * An immutable snapshot of the functionality tree of a project, indexed by ID: each node knows its parent and its
+ * ordered children, to answer lookups and ancestry questions without walking the whole tree.<br>
+ * The DTO tree is built once with the snapshot and shared by all its readers: it must not be modified.
+ */
+public final class FunctionalityTree {
+
+    private final Map<Long, Node> nodesById;
+
+    private final List<Node> roots;
+
+    private final List<FunctionalityWithChildrenDTO> dtoRoots;
+
+    /**
+     * @param functionalities all the functionalities and folders of a project, ordered by their "order" column
+     * @param toDto           maps a functionality to its DTO, without children (they are set by the tree)
+     */
+    public FunctionalityTree(List<Functionality> functionalities, Function<Functionality, FunctionalityWithChildrenDTO> toDto) {
+        nodesById = new HashMap<>(functionalities.size() * 2);
+        for (Functionality functionality : functionalities) {
+            nodesById.put(functionality.getId(), new Node(functionality, toDto.apply(functionality)));
+        }
+
+        List<Node> rootNodes = new ArrayList<>();
+        for (Functionality functionality : functionalities) {
+            Node node = nodesById.get(functionality.getId());
+            if (node.parentId == null) {
+                rootNodes.add(node);
+            } else {
+                // Nodes whose parent does not exist anymore are unreachable, as when building the tree from its roots
+                Node parent = nodesById.get(node.parentId);
+                if (parent != null) {
+                    node.parent = parent;
+                    parent.children.add(node);
+                }
+            }
+        }
+        roots = Collections.unmodifiableList(rootNodes);
+        dtoRoots = toDtos(roots);
+    }
+
+    private static List<FunctionalityWithChildrenDTO> toDtos(List<Node> nodes) {
+        List<FunctionalityWithChildrenDTO> dtos = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            node.dto.setChildren(toDtos(node.children));
+            dtos.add(node.dto);
+        }
+        return Collections.unmodifiableList(dtos);
+    }
+
+    /**
+     * @param id the ID of a functionality or folder
+     * @return the node of this functionality or folder, if it is in the tree
+     */
+    public Optional<Node> find(Long id) {
+        return Optional.ofNullable(id == null ? null : nodesById.get(id));
+    }
+
+    /**
+     * @param parentId the ID of a folder, or null for the root of the tree
+     * @return the children of the folder (or the root nodes), ordered by their "order" column
+     */
+    public List<Node> getChildren(Long parentId) {
+        if (parentId == null) {
+            return roots;
+        }
+        Node parent = nodesById.get(parentId);
+        return parent == null ? Collections.emptyList() : Collections.unmodifiableList(parent.children);
+    }
+
+    /**
+     * @param id         the ID of the node to test
+     * @param ancestorId the ID of the root of the sub-tree
+     * @return true if the node is the given ancestor or one of its descendants (in O(depth), following parents)
+     */
+    public boolean isInSubTree(long id, long ancestorId) {
+        for (Node node = nodesById.get(Long.valueOf(id)); node != null; node = node.parent) {
+            if (node.id == ancestorId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the roots of the tree, as DTOs with their children, ordered by their "order" column
+     */
+    public List<FunctionalityWithChildrenDTO> getDtoRoots() {
+        return dtoRoots;
+    }
+
+    /**
+     * @return the number of functionalities and folders in the tree
+     */
+    public int size() {
+        return nodesById.size();
+    }
+
+    /**
+     * A functionality or folder of the tree, with the properties defining its place in the tree.
+     */
+    public static final class Node {
+
+        private final long id;
+
+        private final Long parentId;
+
+        private final FunctionalityType type;
+
+        private final double order;
+
+        private final FunctionalityWithChildrenDTO dto;
+
+        private final List<Node> children = new ArrayList<>();
+
+        private Node parent;
+
+        private Node(Functionality functionality, FunctionalityWithChildrenDTO dto) {
+            this.id = functionality.getId().longValue();
+            this.parentId = functionality.getParentId();
+            this.type = functionality.getType();
+            this.order = functionality.getOrder() == null ? 0 : functionality.getOrder().doubleValue();
+            this.dto = dto;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public Long getParentId() {
+            return parentId;
+        }
+
+        public FunctionalityType getType() {
+            return type;
+        }
+
+        public double getOrder() {
+            return order;
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service.support;
+
+/**
+ * The immutable identity of a project, resolved from memory by the {@link com.decathlon.ara.service.ProjectRegistry}.
+ *
+ * @param id               the ID of the project
+ * @param code             the code of the project, used in URLs
+ * @param name             the name of the project
+ * @param defaultAtStartup true if the project appears at client startup when no project code is present in URL
+ */
+public record ProjectSummary(long id, String code, String name, boolean defaultAtStartup) {
+}
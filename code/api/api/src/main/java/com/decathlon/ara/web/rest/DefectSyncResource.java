@@ -0,0 +1,44 @@
+package com.decathlon.ara.web.rest;
+
+import static com.decathlon.ara.web.rest.util.RestConstants.PROJECT_API_PATH;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.decathlon.ara.defect.bean.DefectSyncHealth;
+import com.decathlon.ara.defect.scheduler.DefectSyncScheduler;
+import com.decathlon.ara.service.ProjectService;
+import com.decathlon.ara.service.exception.NotFoundException;
+import com.decathlon.ara.web.rest.util.ResponseUtil;
+
+@RestController
+@RequestMapping(PROJECT_API_PATH + "/defect-sync")
+public class DefectSyncResource {
+
+    private final DefectSyncScheduler defectSyncScheduler;
+
+    private final ProjectService projectService;
+
+    public DefectSyncResource(DefectSyncScheduler defectSyncScheduler, ProjectService projectService) {
+        this.defectSyncScheduler = defectSyncScheduler;
+        this.projectService = projectService;
+    }
+
+    /**
+     * Get the health of the defect synchronization of a project
+     * @param projectCode the project code
+     * @return the synchronization health, or 404 if the project is unknown or has no defect adapter
+     */
+    @GetMapping("/health")
+    public ResponseEntity<DefectSyncHealth> getHealth(@PathVariable String projectCode) {
+        try {
+            return ResponseEntity.of(defectSyncScheduler.getHealth(projectService.toId(projectCode)));
+        } catch (NotFoundException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
+}
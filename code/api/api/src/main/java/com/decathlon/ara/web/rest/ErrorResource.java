@@ -19,6 +19,8 @@ package com.decathlon.ara.web.rest;
 
 import static com.decathlon.ara.web.rest.util.RestConstants.PROJECT_API_PATH;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -27,15 +29,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.decathlon.ara.Entities;
+import com.decathlon.ara.service.DistinctValueService;
 import com.decathlon.ara.service.ErrorService;
 import com.decathlon.ara.service.ProjectService;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionAndProblemsDTO;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.dto.problempattern.ProblemPatternDTO;
 import com.decathlon.ara.service.dto.response.DistinctStatisticsDTO;
+import com.decathlon.ara.service.dto.response.DistinctValueDTO;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.web.rest.util.ResponseUtil;
 
@@ -51,10 +56,13 @@ public class ErrorResource {
 
     private final ErrorService service;
 
+    private final DistinctValueService distinctValueService;
+
     private final ProjectService projectService;
 
-    public ErrorResource(ErrorService service, ProjectService projectService) {
+    public ErrorResource(ErrorService service, DistinctValueService distinctValueService, ProjectService projectService) {
         this.service = service;
+        this.distinctValueService = distinctValueService;
         this.projectService = projectService;
     }
 
@@ -103,7 +111,27 @@ public class ErrorResource {
     @GetMapping("/distinct/{property:[a-zA-Z]+}")
     public ResponseEntity<DistinctStatisticsDTO> getDistinct(@PathVariable String projectCode, @PathVariable String property) {
         try {
-            return ResponseEntity.ok().body(service.findDistinctProperties(projectService.toId(projectCode), property));
+            return ResponseEntity.ok().body(distinctValueService.findDistinctProperties(projectService.toId(projectCode), property));
+        } catch (NotFoundException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
+    /**
+     * GET the distinct values of a property for errors starting with a prefix, to autocomplete a problem pattern.
+     *
+     * @param projectCode the code of the project in which to work
+     * @param property    the name of the property of the Error entity to get distinct values
+     * @param prefix      the case-sensitive start of the values to return (all values if absent)
+     * @param limit       the maximum number of values to return
+     * @return the ResponseEntity with status 200 (OK) and the matching values with their occurrence count, the most
+     * frequent first
+     */
+    @GetMapping("/distinct/{property:[a-zA-Z]+}/values")
+    public ResponseEntity<List<DistinctValueDTO>> getDistinctValues(@PathVariable String projectCode, @PathVariable String property,
+            @RequestParam(defaultValue = "") String prefix, @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok().body(distinctValueService.findValuesByPrefix(projectService.toId(projectCode), property, prefix, limit));
         } catch (NotFoundException e) {
             return ResponseUtil.handle(e);
         }
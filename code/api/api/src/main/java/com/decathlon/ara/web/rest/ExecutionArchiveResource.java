@@ -0,0 +1,69 @@
+package com.decathlon.ara.web.rest;
+
+import static com.decathlon.ara.web.rest.util.RestConstants.PROJECT_API_PATH;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.decathlon.ara.Entities;
+import com.decathlon.ara.purge.bean.ExecutionArchiveSummary;
+import com.decathlon.ara.purge.service.ExecutionArchiveService;
+import com.decathlon.ara.service.ProjectService;
+import com.decathlon.ara.service.exception.BadRequestException;
+import com.decathlon.ara.web.rest.util.HeaderUtil;
+import com.decathlon.ara.web.rest.util.ResponseUtil;
+
+@RestController
+@RequestMapping(PROJECT_API_PATH + "/execution-archives")
+public class ExecutionArchiveResource {
+
+    private final ExecutionArchiveService executionArchiveService;
+
+    private final ProjectService projectService;
+
+    public ExecutionArchiveResource(ExecutionArchiveService executionArchiveService, ProjectService projectService) {
+        this.executionArchiveService = executionArchiveService;
+        this.projectService = projectService;
+    }
+
+    /**
+     * List the executions archived by the purges of a project
+     * @param projectCode the project code
+     * @return the summaries of the archived executions, the most recently tested first
+     */
+    @GetMapping("")
+    public ResponseEntity<List<ExecutionArchiveSummary>> getAll(@PathVariable String projectCode) {
+        try {
+            return ResponseEntity.ok().body(executionArchiveService.findAll(projectService.toId(projectCode)));
+        } catch (BadRequestException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
+    /**
+     * Restore an archived execution into the database, and remove its archive
+     * @param projectCode the project code
+     * @param executionId the ID the execution had when it was archived
+     * @return 201 (Created) with the location of the restored execution, or 404 if there is no such archive, or 400 if
+     * the execution cannot be restored
+     */
+    @PostMapping("/{executionId:[0-9]+}/restore")
+    public ResponseEntity<Void> restore(@PathVariable String projectCode, @PathVariable long executionId) {
+        try {
+            long restoredExecutionId = executionArchiveService.restore(projectService.toId(projectCode), executionId);
+            return ResponseEntity
+                    .created(HeaderUtil.uri(ExecutionResource.PATH + "/" + restoredExecutionId, projectCode))
+                    .headers(HeaderUtil.entityCreated(Entities.EXECUTION, String.valueOf(restoredExecutionId)))
+                    .build();
+        } catch (BadRequestException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
+}
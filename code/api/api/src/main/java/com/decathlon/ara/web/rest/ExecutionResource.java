@@ -18,25 +18,33 @@
 package com.decathlon.ara.web.rest;
 
 import com.decathlon.ara.Entities;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.enumeration.QualityStatus;
 import com.decathlon.ara.service.ExecutionHistoryService;
 import com.decathlon.ara.service.ExecutionService;
 import com.decathlon.ara.service.ProjectService;
+import com.decathlon.ara.service.QualityStatusNotifier;
 import com.decathlon.ara.service.dto.execution.*;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.web.rest.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static com.decathlon.ara.web.rest.util.RestConstants.PROJECT_API_PATH;
 
@@ -52,17 +60,34 @@ public class ExecutionResource {
     static final String PATH = PROJECT_API_PATH + "/" + Entities.EXECUTION + "s";
     private static final String VALIDATION_ERROR = "validation";
 
+    /**
+     * When the indexing pool is full, the CI is asked to upload again after this delay.
+     */
+    private static final String UPLOAD_RETRY_AFTER_SECONDS = "60";
+
     private final ExecutionService service;
 
     private final ExecutionHistoryService executionHistoryService;
 
     private final ProjectService projectService;
 
+    private final QualityStatusNotifier qualityStatusNotifier;
+
+    private final DataVersionService dataVersionService;
+
+    /**
+     * The maximum number of seconds a client can wait for a quality status: it must stay below the asynchronous request timeout.
+     */
+    @Value("${ara.execution.quality-status.max-wait-in-seconds:25}")
+    private long maxQualityStatusWaitInSeconds = 25;
+
     public ExecutionResource(ExecutionService service, ExecutionHistoryService executionHistoryService,
-            ProjectService projectService) {
+            ProjectService projectService, QualityStatusNotifier qualityStatusNotifier, DataVersionService dataVersionService) {
         this.service = service;
         this.executionHistoryService = executionHistoryService;
         this.projectService = projectService;
+        this.qualityStatusNotifier = qualityStatusNotifier;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
@@ -152,10 +177,21 @@ public class ExecutionResource {
         }
     }
 
+    /**
+     * GET the latest execution of each cycle, answering 304 (Not Modified) if the client already has them (see ETag).
+     *
+     * @param projectCode the code of the project in which to work
+     * @param request     the current request, to validate the ETag of the client
+     * @return the ResponseEntity with status 200 (OK) and the list of executions in body, or with status 304 (Not Modified)
+     */
     @GetMapping("/latest")
-    public ResponseEntity<List<ExecutionHistoryPointDTO>> getLatestExecutionHistories(@PathVariable String projectCode) {
+    public ResponseEntity<List<ExecutionHistoryPointDTO>> getLatestExecutionHistories(@PathVariable String projectCode, ServletWebRequest request) {
         try {
-            return ResponseEntity.ok().body(executionHistoryService.getLatestExecutionHistories(projectService.toId(projectCode)));
+            long projectId = projectService.toId(projectCode);
+            if (ResponseUtil.notModified(request, dataVersionService.getETag(projectId))) {
+                return null;
+            }
+            return ResponseEntity.ok().body(executionHistoryService.getLatestExecutionHistories(projectId));
         } catch (NotFoundException e) {
             return ResponseUtil.handle(e);
         }
@@ -199,29 +235,64 @@ public class ExecutionResource {
      *
      * @param projectCode the code of the project in which to work
      * @param jobUrl      the job URL of the execution
+     * @param request     the current request, to validate the ETag of the client
      * @return "STILL_COMPUTING" if the flag set by /request-completion is still there (indexation is not done yet),
      * or one of the {@link QualityStatus} enumeration names when the
-     * definitive quality status of the execution is known
+     * definitive quality status of the execution is known, or status 304 (Not Modified) if the client already has it
      */
     @GetMapping("/quality-status")
-    public ResponseEntity<String> getQualityStatus(@PathVariable String projectCode, @RequestParam String jobUrl) {
+    public ResponseEntity<String> getQualityStatus(@PathVariable String projectCode, @RequestParam String jobUrl, ServletWebRequest request) {
         try {
-            return ResponseEntity.ok().body(service.getQualityStatus(projectService.toId(projectCode), jobUrl));
+            long projectId = projectService.toId(projectCode);
+            if (ResponseUtil.notModified(request, dataVersionService.getETag(projectId))) {
+                return null;
+            }
+            return ResponseEntity.ok().body(service.getQualityStatus(projectId, jobUrl));
         } catch (NotFoundException e) {
             return ResponseUtil.handle(e);
         }
     }
 
+    /**
+     * Wait for the quality status of the execution for the given job: same as /quality-status, but instead of returning
+     * "STILL_COMPUTING" right away, the request is answered as soon as the execution is indexed with its definitive quality status.<br>
+     * "STILL_COMPUTING" is still returned if the status is not definitive before the timeout: in this case, you must wait again.
+     *
+     * @param projectCode      the code of the project in which to work
+     * @param jobUrl           the job URL of the execution
+     * @param timeoutInSeconds the maximum number of seconds to wait (capped by the server)
+     * @return "STILL_COMPUTING" if the definitive quality status is still not known after the timeout, or one of the
+     * {@link QualityStatus} enumeration names when the definitive quality status of the execution is known
+     */
+    @GetMapping("/quality-status/wait")
+    public CompletableFuture<ResponseEntity<String>> waitQualityStatus(@PathVariable String projectCode, @RequestParam String jobUrl,
+            @RequestParam(defaultValue = "25") long timeoutInSeconds) {
+        long projectId;
+        try {
+            projectId = projectService.toId(projectCode);
+        } catch (NotFoundException e) {
+            return CompletableFuture.completedFuture(ResponseUtil.handle(e));
+        }
+        var timeout = Duration.ofSeconds(Math.max(0, Math.min(timeoutInSeconds, maxQualityStatusWaitInSeconds)));
+        return qualityStatusNotifier.awaitQualityStatus(projectId, jobUrl, timeout)
+                .thenApply(status -> ResponseEntity.ok().body(status));
+    }
+
     /**
      * GET latest blocking and eligible executions for each branch
      *
      * @param projectCode the code of the project in which to work
-     * @return The ResponseEntity with status 200 (OK) and the list of entities in body
+     * @param request     the current request, to validate the ETag of the client
+     * @return The ResponseEntity with status 200 (OK) and the list of entities in body, or with status 304 (Not Modified)
      */
     @GetMapping("/latest-eligible-versions")
-    public ResponseEntity<List<ExecutionDTO>> getLatestEligibleVersions(@PathVariable String projectCode) {
+    public ResponseEntity<List<ExecutionDTO>> getLatestEligibleVersions(@PathVariable String projectCode, ServletWebRequest request) {
         try {
-            return ResponseEntity.ok().body(service.getLatestEligibleVersions(projectService.toId(projectCode)));
+            long projectId = projectService.toId(projectCode);
+            if (ResponseUtil.notModified(request, dataVersionService.getETag(projectId))) {
+                return null;
+            }
+            return ResponseEntity.ok().body(service.getLatestEligibleVersions(projectId));
         } catch (NotFoundException e) {
             return ResponseUtil.handle(e);
         }
@@ -235,8 +306,9 @@ public class ExecutionResource {
      * @param cycle       the cycle of the given execution
      * @param zipFile     a zip containing Postman result to index for the given project.
      * @return The ResponseEntity with status 200 (OK) if the zip was correctly extracted and ready to be indexed, a
-     * 400 (BAD REQUEST) if the zip can't be read or the given project hasn't enabled the file indexing or a 500 if an
-     * internal error occurs during the indexation.
+     * 400 (BAD REQUEST) if the zip can't be read or the given project hasn't enabled the file indexing, a 503 (SERVICE
+     * UNAVAILABLE) if too many executions are already waiting to be indexed, or a 500 if an internal error occurs during
+     * the indexation.
      */
     @PostMapping(value = "/upload")
     public ResponseEntity<Void> upload(@PathVariable String projectCode,
@@ -254,6 +326,8 @@ public class ExecutionResource {
         } catch (IOException ex) {
             LOG.error("EXECUTION|Unable to index the uploaded execution.", ex);
             result = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        } catch (TaskRejectedException ex) {
+            result = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, UPLOAD_RETRY_AFTER_SECONDS).build();
         }
 
         LOG.debug("EXECUTION|Freeing the /upload resource...");
@@ -20,13 +20,12 @@ package com.decathlon.ara.web.rest;
 import static com.decathlon.ara.web.rest.util.RestConstants.PROJECT_API_PATH;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 import javax.validation.Valid;
 
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -41,9 +40,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.decathlon.ara.Entities;
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.cartography.CartographyExport;
 import com.decathlon.ara.coverage.CoverageService;
 import com.decathlon.ara.service.FunctionalityService;
 import com.decathlon.ara.service.ProjectService;
@@ -76,23 +79,31 @@ public class FunctionalityResource {
 
     private final ProjectService projectService;
 
+    private final DataVersionService dataVersionService;
+
     public FunctionalityResource(FunctionalityService service, CoverageService coverageService,
-            ProjectService projectService) {
+            ProjectService projectService, DataVersionService dataVersionService) {
         this.service = service;
         this.coverageService = coverageService;
         this.projectService = projectService;
+        this.dataVersionService = dataVersionService;
     }
 
     /**
      * GET all entities.
      *
      * @param projectCode the code of the project in which to work
-     * @return the ResponseEntity with status 200 (OK) and the tree of entities in body
+     * @param request     the current request, to validate the ETag of the client
+     * @return the ResponseEntity with status 200 (OK) and the tree of entities in body, or with status 304 (Not Modified)
      */
     @GetMapping("")
-    public ResponseEntity<List<FunctionalityWithChildrenDTO>> getAll(@PathVariable String projectCode) {
+    public ResponseEntity<List<FunctionalityWithChildrenDTO>> getAll(@PathVariable String projectCode, ServletWebRequest request) {
         try {
-            return ResponseEntity.ok().body(service.findAllAsTree(projectService.toId(projectCode)));
+            long projectId = projectService.toId(projectCode);
+            if (ResponseUtil.notModified(request, dataVersionService.getETag(projectId))) {
+                return null;
+            }
+            return ResponseEntity.ok().body(service.findAllAsTree(projectId));
         } catch (NotFoundException e) {
             return ResponseUtil.handle(e);
         }
@@ -231,10 +242,21 @@ public class FunctionalityResource {
         }
     }
 
+    /**
+     * GET the coverage of the functionalities by the scenarios, answering 304 (Not Modified) if the client already has it.
+     *
+     * @param projectCode the code of the project in which to work
+     * @param request     the current request, to validate the ETag of the client
+     * @return the ResponseEntity with status 200 (OK) and the coverage in body, or with status 304 (Not Modified)
+     */
     @GetMapping("/coverage")
-    public ResponseEntity<CoverageDTO> getCoverage(@PathVariable String projectCode) {
+    public ResponseEntity<CoverageDTO> getCoverage(@PathVariable String projectCode, ServletWebRequest request) {
         try {
-            return ResponseEntity.ok().body(coverageService.computeCoverage(projectService.toId(projectCode)));
+            long projectId = projectService.toId(projectCode);
+            if (ResponseUtil.notModified(request, dataVersionService.getETag(projectId))) {
+                return null;
+            }
+            return ResponseEntity.ok().body(coverageService.computeCoverage(projectId));
         } catch (NotFoundException e) {
             return ResponseUtil.handle(e);
         }
@@ -252,24 +274,23 @@ public class FunctionalityResource {
     }
 
     /**
-     * Returns a streamable resource which will contains the wanted functionalities exported in the wanted format.
+     * Streams the wanted functionalities exported in the wanted format.
      *
      * @param projectCode the code of the project which contains the wanted functionalities.
      * @param functionalities the wanted functionalities' ids
      * @param exportType the wanted export format
-     * @return a streamable byte array which represents the exported functionalities for download.
+     * @return a stream of the Base64-encoded exported functionalities, written while they are exported, for download.
      */
     @GetMapping("/export")
-    public ResponseEntity<Resource> export(@PathVariable String projectCode, @RequestParam List<Long> functionalities, @RequestParam String exportType, @RequestParam Map<String, String> additionalParams) {
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String projectCode, @RequestParam List<Long> functionalities, @RequestParam String exportType, @RequestParam Map<String, String> additionalParams) {
         try {
             // Remove the already known params catched by the global mapping
             additionalParams.remove("functionalities");
             additionalParams.remove("exportType");
-            ByteArrayResource resource = service.generateExport(functionalities, exportType, additionalParams);
+            CartographyExport export = service.generateExport(functionalities, exportType, additionalParams);
             return ResponseEntity.ok()
-                    .contentLength(resource.contentLength())
                     .contentType(MediaType.parseMediaType("application/octet-stream"))
-                    .body(resource);
+                    .body(export::writeTo);
         } catch (BadRequestException ex) {
             return ResponseUtil.handle(ex);
         }
@@ -284,8 +305,8 @@ public class FunctionalityResource {
      */
     @PostMapping("/import")
     public ResponseEntity<Resource> importFunctionalities(@PathVariable String projectCode, @RequestParam("functionalities") MultipartFile jsonFunctionalities) {
-        try {
-            service.importJSONFunctionalities(projectCode, new String(jsonFunctionalities.getBytes(), StandardCharsets.UTF_8));
+        try (InputStream inputStream = jsonFunctionalities.getInputStream()) {
+            service.importJSONFunctionalities(projectCode, inputStream);
             return ResponseEntity.ok().build();
         } catch (BadRequestException ex) {
             return ResponseUtil.handle(ex);
@@ -4,11 +4,15 @@ import static com.decathlon.ara.web.rest.util.RestConstants.PROJECT_API_PATH;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.decathlon.ara.purge.bean.PurgeProgress;
 import com.decathlon.ara.purge.service.PurgeService;
+import com.decathlon.ara.service.ProjectService;
+import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.web.rest.util.ResponseUtil;
 
 @RestController
@@ -17,8 +21,11 @@ public class PurgeResource {
 
     private final PurgeService purgeService;
 
-    public PurgeResource(PurgeService purgeService) {
+    private final ProjectService projectService;
+
+    public PurgeResource(PurgeService purgeService, ProjectService projectService) {
         this.purgeService = purgeService;
+        this.projectService = projectService;
     }
 
     /**
@@ -32,4 +39,18 @@ public class PurgeResource {
         return ResponseUtil.deleted("Purge", projectCode);
     }
 
+    /**
+     * Get the progress of the running (or last) purge of a project
+     * @param projectCode the project code
+     * @return the purge progress, or 404 if the project is unknown or was never purged
+     */
+    @GetMapping("/progress")
+    public ResponseEntity<PurgeProgress> getProgress(@PathVariable String projectCode) {
+        try {
+            return ResponseEntity.of(purgeService.getProgress(projectService.toId(projectCode)));
+        } catch (NotFoundException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
 }
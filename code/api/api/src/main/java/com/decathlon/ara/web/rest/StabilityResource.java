@@ -0,0 +1,117 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.web.rest;
+
+import static com.decathlon.ara.web.rest.util.RestConstants.PROJECT_API_PATH;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.service.ProjectService;
+import com.decathlon.ara.service.StabilityService;
+import com.decathlon.ara.service.dto.stability.ProblemStabilityDTO;
+import com.decathlon.ara.service.dto.stability.ScenarioStabilityDTO;
+import com.decathlon.ara.service.exception.NotFoundException;
+import com.decathlon.ara.web.rest.util.ResponseUtil;
+
+/**
+ * REST controller for ranking the flakiest scenarios and problems.
+ */
+@RestController
+@RequestMapping(StabilityResource.PATH)
+public class StabilityResource {
+
+    static final String PATH = PROJECT_API_PATH + "/stabilities";
+
+    private final StabilityService service;
+
+    private final ProjectService projectService;
+
+    private final DataVersionService dataVersionService;
+
+    public StabilityResource(StabilityService service, ProjectService projectService, DataVersionService dataVersionService) {
+        this.service = service;
+        this.projectService = projectService;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * GET the flakiest scenarios of the project.
+     *
+     * @param projectCode   the code of the project in which to work
+     * @param countryCode   optional country code filter
+     * @param typeCode      optional type code filter
+     * @param minExecutions the minimum number of recorded executions for a scenario to be ranked
+     * @param limit         the maximum number of scenarios to return
+     * @param request       the current request, to validate the ETag of the client
+     * @return the ResponseEntity with status 200 (OK) and the scenario stabilities in body, the flakiest first, or with
+     * status 304 (Not Modified)
+     */
+    @GetMapping("/scenarios")
+    public ResponseEntity<List<ScenarioStabilityDTO>> getFlakiestScenarios(@PathVariable String projectCode,
+            @RequestParam(required = false) String countryCode,
+            @RequestParam(required = false) String typeCode,
+            @RequestParam(defaultValue = "5") int minExecutions,
+            @RequestParam(defaultValue = "50") int limit,
+            ServletWebRequest request) {
+        try {
+            long projectId = projectService.toId(projectCode);
+            if (ResponseUtil.notModified(request, dataVersionService.getETag(projectId))) {
+                return null;
+            }
+            return ResponseEntity.ok().body(service.findFlakiestScenarios(projectId, countryCode, typeCode, minExecutions, limit));
+        } catch (NotFoundException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
+    /**
+     * GET the flakiest problems of the project.
+     *
+     * @param projectCode   the code of the project in which to work
+     * @param minExecutions the minimum number of recorded executions for a problem to be ranked
+     * @param limit         the maximum number of problems to return
+     * @param request       the current request, to validate the ETag of the client
+     * @return the ResponseEntity with status 200 (OK) and the problem stabilities in body, the flakiest first, or with
+     * status 304 (Not Modified)
+     */
+    @GetMapping("/problems")
+    public ResponseEntity<List<ProblemStabilityDTO>> getFlakiestProblems(@PathVariable String projectCode,
+            @RequestParam(defaultValue = "5") int minExecutions,
+            @RequestParam(defaultValue = "50") int limit,
+            ServletWebRequest request) {
+        try {
+            long projectId = projectService.toId(projectCode);
+            if (ResponseUtil.notModified(request, dataVersionService.getETag(projectId))) {
+                return null;
+            }
+            return ResponseEntity.ok().body(service.findFlakiestProblems(projectId, minExecutions, limit));
+        } catch (NotFoundException e) {
+            return ResponseUtil.handle(e);
+        }
+    }
+
+}
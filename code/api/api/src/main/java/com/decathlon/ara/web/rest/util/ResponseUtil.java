@@ -17,8 +17,11 @@
 
 package com.decathlon.ara.web.rest.util;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import com.decathlon.ara.service.exception.BadGatewayException;
 import com.decathlon.ara.service.exception.BadRequestException;
@@ -61,4 +64,21 @@ public final class ResponseUtil {
         }
     }
 
+    /**
+     * Validate the ETag the client sent in the If-None-Match header against the current one, before computing the
+     * response. The response gets the current ETag, and is to be revalidated by the client each time it is used.
+     *
+     * @param request the current request, whose response to prepare
+     * @param eTag    the current strong ETag of the requested data (see
+     *                {@link com.decathlon.ara.cache.DataVersionService#getETag(long)})
+     * @return true if the client already has the current data: the response is then 304 (Not Modified), and the
+     * controller must return null without computing anything
+     */
+    public static boolean notModified(ServletWebRequest request, String eTag) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return request.checkNotModified(eTag);
+    }
+
 }
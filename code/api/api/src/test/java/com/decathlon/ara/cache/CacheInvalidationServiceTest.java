@@ -0,0 +1,219 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.decathlon.ara.cache.bean.CacheEvictedEvent;
+import com.decathlon.ara.configuration.ReplicaRouter;
+import com.decathlon.ara.domain.CacheInvalidation;
+import com.decathlon.ara.repository.CacheInvalidationRepository;
+import com.decathlon.ara.repository.custom.util.JpaCacheManager;
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.service.ScheduledJobLeaseService;
+import com.decathlon.ara.service.util.DateService;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationServiceTest {
+
+    private static final String REGION = "com.decathlon.ara.domain.Error.problemOccurrences";
+
+    @Mock
+    private CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Mock
+    private JpaCacheManager jpaCacheManager;
+
+    @Mock
+    private TransactionAppenderUtil transactionAppenderUtil;
+
+    @Mock
+    private ScheduledJobLeaseService scheduledJobLeaseService;
+
+    @Mock
+    private DateService dateService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private ReplicaRouter replicaRouter;
+
+    @InjectMocks
+    private CacheInvalidationService cut;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cut, "replicated", Boolean.TRUE);
+    }
+
+    @Test
+    void evictAfterCommit_should_only_evict_locally_when_not_replicated() {
+        // GIVEN
+        ReflectionTestUtils.setField(cut, "replicated", Boolean.FALSE);
+
+        // WHEN
+        cut.evictAfterCommit(REGION, List.of(Long.valueOf(1)));
+
+        // THEN
+        verify(transactionAppenderUtil).doAfterCommit(any());
+        verify(cacheInvalidationRepository, never()).save(any());
+    }
+
+    @Test
+    void evictAfterCommit_should_do_nothing_without_identifiers() {
+        // WHEN
+        cut.evictAfterCommit(REGION, List.of());
+
+        // THEN
+        verify(transactionAppenderUtil, never()).doAfterCommit(any());
+        verify(cacheInvalidationRepository, never()).save(any());
+    }
+
+    @Test
+    void publishAfterCommit_should_log_the_evicted_identifiers() {
+        // GIVEN
+        when(scheduledJobLeaseService.getNodeId()).thenReturn("node-1");
+        when(dateService.now()).thenReturn(new Date(1000));
+        when(cacheInvalidationRepository.save(any())).thenAnswer(invocation -> withId(invocation.getArgument(0), 42));
+
+        // WHEN
+        cut.publishAfterCommit(REGION, List.of(Long.valueOf(2), Long.valueOf(1)));
+
+        // THEN
+        ArgumentCaptor<CacheInvalidation> invalidation = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(cacheInvalidationRepository).save(invalidation.capture());
+        assertThat(invalidation.getValue().getRegion()).isEqualTo(REGION);
+        assertThat(invalidation.getValue().getOwnerIds()).isEqualTo("1,2");
+        assertThat(invalidation.getValue().getNode()).isEqualTo("node-1");
+        assertThat(invalidation.getValue().getCreationDateTime()).isEqualTo(new Date(1000));
+    }
+
+    @Test
+    void publishAfterCommit_should_log_a_whole_region_eviction_above_the_bulk_threshold() {
+        // GIVEN
+        when(jpaCacheManager.isBulk(any())).thenReturn(true);
+        when(cacheInvalidationRepository.save(any())).thenAnswer(invocation -> withId(invocation.getArgument(0), 42));
+
+        // WHEN
+        cut.publishAfterCommit(REGION, List.of(Long.valueOf(1)));
+
+        // THEN
+        ArgumentCaptor<CacheInvalidation> invalidation = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(cacheInvalidationRepository).save(invalidation.capture());
+        assertThat(invalidation.getValue().getOwnerIds()).isNull();
+    }
+
+    @Test
+    void publishAfterCommit_should_do_nothing_when_not_replicated() {
+        // GIVEN
+        ReflectionTestUtils.setField(cut, "replicated", Boolean.FALSE);
+
+        // WHEN
+        cut.publishAfterCommit(REGION, List.of(Long.valueOf(1)));
+
+        // THEN
+        verify(cacheInvalidationRepository, never()).save(any());
+    }
+
+    @Test
+    void poll_should_replay_each_invalidation_of_the_other_nodes_once() {
+        // GIVEN
+        when(scheduledJobLeaseService.getNodeId()).thenReturn("node-1");
+        when(dateService.now()).thenReturn(new Date());
+        CacheInvalidation someIds = withId(new CacheInvalidation(REGION, "3,4", "node-2", new Date()), 1);
+        CacheInvalidation wholeRegion = withId(new CacheInvalidation("com.decathlon.ara.domain.Problem", null, "node-2", new Date()), 2);
+        when(cacheInvalidationRepository.findAllByNodeNotAndCreationDateTimeGreaterThanEqualOrderById(anyString(), any()))
+                .thenReturn(List.of(someIds, wholeRegion));
+
+        // WHEN
+        cut.poll();
+        cut.poll();
+
+        // THEN
+        verify(jpaCacheManager, times(1)).evict(REGION, Set.of(Long.valueOf(3), Long.valueOf(4)));
+        verify(jpaCacheManager, times(1)).evict("com.decathlon.ara.domain.Problem", null);
+        verify(applicationEventPublisher).publishEvent(new CacheEvictedEvent(REGION, Set.of(Long.valueOf(3), Long.valueOf(4))));
+        verify(applicationEventPublisher).publishEvent(new CacheEvictedEvent("com.decathlon.ara.domain.Problem", null));
+    }
+
+    @Test
+    void catchUp_should_replay_the_invalidations_only_when_some_are_unknown() {
+        // GIVEN
+        when(scheduledJobLeaseService.getNodeId()).thenReturn("node-1");
+        when(dateService.now()).thenReturn(new Date());
+        when(cacheInvalidationRepository.findIdsByNodeNotAndCreationDateTimeGreaterThanEqual(anyString(), any()))
+                .thenReturn(List.of(Long.valueOf(7)));
+        when(cacheInvalidationRepository.findAllByNodeNotAndCreationDateTimeGreaterThanEqualOrderById(anyString(), any()))
+                .thenReturn(List.of(withId(new CacheInvalidation(REGION, "3", "node-2", new Date()), 7)));
+
+        // WHEN
+        cut.catchUp();
+        cut.catchUp();
+
+        // THEN
+        verify(cacheInvalidationRepository, times(1)).findAllByNodeNotAndCreationDateTimeGreaterThanEqualOrderById(anyString(), any());
+    }
+
+    @Test
+    void catchUp_should_replay_a_peer_invalidation_committed_late_with_a_lower_id() {
+        // GIVEN
+        when(scheduledJobLeaseService.getNodeId()).thenReturn("node-1");
+        when(dateService.now()).thenReturn(new Date());
+        CacheInvalidation early = withId(new CacheInvalidation(REGION, "3", "node-2", new Date()), 7);
+        CacheInvalidation late = withId(new CacheInvalidation(REGION, "4", "node-3", new Date()), 5);
+        when(cacheInvalidationRepository.findIdsByNodeNotAndCreationDateTimeGreaterThanEqual(anyString(), any()))
+                .thenReturn(List.of(Long.valueOf(7)), List.of(Long.valueOf(5), Long.valueOf(7)));
+        when(cacheInvalidationRepository.findAllByNodeNotAndCreationDateTimeGreaterThanEqualOrderById(anyString(), any()))
+                .thenReturn(List.of(early), List.of(late, early));
+
+        // WHEN
+        cut.catchUp();
+        cut.catchUp();
+
+        // THEN
+        verify(jpaCacheManager, times(1)).evict(REGION, Set.of(Long.valueOf(3)));
+        verify(jpaCacheManager, times(1)).evict(REGION, Set.of(Long.valueOf(4)));
+    }
+
+    private static CacheInvalidation withId(CacheInvalidation invalidation, long id) {
+        ReflectionTestUtils.setField(invalidation, "id", Long.valueOf(id));
+        return invalidation;
+    }
+
+}
@@ -0,0 +1,133 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.decathlon.ara.cache.bean.CacheRegionStatistics;
+
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.Configuration;
+import net.sf.ehcache.config.MemoryUnit;
+
+class CacheRegionServiceTest {
+
+    private static final String REGION = "com.decathlon.ara.domain.Execution";
+
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.shutdown();
+    }
+
+    @Test
+    void getStatistics_should_report_the_limit_and_usage_of_each_region() {
+        // GIVEN
+        CacheRegionService cut = serviceWith(new Configuration()
+                .name("entries")
+                .cache(new CacheConfiguration(REGION, 100).timeToLiveSeconds(3600)));
+        cacheManager.getCache(REGION).put(new Element(Long.valueOf(1), "execution"));
+        cacheManager.getCache(REGION).get(Long.valueOf(1));
+        cacheManager.getCache(REGION).get(Long.valueOf(2));
+
+        // WHEN
+        var statistics = cut.getStatistics();
+
+        // THEN
+        assertThat(statistics.getMemoryBudgetInBytes()).isNull();
+        assertThat(statistics.getRegions()).hasSize(1);
+        CacheRegionStatistics region = statistics.getRegions().get(0);
+        assertThat(region.getName()).isEqualTo(REGION);
+        assertThat(region.getMaxEntries()).isEqualTo(100);
+        assertThat(region.getSize()).isEqualTo(1);
+        assertThat(region.getHeapSizeInBytes()).isNull();
+        assertThat(region.getHits()).isEqualTo(1);
+        assertThat(region.getMisses()).isEqualTo(1);
+        assertThat(region.getHitRatio()).isEqualTo(0.5);
+        assertThat(region.getTimeToLiveSeconds()).isEqualTo(3600);
+    }
+
+    @Test
+    void getStatistics_should_measure_the_heap_size_of_one_region() {
+        // GIVEN
+        CacheRegionService cut = serviceWith(new Configuration()
+                .name("entries")
+                .cache(new CacheConfiguration(REGION, 100)));
+        cacheManager.getCache(REGION).put(new Element(Long.valueOf(1), "execution"));
+
+        // WHEN
+        var region = cut.getStatistics(REGION);
+
+        // THEN
+        assertThat(region).isPresent();
+        assertThat(region.get().getHeapSizeInBytes()).isPositive();
+        assertThat(cut.getStatistics("unknown")).isEmpty();
+    }
+
+    @Test
+    void setMaxEntries_should_change_the_limit_of_the_region() {
+        // GIVEN
+        CacheRegionService cut = serviceWith(new Configuration()
+                .name("entries")
+                .cache(new CacheConfiguration(REGION, 100)));
+
+        // WHEN
+        var region = cut.setMaxEntries(REGION, 50000);
+
+        // THEN
+        assertThat(region).isPresent();
+        assertThat(region.get().getMaxEntries()).isEqualTo(50000);
+        assertThat(cacheManager.getCache(REGION).getCacheConfiguration().getMaxEntriesLocalHeap()).isEqualTo(50000);
+        assertThat(cut.setMaxEntries("unknown", 1)).isEmpty();
+        assertThatThrownBy(() -> cut.setMemoryBudget(1024)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void setMemoryBudget_should_change_the_memory_shared_by_all_regions() {
+        // GIVEN
+        CacheRegionService cut = serviceWith(new Configuration()
+                .name("memory")
+                .maxBytesLocalHeap(1, MemoryUnit.MEGABYTES)
+                .cache(new CacheConfiguration().name(REGION)));
+
+        // WHEN
+        cut.setMemoryBudget(2 * 1024 * 1024);
+
+        // THEN
+        assertThat(cut.getMemoryBudget()).isEqualTo(2 * 1024 * 1024);
+        assertThat(cut.getStatistics().getRegions().get(0).getMaxEntries()).isNull();
+        assertThatThrownBy(() -> cut.setMaxEntries(REGION, 1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private CacheRegionService serviceWith(Configuration configuration) {
+        cacheManager = new CacheManager(configuration);
+        CacheRegionService cut = spy(new CacheRegionService(null));
+        doReturn(cacheManager).when(cut).getCacheManager();
+        return cut;
+    }
+
+}
@@ -0,0 +1,204 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.decathlon.ara.configuration.ReplicaRouter;
+import com.decathlon.ara.domain.ProjectDataVersion;
+import com.decathlon.ara.repository.ProjectDataVersionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DataVersionServiceTest {
+
+    @Mock
+    private ProjectDataVersionRepository projectDataVersionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReplicaRouter replicaRouter;
+
+    private DataVersionService cut;
+
+    @BeforeEach
+    void setUp() {
+        cut = new DataVersionService(projectDataVersionRepository, transactionManager, replicaRouter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void incrementAfterCommit_should_increment_once_per_project_after_the_commit() {
+        // GIVEN
+        TransactionSynchronizationManager.initSynchronization();
+        when(projectDataVersionRepository.incrementVersion(anyLong())).thenReturn(1);
+
+        // WHEN
+        cut.incrementAfterCommit(1);
+        cut.incrementAfterCommit(2);
+        cut.incrementAfterCommit(1);
+
+        // THEN
+        verify(projectDataVersionRepository, never()).incrementVersion(anyLong());
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        verify(projectDataVersionRepository, times(1)).incrementVersion(1);
+        verify(projectDataVersionRepository, times(1)).incrementVersion(2);
+        verify(replicaRouter).recordWrite();
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(TransactionSynchronizationManager.hasResource(DataVersionService.PendingVersions.class)).isFalse();
+    }
+
+    @Test
+    void incrementAfterCommit_should_create_the_version_of_a_project_without_one() {
+        // GIVEN
+        when(projectDataVersionRepository.incrementVersion(3)).thenReturn(0);
+
+        // WHEN
+        cut.incrementAfterCommit(3);
+
+        // THEN
+        ArgumentCaptor<ProjectDataVersion> version = ArgumentCaptor.forClass(ProjectDataVersion.class);
+        verify(projectDataVersionRepository).save(version.capture());
+        assertThat(version.getValue().getProjectId()).isEqualTo(3);
+        assertThat(version.getValue().getVersion()).isEqualTo(1);
+        assertThat(version.getValue().getFunctionalityVersion()).isZero();
+    }
+
+    @Test
+    void incrementFunctionalityVersionAfterCommit_should_also_increment_the_functionality_version_of_the_project() {
+        // GIVEN
+        TransactionSynchronizationManager.initSynchronization();
+        when(projectDataVersionRepository.incrementVersion(anyLong())).thenReturn(1);
+        when(projectDataVersionRepository.incrementVersionAndFunctionalityVersion(anyLong())).thenReturn(1);
+
+        // WHEN
+        cut.incrementAfterCommit(1);
+        cut.incrementFunctionalityVersionAfterCommit(1);
+        cut.incrementAfterCommit(2);
+
+        // THEN
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        verify(projectDataVersionRepository).incrementVersionAndFunctionalityVersion(1);
+        verify(projectDataVersionRepository, never()).incrementVersion(1);
+        verify(projectDataVersionRepository).incrementVersion(2);
+        verify(projectDataVersionRepository, never()).incrementVersionAndFunctionalityVersion(2);
+    }
+
+    @Test
+    void incrementFunctionalityVersionAfterCommit_should_create_the_versions_of_a_project_without_one() {
+        // GIVEN
+        when(projectDataVersionRepository.incrementVersionAndFunctionalityVersion(3)).thenReturn(0);
+
+        // WHEN
+        cut.incrementFunctionalityVersionAfterCommit(3);
+
+        // THEN
+        ArgumentCaptor<ProjectDataVersion> version = ArgumentCaptor.forClass(ProjectDataVersion.class);
+        verify(projectDataVersionRepository).save(version.capture());
+        assertThat(version.getValue().getVersion()).isEqualTo(1);
+        assertThat(version.getValue().getFunctionalityVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void incrementAfterCommit_should_not_fail_the_committed_change_when_the_version_cannot_be_incremented() {
+        // GIVEN
+        when(projectDataVersionRepository.incrementVersion(4)).thenThrow(new IllegalStateException("Database down"));
+
+        // WHEN
+        cut.incrementAfterCommit(4);
+
+        // THEN
+        verify(projectDataVersionRepository, never()).save(any());
+    }
+
+    @Test
+    void getETag_should_quote_the_project_and_its_version() {
+        // GIVEN
+        when(projectDataVersionRepository.findVersionByProjectId(1)).thenReturn(Optional.of(Long.valueOf(42)));
+        when(projectDataVersionRepository.findVersionByProjectId(2)).thenReturn(Optional.empty());
+
+        // WHEN
+        var eTag = cut.getETag(1);
+        var newProjectETag = cut.getETag(2);
+
+        // THEN
+        assertThat(eTag).isEqualTo("\"1-42\"");
+        assertThat(newProjectETag).isEqualTo("\"2-0\"");
+    }
+
+    @Test
+    void getVersion_should_record_a_write_when_the_version_changed_through_another_node() {
+        // GIVEN
+        when(projectDataVersionRepository.findVersionByProjectId(1)).thenReturn(
+                Optional.of(Long.valueOf(7)), Optional.of(Long.valueOf(7)), Optional.of(Long.valueOf(8)));
+
+        // WHEN
+        cut.getVersion(1);
+        cut.getVersion(1);
+
+        // THEN
+        verify(replicaRouter, never()).recordWrite();
+        assertThat(cut.getVersion(1)).isEqualTo(8);
+        verify(replicaRouter).recordWrite();
+    }
+
+    @Test
+    void getFunctionalityVersion_should_default_to_zero_and_record_a_write_when_it_changed_through_another_node() {
+        // GIVEN
+        when(projectDataVersionRepository.findFunctionalityVersionByProjectId(1)).thenReturn(
+                Optional.empty(), Optional.of(Long.valueOf(1)));
+
+        // WHEN
+        long first = cut.getFunctionalityVersion(1);
+
+        // THEN
+        assertThat(first).isZero();
+        verify(replicaRouter, never()).recordWrite();
+        assertThat(cut.getFunctionalityVersion(1)).isEqualTo(1);
+        verify(replicaRouter).recordWrite();
+    }
+
+}
@@ -8,7 +8,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
-import java.nio.charset.StandardCharsets;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -52,18 +54,23 @@ class AraExporterTest {
     }
 
     @Test
-    void generate_should_use_ara_cartography_mapper() {
+    void write_should_use_ara_cartography_mapper() throws IOException {
         // Given
         final AraCartographyMapper mapper = new AraCartographyMapper();
         final List<FunctionalityDTO> functionalities = new ArrayList<>();
         for (int i = 0; i < 10; i++) {
             functionalities.add(this.create_dummy_functionality(i));
         }
-        final byte[] expected = mapper.asString(functionalities).getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        mapper.write(functionalities, expected);
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
         // When
-        byte[] actual = this.sut.generate(functionalities, null);
+        this.sut.write(functionalities, null, actual);
         // Then
-        Assertions.assertThat(actual).containsExactly(expected);
+        Assertions.assertThat(actual.toByteArray()).isNotEmpty().containsExactly(expected.toByteArray());
+        Assertions.assertThat(mapper.asFunctionalities(new ByteArrayInputStream(actual.toByteArray())))
+                .extracting(FunctionalityDTO::getName)
+                .containsExactlyElementsOf(functionalities.stream().map(FunctionalityDTO::getName).toList());
     }
 
     private FunctionalityDTO create_dummy_functionality(long id) {
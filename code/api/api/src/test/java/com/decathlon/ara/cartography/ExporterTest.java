@@ -8,6 +8,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
@@ -26,16 +29,17 @@ class ExporterTest {
     }
 
     @Test
-    void generateAndEncodeB64_should_return_the_encoded_generated_byte_array() {
+    void generateAndEncodeB64_should_stream_the_encoded_written_export() throws IOException {
         // Given
         List<FunctionalityDTO> functionalities = new ArrayList<>();
         byte[] decodedArray = TEST_STR.getBytes(StandardCharsets.UTF_8);
         byte[] expected = Base64.getEncoder().encode(decodedArray);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         // When
-        byte[] actual = this.sut.generateAndEncodeB64(functionalities, null);
+        this.sut.generateAndEncodeB64(functionalities, null, outputStream);
         // Then
-        Assertions.assertThat(actual).containsExactly(expected);
-        Mockito.verify(this.sut).generate(functionalities, null);
+        Assertions.assertThat(outputStream.toByteArray()).containsExactly(expected);
+        Mockito.verify(this.sut).write(Mockito.eq(functionalities), Mockito.isNull(), Mockito.any());
     }
 
     @Test
@@ -93,8 +97,8 @@ class ExporterTest {
         }
 
         @Override
-        protected byte[] generate(List<FunctionalityDTO> functionalities, Map<String, String> requiredInfos) {
-            return this.getName().getBytes(StandardCharsets.UTF_8);
+        protected void write(List<FunctionalityDTO> functionalities, Map<String, String> requiredInfos, OutputStream outputStream) throws IOException {
+            outputStream.write(this.getName().getBytes(StandardCharsets.UTF_8));
         }
     }
 }
\ No newline at end of file
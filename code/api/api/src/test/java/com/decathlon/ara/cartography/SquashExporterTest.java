@@ -9,6 +9,8 @@ import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -43,7 +45,7 @@ class SquashExporterTest {
     @Test
     void getFormat() {
         // Given
-        final String expected = "xls";
+        final String expected = "xlsx";
         // When
         String actualName = this.sut.getFormat();
         // Then
@@ -51,24 +53,25 @@ class SquashExporterTest {
     }
 
     @Test
-    void generate_should_create_a_header_row_even_when_no_functionalities() {
+    void write_should_create_a_header_row_even_when_no_functionalities() throws IOException {
         // Given
         List<FunctionalityDTO> functionalities = new ArrayList<>();
         Map<String, String> requiredInfos = new HashMap<>();
         requiredInfos.put(SquashExporter.PROJECT_NAME, "project");
         requiredInfos.put(SquashExporter.USER, "user");
         // When
-        byte[] result = this.sut.generate(functionalities, requiredInfos);
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        this.sut.write(functionalities, requiredInfos, result);
         // Then
         Mockito.verify(this.sut, Mockito.times(1)).createHeaderRow(Mockito.any());
         Mockito.verify(this.sut, Mockito.never()).addRowToSheet(Mockito.any(), Mockito.anyInt(), Mockito.anyString(),
-                Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.anyString());
-        Assertions.assertThat(result).isNotEmpty();
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyString());
+        Assertions.assertThat(result.toByteArray()).isNotEmpty();
     }
 
 
     @Test
-    void generate_should_generate_one_line_per_functionality() {
+    void write_should_generate_one_line_per_functionality() throws IOException {
         // Given
         List<FunctionalityDTO> functionalities = new ArrayList<>();
         functionalities.add(this.create_dummy_functionality(1));
@@ -77,12 +80,52 @@ class SquashExporterTest {
         requiredInfos.put(SquashExporter.PROJECT_NAME, "project");
         requiredInfos.put(SquashExporter.USER, "user");
         // When
-        byte[] result = this.sut.generate(functionalities, requiredInfos);
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        this.sut.write(functionalities, requiredInfos, result);
         // Then
         Mockito.verify(this.sut, Mockito.times(1)).createHeaderRow(Mockito.any());
         Mockito.verify(this.sut, Mockito.times(functionalities.size())).addRowToSheet(Mockito.any(), Mockito.anyInt(), Mockito.anyString(),
-                Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.anyString());
-        Assertions.assertThat(result).isNotEmpty();
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyString());
+        Assertions.assertThat(result.toByteArray()).isNotEmpty();
+    }
+
+    @Test
+    void write_should_prefix_functionalities_with_the_path_of_their_folders() throws IOException {
+        // Given
+        FunctionalityDTO folder = this.create_dummy_folder(1, null);
+        FunctionalityDTO subFolder = this.create_dummy_folder(2, 1L);
+        FunctionalityDTO functionality = this.create_dummy_functionality(3);
+        functionality.setParentId(2L);
+        List<FunctionalityDTO> functionalities = List.of(functionality, subFolder, folder);
+        Map<String, String> requiredInfos = new HashMap<>();
+        requiredInfos.put(SquashExporter.PROJECT_NAME, "project");
+        requiredInfos.put(SquashExporter.USER, "user");
+        // When
+        this.sut.write(functionalities, requiredInfos, new ByteArrayOutputStream());
+        // Then
+        Mockito.verify(this.sut, Mockito.times(1)).addRowToSheet(Mockito.any(), Mockito.eq(1), Mockito.eq("project"),
+                Mockito.eq("/project/name-folder-1/name-folder-2/name-functionality-3"), Mockito.anyString(), Mockito.anyString(),
+                Mockito.any(), Mockito.any(), Mockito.eq("user"));
+    }
+
+    @Test
+    void getFunctionalityPaths_should_compute_the_parent_path_of_each_functionality() {
+        // Given
+        FunctionalityDTO folder = this.create_dummy_folder(1, null);
+        FunctionalityDTO subFolder = this.create_dummy_folder(2, 1L);
+        FunctionalityDTO functionality = this.create_dummy_functionality(3);
+        functionality.setParentId(2L);
+        FunctionalityDTO orphan = this.create_dummy_functionality(4);
+        orphan.setParentId(42L);
+        // When
+        Map<Long, String> paths = this.sut.getFunctionalityPaths(List.of(functionality, orphan, subFolder, folder));
+        // Then
+        Assertions.assertThat(paths)
+                .containsEntry(1L, "")
+                .containsEntry(2L, "/name-folder-1")
+                .containsEntry(3L, "/name-folder-1/name-folder-2")
+                .containsEntry(4L, "")
+                .hasSize(4);
     }
 
     @Test
@@ -119,4 +162,13 @@ class SquashExporterTest {
         result.setComment("This is a comment");
         return result;
     }
+
+    private FunctionalityDTO create_dummy_folder(long id, Long parentId) {
+        FunctionalityDTO result = new FunctionalityDTO();
+        result.setId(id);
+        result.setParentId(parentId);
+        result.setName("name-folder-" + id);
+        result.setType(FunctionalityType.FOLDER.name());
+        return result;
+    }
 }
@@ -22,24 +22,35 @@ import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.ci.bean.ExecutionIndexedEvent;
 import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.domain.CycleDefinition;
 import com.decathlon.ara.domain.Error;
@@ -50,9 +61,15 @@ import com.decathlon.ara.domain.Run;
 import com.decathlon.ara.domain.enumeration.JobStatus;
 import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.scenario.common.service.ExecutedScenarioService;
+import com.decathlon.ara.service.DistinctValueService;
 import com.decathlon.ara.service.ErrorService;
 import com.decathlon.ara.service.ExecutionFilesProcessorService;
 import com.decathlon.ara.service.ProblemDenormalizationService;
+import com.decathlon.ara.service.StabilityService;
+import com.decathlon.ara.service.exception.NotFoundException;
+import com.decathlon.ara.service.support.DistinctValueCounts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class ExecutionIndexerServiceTest {
@@ -75,6 +92,24 @@ class ExecutionIndexerServiceTest {
     @Mock
     private ExecutionFilesProcessorService executionFilesProcessorService;
 
+    @Mock
+    private ExecutedScenarioService executedScenarioService;
+
+    @Mock
+    private StabilityService stabilityService;
+
+    @Mock
+    private DistinctValueService distinctValueService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Spy
+    private IndexingMetrics indexingMetrics = new IndexingMetrics(new SimpleMeterRegistry());
+
     @Spy
     @InjectMocks
     private ExecutionIndexerService cut;
@@ -93,8 +128,9 @@ class ExecutionIndexerServiceTest {
         verify(executionRepository, never()).save(any(Execution.class));
         verify(executionRepository, never()).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(anyLong(), anyString());
         verify(errorService, never()).autoAssignProblemsToNewErrors(anyLong(), anyList());
-        verify(problemDenormalizationService, never()).updateFirstAndLastSeenDateTimes(anyCollection());
+        verify(problemDenormalizationService, never()).addOccurrences(anyCollection(), anyCollection(), any());
         verify(transactionService, never()).doAfterCommit(any(Runnable.class));
+        verify(applicationEventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -112,7 +148,7 @@ class ExecutionIndexerServiceTest {
         verify(executionRepository, never()).save(any(Execution.class));
         verify(executionRepository, never()).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(anyLong(), anyString());
         verify(errorService, never()).autoAssignProblemsToNewErrors(anyLong(), anyList());
-        verify(problemDenormalizationService, never()).updateFirstAndLastSeenDateTimes(anyCollection());
+        verify(problemDenormalizationService, never()).addOccurrences(anyCollection(), anyCollection(), any());
         verify(transactionService, never()).doAfterCommit(any(Runnable.class));
     }
 
@@ -133,7 +169,7 @@ class ExecutionIndexerServiceTest {
         verify(executionRepository, never()).save(any(Execution.class));
         verify(executionRepository, never()).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(anyLong(), anyString());
         verify(errorService, never()).autoAssignProblemsToNewErrors(anyLong(), anyList());
-        verify(problemDenormalizationService, never()).updateFirstAndLastSeenDateTimes(anyCollection());
+        verify(problemDenormalizationService, never()).addOccurrences(anyCollection(), anyCollection(), any());
         verify(transactionService, never()).doAfterCommit(any(Runnable.class));
     }
 
@@ -161,7 +197,7 @@ class ExecutionIndexerServiceTest {
         verify(executionRepository, never()).save(any(Execution.class));
         verify(executionRepository).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator);
         verify(errorService, never()).autoAssignProblemsToNewErrors(anyLong(), anyList());
-        verify(problemDenormalizationService, never()).updateFirstAndLastSeenDateTimes(anyCollection());
+        verify(problemDenormalizationService, never()).addOccurrences(anyCollection(), anyCollection(), any());
         verify(transactionService, never()).doAfterCommit(any(Runnable.class));
     }
 
@@ -195,8 +231,14 @@ class ExecutionIndexerServiceTest {
         verify(executionRepository).save(indexedExecution);
         verify(executionRepository).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator);
         verify(errorService, never()).autoAssignProblemsToNewErrors(anyLong(), anyList());
-        verify(problemDenormalizationService, never()).updateFirstAndLastSeenDateTimes(anyCollection());
-        verify(transactionService, never()).doAfterCommit(any(Runnable.class));
+        verify(problemDenormalizationService, never()).addOccurrences(anyCollection(), anyCollection(), any());
+        ArgumentCaptor<Runnable> afterCommit = ArgumentCaptor.forClass(Runnable.class);
+        verify(transactionService).doAfterCommit(afterCommit.capture());
+        afterCommit.getValue().run();
+        verify(distinctValueService).record(eq(1L), any(DistinctValueCounts.class), any());
+        verify(applicationEventPublisher).publishEvent(new ExecutionIndexedEvent(1L, "http://execution-url.build.org"));
+        verify(indexingMetrics).startTrace(1L, "/execution/folder/location/in/disk" + File.separator);
+        verify(indexingMetrics).endTrace(any());
     }
 
     @Test
@@ -286,6 +328,8 @@ class ExecutionIndexerServiceTest {
         when(savedError222.getId()).thenReturn(222L);
 
         when(errorService.autoAssignProblemsToNewErrors(anyLong(), anyList())).thenReturn(problems);
+        Date testDateTime = new Date();
+        when(savedExecution.getTestDateTime()).thenReturn(testDateTime);
 
         // Then
         cut.indexExecution(plannedIndexation);
@@ -294,12 +338,55 @@ class ExecutionIndexerServiceTest {
         verify(executionRepository).save(indexedExecution);
         verify(executionRepository).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator);
         verify(errorService).autoAssignProblemsToNewErrors(1L, Arrays.asList(111L, 113L, 211L, 221L, 222L));
-        verify(problemDenormalizationService).updateFirstAndLastSeenDateTimes(problems);
-        verify(transactionService, never()).doAfterCommit(any(Runnable.class));
+        verify(problemDenormalizationService).addOccurrences(anyList(), eq(Arrays.asList(111L, 113L, 211L, 221L, 222L)), eq(testDateTime));
+        verify(problemDenormalizationService, never()).recomputeOccurrences(anyCollection());
+        verify(transactionService).doAfterCommit(any(Runnable.class));
     }
 
     @Test
-    void indexExecution_sendEmail_whenExecutionStatusIsDone() {
+    void indexExecution_recomputeProblemsOfPreviousErrors_whenReindexingRemovesErrors() {
+        // Given
+        PlannedIndexation plannedIndexation = mock(PlannedIndexation.class);
+        File executionFile = mock(File.class);
+        CycleDefinition cycleDefinition = mock(CycleDefinition.class);
+
+        Execution indexedExecution = mock(Execution.class);
+        Execution savedExecution = mock(Execution.class);
+
+        Execution previousExecution = mock(Execution.class);
+        Run previousRun = mock(Run.class);
+        ExecutedScenario previousScenario = mock(ExecutedScenario.class);
+        Error previousError = mock(Error.class);
+
+        // When
+        when(plannedIndexation.getExecutionFolder()).thenReturn(executionFile);
+        when(plannedIndexation.getCycleDefinition()).thenReturn(cycleDefinition);
+        when(executionFile.getAbsolutePath()).thenReturn("/execution/folder/location/in/disk");
+        when(cycleDefinition.getProjectId()).thenReturn(1L);
+        when(cycleDefinition.getBranch()).thenReturn("branch");
+        when(cycleDefinition.getName()).thenReturn("cycle");
+        when(executionFilesProcessorService.getExecution(plannedIndexation)).thenReturn(Optional.of(indexedExecution));
+        when(executionRepository.save(indexedExecution)).thenReturn(savedExecution);
+        when(indexedExecution.getJobUrl()).thenReturn("http://execution-url.build.org");
+        when(savedExecution.getStatus()).thenReturn(JobStatus.UNAVAILABLE);
+        when(executionRepository.findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator)).thenReturn(Optional.of(previousExecution));
+        when(previousExecution.getRuns()).thenReturn(new TreeSet<>(Set.of(previousRun)));
+        when(previousRun.getExecutedScenarios()).thenReturn(new TreeSet<>(Set.of(previousScenario)));
+        when(previousScenario.getErrors()).thenReturn(new TreeSet<>(Set.of(previousError)));
+        when(previousError.getId()).thenReturn(112L);
+        when(problemDenormalizationService.findProblemIds(List.of(112L))).thenReturn(Set.of(5L));
+
+        // Then
+        cut.indexExecution(plannedIndexation);
+
+        verify(problemDenormalizationService, never()).addOccurrences(anyCollection(), anyCollection(), any());
+        InOrder inOrder = inOrder(executionRepository, problemDenormalizationService);
+        inOrder.verify(executionRepository).flush();
+        inOrder.verify(problemDenormalizationService).recomputeOccurrences(Set.of(5L));
+    }
+
+    @Test
+    void indexExecution_sendEmailAndRecordStability_whenExecutionStatusIsDone() throws NotFoundException {
         // Given
         PlannedIndexation plannedIndexation = mock(PlannedIndexation.class);
         File executionFile = mock(File.class);
@@ -385,6 +472,11 @@ class ExecutionIndexerServiceTest {
         when(savedError222.getId()).thenReturn(222L);
 
         when(errorService.autoAssignProblemsToNewErrors(anyLong(), anyList())).thenReturn(problems);
+        Date testDateTime = new Date();
+        when(savedExecution.getTestDateTime()).thenReturn(testDateTime);
+        when(savedExecution.getId()).thenReturn(42L);
+        when(savedExecution.getCycleDefinition()).thenReturn(cycleDefinition);
+        doThrow(new IllegalStateException("SMTP server down")).when(qualityEmailService).sendQualityEmail(1L, 42L);
 
         // Then
         cut.indexExecution(plannedIndexation);
@@ -393,8 +485,13 @@ class ExecutionIndexerServiceTest {
         verify(executionRepository).save(indexedExecution);
         verify(executionRepository).findByCycleDefinitionProjectIdAndJobLinkAndJobLinkNotNull(1L, "/execution/folder/location/in/disk" + File.separator);
         verify(errorService).autoAssignProblemsToNewErrors(1L, Arrays.asList(111L, 113L, 211L, 221L, 222L));
-        verify(problemDenormalizationService).updateFirstAndLastSeenDateTimes(problems);
-        verify(transactionService).doAfterCommit(any(Runnable.class));
+        verify(problemDenormalizationService).addOccurrences(anyList(), eq(Arrays.asList(111L, 113L, 211L, 221L, 222L)), eq(testDateTime));
+        ArgumentCaptor<Runnable> afterCommit = ArgumentCaptor.forClass(Runnable.class);
+        verify(transactionService, times(3)).doAfterCommit(afterCommit.capture());
+        afterCommit.getAllValues().forEach(Runnable::run);
+        verify(qualityEmailService).sendQualityEmail(1L, 42L);
+        // The stability is recorded in its own action, even if the email failed
+        verify(stabilityService).recordExecution(42L);
     }
 
 }
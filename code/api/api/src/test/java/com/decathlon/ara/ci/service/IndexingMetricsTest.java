@@ -0,0 +1,109 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.ci.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.decathlon.ara.ci.bean.IndexingStage;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IndexingMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private IndexingMetrics cut;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cut = new IndexingMetrics(meterRegistry);
+    }
+
+    @Test
+    void time_should_record_the_stage_for_the_project_of_the_current_trace() {
+        // GIVEN
+        var trace = cut.startTrace(42, "/folder/");
+
+        // WHEN
+        var result = cut.time(IndexingStage.PARSE, "CUCUMBER", () -> "parsed");
+        cut.endTrace(trace);
+
+        // THEN
+        assertThat(result).isEqualTo("parsed");
+        var timer = meterRegistry.get(IndexingMetrics.STAGE_METRIC)
+                .tag("stage", "PARSE")
+                .tag("project", "42")
+                .tag("technology", "CUCUMBER")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(trace.getStageNanos(IndexingStage.PARSE)).isEqualTo((long) timer.totalTime(TimeUnit.NANOSECONDS));
+        assertThat(meterRegistry.get(IndexingMetrics.STAGE_METRIC).tag("stage", "TOTAL").tag("project", "42").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(IndexingMetrics.ACTIVE_METRIC).longTaskTimer().activeTasks()).isZero();
+    }
+
+    @Test
+    void time_should_record_failed_stages_and_rethrow_their_exception() {
+        // WHEN
+        assertThatThrownBy(() -> cut.time(IndexingStage.UNZIP, 1, IndexingMetrics.NO_TECHNOLOGY, () -> {
+            throw new IOException("Corrupted zip");
+        })).isInstanceOf(IOException.class);
+
+        // THEN
+        assertThat(meterRegistry.get(IndexingMetrics.STAGE_METRIC).tag("stage", "UNZIP").tag("project", "1").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void countScenarios_should_count_scenarios_and_their_errors() {
+        // GIVEN
+        var trace = cut.startTrace(42, "/folder/");
+        var failed = new ExecutedScenario();
+        failed.addErrors(List.of(error(1), error(2)));
+
+        // WHEN
+        cut.countScenarios("POSTMAN", List.of(failed, new ExecutedScenario()));
+        cut.countAsset("POSTMAN", 100);
+        cut.endTrace(trace);
+
+        // THEN
+        assertThat(meterRegistry.get(IndexingMetrics.SCENARIOS_METRIC).tag("technology", "POSTMAN").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(IndexingMetrics.ERRORS_METRIC).tag("technology", "POSTMAN").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(IndexingMetrics.ASSETS_METRIC).tag("project", "42").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(IndexingMetrics.BYTES_METRIC).tag("source", "asset").counter().count()).isEqualTo(100);
+        assertThat(trace.getScenarios()).isEqualTo(2);
+        assertThat(trace.getErrors()).isEqualTo(2);
+        assertThat(trace.getAssetBytes()).isEqualTo(100);
+    }
+
+    private static Error error(int stepLine) {
+        var error = new Error();
+        error.setStepLine(stepLine);
+        return error;
+    }
+
+}
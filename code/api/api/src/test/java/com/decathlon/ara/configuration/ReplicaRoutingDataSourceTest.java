@@ -0,0 +1,185 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routes the queries between two embedded databases: each one answers its own name.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaProperties properties;
+
+    private SwitchableDataSource replica;
+
+    private ReplicaRouter router;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReplicaProperties();
+        replica = new SwitchableDataSource(embeddedDatabase("replica"));
+        router = new ReplicaRouter(properties, List.of(replica));
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(embeddedDatabase("primary"), router));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    private static DataSource embeddedDatabase(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+        database.execute("create table origin (name varchar(16))");
+        database.update("insert into origin (name) values (?)", name);
+        return dataSource;
+    }
+
+    private String readOnlyOrigin() {
+        return readOnlyTransaction.execute(status -> jdbcTemplate.queryForObject("select name from origin", String.class));
+    }
+
+    private String readWriteOrigin() {
+        return readWriteTransaction.execute(status -> jdbcTemplate.queryForObject("select name from origin", String.class));
+    }
+
+    @Test
+    void getConnection_should_run_only_read_only_transactions_on_a_healthy_replica() {
+        // GIVEN
+        router.checkReplicas();
+
+        // WHEN
+        var readOnlyOrigin = readOnlyOrigin();
+        var readWriteOrigin = readWriteOrigin();
+        var nonTransactionalOrigin = jdbcTemplate.queryForObject("select name from origin", String.class);
+
+        // THEN
+        assertThat(readOnlyOrigin).isEqualTo("replica");
+        assertThat(readWriteOrigin).isEqualTo("primary");
+        assertThat(nonTransactionalOrigin).isEqualTo("primary");
+    }
+
+    @Test
+    void getConnection_should_not_use_a_replica_before_its_first_successful_check() {
+        // GIVEN
+        replica.down = true;
+        router.checkReplicas();
+        replica.down = false;
+
+        // WHEN
+        var origin = readOnlyOrigin();
+
+        // THEN
+        assertThat(origin).isEqualTo("primary");
+    }
+
+    @Test
+    void getConnection_should_fall_back_to_the_primary_until_the_next_check_when_the_replica_goes_down() {
+        // GIVEN
+        router.checkReplicas();
+        replica.down = true;
+
+        // WHEN
+        var originWhileDown = readOnlyOrigin();
+        replica.down = false;
+        var originBeforeCheck = readOnlyOrigin();
+        router.checkReplicas();
+        var originAfterCheck = readOnlyOrigin();
+
+        // THEN
+        assertThat(originWhileDown).isEqualTo("primary");
+        assertThat(originBeforeCheck).isEqualTo("primary");
+        assertThat(originAfterCheck).isEqualTo("replica");
+    }
+
+    @Test
+    void getConnection_should_read_from_the_primary_just_after_a_write() {
+        // GIVEN
+        properties.setReadYourWritesMarginInMilliseconds(60000);
+        router.checkReplicas();
+
+        // WHEN
+        var originBeforeWrite = readOnlyOrigin();
+        router.recordWrite();
+        var originAfterWrite = readOnlyOrigin();
+
+        // THEN
+        assertThat(originBeforeWrite).isEqualTo("replica");
+        assertThat(originAfterWrite).isEqualTo("primary");
+    }
+
+    @Test
+    void getConnection_should_not_use_a_replica_lagging_too_much() {
+        // GIVEN
+        properties.setMaxLagInMilliseconds(10000);
+        properties.setLagQuery("select 30");
+        router.checkReplicas();
+
+        // WHEN
+        var origin = readOnlyOrigin();
+
+        // THEN
+        assertThat(origin).isEqualTo("primary");
+    }
+
+    /**
+     * A database that can be made unreachable.
+     */
+    private static class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect.github;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.ci.util.FetchException;
+import com.decathlon.ara.service.SettingProviderService;
+import com.decathlon.ara.service.SettingService;
+import com.decathlon.ara.service.support.Settings;
+
+@ExtendWith(MockitoExtension.class)
+class GithubDefectAdapterTest {
+
+    @Mock
+    private GithubRestClient restClient;
+
+    @Mock
+    private SettingService settingService;
+
+    @Mock
+    private SettingProviderService settingProviderService;
+
+    @InjectMocks
+    private GithubDefectAdapter cut;
+
+    @Test
+    void getEndpoint_should_be_specific_to_the_repository_of_the_project() {
+        // Given
+        givenRepository(1, "owner", "repo-1", "token-1");
+        givenRepository(2, "owner", "repo-2", "token-2");
+        // When / Then
+        assertThat(cut.getEndpoint(1)).isEqualTo("github:owner/repo-1");
+        assertThat(cut.getEndpoint(2)).isEqualTo("github:owner/repo-2");
+    }
+
+    @Test
+    void getStatuses_should_request_the_repository_of_the_project() throws FetchException, IOException, URISyntaxException {
+        // Given
+        givenRepository(1, "owner", "repo-1", "token-1");
+        GithubRepository repository = new GithubRepository("owner", "repo-1", "token-1");
+        when(restClient.requestIssues(repository, List.of(Long.valueOf(42)))).thenReturn(List.of());
+        // When
+        cut.getStatuses(1, List.of("42"));
+        // Then
+        verify(restClient).requestIssues(repository, List.of(Long.valueOf(42)));
+    }
+
+    private void givenRepository(long projectId, String owner, String name, String token) {
+        when(settingService.get(projectId, Settings.DEFECT_GITHUB_OWNER)).thenReturn(owner);
+        when(settingService.get(projectId, Settings.DEFECT_GITHUB_REPONAME)).thenReturn(name);
+        when(settingService.get(projectId, Settings.DEFECT_GITHUB_TOKEN)).thenReturn(token);
+    }
+
+}
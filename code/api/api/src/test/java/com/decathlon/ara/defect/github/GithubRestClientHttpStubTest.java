@@ -0,0 +1,264 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect.github;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.decathlon.ara.util.TestUtil;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Exercise the real HTTP exchanges of {@link GithubRestClient} against an in-process stub of the GitHub API.
+ */
+class GithubRestClientHttpStubTest {
+
+    private HttpServer server;
+
+    private final Queue<StubResponse> responses = new ConcurrentLinkedQueue<>();
+
+    private final List<String> requestedUris = new ArrayList<>();
+
+    private final List<String> receivedETags = new ArrayList<>();
+
+    private final List<String> requestBodies = new ArrayList<>();
+
+    private final GithubRepository repository = new GithubRepository("owner", "repo", "token");
+
+    private GithubRestClient cut;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        cut = new GithubRestClient();
+        TestUtil.setField(cut, "githubMapper", new GithubMapper(objectMapper));
+        TestUtil.setField(cut, "apiUrl", "http://localhost:" + server.getAddress().getPort() + "/api/v3");
+        TestUtil.setField(cut, "maxRateLimitWaitSeconds", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void requestIssues_should_look_up_the_issues_with_a_graphql_query_instead_of_requesting_each_issue() throws IOException, URISyntaxException {
+        // Given
+        responses.add(StubResponse.ok(graphqlIssues(5, 16), null));
+        // When
+        List<GithubIssue> result = cut.requestIssues(repository, ids(5, 16));
+        // Then
+        Assertions.assertThat(result).extracting(GithubIssue::getNumber).containsExactlyElementsOf(ids(5, 16));
+        Assertions.assertThat(result).extracting(GithubIssue::getState).containsOnly("open");
+        Assertions.assertThat(requestedUris).containsExactly("/api/graphql");
+        Assertions.assertThat(requestBodies.get(0))
+                .contains("i5: issueOrPullRequest(number: 5)", "i16: issueOrPullRequest(number: 16)", "\"owner\":\"owner\"", "\"name\":\"repo\"");
+    }
+
+    @Test
+    void requestIssues_should_send_one_graphql_query_per_batch_and_skip_missing_issues() throws IOException, URISyntaxException {
+        // Given
+        responses.add(StubResponse.ok(graphqlIssues(1, GithubRestClient.GRAPHQL_BATCH_SIZE), null));
+        responses.add(StubResponse.ok("{\"data\":{\"repository\":{\"i51\":{\"number\":51,\"state\":\"MERGED\",\"closedAt\":\"2026-10-19T10:00:00Z\"},\"i999\":null}},"
+                + "\"errors\":[{\"type\":\"NOT_FOUND\",\"path\":[\"repository\",\"i999\"]}]}", null));
+        List<Long> issueIds = ids(1, 51);
+        issueIds.add(Long.valueOf(999));
+        // When
+        List<GithubIssue> result = cut.requestIssues(repository, issueIds);
+        // Then
+        Assertions.assertThat(result).extracting(GithubIssue::getNumber).containsExactlyElementsOf(ids(1, 51));
+        Assertions.assertThat(result.get(50).getState()).isEqualTo("merged");
+        Assertions.assertThat(result.get(50).getClosedAt()).isEqualTo(Date.from(Instant.parse("2026-10-19T10:00:00Z")));
+        Assertions.assertThat(requestedUris).hasSize(2);
+    }
+
+    @Test
+    void requestIssues_should_fail_on_a_graphql_reply_with_errors_only() {
+        // Given
+        responses.add(StubResponse.ok("{\"errors\":[{\"type\":\"FORBIDDEN\",\"message\":\"Resource not accessible by integration\"}]}", null));
+        // When
+        Assertions.assertThatThrownBy(() -> cut.requestIssues(repository, ids(1, 11)))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("DEFECT|github|GraphQL error: ");
+        // Then
+        Assertions.assertThat(requestedUris).containsExactly("/api/graphql");
+    }
+
+    @Test
+    void requestIssues_should_fail_on_a_graphql_reply_without_repository() {
+        // Given
+        responses.add(StubResponse.ok("{\"data\":{\"repository\":null}}", null));
+        // When
+        Assertions.assertThatThrownBy(() -> cut.requestIssues(repository, ids(1, 11)))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("DEFECT|github|No repository in the GraphQL response");
+    }
+
+    @Test
+    void requestIssues_should_fail_on_a_missing_issue_without_not_found_error() {
+        // Given
+        responses.add(StubResponse.ok("{\"data\":{\"repository\":{\"i1\":null}}}", null));
+        // When
+        Assertions.assertThatThrownBy(() -> cut.requestIssues(repository, ids(1, 11)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("No issue and no NOT_FOUND error for i1");
+    }
+
+    @Test
+    void requestIssues_should_fail_on_an_unparseable_graphql_reply() {
+        // Given
+        responses.add(StubResponse.ok("<html>Bad gateway</html>", null));
+        // When
+        Assertions.assertThatThrownBy(() -> cut.requestIssues(repository, ids(1, 11)))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void requestIssues_should_fail_without_requesting_when_above_the_batch_request_cap() {
+        // Given
+        TestUtil.setField(cut, "maxBatchRequests", 1);
+        // When
+        Assertions.assertThatThrownBy(() -> cut.requestIssues(repository, ids(1, GithubRestClient.GRAPHQL_BATCH_SIZE + 1)))
+                .isInstanceOf(IOException.class)
+                .hasMessage("DEFECT|github|Too many issues to look up on repo owner/repo : 51");
+        // Then
+        Assertions.assertThat(requestedUris).isEmpty();
+    }
+
+    @Test
+    void requestIssue_should_reuse_cached_issue_when_not_modified() throws IOException, URISyntaxException {
+        // Given
+        responses.add(StubResponse.ok("{\"number\":42,\"state\":\"open\"}", "\"issue-42\""));
+        responses.add(StubResponse.notModified());
+        cut.requestIssue(repository, 42);
+        // When
+        GithubIssue result = cut.requestIssue(repository, 42).orElseThrow();
+        // Then
+        Assertions.assertThat(result.getNumber()).isEqualTo(42);
+        Assertions.assertThat(receivedETags).containsExactly(null, "\"issue-42\"");
+    }
+
+    @Test
+    void requestIssue_should_fail_without_requesting_again_until_rate_limit_reset() {
+        // Given
+        long resetInOneHour = System.currentTimeMillis() / 1000 + 3600;
+        responses.add(new StubResponse(403, "{}", null, List.of(
+                new String[] { "X-RateLimit-Remaining", "0" },
+                new String[] { "X-RateLimit-Reset", String.valueOf(resetInOneHour) })));
+        // When
+        Assertions.assertThatThrownBy(() -> cut.requestIssue(repository, 42))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("DEFECT|github|Rate limit exceeded for repo owner/repo until ");
+        Assertions.assertThatThrownBy(() -> cut.requestIssue(repository, 43))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("DEFECT|github|Rate limit exceeded for repo owner/repo until ");
+        // Then
+        Assertions.assertThat(requestedUris).hasSize(1);
+    }
+
+    @Test
+    void requestIssue_should_retry_after_the_secondary_rate_limit_delay() throws IOException, URISyntaxException {
+        // Given
+        TestUtil.setField(cut, "maxRateLimitWaitSeconds", 2L);
+        responses.add(new StubResponse(429, "{}", null, List.<String[]>of(new String[] { "Retry-After", "1" })));
+        responses.add(StubResponse.ok("{\"number\":42,\"state\":\"closed\"}", null));
+        // When
+        GithubIssue result = cut.requestIssue(repository, 42).orElseThrow();
+        // Then
+        Assertions.assertThat(result.getState()).isEqualTo("closed");
+        Assertions.assertThat(requestedUris).hasSize(2);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        synchronized (this) {
+            requestedUris.add(exchange.getRequestURI().toString());
+            receivedETags.add(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        StubResponse response = responses.poll();
+        if (response == null) {
+            response = new StubResponse(500, "No more stubbed response", null, List.of());
+        }
+        if (response.eTag != null) {
+            exchange.getResponseHeaders().add("ETag", response.eTag);
+        }
+        for (String[] header : response.headers) {
+            exchange.getResponseHeaders().add(header[0], header[1]);
+        }
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(response.status, body.length == 0 ? -1 : body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static List<Long> ids(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+    }
+
+    private static String graphqlIssues(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(number -> "\"i" + number + "\":{\"number\":" + number + ",\"state\":\"OPEN\",\"closedAt\":null}")
+                .collect(Collectors.joining(",", "{\"data\":{\"repository\":{", "}}}"));
+    }
+
+    private static class StubResponse {
+        private final int status;
+        private final String body;
+        private final String eTag;
+        private final List<String[]> headers;
+
+        StubResponse(int status, String body, String eTag, List<String[]> headers) {
+            this.status = status;
+            this.body = body;
+            this.eTag = eTag;
+            this.headers = headers;
+        }
+
+        static StubResponse ok(String body, String eTag) {
+            return new StubResponse(200, body, eTag, List.of());
+        }
+
+        static StubResponse notModified() {
+            return new StubResponse(304, "", null, List.of());
+        }
+    }
+}
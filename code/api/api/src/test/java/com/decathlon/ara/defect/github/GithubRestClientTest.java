@@ -73,9 +73,9 @@ class GithubRestClientTest {
         HttpResponse mockedResponse = this.given_an_issue_response(200, jsonResponse);
         Mockito.doReturn(Optional.of(expectedIssue)).when(this.mapper).jsonToIssue(jsonResponse);
         Mockito.doReturn(mockedResponse).when(this.httpClient).execute(Mockito.any());
-        this.cut.forOwnerAndRepository(owner, repo).withToken(token);
+        GithubRepository repository = new GithubRepository(owner, repo, token);
         // When
-        Optional<GithubIssue> result = this.cut.requestIssue(issue);
+        Optional<GithubIssue> result = this.cut.requestIssue(repository, issue);
         // Then
         this.assert_that_request_is_well_formed(owner, repo, token, issue);
         Assertions.assertThat(result).isPresent();
@@ -92,9 +92,9 @@ class GithubRestClientTest {
         long issue = 42L;
         HttpResponse mockedResponse = this.given_an_issue_response(404, "Not found.");
         Mockito.doReturn(mockedResponse).when(this.httpClient).execute(Mockito.any());
-        this.cut.forOwnerAndRepository(owner, repo).withToken(token);
+        GithubRepository repository = new GithubRepository(owner, repo, token);
         // When
-        Optional<GithubIssue> result = this.cut.requestIssue(issue);
+        Optional<GithubIssue> result = this.cut.requestIssue(repository, issue);
         // Then
         this.assert_that_request_is_well_formed(owner, repo, token, issue);
         Mockito.verify(this.mapper, Mockito.never()).jsonToIssue(Mockito.anyString());
@@ -110,9 +110,9 @@ class GithubRestClientTest {
         long issue = 42L;
         HttpResponse mockedResponse = this.given_an_issue_response(410, "Gone.");
         Mockito.doReturn(mockedResponse).when(this.httpClient).execute(Mockito.any());
-        this.cut.forOwnerAndRepository(owner, repo).withToken(token);
+        GithubRepository repository = new GithubRepository(owner, repo, token);
         // When
-        Optional<GithubIssue> result = this.cut.requestIssue(issue);
+        Optional<GithubIssue> result = this.cut.requestIssue(repository, issue);
         // Then
         this.assert_that_request_is_well_formed(owner, repo, token, issue);
         Mockito.verify(this.mapper, Mockito.never()).jsonToIssue(Mockito.anyString());
@@ -128,10 +128,10 @@ class GithubRestClientTest {
         long issue = 42L;
         HttpResponse mockedResponse = this.given_an_issue_response(500, "Internal Server Error.");
         Mockito.doReturn(mockedResponse).when(this.httpClient).execute(Mockito.any());
-        this.cut.forOwnerAndRepository(owner, repo).withToken(token);
+        GithubRepository repository = new GithubRepository(owner, repo, token);
         // When
         try {
-            this.cut.requestIssue(issue);
+            this.cut.requestIssue(repository, issue);
             Assertions.fail("IOException is expected on error 500.");
         } catch (IOException | URISyntaxException ex) {
             String expectedMessage = "DEFECT|github|Error while requesting issue " + issue + " on repo "
@@ -147,12 +147,12 @@ class GithubRestClientTest {
         String repo = "test";
         String token = "token";
         List<Long> issueIds = Lists.list(1L, 2L, 3L, 4L, 5L, 6L, 7L);
-        this.cut.forOwnerAndRepository(owner, repo).withToken(token);
-        Mockito.doReturn(Optional.of(new GithubIssue())).when(this.cut).requestIssue(Mockito.anyLong());
+        GithubRepository repository = new GithubRepository(owner, repo, token);
+        Mockito.doReturn(Optional.of(new GithubIssue())).when(this.cut).requestIssue(Mockito.eq(repository), Mockito.anyLong());
         // When
-        this.cut.requestIssues(issueIds);
+        this.cut.requestIssues(repository, issueIds);
         // Then
-        Mockito.verify(this.cut, Mockito.times(7)).requestIssue(Mockito.anyLong());
+        Mockito.verify(this.cut, Mockito.times(7)).requestIssue(Mockito.eq(repository), Mockito.anyLong());
     }
 
     @Test
@@ -170,9 +170,9 @@ class GithubRestClientTest {
         HttpResponse mockedResponse = this.given_an_issue_response(200, jsonResponse);
         Mockito.doReturn(Lists.list(issue1, issue2)).when(this.mapper).jsonToIssueList(jsonResponse);
         Mockito.doReturn(mockedResponse).when(this.httpClient).execute(Mockito.any());
-        this.cut.forOwnerAndRepository(owner, repo).withToken(token);
+        GithubRepository repository = new GithubRepository(owner, repo, token);
         // When
-        List<GithubIssue> issuesUpdatedSince = this.cut.getIssuesUpdatedSince(date);
+        List<GithubIssue> issuesUpdatedSince = this.cut.getIssuesUpdatedSince(repository, date);
         // Then
         this.assert_that_issue_since_request_is_well_formed(owner, repo, expectedDate);
         Assertions.assertThat(issuesUpdatedSince).isNotNull();
@@ -191,9 +191,9 @@ class GithubRestClientTest {
         String contentReponse = "Not Found.";
         HttpResponse mockedResponse = this.given_an_issue_response(404, contentReponse);
         Mockito.doReturn(mockedResponse).when(this.httpClient).execute(Mockito.any());
-        this.cut.forOwnerAndRepository(owner, repo);
+        GithubRepository repository = new GithubRepository(owner, repo, null);
         // When
-        List<GithubIssue> issuesUpdatedSince = this.cut.getIssuesUpdatedSince(date);
+        List<GithubIssue> issuesUpdatedSince = this.cut.getIssuesUpdatedSince(repository, date);
         // Then
         this.assert_that_issue_since_request_is_well_formed(owner, repo, expectedDate);
         Assertions.assertThat(issuesUpdatedSince).isNotNull();
@@ -212,10 +212,10 @@ class GithubRestClientTest {
         String contentReponse = "Not Found.";
         HttpResponse mockedResponse = this.given_an_issue_response(500, contentReponse);
         Mockito.doReturn(mockedResponse).when(this.httpClient).execute(Mockito.any());
-        this.cut.forOwnerAndRepository(owner, repo).withToken(token);
+        GithubRepository repository = new GithubRepository(owner, repo, token);
         // When
         try {
-            this.cut.getIssuesUpdatedSince(date);
+            this.cut.getIssuesUpdatedSince(repository, date);
             Assertions.fail("An IOException was expected here.");
         } catch (IOException ex) {
             Assertions.assertThat(ex.getMessage()).isEqualTo("DEFECT|github|Error while retrieving issues updated since "
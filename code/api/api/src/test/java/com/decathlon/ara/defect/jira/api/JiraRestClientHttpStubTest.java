@@ -0,0 +1,240 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect.jira.api;
+
+import com.decathlon.ara.defect.jira.api.model.JiraIssue;
+import com.decathlon.ara.service.SettingService;
+import com.decathlon.ara.service.exception.BadRequestException;
+import com.decathlon.ara.service.support.Settings;
+import com.decathlon.ara.util.TestUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exercise the real HTTP exchanges of {@link JiraRestClient} against a local stub of the Jira search API, which never
+ * returns more than {@link #MAX_RESULTS} issues per page.
+ */
+@ExtendWith(MockitoExtension.class)
+class JiraRestClientHttpStubTest {
+
+    private static final int MAX_RESULTS = 100;
+
+    private static final long PROJECT_ID = 1L;
+
+    private static final String JIRA_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+    private static final Pattern UPDATED_SINCE = Pattern.compile("updated >= \"([^\"]+)\"");
+
+    @Mock
+    private SettingService settingService;
+
+    private HttpServer server;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutorService jiraSearchExecutor;
+
+    private JiraRestClient cut;
+
+    /**
+     * The issues known by the stub, with their update date (as returned by Jira).
+     */
+    private final Map<String, String> updateDates = new ConcurrentHashMap<>();
+
+    private final List<String> requestedQueries = Collections.synchronizedList(new ArrayList<>());
+
+    private CountDownLatch concurrentPages;
+
+    private final AtomicBoolean pagesWereConcurrent = new AtomicBoolean(true);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/rest/api/2/search", this::search);
+        server.start();
+
+        when(settingService.get(PROJECT_ID, Settings.DEFECT_JIRA_BASE_URL)).thenReturn("http://localhost:" + server.getAddress().getPort());
+        when(settingService.get(PROJECT_ID, Settings.DEFECT_JIRA_TOKEN)).thenReturn("token");
+        when(settingService.get(PROJECT_ID, Settings.DEFECT_JIRA_LOGIN)).thenReturn("login");
+
+        meterRegistry = new SimpleMeterRegistry();
+        jiraSearchExecutor = Executors.newFixedThreadPool(4);
+        cut = new JiraRestClient(settingService, new RestTemplate(), meterRegistry, jiraSearchExecutor);
+
+        IntStream.rangeClosed(1, 250).forEach(number -> updateDates.put("PRJ-" + number, "2026-10-01T10:00:00.000+0000"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        jiraSearchExecutor.shutdownNow();
+    }
+
+    @Test
+    void getIssuesFromKeys_requestRemainingPagesConcurrently() throws BadRequestException {
+        // Given
+        concurrentPages = new CountDownLatch(2);
+
+        // When
+        List<JiraIssue> issues = cut.getIssuesFromKeys(PROJECT_ID, allKeys());
+
+        // Then
+        assertThat(issues).extracting(JiraIssue::getKey).containsExactlyElementsOf(allKeys());
+        assertThat(requestedQueries).hasSize(3);
+        assertThat(pagesWereConcurrent).isTrue();
+        assertThat(meterRegistry.get("ara.defect.jira.search.page").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void getIssuesFromKeys_downloadOnlyUpdatedIssues_whenIssuesWereAlreadyDownloaded() throws BadRequestException {
+        // Given
+        cut.getIssuesFromKeys(PROJECT_ID, allKeys());
+        requestedQueries.clear();
+        String now = new SimpleDateFormat(JIRA_DATE_FORMAT).format(new Date());
+        updateDates.put("PRJ-7", now);
+
+        // When
+        List<JiraIssue> issues = cut.getIssuesFromKeys(PROJECT_ID, allKeys());
+
+        // Then
+        assertThat(issues).extracting(JiraIssue::getKey).containsExactlyElementsOf(allKeys());
+        assertThat(issues.get(6).getFields().getSummary()).isEqualTo("PRJ-7 updated on " + now);
+        assertThat(requestedQueries).hasSize(1);
+        assertThat(requestedQueries.get(0)).contains(" AND (updated >= \"");
+        assertThat(meterRegistry.get("ara.defect.jira.issues").tag("source", "downloaded").counter().count()).isEqualTo(251);
+        assertThat(meterRegistry.get("ara.defect.jira.issues").tag("source", "cached").counter().count()).isEqualTo(249);
+    }
+
+    @Test
+    void getIssuesFromKeys_downloadNewKeys_whenIssuesWereAlreadyDownloaded() throws BadRequestException {
+        // Given
+        cut.getIssuesFromKeys(PROJECT_ID, allKeys().subList(0, 10));
+        requestedQueries.clear();
+
+        // When
+        List<JiraIssue> issues = cut.getIssuesFromKeys(PROJECT_ID, allKeys().subList(0, 11));
+
+        // Then
+        assertThat(issues).extracting(JiraIssue::getKey).containsExactlyElementsOf(allKeys().subList(0, 11));
+        assertThat(requestedQueries).hasSize(1);
+        assertThat(requestedQueries.get(0)).contains(" OR issueKey in (PRJ-11))");
+    }
+
+    @Test
+    void getIssuesFromKeys_notReturnDeletedIssues_afterTheFullSyncInterval() throws BadRequestException {
+        // Given
+        TestUtil.setField(cut, "fullSyncIntervalInHours", 0L);
+        cut.getIssuesFromKeys(PROJECT_ID, allKeys());
+        updateDates.remove("PRJ-3");
+
+        // When
+        List<JiraIssue> issues = cut.getIssuesFromKeys(PROJECT_ID, allKeys());
+
+        // Then
+        assertThat(issues).hasSize(249).extracting(JiraIssue::getKey).doesNotContain("PRJ-3");
+    }
+
+    private static List<String> allKeys() {
+        return IntStream.rangeClosed(1, 250).mapToObj(number -> "PRJ-" + number).toList();
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+        requestedQueries.add(query);
+        Map<String, String> parameters = Arrays.stream(query.split("&(?=[a-zA-Z]+=)"))
+                .map(parameter -> parameter.split("=", 2))
+                .collect(Collectors.toMap(parameter -> parameter[0], parameter -> parameter[1]));
+        int startAt = Integer.parseInt(parameters.getOrDefault("startAt", "0"));
+        int maxResults = Math.min(MAX_RESULTS, Integer.parseInt(parameters.getOrDefault("maxResults", "50")));
+        if (startAt > 0 && concurrentPages != null) {
+            concurrentPages.countDown();
+            try {
+                if (!concurrentPages.await(5, TimeUnit.SECONDS)) {
+                    pagesWereConcurrent.set(false);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        String jql = parameters.get("jql");
+        Matcher updatedSince = UPDATED_SINCE.matcher(jql);
+        List<String> newKeys = jql.contains(" OR issueKey in (") ?
+                Arrays.asList(jql.substring(jql.indexOf(" OR issueKey in (") + 17, jql.lastIndexOf("))")).split(", ")) :
+                List.of();
+        List<String> matchingKeys = Arrays.stream(jql.substring(jql.indexOf("in (") + 4, jql.indexOf(')')).split(", "))
+                .filter(updateDates::containsKey)
+                .filter(key -> !updatedSince.find(0) || newKeys.contains(key) || isUpdatedSince(key, updatedSince.group(1)))
+                .toList();
+        String issues = matchingKeys.stream()
+                .skip(startAt)
+                .limit(maxResults)
+                .map(key -> String.format("{\"key\":\"%s\",\"fields\":{\"updated\":\"%s\",\"summary\":\"%s updated on %s\"}}",
+                        key, updateDates.get(key), key, updateDates.get(key)))
+                .collect(Collectors.joining(",", "[", "]"));
+        byte[] body = String.format("{\"startAt\":%d,\"maxResults\":%d,\"total\":%d,\"issues\":%s}",
+                startAt, maxResults, matchingKeys.size(), issues).getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private boolean isUpdatedSince(String key, String jqlDate) {
+        try {
+            return !new SimpleDateFormat(JIRA_DATE_FORMAT).parse(updateDates.get(key))
+                    .before(new SimpleDateFormat("yyyy-MM-dd HH:mm").parse(jqlDate));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+}
@@ -22,21 +22,26 @@ import com.decathlon.ara.defect.jira.api.model.JiraIssueSearchResults;
 import com.decathlon.ara.service.SettingService;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.support.Settings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
@@ -54,6 +59,12 @@ class JiraRestClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private Executor jiraSearchExecutor = new SyncTaskExecutor();
+
     @InjectMocks
     private JiraRestClient jiraRestClient;
 
@@ -336,6 +347,58 @@ class JiraRestClientTest {
         assertThat(issues).contains(issue1, issue2, issue3);
     }
 
+    @Test
+    void getIssuesFromKeys_searchOnlyUpdatedAndUnknownIssues_whenIssuesWereAlreadyDownloaded() throws BadRequestException {
+        // Given
+        Long projectId = 1L;
+
+        JiraIssue issue1 = mock(JiraIssue.class);
+        JiraIssue issue2 = mock(JiraIssue.class);
+        JiraIssue updatedIssue2 = mock(JiraIssue.class);
+        JiraIssue issue3 = mock(JiraIssue.class);
+
+        ResponseEntity<JiraIssueSearchResults> fullResponse = mock(ResponseEntity.class);
+        JiraIssueSearchResults fullResults = mock(JiraIssueSearchResults.class);
+        ResponseEntity<JiraIssueSearchResults> deltaResponse = mock(ResponseEntity.class);
+        JiraIssueSearchResults deltaResults = mock(JiraIssueSearchResults.class);
+
+        // When
+        when(settingService.get(projectId, Settings.DEFECT_JIRA_BASE_URL)).thenReturn("https://your_company.the_jira_base_url.org");
+        when(settingService.get(projectId, Settings.DEFECT_JIRA_TOKEN)).thenReturn("my_jira_token");
+        when(settingService.get(projectId, Settings.DEFECT_JIRA_LOGIN)).thenReturn("my_login");
+
+        when(issue1.getKey()).thenReturn("PRJ-1");
+        when(issue2.getKey()).thenReturn("PRJ-2");
+        when(updatedIssue2.getKey()).thenReturn("PRJ-2");
+        when(issue3.getKey()).thenReturn("PRJ-3");
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(fullResponse, deltaResponse);
+        when(fullResponse.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(fullResponse.getBody()).thenReturn(fullResults);
+        when(fullResults.getIssues()).thenReturn(Arrays.asList(issue1, issue2));
+        when(fullResults.getMaxResults()).thenReturn(100);
+        when(fullResults.getTotal()).thenReturn(2);
+        when(deltaResponse.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(deltaResponse.getBody()).thenReturn(deltaResults);
+        when(deltaResults.getIssues()).thenReturn(Arrays.asList(updatedIssue2, issue3));
+        when(deltaResults.getMaxResults()).thenReturn(100);
+        when(deltaResults.getTotal()).thenReturn(2);
+
+        // Then
+        jiraRestClient.getIssuesFromKeys(projectId, Arrays.asList("PRJ-1", "PRJ-2"));
+        List<JiraIssue> issues = jiraRestClient.getIssuesFromKeys(projectId, Arrays.asList("PRJ-1", "PRJ-2", "PRJ-3"));
+
+        ArgumentCaptor<String> urlArgumentCaptor = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate, times(2)).exchange(urlArgumentCaptor.capture(), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+        assertThat(urlArgumentCaptor.getAllValues().get(0))
+                .isEqualTo("https://your_company.the_jira_base_url.org/rest/api/2/search?jql=(issueKey in (PRJ-1, PRJ-2))&maxResults=100");
+        assertThat(urlArgumentCaptor.getAllValues().get(1))
+                .matches("https://your_company\\.the_jira_base_url\\.org/rest/api/2/search\\?jql=\\(issueKey in \\(PRJ-1, PRJ-2, PRJ-3\\) " +
+                        "AND \\(updated >= \"\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}\" OR issueKey in \\(PRJ-3\\)\\)\\)&maxResults=100");
+
+        assertThat(issues).containsExactly(issue1, updatedIssue2, issue3);
+    }
+
     @Test
     void getIssuesFromKeys_returnIssues_whenResponseCodeStatusIs200AndThereIsPaginationAndInitialMaxResultsEqualsToJiraMaxResultsThreshold() throws BadRequestException {
         // Given
@@ -0,0 +1,269 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.defect.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.decathlon.ara.ci.util.FetchException;
+import com.decathlon.ara.defect.DefectAdapter;
+import com.decathlon.ara.defect.bean.DefectSyncHealth;
+import com.decathlon.ara.defect.bean.DefectSyncHealth.CircuitState;
+import com.decathlon.ara.domain.Project;
+import com.decathlon.ara.repository.ProjectRepository;
+import com.decathlon.ara.service.DefectService;
+import com.decathlon.ara.service.ScheduledJobLeaseService;
+import com.decathlon.ara.service.util.DateService;
+import com.decathlon.ara.util.TestUtil;
+
+@ExtendWith(MockitoExtension.class)
+class DefectSyncSchedulerTest {
+
+    private static final long SYNC_DELAY = 60000;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private DefectService defectService;
+
+    @Mock
+    private DateService dateService;
+
+    @Mock
+    private ScheduledJobLeaseService scheduledJobLeaseService;
+
+    @Mock
+    private DefectAdapter defectAdapter;
+
+    @Mock
+    private AsyncTaskExecutor executor;
+
+    @Mock
+    private Future<Object> future;
+
+    @InjectMocks
+    private DefectSyncScheduler cut;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cut, "syncDelayInMilliseconds", Long.valueOf(SYNC_DELAY));
+        ReflectionTestUtils.setField(cut, "timeoutInSeconds", Long.valueOf(300));
+        ReflectionTestUtils.setField(cut, "maxBackoffInSeconds", Long.valueOf(3600));
+        ReflectionTestUtils.setField(cut, "circuitFailureThreshold", Integer.valueOf(2));
+        ReflectionTestUtils.setField(cut, "circuitOpenInSeconds", Long.valueOf(300));
+        ReflectionTestUtils.setField(cut, "leaderLeaseInSeconds", Long.valueOf(30));
+        lenient().when(scheduledJobLeaseService.runExclusively(eq("defect-sync"), any(), any(), any())).then(invocation -> {
+            ((Runnable) invocation.getArgument(3)).run();
+            return Boolean.TRUE;
+        });
+    }
+
+    @Test
+    void dispatch_should_not_sync_anything_when_another_node_holds_the_lease() throws FetchException {
+        // GIVEN
+        when(scheduledJobLeaseService.runExclusively(eq("defect-sync"), eq(Duration.ofSeconds(30)), eq(Duration.ofSeconds(30)), any()))
+                .thenReturn(Boolean.FALSE);
+
+        // WHEN
+        cut.dispatch();
+
+        // THEN
+        verify(projectRepository, never()).findAllByOrderByName();
+        verify(defectService, never()).updateStatuses(any(), any());
+    }
+
+    @Test
+    void dispatch_should_sync_projects_having_a_defect_adapter_and_record_their_success() throws FetchException {
+        // GIVEN
+        Project projectWithAdapter = project(1);
+        Project projectWithoutAdapter = project(2);
+        when(projectRepository.findAllByOrderByName()).thenReturn(Arrays.asList(projectWithAdapter, projectWithoutAdapter));
+        when(defectService.getAdapter(1)).thenReturn(Optional.of(defectAdapter));
+        when(defectService.getAdapter(2)).thenReturn(Optional.empty());
+        when(defectAdapter.getCode()).thenReturn("jira");
+        when(defectAdapter.getEndpoint(anyLong())).thenReturn("https://jira");
+        runSubmittedTasks();
+        when(dateService.now()).thenReturn(new Date(0));
+
+        // WHEN
+        cut.dispatch();
+
+        // THEN
+        verify(defectService).updateStatuses(projectWithAdapter, defectAdapter);
+        verify(defectService, never()).updateStatuses(projectWithoutAdapter, defectAdapter);
+        DefectSyncHealth health = cut.getHealth(1).orElseThrow();
+        assertThat(health.getAdapterCode()).isEqualTo("jira");
+        assertThat(health.isRunning()).isFalse();
+        assertThat(health.getLastSuccessDateTime()).isEqualTo(new Date(0));
+        assertThat(health.getConsecutiveFailures()).isZero();
+        assertThat(health.getNextSyncDateTime()).isEqualTo(new Date(SYNC_DELAY));
+        assertThat(health.getCircuitState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(cut.getHealth(2)).isEmpty();
+    }
+
+    @Test
+    void dispatch_should_retry_a_failing_project_with_an_exponential_backoff() throws FetchException {
+        // GIVEN
+        ReflectionTestUtils.setField(cut, "circuitFailureThreshold", Integer.valueOf(10));
+        Project project = project(1);
+        when(projectRepository.findAllByOrderByName()).thenReturn(Arrays.asList(project));
+        when(defectService.getAdapter(1)).thenReturn(Optional.of(defectAdapter));
+        when(defectAdapter.getCode()).thenReturn("jira");
+        runSubmittedTasks();
+        doThrow(new FetchException("Jira is down")).when(defectService).updateStatuses(project, defectAdapter);
+
+        // WHEN
+        when(dateService.now()).thenReturn(new Date(0));
+        cut.dispatch();
+        when(dateService.now()).thenReturn(new Date(SYNC_DELAY - 1));
+        cut.dispatch();
+        when(dateService.now()).thenReturn(new Date(SYNC_DELAY));
+        cut.dispatch();
+
+        // THEN
+        verify(defectService, times(2)).updateStatuses(project, defectAdapter);
+        DefectSyncHealth health = cut.getHealth(1).orElseThrow();
+        assertThat(health.getConsecutiveFailures()).isEqualTo(2);
+        assertThat(health.getLastError()).isEqualTo("Jira is down");
+        assertThat(health.getLastErrorDateTime()).isEqualTo(new Date(SYNC_DELAY));
+        assertThat(health.getNextSyncDateTime()).isEqualTo(new Date(SYNC_DELAY + 2 * SYNC_DELAY));
+    }
+
+    @Test
+    void dispatch_should_leave_a_failing_defect_tracking_system_alone_for_all_its_projects() throws FetchException {
+        // GIVEN
+        Project project1 = project(1);
+        Project project2 = project(2);
+        when(projectRepository.findAllByOrderByName()).thenReturn(Arrays.asList(project1, project2));
+        when(defectService.getAdapter(anyLong())).thenReturn(Optional.of(defectAdapter));
+        when(defectAdapter.getCode()).thenReturn("jira");
+        when(defectAdapter.getEndpoint(anyLong())).thenReturn("https://jira");
+        runSubmittedTasks();
+        doThrow(new FetchException("Jira is down")).when(defectService).updateStatuses(any(), any());
+
+        // WHEN
+        when(dateService.now()).thenReturn(new Date(0));
+        cut.dispatch();
+        when(dateService.now()).thenReturn(new Date(SYNC_DELAY));
+        cut.dispatch();
+
+        // THEN
+        verify(defectService, times(2)).updateStatuses(any(), any());
+        assertThat(cut.getHealth(1).orElseThrow().getCircuitState()).isEqualTo(CircuitState.OPEN);
+        assertThat(cut.getHealth(2).orElseThrow().getCircuitState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    @Test
+    void dispatch_should_let_one_trial_sync_through_and_close_the_circuit_when_it_succeeds() throws FetchException {
+        // GIVEN
+        Project project1 = project(1);
+        Project project2 = project(2);
+        when(projectRepository.findAllByOrderByName()).thenReturn(Arrays.asList(project1, project2));
+        when(defectService.getAdapter(anyLong())).thenReturn(Optional.of(defectAdapter));
+        when(defectAdapter.getCode()).thenReturn("jira");
+        when(defectAdapter.getEndpoint(anyLong())).thenReturn("https://jira");
+        runSubmittedTasks();
+        doThrow(new FetchException("Jira is down")).doNothing().when(defectService).updateStatuses(project1, defectAdapter);
+        doThrow(new FetchException("Jira is down")).doNothing().when(defectService).updateStatuses(project2, defectAdapter);
+        when(dateService.now()).thenReturn(new Date(0));
+        cut.dispatch();
+
+        // WHEN
+        when(dateService.now()).thenReturn(new Date(300000));
+        cut.dispatch();
+
+        // THEN
+        verify(defectService, times(2)).updateStatuses(project1, defectAdapter);
+        verify(defectService, times(2)).updateStatuses(project2, defectAdapter);
+        assertThat(cut.getHealth(1).orElseThrow().getCircuitState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(cut.getHealth(2).orElseThrow().getConsecutiveFailures()).isZero();
+    }
+
+    @Test
+    void dispatch_should_cancel_a_sync_running_for_too_long() throws FetchException {
+        // GIVEN
+        Project project = project(1);
+        when(projectRepository.findAllByOrderByName()).thenReturn(Arrays.asList(project));
+        when(defectService.getAdapter(1)).thenReturn(Optional.of(defectAdapter));
+        when(defectAdapter.getCode()).thenReturn("jira");
+        when(executor.submit(any(Runnable.class))).then(invocation -> future);
+        when(dateService.now()).thenReturn(new Date(0));
+        cut.dispatch();
+        assertThat(cut.getHealth(1).orElseThrow().isRunning()).isTrue();
+
+        // WHEN
+        when(dateService.now()).thenReturn(new Date(300001));
+        cut.dispatch();
+
+        // THEN
+        verify(future).cancel(true);
+        verify(executor, times(1)).submit(any(Runnable.class));
+        DefectSyncHealth health = cut.getHealth(1).orElseThrow();
+        assertThat(health.isRunning()).isFalse();
+        assertThat(health.getConsecutiveFailures()).isEqualTo(1);
+        assertThat(health.getLastError()).isEqualTo("Timed out after 300 seconds");
+        assertThat(health.getNextSyncDateTime()).isEqualTo(new Date(300001 + SYNC_DELAY));
+    }
+
+    @Test
+    void getBackoffInMilliseconds_should_double_at_each_failure_up_to_the_maximum() {
+        assertThat(cut.getBackoffInMilliseconds(1)).isEqualTo(SYNC_DELAY);
+        assertThat(cut.getBackoffInMilliseconds(2)).isEqualTo(2 * SYNC_DELAY);
+        assertThat(cut.getBackoffInMilliseconds(4)).isEqualTo(8 * SYNC_DELAY);
+        assertThat(cut.getBackoffInMilliseconds(7)).isEqualTo(3600000);
+        assertThat(cut.getBackoffInMilliseconds(100)).isEqualTo(3600000);
+    }
+
+    private void runSubmittedTasks() {
+        when(executor.submit(any(Runnable.class))).then(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return future;
+        });
+    }
+
+    private Project project(long id) {
+        Project project = new Project("p" + id, "Project " + id);
+        TestUtil.setField(project, "id", Long.valueOf(id));
+        return project;
+    }
+
+}
@@ -0,0 +1,88 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ScenarioTest {
+
+    @Test
+    void updateFunctionalityErrors_should_clear_the_flag_when_everything_is_valid() {
+        // GIVEN
+        Scenario scenario = validScenario();
+
+        // WHEN
+        scenario.updateFunctionalityErrors();
+
+        // THEN
+        assertThat(scenario.hasFunctionalityErrors()).isFalse();
+    }
+
+    @Test
+    void updateFunctionalityErrors_should_set_the_flag_when_no_functionality_is_covered() {
+        // GIVEN
+        Scenario scenario = validScenario();
+        scenario.setFunctionalityCount(0);
+
+        // WHEN
+        scenario.updateFunctionalityErrors();
+
+        // THEN
+        assertThat(scenario.hasFunctionalityErrors()).isTrue();
+    }
+
+    @Test
+    void updateFunctionalityErrors_should_set_the_flag_when_a_property_is_missing_or_wrong() {
+        Scenario scenario = validScenario();
+        scenario.setWrongFunctionalityIds("42");
+        scenario.updateFunctionalityErrors();
+        assertThat(scenario.hasFunctionalityErrors()).isTrue();
+
+        scenario = validScenario();
+        scenario.setCountryCodes("");
+        scenario.updateFunctionalityErrors();
+        assertThat(scenario.hasFunctionalityErrors()).isTrue();
+
+        scenario = validScenario();
+        scenario.setWrongCountryCodes("xx");
+        scenario.updateFunctionalityErrors();
+        assertThat(scenario.hasFunctionalityErrors()).isTrue();
+
+        scenario = validScenario();
+        scenario.setSeverity(null);
+        scenario.updateFunctionalityErrors();
+        assertThat(scenario.hasFunctionalityErrors()).isTrue();
+
+        scenario = validScenario();
+        scenario.setWrongSeverityCode("unknown");
+        scenario.updateFunctionalityErrors();
+        assertThat(scenario.hasFunctionalityErrors()).isTrue();
+    }
+
+    private static Scenario validScenario() {
+        Scenario scenario = new Scenario();
+        scenario.setFunctionalityCount(1);
+        scenario.setCountryCodes("fr");
+        scenario.setSeverity("high");
+        scenario.setWrongFunctionalityIds("");
+        return scenario;
+    }
+
+}
@@ -0,0 +1,138 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+class StabilityWindowTest {
+
+    @Test
+    void record_ShouldComputeTransitionsAndFlakiness_WhenResultsAlternate() {
+        // GIVEN
+        StabilityWindow window = new StabilityWindow();
+
+        // WHEN
+        window.record(1, new Date(1000), false);
+        window.record(2, new Date(2000), true);
+        window.record(3, new Date(3000), false);
+        window.record(4, new Date(4000), false);
+        window.record(5, new Date(5000), true);
+
+        // THEN
+        assertThat(window.getExecutionCount()).isEqualTo(5);
+        assertThat(window.getFailureCount()).isEqualTo(2);
+        assertThat(window.getTransitionCount()).isEqualTo(3);
+        assertThat(window.getFlakiness()).isEqualTo(0.75);
+        assertThat(window.isLastFailed()).isTrue();
+        assertThat(window.getStreakLength()).isEqualTo(1);
+        assertThat(window.getLastExecutionId()).isEqualTo(5);
+    }
+
+    @Test
+    void record_ShouldKeepFirstFailingExecution_WhenFailingSeveralTimesInARow() {
+        // GIVEN
+        StabilityWindow window = new StabilityWindow();
+
+        // WHEN
+        window.record(1, new Date(1000), false);
+        window.record(2, new Date(2000), true);
+        window.record(3, new Date(3000), true);
+
+        // THEN
+        assertThat(window.getFirstFailingExecutionId()).isEqualTo(2);
+        assertThat(window.getFirstFailingDateTime()).isEqualTo(new Date(2000));
+        assertThat(window.getStreakLength()).isEqualTo(2);
+
+        // WHEN
+        window.record(4, new Date(4000), false);
+
+        // THEN
+        assertThat(window.getFirstFailingExecutionId()).isNull();
+        assertThat(window.getFirstFailingDateTime()).isNull();
+    }
+
+    @Test
+    void record_ShouldIgnoreExecution_WhenWithoutTestDateTime() {
+        // GIVEN
+        StabilityWindow window = new StabilityWindow();
+        window.record(1, new Date(1000), true);
+
+        // WHEN / THEN
+        assertThat(window.record(2, null, false)).isFalse();
+        assertThat(new StabilityWindow().record(2, null, false)).isFalse();
+        assertThat(window.getExecutionCount()).isEqualTo(1);
+        assertThat(window.getLastExecutionId()).isEqualTo(1);
+    }
+
+    @Test
+    void record_ShouldIgnoreExecution_WhenAlreadyRecordedOrOlder() {
+        // GIVEN
+        StabilityWindow window = new StabilityWindow();
+        window.record(2, new Date(2000), true);
+
+        // WHEN / THEN
+        assertThat(window.record(2, new Date(2000), false)).isFalse();
+        assertThat(window.record(1, new Date(1000), false)).isFalse();
+        assertThat(window.getExecutionCount()).isEqualTo(1);
+        assertThat(window.isLastFailed()).isTrue();
+    }
+
+    @Test
+    void record_ShouldOnlyCountTheLastExecutions_WhenWindowIsFull() {
+        // GIVEN
+        StabilityWindow window = new StabilityWindow();
+        window.record(1, new Date(1000), true);
+        window.record(2, new Date(2000), false);
+
+        // WHEN
+        for (int i = 3; i <= StabilityWindow.SIZE + 1; i++) {
+            window.record(i, new Date(i * 1000L), false);
+        }
+
+        // THEN
+        assertThat(window.getExecutionCount()).isEqualTo(StabilityWindow.SIZE);
+        assertThat(window.getFailureCount()).isZero();
+        assertThat(window.getTransitionCount()).isZero();
+        assertThat(window.getFlakiness()).isZero();
+        assertThat(window.getStreakLength()).isEqualTo(StabilityWindow.SIZE);
+    }
+
+    @Test
+    void recordPasses_ShouldRecordMissedExecutions_BeforeTheNextOne() {
+        // GIVEN
+        StabilityWindow window = new StabilityWindow();
+        window.record(1, new Date(1000), true);
+
+        // WHEN
+        window.recordPasses(2);
+        window.record(4, new Date(4000), true);
+
+        // THEN
+        assertThat(window.getExecutionCount()).isEqualTo(4);
+        assertThat(window.getFailureCount()).isEqualTo(2);
+        assertThat(window.getTransitionCount()).isEqualTo(2);
+        assertThat(window.getFlakiness()).isEqualTo(2.0 / 3);
+        assertThat(window.getStreakLength()).isEqualTo(1);
+        assertThat(window.getFirstFailingExecutionId()).isEqualTo(4);
+    }
+
+}
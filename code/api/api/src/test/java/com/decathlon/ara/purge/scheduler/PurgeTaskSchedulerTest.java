@@ -1,6 +1,7 @@
 package com.decathlon.ara.purge.scheduler;
 
 import com.decathlon.ara.purge.service.PurgeService;
+import com.decathlon.ara.service.ScheduledJobLeaseService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -18,6 +19,7 @@ import java.util.Date;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -30,6 +32,9 @@ class PurgeTaskSchedulerTest {
     @Mock
     private PurgeService purgeService;
 
+    @Mock
+    private ScheduledJobLeaseService scheduledJobLeaseService;
+
     @InjectMocks
     private PurgeTaskScheduler purgeTaskScheduler;
 
@@ -91,4 +96,19 @@ class PurgeTaskSchedulerTest {
 
         verify(taskScheduler, never()).schedule(any(), any(CronTrigger.class));
     }
+
+    @Test
+    void getPurgeRunnable_purgeAllProjects_onlyWhenThisNodeGetsThePurgeLease() {
+        // Given
+        var jobArgumentCaptor = ArgumentCaptor.forClass(Runnable.class);
+
+        // When
+        purgeTaskScheduler.getPurgeRunnable().run();
+
+        // Then
+        verify(scheduledJobLeaseService).runExclusively(eq("purge"), eq(Duration.ofHours(12)), eq(Duration.ofMinutes(5)), jobArgumentCaptor.capture());
+        verify(purgeService, never()).purgeAllProjects();
+        jobArgumentCaptor.getValue().run();
+        verify(purgeService).purgeAllProjects();
+    }
 }
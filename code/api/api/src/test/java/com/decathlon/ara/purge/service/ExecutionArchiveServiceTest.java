@@ -0,0 +1,259 @@
+package com.decathlon.ara.purge.service;
+
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.ProblemOccurrence;
+import com.decathlon.ara.domain.ProblemPattern;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.domain.Type;
+import com.decathlon.ara.repository.CountryRepository;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProblemOccurrenceRepository;
+import com.decathlon.ara.repository.ProblemPatternRepository;
+import com.decathlon.ara.repository.TypeRepository;
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
+import com.decathlon.ara.scenario.common.service.ExecutedScenarioService;
+import com.decathlon.ara.service.DistinctValueService;
+import com.decathlon.ara.service.ProblemDenormalizationService;
+import com.decathlon.ara.service.exception.BadRequestException;
+import com.decathlon.ara.service.exception.NotFoundException;
+import com.decathlon.ara.service.support.DistinctValueCounts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionArchiveServiceTest {
+
+    private static final long PROJECT_ID = 10L;
+
+    @TempDir
+    Path archiveFolder;
+
+    @Mock
+    private ExecutionRepository executionRepository;
+
+    @Mock
+    private CycleDefinitionRepository cycleDefinitionRepository;
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private TypeRepository typeRepository;
+
+    @Mock
+    private ProblemPatternRepository problemPatternRepository;
+
+    @Mock
+    private ProblemOccurrenceRepository problemOccurrenceRepository;
+
+    @Mock
+    private ExecutedScenarioService executedScenarioService;
+
+    @Mock
+    private TransactionAppenderUtil transactionAppenderUtil;
+
+    @Mock
+    private ProblemDenormalizationService problemDenormalizationService;
+
+    @Mock
+    private DistinctValueService distinctValueService;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    private ExecutionArchiveService cut;
+
+    @BeforeEach
+    void setUp() {
+        cut = new ExecutionArchiveService(new ObjectMapper(), executionRepository, cycleDefinitionRepository,
+                countryRepository, typeRepository, problemPatternRepository, problemOccurrenceRepository,
+                executedScenarioService, transactionAppenderUtil, problemDenormalizationService, distinctValueService,
+                dataVersionService);
+        ReflectionTestUtils.setField(cut, "archiveFolder", archiveFolder.toString());
+    }
+
+    @Test
+    void isEnabled_returnFalse_whenNoArchiveFolder() {
+        // Given
+        ReflectionTestUtils.setField(cut, "archiveFolder", "");
+
+        // When
+
+        // Then
+        assertThat(cut.isEnabled()).isFalse();
+        assertThat(cut.findAll(PROJECT_ID)).isEmpty();
+    }
+
+    @Test
+    void archive_listAndRestoreTheWholeExecution() throws IOException, BadRequestException {
+        // Given
+        var cycleDefinition = mock(CycleDefinition.class);
+        var country = mock(Country.class);
+        var type = mock(Type.class);
+        var problemPattern = mock(ProblemPattern.class);
+        var problem = mock(Problem.class);
+        var testDateTime = new Date(1600000000000L);
+        var execution = execution(cycleDefinition, country, type, problemPattern, testDateTime);
+
+        // When
+        when(cycleDefinition.getProjectId()).thenReturn(PROJECT_ID);
+        when(country.getCode()).thenReturn("fr");
+        when(type.getCode()).thenReturn("api");
+        when(problemPattern.getId()).thenReturn(7L);
+        when(problemPattern.getProblem()).thenReturn(problem);
+        when(problem.getId()).thenReturn(8L);
+        when(executionRepository.findById(1L)).thenReturn(Optional.of(execution));
+        when(cycleDefinitionRepository.findByProjectIdAndBranchAndName(PROJECT_ID, "develop", "day")).thenReturn(Optional.of(cycleDefinition));
+        when(cycleDefinition.getId()).thenReturn(3L);
+        when(executionRepository.existsByCycleDefinitionIdAndTestDateTime(3L, testDateTime)).thenReturn(false);
+        when(countryRepository.findAllByProjectIdOrderByCode(PROJECT_ID)).thenReturn(List.of(country));
+        when(typeRepository.findAllByProjectIdOrderByCode(PROJECT_ID)).thenReturn(List.of(type));
+        when(executionRepository.save(any(Execution.class))).thenAnswer(invocation -> {
+            Execution saved = invocation.getArgument(0);
+            saved.setId(2L);
+            return saved;
+        });
+        when(problemPatternRepository.findAllById(anyIterable())).thenReturn(List.of(problemPattern));
+
+        // Then
+        cut.archive(1L);
+        var file = archiveFolder.resolve("10").resolve("execution-1.json.gz");
+        assertThat(file).exists();
+
+        assertThat(cut.findAll(PROJECT_ID)).singleElement().satisfies(summary -> {
+            assertThat(summary.getExecutionId()).isEqualTo(1L);
+            assertThat(summary.getBranch()).isEqualTo("develop");
+            assertThat(summary.getCycleName()).isEqualTo("day");
+            assertThat(summary.getTestDateTime()).isEqualTo(testDateTime);
+        });
+
+        assertThat(cut.restore(PROJECT_ID, 1L)).isEqualTo(2L);
+        var restoredExecution = ArgumentCaptor.forClass(Execution.class);
+        verify(executionRepository).save(restoredExecution.capture());
+        assertThat(restoredExecution.getValue().getCycleDefinition()).isSameAs(cycleDefinition);
+        assertThat(restoredExecution.getValue().getRuns()).singleElement().satisfies(run -> {
+            assertThat(run.getCountry()).isSameAs(country);
+            assertThat(run.getType()).isSameAs(type);
+            assertThat(run.getExecutedScenarios()).singleElement().satisfies(executedScenario -> {
+                assertThat(executedScenario.getCucumberId()).isEqualTo("feature;scenario");
+                assertThat(executedScenario.getErrors()).extracting(Error::getStep).containsExactly("When it fails");
+            });
+        });
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProblemOccurrence>> problemOccurrences = ArgumentCaptor.forClass(List.class);
+        verify(problemOccurrenceRepository).saveAll(problemOccurrences.capture());
+        assertThat(problemOccurrences.getValue()).singleElement().satisfies(occurrence -> {
+            assertThat(occurrence.getProblemPattern()).isSameAs(problemPattern);
+            assertThat(occurrence.getError().getStep()).isEqualTo("When it fails");
+        });
+        verify(executedScenarioService).appendToHistory(restoredExecution.getValue());
+        assertThat(restoredExecution.getValue().isRestored()).isTrue();
+        verify(problemDenormalizationService).addOccurrences(eq(Set.of(8L)), anyCollection(), eq(testDateTime));
+        verify(dataVersionService).incrementAfterCommit(PROJECT_ID);
+
+        var afterCommit = ArgumentCaptor.forClass(Runnable.class);
+        verify(transactionAppenderUtil, times(2)).doAfterCommit(afterCommit.capture());
+        assertThat(file).exists();
+        afterCommit.getAllValues().forEach(Runnable::run);
+        verify(distinctValueService).record(eq(PROJECT_ID), any(DistinctValueCounts.class), eq(testDateTime));
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void archive_keepExistingArchive_whenAlreadyArchived() throws IOException {
+        // Given
+        var execution = mock(Execution.class);
+        var cycleDefinition = mock(CycleDefinition.class);
+        var file = archiveFolder.resolve("10").resolve("execution-1.json.gz");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[] { 42 });
+
+        // When
+        when(executionRepository.findById(1L)).thenReturn(Optional.of(execution));
+        when(execution.getCycleDefinition()).thenReturn(cycleDefinition);
+        when(cycleDefinition.getProjectId()).thenReturn(PROJECT_ID);
+
+        // Then
+        cut.archive(1L);
+        assertThat(file).hasBinaryContent(new byte[] { 42 });
+    }
+
+    @Test
+    void findAll_skipUnreadableArchives() throws IOException {
+        // Given
+        var file = archiveFolder.resolve("10").resolve("execution-1.json.gz");
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[] { 42 });
+
+        // When
+
+        // Then
+        assertThat(cut.findAll(PROJECT_ID)).isEmpty();
+    }
+
+    @Test
+    void restore_throwNotFoundException_whenNoArchive() {
+        // Given
+
+        // When
+
+        // Then
+        assertThatThrownBy(() -> cut.restore(PROJECT_ID, 1L)).isInstanceOf(NotFoundException.class);
+        verify(executionRepository, never()).save(any(Execution.class));
+    }
+
+    private static Execution execution(CycleDefinition cycleDefinition, Country country, Type type,
+            ProblemPattern problemPattern, Date testDateTime) {
+        var error = new Error();
+        error.setStep("When it fails");
+        error.getProblemOccurrences().add(new ProblemOccurrence(error, problemPattern));
+
+        var executedScenario = new ExecutedScenario();
+        executedScenario.setCucumberId("feature;scenario");
+        executedScenario.addError(error);
+
+        var run = new Run();
+        run.setCountry(country);
+        run.setType(type);
+        run.addExecutedScenario(executedScenario);
+
+        var execution = new Execution();
+        execution.setId(1L);
+        execution.setCycleDefinition(cycleDefinition);
+        execution.setBranch("develop");
+        execution.setName("day");
+        execution.setTestDateTime(testDateTime);
+        execution.addRun(run);
+        return execution;
+    }
+
+}
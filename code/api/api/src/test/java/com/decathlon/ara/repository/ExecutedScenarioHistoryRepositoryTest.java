@@ -0,0 +1,122 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.decathlon.ara.domain.ExecutedScenarioHistory;
+import com.decathlon.ara.util.TestUtil;
+
+class ExecutedScenarioHistoryRepositoryTest {
+
+    private ExecutedScenarioHistoryRepository cut;
+
+    @BeforeEach
+    void setUp() {
+        cut = mock(ExecutedScenarioHistoryRepository.class);
+        when(cut.findHistory(anyLong(), anyString(), isNull(), isNull(), isNull(), isNull(), any(), any())).thenCallRealMethod();
+    }
+
+    @Test
+    void findHistory_returnAllRowsAscending_whenNoLimit() {
+        // GIVEN
+        List<ExecutedScenarioHistory> all = Arrays.asList(row(1, 11), row(2, 21));
+        when(cut.findAll(any(Specification.class))).thenReturn(all);
+
+        // WHEN
+        List<ExecutedScenarioHistory> history = cut.findHistory(1, "id", null, null, null, null, Optional.empty(), null);
+
+        // THEN
+        assertThat(history).isSameAs(all);
+        verify(cut, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void findHistory_returnAllRowsOfTheLastExecutions_whenLimited() {
+        // GIVEN
+        List<ExecutedScenarioHistory> rows = Arrays.asList(row(2, 21), row(3, 31), row(3, 32));
+        when(cut.findLatestExecutionIds(eq(1L), eq("id"), isNull(), isNull(), isNull(), isNull(), eq(new Date(0)), any(Pageable.class)))
+                .thenReturn(Arrays.asList(Long.valueOf(3), Long.valueOf(2)));
+        when(cut.findAll(any(Specification.class))).thenReturn(rows);
+
+        // WHEN
+        List<ExecutedScenarioHistory> history = cut.findHistory(1, "id", null, null, null, null, Optional.empty(), Integer.valueOf(2));
+
+        // THEN
+        assertThat(history).isSameAs(rows);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(cut).findLatestExecutionIds(anyLong(), anyString(), any(), any(), any(), any(), any(), pageable.capture());
+        assertThat(pageable.getValue().getPageNumber()).isZero();
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(2);
+        verify(cut, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void findHistory_readNoRow_whenTheScenarioNeverRan() {
+        // GIVEN
+        when(cut.findLatestExecutionIds(anyLong(), anyString(), any(), any(), any(), any(), any(), any(Pageable.class))).thenReturn(List.of());
+
+        // WHEN
+        List<ExecutedScenarioHistory> history = cut.findHistory(1, "id", null, null, null, null, Optional.empty(), Integer.valueOf(2));
+
+        // THEN
+        assertThat(history).isEmpty();
+        verify(cut, never()).findAll(any(Specification.class));
+    }
+
+    @Test
+    void findHistory_filterExecutionsWithoutEmptyFilters_whenLimited() {
+        // GIVEN
+        when(cut.findHistory(anyLong(), anyString(), anyString(), anyString(), isNull(), isNull(), any(), any())).thenCallRealMethod();
+        when(cut.findLatestExecutionIds(anyLong(), anyString(), any(), any(), any(), any(), any(), any(Pageable.class))).thenReturn(List.of());
+
+        // WHEN
+        cut.findHistory(1, "id", "develop", "", null, null, Optional.empty(), Integer.valueOf(2));
+
+        // THEN
+        verify(cut).findLatestExecutionIds(eq(1L), eq("id"), eq("develop"), isNull(), isNull(), isNull(), any(), any(Pageable.class));
+    }
+
+    private static ExecutedScenarioHistory row(long executionId, long executedScenarioId) {
+        ExecutedScenarioHistory row = new ExecutedScenarioHistory();
+        TestUtil.setField(row, "executionId", Long.valueOf(executionId));
+        TestUtil.setField(row, "executedScenarioId", Long.valueOf(executedScenarioId));
+        return row;
+    }
+
+}
@@ -0,0 +1,92 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.decathlon.ara.domain.ScheduledJobLease;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "ara.database.target=h2"
+})
+class ScheduledJobLeaseRepositoryIT {
+
+    @Autowired
+    private ScheduledJobLeaseRepository cut;
+
+    @Test
+    void lock_should_give_an_expired_lease_to_only_one_node_until_it_expires() {
+        // GIVEN
+        cut.saveAndFlush(new ScheduledJobLease("lock-test", new Date(1000)));
+
+        // WHEN
+        int lockedByNode1 = cut.lock("lock-test", "node-1", new Date(2000), new Date(5000));
+        int lockedByNode2 = cut.lock("lock-test", "node-2", new Date(3000), new Date(6000));
+        int renewedByNode1 = cut.lock("lock-test", "node-1", new Date(4000), new Date(7000));
+        int takenOverByNode2 = cut.lock("lock-test", "node-2", new Date(7000), new Date(10000));
+
+        // THEN
+        assertThat(lockedByNode1).isEqualTo(1);
+        assertThat(lockedByNode2).isZero();
+        assertThat(renewedByNode1).isEqualTo(1);
+        assertThat(takenOverByNode2).isEqualTo(1);
+        ScheduledJobLease lease = cut.findById("lock-test").orElseThrow();
+        assertThat(lease.getLockedBy()).isEqualTo("node-2");
+        assertThat(lease.getLockedUntil()).hasSameTimeAs(new Date(10000));
+    }
+
+    @Test
+    void lock_should_not_create_a_missing_lease() {
+        // WHEN
+        int locked = cut.lock("missing-test", "node-1", new Date(2000), new Date(5000));
+
+        // THEN
+        assertThat(locked).isZero();
+        assertThat(cut.existsById("missing-test")).isFalse();
+    }
+
+    @Test
+    void unlock_should_record_the_run_only_for_the_node_holding_the_lease() {
+        // GIVEN
+        cut.saveAndFlush(new ScheduledJobLease("unlock-test", new Date(1000)));
+        cut.lock("unlock-test", "node-1", new Date(2000), new Date(60000));
+
+        // WHEN
+        int unlockedByNode2 = cut.unlock("unlock-test", "node-2", new Date(3000), new Date(2000), 1000, false);
+        int unlockedByNode1 = cut.unlock("unlock-test", "node-1", new Date(4000), new Date(2000), 2000, true);
+
+        // THEN
+        assertThat(unlockedByNode2).isZero();
+        assertThat(unlockedByNode1).isEqualTo(1);
+        ScheduledJobLease lease = cut.findById("unlock-test").orElseThrow();
+        assertThat(lease.getLockedUntil()).hasSameTimeAs(new Date(4000));
+        assertThat(lease.getLastRunBy()).isEqualTo("node-1");
+        assertThat(lease.getLastRunStartDateTime()).hasSameTimeAs(new Date(2000));
+        assertThat(lease.getLastRunDuration()).isEqualTo(2000L);
+        assertThat(lease.getLastRunSucceeded()).isTrue();
+    }
+
+}
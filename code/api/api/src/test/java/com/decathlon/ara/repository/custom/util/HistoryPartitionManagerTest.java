@@ -0,0 +1,144 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository.custom.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HistoryPartitionManagerTest {
+
+    private static final String PROJECT_PARTITION = "executed_scenario_history_p1";
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Query query;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @InjectMocks
+    private HistoryPartitionManager cut;
+
+    @Test
+    void toMonth_ShouldParseTheSuffixOfMonthlyPartitions() {
+        assertThat(HistoryPartitionManager.toMonth(PROJECT_PARTITION, PROJECT_PARTITION + "_202601")).isEqualTo(YearMonth.of(2026, 1));
+        assertThat(HistoryPartitionManager.toMonth(PROJECT_PARTITION, PROJECT_PARTITION + "_202512")).isEqualTo(YearMonth.of(2025, 12));
+    }
+
+    @Test
+    void toMonth_ShouldReturnNull_WhenNotAMonthlyPartition() {
+        assertThat(HistoryPartitionManager.toMonth(PROJECT_PARTITION, PROJECT_PARTITION + "_default")).isNull();
+        assertThat(HistoryPartitionManager.toMonth(PROJECT_PARTITION, PROJECT_PARTITION + "_20261")).isNull();
+        assertThat(HistoryPartitionManager.toMonth(PROJECT_PARTITION, PROJECT_PARTITION + "_2026011")).isNull();
+    }
+
+    @Test
+    void isWholeMonthBefore_ShouldCompareTheStartOfTheNextMonth() {
+        YearMonth february = YearMonth.of(2026, 2);
+        assertThat(HistoryPartitionManager.isWholeMonthBefore(february, LocalDateTime.of(2026, 3, 1, 0, 0))).isTrue();
+        assertThat(HistoryPartitionManager.isWholeMonthBefore(february, LocalDateTime.of(2026, 3, 15, 12, 0))).isTrue();
+        assertThat(HistoryPartitionManager.isWholeMonthBefore(february, LocalDateTime.of(2026, 2, 28, 23, 59, 59))).isFalse();
+        assertThat(HistoryPartitionManager.isWholeMonthBefore(february, LocalDateTime.of(2026, 2, 1, 0, 0))).isFalse();
+    }
+
+    @Test
+    void isWholeMonthBefore_ShouldCrossYears() {
+        YearMonth december = YearMonth.of(2025, 12);
+        assertThat(HistoryPartitionManager.isWholeMonthBefore(december, LocalDateTime.of(2026, 1, 1, 0, 0))).isTrue();
+        assertThat(HistoryPartitionManager.isWholeMonthBefore(december, LocalDateTime.of(2025, 12, 31, 23, 59))).isFalse();
+    }
+
+    @Test
+    void dropPartitionsBefore_ShouldDropOnlyTheMonthsEndedBeforeTheDate() throws Exception {
+        // GIVEN
+        partitions(PROJECT_PARTITION + "_default", PROJECT_PARTITION + "_202601", PROJECT_PARTITION + "_202602", PROJECT_PARTITION + "_202603");
+        Date before = Date.from(LocalDateTime.of(2026, 3, 1, 0, 0).atZone(ZoneId.systemDefault()).toInstant());
+
+        // WHEN
+        int dropped = cut.dropPartitionsBefore(1, before);
+
+        // THEN
+        assertThat(dropped).isEqualTo(2);
+        verify(statement).execute("drop table " + PROJECT_PARTITION + "_202601");
+        verify(statement).execute("drop table " + PROJECT_PARTITION + "_202602");
+        verify(statement, never()).execute("drop table " + PROJECT_PARTITION + "_202603");
+        verify(statement, never()).execute("drop table " + PROJECT_PARTITION + "_default");
+    }
+
+    @Test
+    void dropPartitionsBefore_ShouldKeepTheCurrentMonth_WhenTheDateIsInIt() throws Exception {
+        // GIVEN
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter("parent", PROJECT_PARTITION)).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(PROJECT_PARTITION + "_default", PROJECT_PARTITION + "_202602"));
+        Date before = Date.from(LocalDateTime.of(2026, 2, 28, 23, 59).atZone(ZoneId.systemDefault()).toInstant());
+
+        // WHEN
+        int dropped = cut.dropPartitionsBefore(1, before);
+
+        // THEN
+        assertThat(dropped).isZero();
+        verify(entityManager, never()).unwrap(Session.class);
+    }
+
+    private void partitions(String... partitions) throws Exception {
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter("parent", PROJECT_PARTITION)).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(partitions));
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        doAnswer(invocation -> {
+            invocation.<Work> getArgument(0).execute(connection);
+            return null;
+        }).when(session).doWork(any(Work.class));
+        when(connection.createStatement()).thenReturn(statement);
+    }
+
+}
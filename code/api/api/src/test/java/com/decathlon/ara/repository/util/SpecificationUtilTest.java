@@ -1045,151 +1045,169 @@ class SpecificationUtilTest {
     }
 
     @Test
-    void executedScenarioSpecificationShouldHaveAtLeastEqualsPredicateOnProjectIdAndCucumnerIdAndOrderByOnTestDateTimeCountryCodeTypeCodeAndLineWhenNoAllOtherParametersAreNull() {
+    void executedScenarioHistorySpecificationShouldHaveAtLeastEqualsPredicateOnProjectIdAndCucumnerIdAndOrderByOnTestDateTimeExecutionCountryCodeTypeCodeAndExecutedScenarioWhenNoAllOtherParametersAreNull() {
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ExecutedScenario> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenario.class);
-        Root<ExecutedScenario> root = criteriaQuery.from(ExecutedScenario.class);
+        CriteriaQuery<ExecutedScenarioHistory> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenarioHistory.class);
+        Root<ExecutedScenarioHistory> root = criteriaQuery.from(ExecutedScenarioHistory.class);
         criteriaBuilder = Mockito.spy(criteriaBuilder);
         prepareTest(criteriaBuilder);
-        Specification<ExecutedScenario> problemSpecification = SpecificationUtil.toExecutedScenarioSpecification(1l, "cucumberId", null, null, null, null, Optional.ofNullable(null));
-        PredicateWithInfo predicate = (PredicateWithInfo) problemSpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
+        Specification<ExecutedScenarioHistory> historySpecification = SpecificationUtil.toExecutedScenarioHistorySpecification(1l, "cucumberId", null, null, null, null, Optional.ofNullable(null), false);
+        PredicateWithInfo predicate = (PredicateWithInfo) historySpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
         Assertions.assertEquals(2, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
-        Assertions.assertEquals("root.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
+        Assertions.assertEquals("root.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals("cucumberId", predicates.get(1).value());
         Assertions.assertEquals("root.cucumberId", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(1).type());
         List<Order> orderList = criteriaQuery.getOrderList();
-        Assertions.assertEquals(4, orderList.size());
-        Assertions.assertEquals("root.run.execution.testDateTime", getName(orderList.get(0).getExpression()));
+        Assertions.assertEquals(5, orderList.size());
+        Assertions.assertEquals("root.testDateTime", getName(orderList.get(0).getExpression()));
         Assertions.assertTrue(orderList.get(0).isAscending());
-        Assertions.assertEquals("root.run.country.code", getName(orderList.get(1).getExpression()));
+        Assertions.assertEquals("root.executionId", getName(orderList.get(1).getExpression()));
         Assertions.assertTrue(orderList.get(1).isAscending());
-        Assertions.assertEquals("root.run.type.code", getName(orderList.get(2).getExpression()));
+        Assertions.assertEquals("root.countryCode", getName(orderList.get(2).getExpression()));
         Assertions.assertTrue(orderList.get(2).isAscending());
-        Assertions.assertEquals("root.line", getName(orderList.get(3).getExpression()));
+        Assertions.assertEquals("root.typeCode", getName(orderList.get(3).getExpression()));
         Assertions.assertTrue(orderList.get(3).isAscending());
+        Assertions.assertEquals("root.executedScenarioId", getName(orderList.get(4).getExpression()));
+        Assertions.assertTrue(orderList.get(4).isAscending());
+    }
+
+    @Test
+    void executedScenarioHistorySpecificationShouldOrderDescendingWhenLatestFirst() {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ExecutedScenarioHistory> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenarioHistory.class);
+        Root<ExecutedScenarioHistory> root = criteriaQuery.from(ExecutedScenarioHistory.class);
+        criteriaBuilder = Mockito.spy(criteriaBuilder);
+        prepareTest(criteriaBuilder);
+        Specification<ExecutedScenarioHistory> historySpecification = SpecificationUtil.toExecutedScenarioHistorySpecification(1l, "cucumberId", null, null, null, null, Optional.ofNullable(null), true);
+        historySpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
+        List<Order> orderList = criteriaQuery.getOrderList();
+        Assertions.assertEquals(5, orderList.size());
+        Assertions.assertEquals("root.testDateTime", getName(orderList.get(0).getExpression()));
+        Assertions.assertEquals("root.executionId", getName(orderList.get(1).getExpression()));
+        Assertions.assertTrue(orderList.stream().noneMatch(Order::isAscending));
     }
 
     @Test
-    void executedScenarioSpecificationShouldHaveEqualsPredicateOnBranchWhenBranchParametersIsNotEmpty() {
+    void executedScenarioHistorySpecificationShouldHaveEqualsPredicateOnBranchWhenBranchParametersIsNotEmpty() {
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ExecutedScenario> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenario.class);
-        Root<ExecutedScenario> root = criteriaQuery.from(ExecutedScenario.class);
+        CriteriaQuery<ExecutedScenarioHistory> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenarioHistory.class);
+        Root<ExecutedScenarioHistory> root = criteriaQuery.from(ExecutedScenarioHistory.class);
         criteriaBuilder = Mockito.spy(criteriaBuilder);
         prepareTest(criteriaBuilder);
-        Specification<ExecutedScenario> problemSpecification = SpecificationUtil.toExecutedScenarioSpecification(1l, "cucumberId", "branch", null, null, null, Optional.ofNullable(null));
-        PredicateWithInfo predicate = (PredicateWithInfo) problemSpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
+        Specification<ExecutedScenarioHistory> historySpecification = SpecificationUtil.toExecutedScenarioHistorySpecification(1l, "cucumberId", "branch", null, null, null, Optional.ofNullable(null), false);
+        PredicateWithInfo predicate = (PredicateWithInfo) historySpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
         Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
-        Assertions.assertEquals("root.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
+        Assertions.assertEquals("root.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals("cucumberId", predicates.get(1).value());
         Assertions.assertEquals("root.cucumberId", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(1).type());
         Assertions.assertEquals("branch", predicates.get(2).value());
-        Assertions.assertEquals("root.run.execution.branch", predicates.get(2).getName());
+        Assertions.assertEquals("root.branch", predicates.get(2).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(2).type());
     }
 
     @Test
-    void executedScenarioSpecificationShouldHaveEqualsPredicateOnExecutionNameWhenCycleNameParametersIsNotEmpty() {
+    void executedScenarioHistorySpecificationShouldHaveEqualsPredicateOnCycleNameWhenCycleNameParametersIsNotEmpty() {
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ExecutedScenario> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenario.class);
-        Root<ExecutedScenario> root = criteriaQuery.from(ExecutedScenario.class);
+        CriteriaQuery<ExecutedScenarioHistory> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenarioHistory.class);
+        Root<ExecutedScenarioHistory> root = criteriaQuery.from(ExecutedScenarioHistory.class);
         criteriaBuilder = Mockito.spy(criteriaBuilder);
         prepareTest(criteriaBuilder);
-        Specification<ExecutedScenario> problemSpecification = SpecificationUtil.toExecutedScenarioSpecification(1l, "cucumberId", null, "cycleName", null, null, Optional.ofNullable(null));
-        PredicateWithInfo predicate = (PredicateWithInfo) problemSpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
+        Specification<ExecutedScenarioHistory> historySpecification = SpecificationUtil.toExecutedScenarioHistorySpecification(1l, "cucumberId", null, "cycleName", null, null, Optional.ofNullable(null), false);
+        PredicateWithInfo predicate = (PredicateWithInfo) historySpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
         Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
-        Assertions.assertEquals("root.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
+        Assertions.assertEquals("root.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals("cucumberId", predicates.get(1).value());
         Assertions.assertEquals("root.cucumberId", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(1).type());
         Assertions.assertEquals("cycleName", predicates.get(2).value());
-        Assertions.assertEquals("root.run.execution.name", predicates.get(2).getName());
+        Assertions.assertEquals("root.cycleName", predicates.get(2).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(2).type());
     }
 
     @Test
-    void executedScenarioSpecificationShouldHaveEqualsPredicateOnCountryCodeWhenCountryCodeParametersIsNotEmpty() {
+    void executedScenarioHistorySpecificationShouldHaveEqualsPredicateOnCountryCodeWhenCountryCodeParametersIsNotEmpty() {
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ExecutedScenario> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenario.class);
-        Root<ExecutedScenario> root = criteriaQuery.from(ExecutedScenario.class);
+        CriteriaQuery<ExecutedScenarioHistory> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenarioHistory.class);
+        Root<ExecutedScenarioHistory> root = criteriaQuery.from(ExecutedScenarioHistory.class);
         criteriaBuilder = Mockito.spy(criteriaBuilder);
         prepareTest(criteriaBuilder);
-        Specification<ExecutedScenario> problemSpecification = SpecificationUtil.toExecutedScenarioSpecification(1l, "cucumberId", null, null, "countryCode", null, Optional.ofNullable(null));
-        PredicateWithInfo predicate = (PredicateWithInfo) problemSpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
+        Specification<ExecutedScenarioHistory> historySpecification = SpecificationUtil.toExecutedScenarioHistorySpecification(1l, "cucumberId", null, null, "countryCode", null, Optional.ofNullable(null), false);
+        PredicateWithInfo predicate = (PredicateWithInfo) historySpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
         Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
-        Assertions.assertEquals("root.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
+        Assertions.assertEquals("root.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals("cucumberId", predicates.get(1).value());
         Assertions.assertEquals("root.cucumberId", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(1).type());
         Assertions.assertEquals("countryCode", predicates.get(2).value());
-        Assertions.assertEquals("root.run.country.code", predicates.get(2).getName());
+        Assertions.assertEquals("root.countryCode", predicates.get(2).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(2).type());
     }
 
     @Test
-    void executedScenarioSpecificationShouldHaveEqualsPredicateOnTypeCodeWhenTypeCodeParametersIsNotEmpty() {
+    void executedScenarioHistorySpecificationShouldHaveEqualsPredicateOnTypeCodeWhenTypeCodeParametersIsNotEmpty() {
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ExecutedScenario> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenario.class);
-        Root<ExecutedScenario> root = criteriaQuery.from(ExecutedScenario.class);
+        CriteriaQuery<ExecutedScenarioHistory> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenarioHistory.class);
+        Root<ExecutedScenarioHistory> root = criteriaQuery.from(ExecutedScenarioHistory.class);
         criteriaBuilder = Mockito.spy(criteriaBuilder);
         prepareTest(criteriaBuilder);
-        Specification<ExecutedScenario> problemSpecification = SpecificationUtil.toExecutedScenarioSpecification(1l, "cucumberId", null, null, null, "typeCode", Optional.ofNullable(null));
-        PredicateWithInfo predicate = (PredicateWithInfo) problemSpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
+        Specification<ExecutedScenarioHistory> historySpecification = SpecificationUtil.toExecutedScenarioHistorySpecification(1l, "cucumberId", null, null, null, "typeCode", Optional.ofNullable(null), false);
+        PredicateWithInfo predicate = (PredicateWithInfo) historySpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
         Assertions.assertEquals(PredicateType.AND, predicate.type());
         List<PredicateWithInfo> predicates = predicate.getElements();
         Assertions.assertEquals(3, predicates.size());
         Assertions.assertEquals(1l, predicates.get(0).value());
-        Assertions.assertEquals("root.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
+        Assertions.assertEquals("root.projectId", predicates.get(0).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
         Assertions.assertEquals("cucumberId", predicates.get(1).value());
         Assertions.assertEquals("root.cucumberId", predicates.get(1).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(1).type());
         Assertions.assertEquals("typeCode", predicates.get(2).value());
-        Assertions.assertEquals("root.run.type.code", predicates.get(2).getName());
+        Assertions.assertEquals("root.typeCode", predicates.get(2).getName());
         Assertions.assertEquals(PredicateType.EQUAL, predicates.get(2).type());
     }
 
     @Test
-    void executedScenarioSpecificationShouldHaveGreaterThanPredicateOnTestDateTimeWhendurationParametersIsNotNull() {
+    void executedScenarioHistorySpecificationShouldHaveGreaterThanPredicateOnTestDateTimeWhendurationParametersIsNotNull() {
         CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<ExecutedScenario> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenario.class);
-        Root<ExecutedScenario> root = criteriaQuery.from(ExecutedScenario.class);
+        CriteriaQuery<ExecutedScenarioHistory> criteriaQuery = criteriaBuilder.createQuery(ExecutedScenarioHistory.class);
+        Root<ExecutedScenarioHistory> root = criteriaQuery.from(ExecutedScenarioHistory.class);
         criteriaBuilder = Mockito.spy(criteriaBuilder);
         prepareTest(criteriaBuilder, PredicateType.GREATER_THAN);
 
         LocalDateTime nowMockDateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(0), ZoneId.systemDefault());
         try (MockedStatic<LocalDateTime> localDateTimeMockStatic = Mockito.mockStatic(LocalDateTime.class)) {
             localDateTimeMockStatic.when(LocalDateTime::now).thenReturn(nowMockDateTime);
-            Specification<ExecutedScenario> problemSpecification = SpecificationUtil.toExecutedScenarioSpecification(1l, "cucumberId", null, null, null, null, Optional.ofNullable(Period.ofDays(1)));
-            PredicateWithInfo predicate = (PredicateWithInfo) problemSpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
+            Specification<ExecutedScenarioHistory> historySpecification = SpecificationUtil.toExecutedScenarioHistorySpecification(1l, "cucumberId", null, null, null, null, Optional.ofNullable(Period.ofDays(1)), false);
+            PredicateWithInfo predicate = (PredicateWithInfo) historySpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
             Assertions.assertEquals(PredicateType.AND, predicate.type());
             List<PredicateWithInfo> predicates = predicate.getElements();
             Assertions.assertEquals(3, predicates.size());
             Assertions.assertEquals(1l, predicates.get(0).value());
-            Assertions.assertEquals("root.run.execution.cycleDefinition.projectId", predicates.get(0).getName());
+            Assertions.assertEquals("root.projectId", predicates.get(0).getName());
             Assertions.assertEquals(PredicateType.EQUAL, predicates.get(0).type());
             Assertions.assertEquals("cucumberId", predicates.get(1).value());
             Assertions.assertEquals("root.cucumberId", predicates.get(1).getName());
             Assertions.assertEquals(PredicateType.EQUAL, predicates.get(1).type());
             Assertions.assertEquals(new Date(-24 * 3600000), predicates.get(2).value());
-            Assertions.assertEquals("root.run.execution.testDateTime", predicates.get(2).getName());
+            Assertions.assertEquals("root.testDateTime", predicates.get(2).getName());
             Assertions.assertEquals(PredicateType.GREATER_THAN, predicates.get(2).type());
         }
 
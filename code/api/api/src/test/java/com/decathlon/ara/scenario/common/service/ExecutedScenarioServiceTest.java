@@ -0,0 +1,171 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.scenario.common.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.ExecutedScenarioHistory;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.repository.ErrorRepository;
+import com.decathlon.ara.repository.ExecutedScenarioHistoryRepository;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO;
+import com.decathlon.ara.service.dto.request.ExecutedScenarioHistoryInputDTO;
+import com.decathlon.ara.service.exception.BadRequestException;
+import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.util.TestUtil;
+import com.decathlon.ara.util.builder.ExecutedScenarioBuilder;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutedScenarioServiceTest {
+
+    @Mock
+    private ExecutedScenarioRepository executedScenarioRepository;
+
+    @Mock
+    private ExecutedScenarioHistoryRepository executedScenarioHistoryRepository;
+
+    @Mock
+    private ErrorRepository errorRepository;
+
+    @Mock
+    private FunctionalityRepository functionalityRepository;
+
+    @Mock
+    private GenericMapper mapper;
+
+    @InjectMocks
+    private ExecutedScenarioService cut;
+
+    @Test
+    void findHistory_returnScenariosInHistoryOrder_withTheirTeams() throws BadRequestException {
+        // GIVEN
+        long projectId = 1;
+        ExecutedScenarioHistoryInputDTO input = new ExecutedScenarioHistoryInputDTO();
+        TestUtil.setField(input, "cucumberId", "a;scenario-a");
+        TestUtil.setField(input, "branch", "develop");
+        TestUtil.setField(input, "limit", Integer.valueOf(2));
+        ExecutedScenario first = new ExecutedScenarioBuilder().withId(Long.valueOf(12)).withName("Functionality 7: Scenario A").build();
+        ExecutedScenario second = new ExecutedScenarioBuilder().withId(Long.valueOf(11)).withName("Functionality 7: Scenario A").build();
+        ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO firstDto = dto(12, "Functionality 7: Scenario A");
+        ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO secondDto = dto(11, "Functionality 7: Scenario A");
+        when(executedScenarioHistoryRepository.findHistory(projectId, "a;scenario-a", "develop", null, null, null, Optional.empty(), Integer.valueOf(2)))
+                .thenReturn(Arrays.asList(history(12), history(13), history(11)));
+        // Scenario 13 was deleted in between: it is ignored
+        when(executedScenarioRepository.findAllById(Arrays.asList(Long.valueOf(12), Long.valueOf(13), Long.valueOf(11))))
+                .thenReturn(Arrays.asList(second, first));
+        when(mapper.mapCollection(Arrays.asList(first, second), ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO.class))
+                .thenReturn(Arrays.asList(firstDto, secondDto));
+        when(errorRepository.getErrorsProblems(anyList())).thenReturn(Collections.emptyMap());
+        when(functionalityRepository.getFunctionalityTeamIds(projectId, Set.of(Long.valueOf(7)))).thenReturn(Map.of(Long.valueOf(7), Long.valueOf(3)));
+
+        // WHEN
+        List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> result = cut.findHistory(projectId, input);
+
+        // THEN
+        assertThat(result).containsExactly(firstDto, secondDto);
+        assertThat(firstDto.getTeamIds()).isEqualTo(Set.of(Long.valueOf(3)));
+        assertThat(secondDto.getTeamIds()).isEqualTo(Set.of(Long.valueOf(3)));
+    }
+
+    @Test
+    void findHistory_doNotLoadScenarios_whenHistoryIsEmpty() throws BadRequestException {
+        // GIVEN
+        ExecutedScenarioHistoryInputDTO input = new ExecutedScenarioHistoryInputDTO();
+        TestUtil.setField(input, "cucumberId", "a;scenario-a");
+        when(executedScenarioHistoryRepository.findHistory(1, "a;scenario-a", null, null, null, null, Optional.empty(), null))
+                .thenReturn(Collections.emptyList());
+        when(mapper.mapCollection(Collections.<ExecutedScenario> emptyList(), ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO.class))
+                .thenReturn(Collections.emptyList());
+        when(errorRepository.getErrorsProblems(anyList())).thenReturn(Collections.emptyMap());
+
+        // WHEN
+        List<ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO> result = cut.findHistory(1, input);
+
+        // THEN
+        assertThat(result).isEmpty();
+        verify(executedScenarioRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void findHistory_throwBadRequestException_whenCucumberIdIsEmpty() {
+        // GIVEN
+        ExecutedScenarioHistoryInputDTO input = new ExecutedScenarioHistoryInputDTO();
+        TestUtil.setField(input, "cucumberId", "");
+
+        // WHEN
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> cut.findHistory(1, input));
+
+        // THEN
+        verify(executedScenarioHistoryRepository, never()).findHistory(eq(1L), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void appendToHistory_replacePreviousRowsOfTheExecution_afterFlushingIt() {
+        // GIVEN
+        Execution execution = new Execution();
+        execution.setId(Long.valueOf(42));
+
+        // WHEN
+        cut.appendToHistory(execution);
+
+        // THEN
+        InOrder inOrder = inOrder(executedScenarioHistoryRepository);
+        inOrder.verify(executedScenarioHistoryRepository).flush();
+        inOrder.verify(executedScenarioHistoryRepository).deleteByExecutionId(42);
+        inOrder.verify(executedScenarioHistoryRepository).appendExecution(42);
+    }
+
+    private static ExecutedScenarioHistory history(long executedScenarioId) {
+        ExecutedScenarioHistory history = new ExecutedScenarioHistory();
+        TestUtil.setField(history, "executedScenarioId", Long.valueOf(executedScenarioId));
+        return history;
+    }
+
+    private static ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO dto(long id, String name) {
+        ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO dto = new ExecutedScenarioWithRunAndTeamIdsAndExecutionAndErrorsAndProblemsDTO();
+        TestUtil.setField(dto, "id", Long.valueOf(id));
+        TestUtil.setField(dto, "name", name);
+        TestUtil.setField(dto, "errors", Collections.emptyList());
+        return dto;
+    }
+
+}
@@ -1,9 +1,11 @@
 package com.decathlon.ara.scenario.common.upload;
 
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Functionality;
 import com.decathlon.ara.domain.Scenario;
 import com.decathlon.ara.domain.Source;
 import com.decathlon.ara.repository.*;
+import com.decathlon.ara.util.builder.FunctionalityBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -40,6 +42,9 @@ class ScenarioUploaderTest {
     @Mock
     private CountryRepository countryRepository;
 
+    @Mock
+    private DataVersionService dataVersionService;
+
     @InjectMocks
     private ScenarioUploader cut;
 
@@ -182,4 +187,26 @@ class ScenarioUploaderTest {
         var ignoredScenariosNumber = coverageNumbers.get(true);
         assertThat(ignoredScenariosNumber).isEqualTo(2L);
     }
+
+    @Test
+    void assignCoverage_ShouldLinkFunctionalitiesAndMaintainFunctionalityErrors_WhenCalled() {
+        // GIVEN
+        Functionality functionality1 = new FunctionalityBuilder().withId(Long.valueOf(1)).build();
+        Functionality functionality2 = new FunctionalityBuilder().withId(Long.valueOf(2)).build();
+        Scenario covering = scenario("fr", "high");
+        covering.setName("Functionalities 1 & 2 & 2: Covering");
+        Scenario notCovering = scenario("fr", "high");
+        notCovering.setName("Functionality 3: Not covering");
+
+        // WHEN
+        ScenarioUploader.assignCoverage(List.of(functionality1, functionality2), List.of(covering, notCovering));
+
+        // THEN
+        assertThat(functionality1.getScenarios()).containsExactly(covering);
+        assertThat(functionality2.getScenarios()).containsExactly(covering);
+        assertThat(covering.getFunctionalityCount()).isEqualTo(2);
+        assertThat(covering.hasFunctionalityErrors()).isFalse();
+        assertThat(notCovering.getFunctionalityCount()).isZero();
+        assertThat(notCovering.hasFunctionalityErrors()).isTrue();
+    }
 }
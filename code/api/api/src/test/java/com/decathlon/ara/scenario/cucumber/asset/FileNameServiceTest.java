@@ -61,6 +61,28 @@ class FileNameServiceTest {
         assertThat(fileName).isEqualTo("2018.02.01-01h01m01.000-Name");
     }
 
+    @Test
+    void generateReportFileName_ShouldSuffixNamesWithANumber_WhenCalledTwiceWithTheSameNameDuringTheSameMillisecond() {
+        // GIVEN
+        when(dateService.now()).thenReturn(
+                timestamp(2018, 1, 1, 1, 1, 1),
+                timestamp(2018, 1, 1, 1, 1, 1),
+                timestamp(2018, 1, 1, 1, 1, 1),
+                timestamp(2018, 1, 1, 1, 1, 2));
+
+        // WHEN
+        final String first = cut.generateReportFileName("http-log", "html");
+        final String second = cut.generateReportFileName("http-log", "html");
+        final String other = cut.generateReportFileName("Name", "png");
+        final String later = cut.generateReportFileName("http-log", "html");
+
+        // THEN
+        assertThat(first).isEqualTo("2018.02.01-01h01m01.000-http-log.html");
+        assertThat(second).isEqualTo("2018.02.01-01h01m01.000-http-log-2.html");
+        assertThat(other).isEqualTo("2018.02.01-01h01m01.000-Name.png");
+        assertThat(later).isEqualTo("2018.02.01-01h01m02.000-http-log.html");
+    }
+
     @Test
     void generateReportFileName_ShouldTruncateName_WhenCalledWithALargeScenarioName() {
         // GIVEN
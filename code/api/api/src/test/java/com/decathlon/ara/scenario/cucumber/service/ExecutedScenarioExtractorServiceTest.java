@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.assertj.core.api.AutoCloseableSoftAssertions;
 import org.junit.jupiter.api.Disabled;
@@ -33,8 +34,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
 
+import com.decathlon.ara.ci.service.IndexingMetrics;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.scenario.cucumber.asset.AssetService;
@@ -42,6 +46,7 @@ import com.decathlon.ara.scenario.cucumber.bean.Feature;
 import com.decathlon.ara.scenario.cucumber.util.CucumberReportUtil;
 import com.decathlon.ara.scenario.cucumber.util.StepDefinitionUtil;
 import com.decathlon.ara.util.TestUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 @Disabled
@@ -55,6 +60,12 @@ class ExecutedScenarioExtractorServiceTest {
     @Mock
     private AssetService assetService;
 
+    @Spy
+    private IndexingMetrics indexingMetrics = new IndexingMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private Executor assetExecutor = new SyncTaskExecutor();
+
     @InjectMocks
     private ExecutedScenarioExtractorService cut;
 
@@ -43,6 +43,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
@@ -57,7 +58,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.core.task.SyncTaskExecutor;
 
+import com.decathlon.ara.ci.service.IndexingMetrics;
 import com.decathlon.ara.domain.Error;
 import com.decathlon.ara.domain.ExecutedScenario;
 import com.decathlon.ara.domain.Run;
@@ -85,6 +88,7 @@ import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class PostmanServiceTest {
@@ -103,6 +107,12 @@ class PostmanServiceTest {
     @Mock
     private AssetService assetService;
 
+    @Spy
+    private IndexingMetrics indexingMetrics = new IndexingMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private Executor assetExecutor = new SyncTaskExecutor();
+
     @Spy
     @InjectMocks
     private PostmanService cut;
@@ -1,10 +1,20 @@
 package com.decathlon.ara.scheduler.purge;
 
-import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.domain.ProjectPurgeProgress;
+import com.decathlon.ara.purge.bean.PurgeProgress;
+import com.decathlon.ara.purge.service.ExecutionArchiveService;
+import com.decathlon.ara.purge.service.PurgeBatchService;
 import com.decathlon.ara.purge.service.PurgeService;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
 import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProjectPurgeProgressRepository;
+import com.decathlon.ara.repository.RunRepository;
+import com.decathlon.ara.repository.custom.util.HistoryPartitionManager;
+import com.decathlon.ara.service.DistinctValueService;
 import com.decathlon.ara.service.ProjectService;
 import com.decathlon.ara.service.SettingService;
+import com.decathlon.ara.service.StabilityService;
 import com.decathlon.ara.service.dto.project.ProjectDTO;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.support.Settings;
@@ -15,7 +25,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -32,12 +44,39 @@ class PurgeServiceTest {
     @Mock
     private ExecutionRepository executionRepository;
 
+    @Mock
+    private RunRepository runRepository;
+
+    @Mock
+    private ExecutedScenarioRepository executedScenarioRepository;
+
+    @Mock
+    private PurgeBatchService purgeBatchService;
+
+    @Mock
+    private ExecutionArchiveService executionArchiveService;
+
+    @Mock
+    private HistoryPartitionManager historyPartitionManager;
+
     @Mock
     private SettingService settingService;
 
     @Mock
     private DateService dateService;
 
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Mock
+    private DistinctValueService distinctValueService;
+
+    @Mock
+    private StabilityService stabilityService;
+
+    @Mock
+    private ProjectPurgeProgressRepository projectPurgeProgressRepository;
+
     @InjectMocks
     private PurgeService purgeService;
 
@@ -51,7 +90,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(purgeBatchService, never()).deleteExecution(anyLong(), anyLong());
     }
 
     @Test
@@ -67,7 +106,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(purgeBatchService, never()).deleteExecution(anyLong(), anyLong());
     }
 
     @Test
@@ -83,7 +122,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(purgeBatchService, never()).deleteExecution(anyLong(), anyLong());
     }
 
     @Test
@@ -99,7 +138,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(purgeBatchService, never()).deleteExecution(anyLong(), anyLong());
     }
 
     @Test
@@ -117,7 +156,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(purgeBatchService, never()).deleteExecution(anyLong(), anyLong());
     }
 
     @Test
@@ -136,7 +175,7 @@ class PurgeServiceTest {
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        verify(executionRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(purgeBatchService, never()).deleteExecution(anyLong(), anyLong());
     }
 
     @Test
@@ -148,29 +187,248 @@ class PurgeServiceTest {
         var type = "anyDurationType";
         var startDate = mock(Date.class);
 
-        Execution execution1 = mock(Execution.class);
         Long executionId1 = 1L;
-        Execution execution2 = mock(Execution.class);
         Long executionId2 = 2L;
-        Execution execution3 = mock(Execution.class);
         Long executionId3 = 3L;
-        List<Execution> executionsToDelete = List.of(execution1, execution2, execution3);
+        List<Long> runIds1 = List.of(10L);
+        List<Long> executedScenarioIds1 = List.of(100L, 101L);
+
+        // When
+        when(projectService.toId(projectCode)).thenReturn(projectId);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
+        when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
+        when(executionRepository.countByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredFalse(projectId, startDate)).thenReturn(3L);
+        when(executionRepository.findIdsToPurge(eq(projectId), eq(startDate), any(Pageable.class)))
+                .thenReturn(List.of(executionId1, executionId2, executionId3), List.of());
+        when(runRepository.findIdsByExecutionId(anyLong())).thenReturn(List.of());
+        when(runRepository.findIdsByExecutionId(executionId1)).thenReturn(runIds1);
+        when(executedScenarioRepository.findIdsByRunIdIn(eq(runIds1), any(Pageable.class))).thenReturn(executedScenarioIds1, List.of());
+        when(purgeBatchService.deleteExecutedScenarios(projectId, executionId1, executedScenarioIds1)).thenReturn(5);
+        when(purgeBatchService.deleteExecution(anyLong(), anyLong())).thenReturn(2);
+
+        // Then
+        purgeService.purgeExecutionsByProjectCode(projectCode);
+        verify(purgeBatchService).deleteExecutedScenarios(projectId, executionId1, executedScenarioIds1);
+        verify(distinctValueService).deleteUnusedValues(projectId);
+        verify(stabilityService).deleteStaleStabilities(projectId, startDate);
+        var executionIdArgumentCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(purgeBatchService, times(3)).deleteExecution(anyLong(), executionIdArgumentCaptor.capture());
+        assertThat(executionIdArgumentCaptor.getAllValues()).containsExactly(executionId1, executionId2, executionId3);
+        assertThat(lastSavedProgress()).satisfies(progress -> {
+            assertThat(progress.getStatus()).isEqualTo(PurgeProgress.Status.DONE);
+            assertThat(progress.getExecutionsToDelete()).isEqualTo(3);
+            assertThat(progress.getDeletedExecutions()).isEqualTo(3);
+            assertThat(progress.getDeletedRows()).isEqualTo(11);
+        });
+    }
+
+    @Test
+    void purgeExecutionsByProjectCode_markProgressAsFailed_whenADeletionFails() throws NotFoundException {
+        // Given
+        var projectCode = "project-code";
+        var projectId = 1L;
+        var value = "3";
+        var type = "anyDurationType";
+        var startDate = mock(Date.class);
+
+        // When
+        when(projectService.toId(projectCode)).thenReturn(projectId);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
+        when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
+        when(executionRepository.countByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredFalse(projectId, startDate)).thenReturn(2L);
+        when(executionRepository.findIdsToPurge(eq(projectId), eq(startDate), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(runRepository.findIdsByExecutionId(anyLong())).thenReturn(List.of());
+        when(purgeBatchService.deleteExecution(projectId, 1L)).thenReturn(1);
+        when(purgeBatchService.deleteExecution(projectId, 2L)).thenThrow(new IllegalStateException("lock timeout"));
+
+        // Then
+        purgeService.purgeExecutionsByProjectCode(projectCode);
+        assertThat(lastSavedProgress()).satisfies(progress -> {
+            assertThat(progress.getStatus()).isEqualTo(PurgeProgress.Status.FAILED);
+            assertThat(progress.getDeletedExecutions()).isEqualTo(1);
+            assertThat(progress.getEndDateTime()).isNotNull();
+        });
+    }
+
+    @Test
+    void purgeExecutionsByProjectCode_stop_whenAPageOfExecutionsDeletesNothing() throws NotFoundException {
+        // Given
+        var projectCode = "project-code";
+        var projectId = 1L;
+        var value = "3";
+        var type = "anyDurationType";
+        var startDate = mock(Date.class);
+
+        // When
+        when(projectService.toId(projectCode)).thenReturn(projectId);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
+        when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
+        when(executionRepository.countByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredFalse(projectId, startDate)).thenReturn(1L);
+        when(executionRepository.findIdsToPurge(eq(projectId), eq(startDate), any(Pageable.class))).thenReturn(List.of(1L));
+        when(runRepository.findIdsByExecutionId(1L)).thenReturn(List.of());
+        when(purgeBatchService.deleteExecution(projectId, 1L)).thenReturn(0);
+
+        // Then
+        purgeService.purgeExecutionsByProjectCode(projectCode);
+        verify(purgeBatchService).deleteExecution(projectId, 1L);
+        assertThat(lastSavedProgress()).satisfies(progress ->
+                assertThat(progress.getStatus()).isEqualTo(PurgeProgress.Status.FAILED));
+    }
+
+    @Test
+    void purgeExecutionsByProjectCode_keepExecution_whenItCannotBeArchived() throws NotFoundException, IOException {
+        // Given
+        var projectCode = "project-code";
+        var projectId = 1L;
+        var value = "3";
+        var type = "anyDurationType";
+        var startDate = mock(Date.class);
+
+        // When
+        when(projectService.toId(projectCode)).thenReturn(projectId);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
+        when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
+        when(executionRepository.countByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredFalse(projectId, startDate)).thenReturn(1L);
+        when(executionRepository.findIdsToPurge(eq(projectId), eq(startDate), any(Pageable.class))).thenReturn(List.of(1L));
+        when(executionArchiveService.isEnabled()).thenReturn(true);
+        doThrow(new IOException("disk full")).when(executionArchiveService).archive(1L);
+
+        // Then
+        purgeService.purgeExecutionsByProjectCode(projectCode);
+        verify(purgeBatchService, never()).deleteExecution(anyLong(), anyLong());
+        verify(purgeBatchService, never()).deleteExecutedScenarios(anyLong(), anyLong(), anyList());
+        assertThat(lastSavedProgress()).satisfies(progress -> {
+            assertThat(progress.getStatus()).isEqualTo(PurgeProgress.Status.FAILED);
+            assertThat(progress.getDeletedExecutions()).isZero();
+        });
+    }
+
+    @Test
+    void purgeExecutionsByProjectCode_prepareThenDropHistoryPartitions_whenHistoryIsPartitioned() throws NotFoundException {
+        // Given
+        var projectCode = "project-code";
+        var projectId = 1L;
+        var value = "3";
+        var type = "anyDurationType";
+        var startDate = mock(Date.class);
+
+        // When
+        when(projectService.toId(projectCode)).thenReturn(projectId);
+        when(historyPartitionManager.isPartitioned()).thenReturn(true);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
+        when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
+        when(executionRepository.countByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredFalse(projectId, startDate)).thenReturn(0L);
+        when(executionRepository.findIdsToPurge(eq(projectId), eq(startDate), any(Pageable.class))).thenReturn(List.of());
+
+        // Then
+        purgeService.purgeExecutionsByProjectCode(projectCode);
+        var inOrder = inOrder(historyPartitionManager);
+        inOrder.verify(historyPartitionManager).preparePartitions(projectId);
+        inOrder.verify(historyPartitionManager).dropPartitionsBefore(projectId, startDate);
+    }
+
+    @Test
+    void purgeExecutionsByProjectCode_keepHistoryPartitions_whenRestoredExecutionsAreInThem() throws NotFoundException {
+        // Given
+        var projectCode = "project-code";
+        var projectId = 1L;
+        var value = "3";
+        var type = "anyDurationType";
+        var startDate = mock(Date.class);
+
+        // When
+        when(projectService.toId(projectCode)).thenReturn(projectId);
+        when(historyPartitionManager.isPartitioned()).thenReturn(true);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
+        when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
+        when(executionRepository.existsByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredTrue(projectId, startDate)).thenReturn(true);
+        when(executionRepository.findIdsToPurge(eq(projectId), eq(startDate), any(Pageable.class))).thenReturn(List.of());
+
+        // Then
+        purgeService.purgeExecutionsByProjectCode(projectCode);
+        verify(historyPartitionManager).preparePartitions(projectId);
+        verify(historyPartitionManager, never()).dropPartitionsBefore(anyLong(), any(Date.class));
+    }
+
+    @Test
+    void purgeExecutionsByProjectCode_dropHistoryPartitions_evenWhenTheyCannotBePrepared() throws NotFoundException {
+        // Given
+        var projectCode = "project-code";
+        var projectId = 1L;
+        var value = "3";
+        var type = "anyDurationType";
+        var startDate = mock(Date.class);
 
         // When
         when(projectService.toId(projectCode)).thenReturn(projectId);
+        when(historyPartitionManager.isPartitioned()).thenReturn(true);
+        doThrow(new IllegalStateException("lock timeout")).when(historyPartitionManager).preparePartitions(projectId);
         when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
         when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
         when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
-        when(executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId, startDate)).thenReturn(executionsToDelete);
-        when(execution1.getId()).thenReturn(executionId1);
-        when(execution2.getId()).thenReturn(executionId2);
-        when(execution3.getId()).thenReturn(executionId3);
+        when(executionRepository.findIdsToPurge(eq(projectId), eq(startDate), any(Pageable.class))).thenReturn(List.of());
 
         // Then
         purgeService.purgeExecutionsByProjectCode(projectCode);
-        var executionIdsToDeleteArgumentCaptor = ArgumentCaptor.forClass(List.class);
-        verify(executionRepository).deleteAllByIdInBatch(executionIdsToDeleteArgumentCaptor.capture());
-        assertThat(executionIdsToDeleteArgumentCaptor.getValue()).containsExactlyInAnyOrder(executionId1, executionId2, executionId3);
+        verify(historyPartitionManager).dropPartitionsBefore(projectId, startDate);
+    }
+
+    @Test
+    void purgeExecutionsByProjectCode_purgeRowByRow_whenHistoryPartitioningCannotBeChecked() throws NotFoundException {
+        // Given
+        var projectCode = "project-code";
+        var projectId = 1L;
+        var value = "3";
+        var type = "anyDurationType";
+        var startDate = mock(Date.class);
+
+        // When
+        when(projectService.toId(projectCode)).thenReturn(projectId);
+        when(historyPartitionManager.isPartitioned()).thenThrow(new IllegalStateException("connection refused"));
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value);
+        when(settingService.get(projectId, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type);
+        when(dateService.getTodayDateMinusPeriod(3, type)).thenReturn(Optional.of(startDate));
+        when(executionRepository.findIdsToPurge(eq(projectId), eq(startDate), any(Pageable.class))).thenReturn(List.of());
+
+        // Then
+        purgeService.purgeExecutionsByProjectCode(projectCode);
+        verify(historyPartitionManager, never()).dropPartitionsBefore(anyLong(), any(Date.class));
+    }
+
+    @Test
+    void prepareHistoryPartitionsOfAllProjects_prepareEachProject_evenWhenOneFails() {
+        // Given
+        var project1 = mock(ProjectDTO.class);
+        var project2 = mock(ProjectDTO.class);
+
+        // When
+        when(historyPartitionManager.isPartitioned()).thenReturn(true);
+        when(projectService.findAll()).thenReturn(List.of(project1, project2));
+        when(project1.getId()).thenReturn(1L);
+        when(project1.getCode()).thenReturn("project-code-1");
+        when(project2.getId()).thenReturn(2L);
+        doThrow(new IllegalStateException("lock timeout")).when(historyPartitionManager).preparePartitions(1L);
+
+        // Then
+        purgeService.prepareHistoryPartitionsOfAllProjects();
+        verify(historyPartitionManager).preparePartitions(2L);
+    }
+
+    @Test
+    void prepareHistoryPartitionsOfAllProjects_doNothing_whenHistoryIsNotPartitioned() {
+        // When
+        when(historyPartitionManager.isPartitioned()).thenReturn(false);
+
+        // Then
+        purgeService.prepareHistoryPartitionsOfAllProjects();
+        verify(historyPartitionManager, never()).preparePartitions(anyLong());
+        verify(projectService, never()).findAll();
     }
 
     @Test
@@ -184,9 +442,7 @@ class PurgeServiceTest {
         var value1 = "1";
         var type1 = "anyDurationType1";
         var startDate1 = mock(Date.class);
-        Execution executionToDelete11 = mock(Execution.class);
         Long executionId11 = 11L;
-        List<Execution> executionsToDelete1 = List.of(executionToDelete11);
 
         // Project 2
         var project2 = mock(ProjectDTO.class);
@@ -195,11 +451,8 @@ class PurgeServiceTest {
         var value2 = "2";
         var type2 = "anyDurationType2";
         var startDate2 = mock(Date.class);
-        Execution executionToDelete21 = mock(Execution.class);
-        Execution executionToDelete22 = mock(Execution.class);
         Long executionId21 = 21L;
         Long executionId22 = 22L;
-        List<Execution> executionsToDelete2 = List.of(executionToDelete21, executionToDelete22);
 
         // Project 3
         var project3 = mock(ProjectDTO.class);
@@ -208,50 +461,65 @@ class PurgeServiceTest {
         var value3 = "3";
         var type3 = "anyDurationType3";
         var startDate3 = mock(Date.class);
-        Execution executionToDelete31 = mock(Execution.class);
-        Execution executionToDelete32 = mock(Execution.class);
-        Execution executionToDelete33 = mock(Execution.class);
         Long executionId31 = 31L;
         Long executionId32 = 32L;
         Long executionId33 = 33L;
-        List<Execution> executionsToDelete3 = List.of(executionToDelete31, executionToDelete32, executionToDelete33);
 
         // When
         when(projectService.findAll()).thenReturn(List.of(project1, project2, project3));
+        when(runRepository.findIdsByExecutionId(anyLong())).thenReturn(List.of());
 
         when(project1.getId()).thenReturn(projectId1);
         when(project1.getCode()).thenReturn(projectCode1);
         when(settingService.get(projectId1, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value1);
         when(settingService.get(projectId1, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type1);
         when(dateService.getTodayDateMinusPeriod(1, type1)).thenReturn(Optional.of(startDate1));
-        when(executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId1, startDate1)).thenReturn(executionsToDelete1);
-        when(executionToDelete11.getId()).thenReturn(executionId11);
+        when(executionRepository.findIdsToPurge(eq(projectId1), eq(startDate1), any(Pageable.class))).thenReturn(List.of(executionId11), List.of());
 
         when(project2.getId()).thenReturn(projectId2);
         when(project2.getCode()).thenReturn(projectCode2);
         when(settingService.get(projectId2, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value2);
         when(settingService.get(projectId2, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type2);
         when(dateService.getTodayDateMinusPeriod(2, type2)).thenReturn(Optional.of(startDate2));
-        when(executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId2, startDate2)).thenReturn(executionsToDelete2);
-        when(executionToDelete21.getId()).thenReturn(executionId21);
-        when(executionToDelete22.getId()).thenReturn(executionId22);
+        when(executionRepository.findIdsToPurge(eq(projectId2), eq(startDate2), any(Pageable.class))).thenReturn(List.of(executionId21, executionId22), List.of());
 
         when(project3.getId()).thenReturn(projectId3);
         when(project3.getCode()).thenReturn(projectCode3);
         when(settingService.get(projectId3, Settings.EXECUTION_PURGE_DURATION_VALUE)).thenReturn(value3);
         when(settingService.get(projectId3, Settings.EXECUTION_PURGE_DURATION_TYPE)).thenReturn(type3);
         when(dateService.getTodayDateMinusPeriod(3, type3)).thenReturn(Optional.of(startDate3));
-        when(executionRepository.findByCycleDefinitionProjectIdAndTestDateTimeBefore(projectId3, startDate3)).thenReturn(executionsToDelete3);
-        when(executionToDelete31.getId()).thenReturn(executionId31);
-        when(executionToDelete32.getId()).thenReturn(executionId32);
-        when(executionToDelete33.getId()).thenReturn(executionId33);
+        when(executionRepository.findIdsToPurge(eq(projectId3), eq(startDate3), any(Pageable.class))).thenReturn(List.of(executionId31, executionId32, executionId33), List.of());
 
         // Then
         purgeService.purgeAllProjects();
-        var executionIdsToDeleteArgumentCaptor = ArgumentCaptor.forClass(List.class);
-        verify(executionRepository, times(3)).deleteAllByIdInBatch(executionIdsToDeleteArgumentCaptor.capture());
-        assertThat(executionIdsToDeleteArgumentCaptor.getAllValues())
-                .hasSize(3)
-                .containsExactlyInAnyOrder(List.of(executionId11), List.of(executionId21, executionId22), List.of(executionId31, executionId32, executionId33));
+        var executionIdArgumentCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(purgeBatchService, times(6)).deleteExecution(anyLong(), executionIdArgumentCaptor.capture());
+        assertThat(executionIdArgumentCaptor.getAllValues())
+                .containsExactly(executionId11, executionId21, executionId22, executionId31, executionId32, executionId33);
+    }
+
+    @Test
+    void getProgress_readTheSavedProgress_whateverTheNodeRunningThePurge() {
+        // Given
+        var startDateTime = new Date(1000);
+        when(projectPurgeProgressRepository.findById(1L))
+                .thenReturn(Optional.of(new ProjectPurgeProgress(1L, "RUNNING", 10, 4, 400, startDateTime, null)));
+
+        // Then
+        assertThat(purgeService.getProgress(1L)).hasValueSatisfying(progress -> {
+            assertThat(progress.getProjectId()).isEqualTo(1);
+            assertThat(progress.getStatus()).isEqualTo(PurgeProgress.Status.RUNNING);
+            assertThat(progress.getExecutionsToDelete()).isEqualTo(10);
+            assertThat(progress.getDeletedExecutions()).isEqualTo(4);
+            assertThat(progress.getDeletedRows()).isEqualTo(400);
+            assertThat(progress.getStartDateTime()).isEqualTo(startDateTime);
+            assertThat(progress.getEndDateTime()).isNull();
+        });
+    }
+
+    private PurgeProgress lastSavedProgress() {
+        var savedProgress = ArgumentCaptor.forClass(ProjectPurgeProgress.class);
+        verify(projectPurgeProgressRepository, atLeastOnce()).save(savedProgress.capture());
+        return new PurgeProgress(savedProgress.getValue());
     }
 }
@@ -20,14 +20,17 @@ package com.decathlon.ara.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -44,6 +47,7 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationContext;
 
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.ci.util.FetchException;
 import com.decathlon.ara.defect.DefectAdapter;
 import com.decathlon.ara.defect.bean.Defect;
@@ -52,7 +56,7 @@ import com.decathlon.ara.domain.Project;
 import com.decathlon.ara.domain.enumeration.DefectExistence;
 import com.decathlon.ara.domain.enumeration.ProblemStatus;
 import com.decathlon.ara.repository.ProblemRepository;
-import com.decathlon.ara.repository.ProjectRepository;
+import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.util.DateService;
 import com.decathlon.ara.util.TestUtil;
 
@@ -65,9 +69,6 @@ class DefectServiceTest {
     @Mock
     private SettingService settingService;
 
-    @Mock
-    private ProjectRepository projectRepository;
-
     @Mock
     private ApplicationContext applicationContext;
 
@@ -77,6 +78,12 @@ class DefectServiceTest {
     @Mock
     private DateService dateService;
 
+    @Mock
+    private TransactionAppenderUtil transactionAppenderUtil;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
     @Spy
     @InjectMocks
     private DefectService cut;
@@ -150,7 +157,7 @@ class DefectServiceTest {
     }
 
     @Test
-    void updateStatuses_should_not_crash_when_full_index_throws_exception() throws FetchException {
+    void updateStatuses_should_throw_and_keep_indexing_dates_when_full_index_throws_exception() throws FetchException {
         // GIVEN
         final Long projectId = Long.valueOf(12);
         Project project = project(projectId);
@@ -160,11 +167,15 @@ class DefectServiceTest {
         doThrow(new FetchException("any")).when(cut).fullIndex(project, defectAdapter);
 
         // WHEN
-        Assertions.assertDoesNotThrow(() -> cut.updateStatuses(project, defectAdapter));
+        Assertions.assertThrows(FetchException.class, () -> cut.updateStatuses(project, defectAdapter));
+
+        // THEN
+        assertThat(cut.lastFullIndexDates).doesNotContainKey(projectId);
+        assertThat(cut.lastIncrementalIndexDates).doesNotContainKey(projectId);
     }
 
     @Test
-    void updateStatuses_should_not_crash_when_incremental_index_throws_exception() throws FetchException {
+    void updateStatuses_should_throw_and_keep_indexing_dates_when_incremental_index_throws_exception() throws FetchException {
         // GIVEN
         final Long projectId = Long.valueOf(12);
         Project project = project(projectId);
@@ -176,7 +187,10 @@ class DefectServiceTest {
         doThrow(new FetchException("any")).when(cut).incrementalIndex(project, defectAdapter, lastIncrementalIndexDate);
 
         // WHEN
-        Assertions.assertDoesNotThrow(() -> cut.updateStatuses(project, defectAdapter));
+        Assertions.assertThrows(FetchException.class, () -> cut.updateStatuses(project, defectAdapter));
+
+        // THEN
+        assertThat(cut.lastIncrementalIndexDates.get(projectId)).isSameAs(lastIncrementalIndexDate);
     }
 
     @Test
@@ -477,6 +491,87 @@ class DefectServiceTest {
         assertThat(problemListArgument.getValue()).isEmpty();
     }
 
+    @Test
+    void incrementalIndex_should_update_all_problems_of_a_changed_defect() throws FetchException {
+        // GIVEN
+        final long aProjectId = 42;
+        Project project = project(Long.valueOf(aProjectId));
+        Date since = new Date();
+        final Problem firstProblem = problem("shared", DefectExistence.EXISTS, ProblemStatus.OPEN, null);
+        final Problem secondProblem = problem("shared", DefectExistence.EXISTS, ProblemStatus.OPEN, null);
+        when(problemRepository.findAllByProjectIdAndDefectIdIsNotEmpty(aProjectId)).thenReturn(Arrays.asList(firstProblem, secondProblem));
+        Date closeDate = new Date();
+        when(defectAdapter.getChangedDefects(eq(aProjectId), same(since))).thenReturn(Collections.singletonList(
+                new Defect("shared", ProblemStatus.CLOSED, closeDate)));
+        doReturn(null).when(problemRepository).saveAll(problemListArgument.capture());
+
+        // WHEN
+        cut.incrementalIndex(project, defectAdapter, since);
+
+        // THEN
+        assertThat(problemListArgument.getValue()).containsExactlyInAnyOrder(firstProblem, secondProblem);
+        assertThat(secondProblem.getStatus()).isEqualTo(ProblemStatus.CLOSED);
+        assertThat(secondProblem.getClosingDateTime()).isEqualTo(closeDate);
+    }
+
+    @Test
+    void updateDefectAssignations_should_bulk_update_problems_grouped_by_new_state_when_many_problems_changed() {
+        // GIVEN
+        TestUtil.setField(cut, "bulkUpdateThreshold", Integer.valueOf(3));
+        Date closeDate = new Date();
+        Problem closedProblem1 = problem(1, "1", DefectExistence.EXISTS, ProblemStatus.OPEN, null);
+        Problem closedProblem2 = problem(2, "2", DefectExistence.UNKNOWN, ProblemStatus.OPEN, null);
+        Problem nonexistentProblem = problem(3, "3", DefectExistence.EXISTS, ProblemStatus.CLOSED, new Date(1000));
+        Problem untouchedProblem = problem(4, "4", DefectExistence.EXISTS, ProblemStatus.OPEN, null);
+        List<Problem> problems = Arrays.asList(closedProblem1, closedProblem2, nonexistentProblem, untouchedProblem);
+        List<Defect> statuses = Arrays.asList(
+                new Defect("1", ProblemStatus.CLOSED, closeDate),
+                new Defect("2", ProblemStatus.CLOSED, closeDate),
+                new Defect("4", ProblemStatus.OPEN, null));
+
+        // WHEN
+        cut.updateDefectAssignations(problems, statuses);
+
+        // THEN
+        verify(problemRepository).updateDefectStates(Arrays.asList(Long.valueOf(1), Long.valueOf(2)),
+                DefectExistence.EXISTS, ProblemStatus.CLOSED, closeDate);
+        verify(problemRepository).updateDefectStates(Collections.singletonList(Long.valueOf(3)),
+                DefectExistence.NONEXISTENT, ProblemStatus.OPEN, null);
+        verify(problemRepository, never()).saveAll(any());
+        assertThat(closedProblem2.getDefectExistence()).isEqualTo(DefectExistence.EXISTS);
+        assertThat(closedProblem2.getStatus()).isEqualTo(ProblemStatus.CLOSED);
+        assertThat(closedProblem2.getClosingDateTime()).isEqualTo(closeDate);
+        assertThat(nonexistentProblem.getDefectExistence()).isEqualTo(DefectExistence.NONEXISTENT);
+        assertThat(nonexistentProblem.getStatus()).isEqualTo(ProblemStatus.OPEN);
+        assertThat(nonexistentProblem.getClosingDateTime()).isNull();
+    }
+
+    @Test
+    void updateDefectAssignations_should_bulk_update_problems_by_chunks() {
+        // GIVEN
+        TestUtil.setField(cut, "bulkUpdateThreshold", Integer.valueOf(1));
+        List<Problem> problems = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            problems.add(problem(i, String.valueOf(i), DefectExistence.EXISTS, ProblemStatus.CLOSED, new Date()));
+        }
+
+        // WHEN
+        cut.updateDefectAssignations(problems, Collections.emptyList());
+
+        // THEN
+        verify(problemRepository, times(3)).updateDefectStates(any(), eq(DefectExistence.NONEXISTENT), eq(ProblemStatus.OPEN), isNull());
+    }
+
+    @Test
+    void refreshDefectExistences_should_set_all_defect_existences_of_the_project_to_unknown() {
+        // WHEN
+        cut.refreshDefectExistences(42);
+
+        // THEN
+        verify(problemRepository).updateDefectExistenceByProjectId(42, DefectExistence.UNKNOWN);
+        verify(transactionAppenderUtil).doAfterCommit(any());
+    }
+
     @Test
     void diffHours_should_work() {
         // GIVEN
@@ -587,6 +682,12 @@ class DefectServiceTest {
         return project;
     }
 
+    private Problem problem(long id, String defectId, DefectExistence defectExistence, ProblemStatus status, Date closingDateTime) {
+        Problem problem = problem(defectId, defectExistence, status, closingDateTime);
+        TestUtil.setField(problem, "id", Long.valueOf(id));
+        return problem;
+    }
+
     private Problem problem(String defectId, DefectExistence defectExistence, ProblemStatus status, Date closingDateTime) {
         Problem problem = new Problem();
         problem.setDefectId(defectId);
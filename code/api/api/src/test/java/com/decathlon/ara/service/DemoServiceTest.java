@@ -17,6 +17,7 @@
 
 package com.decathlon.ara.service;
 
+import com.decathlon.ara.cache.CacheInvalidationService;
 import com.decathlon.ara.loader.*;
 import com.decathlon.ara.repository.ProjectRepository;
 import com.decathlon.ara.service.dto.project.ProjectDTO;
@@ -61,6 +62,9 @@ class DemoServiceTest {
     @Mock
     private DemoSettingsLoader demoSettingsLoader;
 
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
     @InjectMocks
     private DemoService cut;
 
@@ -0,0 +1,225 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.DistinctValue;
+import com.decathlon.ara.domain.enumeration.DistinctProperty;
+import com.decathlon.ara.domain.projection.ValueCount;
+import com.decathlon.ara.repository.CountryRepository;
+import com.decathlon.ara.repository.DistinctValueRepository;
+import com.decathlon.ara.repository.TypeRepository;
+import com.decathlon.ara.service.dto.country.CountryDTO;
+import com.decathlon.ara.service.dto.response.DistinctStatisticsDTO;
+import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.service.support.DistinctValueCounts;
+
+@ExtendWith(MockitoExtension.class)
+class DistinctValueServiceTest {
+
+    @Mock
+    private DistinctValueRepository distinctValueRepository;
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private TypeRepository typeRepository;
+
+    @Mock
+    private GenericMapper mapper;
+
+    @InjectMocks
+    private DistinctValueService cut;
+
+    @Test
+    void record_should_increment_known_values_and_insert_new_ones() {
+        // GIVEN
+        Date seen = new Date(42);
+        DistinctValueCounts counts = new DistinctValueCounts();
+        counts.add(DistinctProperty.STEPS, "known", 2);
+        counts.add(DistinctProperty.STEPS, "new", 3);
+        when(distinctValueRepository.increment(1, DistinctProperty.STEPS, "known", 2, seen)).thenReturn(1);
+        when(distinctValueRepository.increment(1, DistinctProperty.STEPS, "new", 3, seen)).thenReturn(0);
+
+        // WHEN
+        cut.record(1, counts, seen);
+
+        // THEN
+        ArgumentCaptor<DistinctValue> inserted = ArgumentCaptor.forClass(DistinctValue.class);
+        verify(distinctValueRepository).saveAndFlush(inserted.capture());
+        assertThat(inserted.getValue().getProjectId()).isEqualTo(1);
+        assertThat(inserted.getValue().getProperty()).isEqualTo(DistinctProperty.STEPS);
+        assertThat(inserted.getValue().getValue()).isEqualTo("new");
+        assertThat(inserted.getValue().getOccurrenceCount()).isEqualTo(3);
+        assertThat(inserted.getValue().getLastSeenDateTime()).isEqualTo(seen);
+        assertThat(inserted.getValue().getValueHash()).isEqualTo(DistinctValue.hash("new"));
+    }
+
+    @Test
+    void record_should_increment_a_new_value_inserted_meanwhile_by_another_node() {
+        // GIVEN
+        Date seen = new Date(42);
+        DistinctValueCounts counts = new DistinctValueCounts();
+        counts.add(DistinctProperty.STEPS, "concurrent", 2);
+        when(distinctValueRepository.increment(1, DistinctProperty.STEPS, "concurrent", 2, seen)).thenReturn(0, 1);
+        when(distinctValueRepository.saveAndFlush(any(DistinctValue.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // WHEN
+        cut.record(1, counts, seen);
+
+        // THEN
+        verify(distinctValueRepository, times(2)).increment(1, DistinctProperty.STEPS, "concurrent", 2, seen);
+        verify(distinctValueRepository).saveAndFlush(any(DistinctValue.class));
+    }
+
+    @Test
+    void record_should_give_up_after_too_many_concurrent_insertions() {
+        // GIVEN
+        Date seen = new Date(42);
+        DistinctValueCounts counts = new DistinctValueCounts();
+        counts.add(DistinctProperty.STEPS, "concurrent", 2);
+        when(distinctValueRepository.increment(1, DistinctProperty.STEPS, "concurrent", 2, seen)).thenReturn(0);
+        when(distinctValueRepository.saveAndFlush(any(DistinctValue.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // WHEN
+        assertThatThrownBy(() -> cut.record(1, counts, seen)).isInstanceOf(DataIntegrityViolationException.class);
+
+        // THEN
+        verify(distinctValueRepository, times(DistinctValueService.MAX_ADD_ATTEMPTS)).saveAndFlush(any(DistinctValue.class));
+    }
+
+    @Test
+    void hash_should_be_the_lowercase_hexadecimal_sha256_of_the_utf8_value() {
+        assertThat(DistinctValue.hash("abc")).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    void record_should_decrement_values_removed_from_a_reindexed_execution_and_never_insert_unchanged_ones() {
+        // GIVEN
+        Date seen = new Date(42);
+        DistinctValueCounts previous = new DistinctValueCounts();
+        previous.add(DistinctProperty.PLATFORMS, "removed", 1);
+        previous.add(DistinctProperty.PLATFORMS, "unchanged", 1);
+        DistinctValueCounts current = new DistinctValueCounts();
+        current.add(DistinctProperty.PLATFORMS, "unchanged", 1);
+
+        // WHEN
+        cut.record(1, current.minus(previous), seen);
+
+        // THEN
+        verify(distinctValueRepository).decrement(1, DistinctProperty.PLATFORMS, "removed", 1);
+        verify(distinctValueRepository).increment(1, DistinctProperty.PLATFORMS, "unchanged", 0, seen);
+        verify(distinctValueRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void forgetExecutedScenarios_should_decrement_the_values_of_the_deleted_rows() {
+        // GIVEN
+        List<Long> executedScenarioIds = List.of(Long.valueOf(10));
+        List<Long> errorIds = List.of(Long.valueOf(100), Long.valueOf(101));
+        when(distinctValueRepository.countFeatureNamesByExecutedScenarioIdIn(executedScenarioIds)).thenReturn(List.of(new ValueCount("feature", 1)));
+        when(distinctValueRepository.countStepsByErrorIdIn(errorIds)).thenReturn(List.of(new ValueCount("step", 2)));
+
+        // WHEN
+        cut.forgetExecutedScenarios(1, executedScenarioIds, errorIds);
+
+        // THEN
+        verify(distinctValueRepository).decrement(1, DistinctProperty.FEATURE_NAMES, "feature", 1);
+        verify(distinctValueRepository).decrement(1, DistinctProperty.STEPS, "step", 2);
+    }
+
+    @Test
+    void forgetExecutedScenarios_should_not_count_steps_when_scenarios_have_no_error() {
+        // WHEN
+        cut.forgetExecutedScenarios(1, List.of(Long.valueOf(10)), List.of());
+
+        // THEN
+        verify(distinctValueRepository, never()).countStepsByErrorIdIn(any());
+        verify(distinctValueRepository, never()).countStepDefinitionsByErrorIdIn(any());
+        verify(distinctValueRepository, never()).decrement(anyLong(), any(), any(), anyLong());
+    }
+
+    @Test
+    void findDistinctProperties_should_return_the_countries_of_the_dictionary_sorted_by_name() {
+        // GIVEN
+        Country france = mock(Country.class);
+        when(france.getCode()).thenReturn("fr");
+        when(france.getName()).thenReturn("France");
+        Country belgium = mock(Country.class);
+        when(belgium.getCode()).thenReturn("be");
+        when(belgium.getName()).thenReturn("Belgium");
+        Country unused = mock(Country.class);
+        when(unused.getCode()).thenReturn("nl");
+        when(countryRepository.findAllByProjectIdOrderByCode(1)).thenReturn(List.of(belgium, france, unused));
+        when(distinctValueRepository.findValues(1, DistinctProperty.COUNTRIES)).thenReturn(List.of("fr", "be"));
+
+        // WHEN
+        cut.findDistinctProperties(1, "countries");
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Country>> countries = ArgumentCaptor.forClass(List.class);
+        verify(mapper).mapCollection(countries.capture(), eq(CountryDTO.class));
+        assertThat(countries.getValue()).containsExactly(belgium, france);
+    }
+
+    @Test
+    void findDistinctProperties_should_return_nothing_when_the_property_is_unknown() {
+        // WHEN
+        DistinctStatisticsDTO result = cut.findDistinctProperties(1, "unknown");
+
+        // THEN
+        assertThat(result.getReleases()).isNull();
+        verify(distinctValueRepository, never()).findValues(anyLong(), any());
+    }
+
+    @Test
+    void findValuesByPrefix_should_escape_the_prefix_and_cap_the_limit() {
+        // WHEN
+        cut.findValuesByPrefix(1, "steps", "100%_sure!", 1000);
+
+        // THEN
+        verify(distinctValueRepository).findByPrefix(1, DistinctProperty.STEPS, "100!%!_sure!!%",
+                PageRequest.of(0, DistinctValueService.MAX_LIMIT));
+    }
+
+}
@@ -28,7 +28,7 @@ class ErrorServiceTest {
 
     private GenericMapper mapper = mock(GenericMapper.class);
 
-    private ErrorService errorService = new ErrorService(errorRepository, null, null, null, null, null, null, mapper, null, null);
+    private ErrorService errorService = new ErrorService(errorRepository, null, null, null, mapper, null);
 
     @Test
     void getProblemErrors_returnNoErrors_whenNoErrorFound() throws NotFoundException {
@@ -39,6 +39,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.decathlon.ara.ci.bean.Build;
@@ -46,6 +47,7 @@ import com.decathlon.ara.ci.bean.CycleDef;
 import com.decathlon.ara.ci.bean.PlannedIndexation;
 import com.decathlon.ara.ci.bean.PlatformRule;
 import com.decathlon.ara.ci.bean.QualityThreshold;
+import com.decathlon.ara.ci.service.IndexingMetrics;
 import com.decathlon.ara.ci.service.QualityService;
 import com.decathlon.ara.ci.util.JsonParserConsumer;
 import com.decathlon.ara.domain.Country;
@@ -68,6 +70,7 @@ import com.decathlon.ara.scenario.common.strategy.ScenariosIndexerStrategy;
 import com.decathlon.ara.service.support.Settings;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class ExecutionFilesProcessorServiceTest {
@@ -115,6 +118,9 @@ class ExecutionFilesProcessorServiceTest {
     @Mock
     private FileProcessorService fileProcessorService;
 
+    @Spy
+    private IndexingMetrics indexingMetrics = new IndexingMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private ExecutionFilesProcessorService cut;
 
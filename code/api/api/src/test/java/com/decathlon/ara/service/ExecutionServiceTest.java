@@ -33,11 +33,13 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
@@ -47,10 +49,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.ci.service.ExecutionIndexerService;
+import com.decathlon.ara.ci.service.IndexingMetrics;
 import com.decathlon.ara.domain.CycleDefinition;
 import com.decathlon.ara.domain.Execution;
 import com.decathlon.ara.domain.ExecutionCompletionRequest;
@@ -64,6 +69,7 @@ import com.decathlon.ara.service.mapper.GenericMapper;
 import com.decathlon.ara.service.support.Settings;
 import com.decathlon.ara.util.factory.CycleDefinitionFactory;
 import com.decathlon.ara.util.factory.ExecutionBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class ExecutionServiceTest {
@@ -101,6 +107,15 @@ class ExecutionServiceTest {
     @Mock
     private ProblemService problemService;
 
+    @Spy
+    private IndexingMetrics indexingMetrics = new IndexingMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    private Executor indexingExecutor;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
     @Spy
     @InjectMocks
     private ExecutionService cut;
@@ -371,6 +386,26 @@ class ExecutionServiceTest {
         assertThat(status).isEqualTo("DISCARDED");
     }
 
+    @Test
+    void launchExecutionDirectoriesProcessingThread_should_delete_the_directories_and_throw_when_the_indexing_pool_is_full() throws IOException {
+        // Given
+        File executionDirectory = Files.createTempDirectory("ara-execution-").toFile();
+        CycleDefinition cycleDefinition = CycleDefinitionFactory.get(1L, 23L, "master", "day", 1);
+        doThrow(new TaskRejectedException("full")).when(indexingExecutor).execute(any());
+
+        try {
+            // When
+            List<File> executionDirectories = List.of(executionDirectory);
+            assertThrows(TaskRejectedException.class, () -> cut.launchExecutionDirectoriesProcessingThread(23L, executionDirectories, cycleDefinition));
+
+            // Then
+            assertThat(executionDirectory).doesNotExist();
+            verify(executionIndexerService, never()).indexExecution(any());
+        } finally {
+            FileUtils.deleteQuietly(executionDirectory);
+        }
+    }
+
     @Test
     void uploadExecutionReport_should_call_the_indexer() throws IOException {
         // Given
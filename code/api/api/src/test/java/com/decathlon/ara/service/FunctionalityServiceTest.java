@@ -17,39 +17,58 @@
 
 package com.decathlon.ara.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.decathlon.ara.cache.CacheInvalidationService;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Functionality;
+import com.decathlon.ara.domain.Scenario;
 import com.decathlon.ara.domain.enumeration.FunctionalityType;
 import com.decathlon.ara.repository.CountryRepository;
 import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.repository.ScenarioRepository;
 import com.decathlon.ara.repository.TeamRepository;
 import com.decathlon.ara.service.dto.functionality.FunctionalityDTO;
+import com.decathlon.ara.service.dto.functionality.FunctionalityWithChildrenDTO;
 import com.decathlon.ara.service.dto.request.FunctionalityPosition;
 import com.decathlon.ara.service.dto.request.MoveFunctionalitiesDTO;
+import com.decathlon.ara.service.dto.request.MoveFunctionalityDTO;
 import com.decathlon.ara.service.dto.request.NewFunctionalityDTO;
 import com.decathlon.ara.service.dto.team.TeamDTO;
 import com.decathlon.ara.service.exception.BadRequestException;
 import com.decathlon.ara.service.exception.NotFoundException;
 import com.decathlon.ara.service.exception.NotUniqueException;
 import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.service.support.FunctionalityTree;
+import com.decathlon.ara.util.builder.FunctionalityBuilder;
 
 @ExtendWith(MockitoExtension.class)
 class FunctionalityServiceTest {
@@ -72,6 +91,18 @@ class FunctionalityServiceTest {
     @Mock
     private GenericMapper mapper;
 
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Mock
+    private ScenarioRepository scenarioRepository;
+
+    @Mock
+    private FunctionalityTreeService functionalityTreeService;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
     @InjectMocks
     private FunctionalityService functionalityService;
 
@@ -1023,6 +1054,185 @@ class FunctionalityServiceTest {
         assertThrows(NotFoundException.class, () -> functionalityService.moveList(projectId, moveDetails));
     }
 
+    @Test
+    void moveList_spreadTheMovedFunctionalitiesBetweenTheirNewNeighbors_inTheRequestedOrder() throws BadRequestException {
+        // Given
+        Long projectId = 1L;
+
+        MoveFunctionalitiesDTO moveDetails = mock(MoveFunctionalitiesDTO.class);
+        Functionality reference = functionality(11, 1L, 1000, FunctionalityType.FUNCTIONALITY);
+        Functionality source1 = functionality(21, null, 2000, FunctionalityType.FUNCTIONALITY);
+        Functionality source2 = functionality(22, null, 3000, FunctionalityType.FUNCTIONALITY);
+        FunctionalityTree tree = tree(
+                functionality(1, null, 1000, FunctionalityType.FOLDER),
+                reference,
+                functionality(12, 1L, 2000, FunctionalityType.FUNCTIONALITY),
+                source1,
+                source2);
+
+        // When
+        when(moveDetails.getReferenceId()).thenReturn(11L);
+        when(moveDetails.getSourceIds()).thenReturn(Arrays.asList(22L, 21L));
+        when(moveDetails.getRelativePosition()).thenReturn(FunctionalityPosition.BELOW);
+        when(repository.findByProjectIdAndId(projectId, 11L)).thenReturn(Optional.of(reference));
+        when(repository.findByProjectIdAndIdIn(projectId, Arrays.asList(22L, 21L))).thenReturn(Arrays.asList(source1, source2));
+        when(functionalityTreeService.getTree(projectId)).thenReturn(tree);
+
+        // Then
+        functionalityService.moveList(projectId, moveDetails);
+        assertThat(source2.getParentId()).isEqualTo(1L);
+        assertThat(source1.getParentId()).isEqualTo(1L);
+        assertThat(source2.getOrder()).isGreaterThan(1000).isLessThan(source1.getOrder());
+        assertThat(source1.getOrder()).isLessThan(2000);
+        verify(repository).saveAll(Arrays.asList(source1, source2));
+        verify(functionalityTreeService).invalidate(projectId);
+    }
+
+    @Test
+    void moveList_throwBadRequestException_whenMovingAFolderIntoOneOfItsSubFolders() throws BadRequestException {
+        // Given
+        Long projectId = 1L;
+
+        MoveFunctionalitiesDTO moveDetails = mock(MoveFunctionalitiesDTO.class);
+        Functionality folder = functionality(1, null, 1000, FunctionalityType.FOLDER);
+        Functionality subFolder = functionality(11, 1L, 1000, FunctionalityType.FOLDER);
+        Functionality subSubFolder = functionality(111, 11L, 1000, FunctionalityType.FOLDER);
+
+        // When
+        when(moveDetails.getReferenceId()).thenReturn(111L);
+        when(moveDetails.getSourceIds()).thenReturn(Arrays.asList(1L));
+        when(moveDetails.getRelativePosition()).thenReturn(FunctionalityPosition.LAST_CHILD);
+        when(repository.findByProjectIdAndId(projectId, 111L)).thenReturn(Optional.of(subSubFolder));
+        when(repository.findByProjectIdAndIdIn(projectId, Arrays.asList(1L))).thenReturn(Arrays.asList(folder));
+        when(functionalityTreeService.getTree(projectId)).thenReturn(tree(folder, subFolder, subSubFolder));
+
+        // Then
+        assertThrows(BadRequestException.class, () -> functionalityService.moveList(projectId, moveDetails));
+        verify(repository, never()).saveAll(anyIterable());
+    }
+
+    @Test
+    void move_renumberTheDestinationFolder_whenThereIsNoPrecisionLeftBetweenTheNeighbors() throws BadRequestException {
+        // Given
+        Long projectId = 1L;
+
+        MoveFunctionalityDTO moveDetails = mock(MoveFunctionalityDTO.class);
+        Functionality above = functionality(1, null, 1000, FunctionalityType.FUNCTIONALITY);
+        Functionality below = functionality(2, null, Math.nextUp(1000.0), FunctionalityType.FUNCTIONALITY);
+        Functionality source = functionality(3, null, 5000, FunctionalityType.FUNCTIONALITY);
+
+        // When
+        when(moveDetails.getSourceId()).thenReturn(3L);
+        when(moveDetails.getReferenceId()).thenReturn(1L);
+        when(moveDetails.getRelativePosition()).thenReturn(FunctionalityPosition.BELOW);
+        when(repository.findByProjectIdAndId(projectId, 3L)).thenReturn(Optional.of(source));
+        when(functionalityTreeService.getTree(projectId)).thenReturn(tree(above, below, source));
+        when(repository.findByProjectIdAndIdIn(projectId, Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(above, below));
+        when(repository.save(source)).thenReturn(source);
+
+        // Then
+        functionalityService.move(projectId, moveDetails);
+        assertThat(above.getOrder()).isLessThan(source.getOrder());
+        assertThat(source.getOrder()).isLessThan(below.getOrder());
+        verify(repository).saveAll(Arrays.asList(above, source, below));
+        verify(functionalityTreeService).invalidate(projectId);
+    }
+
+    @Test
+    void spreadOrders_returnTheMean_whenMovingASingleFunctionality() {
+        // When
+        double[] orders = FunctionalityService.spreadOrders(1000, Double.MAX_VALUE - 1, 1);
+
+        // Then
+        assertThat(orders).containsExactly(1000 / 2d + (Double.MAX_VALUE - 1) / 2);
+    }
+
+    @Test
+    void spreadOrders_returnNull_whenThereIsNoPrecisionLeft() {
+        // When
+        double[] orders = FunctionalityService.spreadOrders(1000, Math.nextUp(1000.0), 2);
+
+        // Then
+        assertThat(orders).isNull();
+    }
+
+    @Test
+    void findAllAsTree_returnTheRootsOfTheTreeInMemory() {
+        // Given
+        Long projectId = 1L;
+        FunctionalityTree tree = tree(
+                functionality(1, null, 1000, FunctionalityType.FOLDER),
+                functionality(11, 1L, 1000, FunctionalityType.FUNCTIONALITY));
+
+        // When
+        when(functionalityTreeService.getTree(projectId)).thenReturn(tree);
+
+        // Then
+        List<FunctionalityWithChildrenDTO> roots = functionalityService.findAllAsTree(projectId);
+        assertThat(roots).isSameAs(tree.getDtoRoots()).hasSize(1);
+        assertThat(roots.get(0).getChildren()).hasSize(1);
+    }
+
+    @Test
+    void importJSONFunctionalities_saveParentsBeforeChildren_andIgnoreOrphans() throws BadRequestException {
+        // Given
+        long projectId = 1L;
+        String json = "[{\"id\":3,\"parentId\":2},{\"id\":4,\"parentId\":99},{\"id\":2,\"parentId\":1},{\"id\":1}]";
+        Functionality grandChild = functionality(3, 2L, 1000, FunctionalityType.FUNCTIONALITY);
+        Functionality orphan = functionality(4, 99L, 1000, FunctionalityType.FUNCTIONALITY);
+        Functionality child = functionality(2, 1L, 1000, FunctionalityType.FOLDER);
+        Functionality root = functionality(1, null, 1000, FunctionalityType.FOLDER);
+        List<Long> newIds = new ArrayList<>();
+
+        // When
+        when(projectService.toId("p")).thenReturn(projectId);
+        when(mapper.mapCollection(anyList(), eq(Functionality.class), any()))
+                .thenReturn(new ArrayList<>(Arrays.asList(grandChild, orphan, child, root)));
+        when(repository.save(any(Functionality.class))).thenAnswer(invocation -> {
+            Functionality saved = invocation.getArgument(0);
+            saved.setId(Long.valueOf(100 + newIds.size()));
+            newIds.add(saved.getId());
+            return saved;
+        });
+
+        // Then
+        functionalityService.importJSONFunctionalities("p", new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        assertThat(newIds).containsExactly(100L, 101L, 102L);
+        assertThat(root.getId()).isEqualTo(100L);
+        assertThat(root.getParentId()).isNull();
+        assertThat(child.getParentId()).isEqualTo(100L);
+        assertThat(grandChild.getParentId()).isEqualTo(101L);
+        verify(repository, never()).save(orphan);
+        verify(functionalityTreeService).invalidate(projectId);
+        verify(dataVersionService).incrementFunctionalityVersionAfterCommit(projectId);
+    }
+
+    @Test
+    void importJSONFunctionalities_throwBadRequestException_whenJsonIsMalformed() {
+        // Given
+        InputStream json = new ByteArrayInputStream("[{".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        when(projectService.toId("p")).thenReturn(Long.valueOf(1));
+
+        // Then
+        assertThrows(BadRequestException.class, () -> functionalityService.importJSONFunctionalities("p", json));
+        verify(repository, never()).save(any());
+    }
+
+    private static Functionality functionality(long id, Long parentId, double order, FunctionalityType type) {
+        return new FunctionalityBuilder()
+                .withId(Long.valueOf(id))
+                .withParentId(parentId)
+                .withOrder(Double.valueOf(order))
+                .withType(type)
+                .build();
+    }
+
+    private static FunctionalityTree tree(Functionality... functionalities) {
+        return new FunctionalityTree(Arrays.asList(functionalities), functionality -> new FunctionalityWithChildrenDTO());
+    }
+
     @Test
     void delete_throwBadRequestException_whenIdIsNull() throws BadRequestException {
         // Given
@@ -1059,10 +1269,16 @@ class FunctionalityServiceTest {
 
         // When
         when(repository.findByProjectIdAndId(projectId, id)).thenReturn(Optional.of(functionality));
+        when(functionality.getId()).thenReturn(id);
+        when(scenarioRepository.findIdsByFunctionalityIdIn(Collections.singleton(id))).thenReturn(Arrays.asList(21L, 22L));
 
         // Then
         functionalityService.delete(projectId, id);
-        verify(repository).delete(functionality);
+        InOrder inOrder = inOrder(repository, scenarioRepository, cacheInvalidationService);
+        inOrder.verify(repository).delete(functionality);
+        inOrder.verify(scenarioRepository).updateFunctionalityCounts(Arrays.asList(21L, 22L));
+        inOrder.verify(scenarioRepository).updateFunctionalityErrors(Arrays.asList(21L, 22L));
+        inOrder.verify(cacheInvalidationService).evictAfterCommit(Scenario.class.getName(), Arrays.asList(21L, 22L));
     }
 
     @Test
@@ -1132,8 +1348,14 @@ class FunctionalityServiceTest {
         // When
         when(repository.findByProjectIdAndIdIn(projectId, functionalityIds)).thenReturn(functionalitiesToDelete);
 
+        when(scenarioRepository.findIdsByFunctionalityIdIn(functionalityIds)).thenReturn(Collections.emptyList());
+        when(functionalityTreeService.getTree(projectId)).thenReturn(tree());
+
         // Then
         functionalityService.deleteList(projectId, functionalityIds);
         verify(repository).deleteAll(functionalitiesToDelete);
+        verify(scenarioRepository, never()).updateFunctionalityCounts(anyCollection());
+        verify(scenarioRepository, never()).updateFunctionalityErrors(anyCollection());
+        verify(cacheInvalidationService, never()).evictAfterCommit(anyString(), anyCollection());
     }
 }
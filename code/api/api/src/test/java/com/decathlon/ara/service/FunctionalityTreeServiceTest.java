@@ -0,0 +1,153 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.domain.Functionality;
+import com.decathlon.ara.domain.enumeration.FunctionalityType;
+import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.service.dto.functionality.FunctionalityWithChildrenDTO;
+import com.decathlon.ara.service.mapper.GenericMapper;
+import com.decathlon.ara.service.support.FunctionalityTree;
+import com.decathlon.ara.util.builder.FunctionalityBuilder;
+
+@ExtendWith(MockitoExtension.class)
+class FunctionalityTreeServiceTest {
+
+    private static final long PROJECT_ID = 1;
+
+    @Mock
+    private FunctionalityRepository repository;
+
+    @Mock
+    private GenericMapper mapper;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    private FunctionalityTreeService cut;
+
+    @BeforeEach
+    void setUp() {
+        cut = new FunctionalityTreeService(repository, mapper, dataVersionService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(FunctionalityTreeService.ChangedProjects.class);
+    }
+
+    @Test
+    void getTree_should_load_the_tree_once_per_functionality_version() {
+        // GIVEN
+        when(dataVersionService.getFunctionalityVersion(PROJECT_ID)).thenReturn(Long.valueOf(3), Long.valueOf(3), Long.valueOf(4));
+        when(repository.findAllByProjectIdOrderByOrder(PROJECT_ID)).thenReturn(functionalities());
+        when(mapper.map(any(Functionality.class), eq(FunctionalityWithChildrenDTO.class))).thenAnswer(invocation -> new FunctionalityWithChildrenDTO());
+
+        // WHEN
+        FunctionalityTree first = cut.getTree(PROJECT_ID);
+        FunctionalityTree second = cut.getTree(PROJECT_ID);
+        FunctionalityTree third = cut.getTree(PROJECT_ID);
+
+        // THEN
+        assertThat(second).isSameAs(first);
+        assertThat(third).isNotSameAs(first);
+        assertThat(third.getChildren(null)).hasSize(1);
+        assertThat(third.getChildren(Long.valueOf(1))).hasSize(1);
+        verify(repository, times(2)).findAllByProjectIdOrderByOrder(PROJECT_ID);
+    }
+
+    @Test
+    void getTree_should_not_share_the_changes_of_a_transaction_before_it_completes() {
+        // GIVEN
+        TransactionSynchronizationManager.initSynchronization();
+        when(repository.findAllByProjectIdOrderByOrder(PROJECT_ID)).thenReturn(functionalities());
+        when(mapper.map(any(Functionality.class), eq(FunctionalityWithChildrenDTO.class))).thenAnswer(invocation -> new FunctionalityWithChildrenDTO());
+
+        // WHEN
+        cut.invalidate(PROJECT_ID);
+        FunctionalityTree first = cut.getTree(PROJECT_ID);
+        FunctionalityTree second = cut.getTree(PROJECT_ID);
+
+        // THEN
+        assertThat(second).isNotSameAs(first);
+        verify(dataVersionService, never()).getFunctionalityVersion(PROJECT_ID);
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(TransactionSynchronizationManager.hasResource(FunctionalityTreeService.ChangedProjects.class)).isFalse();
+    }
+
+    @Test
+    void invalidate_should_drop_the_cached_tree() {
+        // GIVEN
+        when(dataVersionService.getFunctionalityVersion(PROJECT_ID)).thenReturn(Long.valueOf(3));
+        when(repository.findAllByProjectIdOrderByOrder(PROJECT_ID)).thenReturn(functionalities());
+        when(mapper.map(any(Functionality.class), eq(FunctionalityWithChildrenDTO.class))).thenAnswer(invocation -> new FunctionalityWithChildrenDTO());
+        FunctionalityTree first = cut.getTree(PROJECT_ID);
+
+        // WHEN
+        cut.invalidate(PROJECT_ID);
+
+        // THEN
+        assertThat(cut.getTree(PROJECT_ID)).isNotSameAs(first);
+    }
+
+    @Test
+    void isInSubTree_should_follow_the_parents_of_the_node() {
+        // GIVEN
+        FunctionalityTree tree = new FunctionalityTree(functionalities(), functionality -> new FunctionalityWithChildrenDTO());
+
+        // WHEN / THEN
+        assertThat(tree.isInSubTree(11, 1)).isTrue();
+        assertThat(tree.isInSubTree(1, 1)).isTrue();
+        assertThat(tree.isInSubTree(1, 11)).isFalse();
+        assertThat(tree.find(Long.valueOf(42))).isEmpty();
+        assertThat(tree.getDtoRoots().get(0).getChildren()).hasSize(1);
+    }
+
+    private static List<Functionality> functionalities() {
+        return List.of(
+                new FunctionalityBuilder().withId(Long.valueOf(1)).withOrder(Double.valueOf(1000)).withType(FunctionalityType.FOLDER).build(),
+                new FunctionalityBuilder().withId(Long.valueOf(11)).withParentId(Long.valueOf(1)).withOrder(Double.valueOf(1000))
+                        .withType(FunctionalityType.FUNCTIONALITY).build());
+    }
+
+}
@@ -0,0 +1,183 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.cache.CacheInvalidationService;
+import com.decathlon.ara.domain.Problem;
+import com.decathlon.ara.domain.projection.FirstAndLastProblemOccurrence;
+import com.decathlon.ara.repository.ProblemRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProblemDenormalizationServiceTest {
+
+    @Mock
+    private ProblemRepository problemRepository;
+
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+
+    @InjectMocks
+    private ProblemDenormalizationService cut;
+
+    @Test
+    void updateFirstAndLastSeenDateTimes_should_set_the_aggregates_of_each_problem_and_reset_problems_without_occurrence() {
+        // GIVEN
+        Problem seenProblem = new Problem();
+        seenProblem.setId(Long.valueOf(1));
+        Problem unseenProblem = new Problem();
+        unseenProblem.setId(Long.valueOf(2));
+        unseenProblem.setFirstSeenDateTime(new Date(1));
+        unseenProblem.setLastSeenDateTime(new Date(2));
+        unseenProblem.setOccurrenceCount(3);
+        final List<Problem> problems = List.of(seenProblem, unseenProblem);
+        when(problemRepository.findFirstAndLastProblemOccurrences(problems)).thenReturn(List.of(
+                new FirstAndLastProblemOccurrence(Long.valueOf(1), new Date(10), new Date(20), Long.valueOf(7))));
+
+        // WHEN
+        cut.updateFirstAndLastSeenDateTimes(problems);
+
+        // THEN
+        assertThat(seenProblem.getFirstSeenDateTime()).isEqualTo(new Date(10));
+        assertThat(seenProblem.getLastSeenDateTime()).isEqualTo(new Date(20));
+        assertThat(seenProblem.getOccurrenceCount()).isEqualTo(7);
+        assertThat(unseenProblem.getFirstSeenDateTime()).isNull();
+        assertThat(unseenProblem.getLastSeenDateTime()).isNull();
+        assertThat(unseenProblem.getOccurrenceCount()).isZero();
+    }
+
+    @Test
+    void recomputeOccurrences_should_run_one_statement_per_batch_of_problems() {
+        // GIVEN
+        final Set<Long> problemIds = LongStream.rangeClosed(1, ProblemDenormalizationService.BATCH_SIZE + 1).boxed().collect(Collectors.toSet());
+
+        // WHEN
+        cut.recomputeOccurrences(problemIds);
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> batches = ArgumentCaptor.forClass(List.class);
+        verify(problemRepository, times(2)).recomputeOccurrences(batches.capture());
+        assertThat(batches.getAllValues().get(0)).hasSize(ProblemDenormalizationService.BATCH_SIZE);
+        assertThat(batches.getAllValues().get(1)).hasSize(1);
+        verify(cacheInvalidationService).evictAfterCommit(Problem.class.getName(), batches.getAllValues().get(0));
+        verify(cacheInvalidationService).evictAfterCommit(Problem.class.getName(), batches.getAllValues().get(1));
+    }
+
+    @Test
+    void addOccurrences_should_not_read_older_occurrences() {
+        // GIVEN
+        final Date testDateTime = new Date();
+
+        // WHEN
+        cut.addOccurrences(List.of(Long.valueOf(1), Long.valueOf(2)), List.of(Long.valueOf(11)), testDateTime);
+
+        // THEN
+        verify(problemRepository).addOccurrences(List.of(Long.valueOf(1), Long.valueOf(2)), List.of(Long.valueOf(11)), testDateTime);
+        verify(problemRepository, times(0)).recomputeOccurrences(anyList());
+    }
+
+
+    @Test
+    void addOccurrences_should_run_one_statement_per_batch_of_errors() {
+        // GIVEN
+        final Date testDateTime = new Date();
+        final List<Long> errorIds = LongStream.rangeClosed(1, ProblemDenormalizationService.BATCH_SIZE + 1).boxed().toList();
+
+        // WHEN
+        cut.addOccurrences(List.of(Long.valueOf(1)), errorIds, testDateTime);
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> batches = ArgumentCaptor.forClass(List.class);
+        verify(problemRepository, times(2)).addOccurrences(eq(List.of(Long.valueOf(1))), batches.capture(), eq(testDateTime));
+        assertThat(batches.getAllValues().get(0)).hasSize(ProblemDenormalizationService.BATCH_SIZE);
+        assertThat(batches.getAllValues().get(1)).hasSize(1);
+        verify(cacheInvalidationService).evictAfterCommit(Problem.class.getName(), List.of(Long.valueOf(1)));
+    }
+
+    @Test
+    void removeOccurrences_should_run_one_statement_per_batch_of_errors_without_recomputing() {
+        // GIVEN
+        final List<Long> errorIds = LongStream.rangeClosed(1, ProblemDenormalizationService.BATCH_SIZE + 1).boxed().toList();
+
+        // WHEN
+        cut.removeOccurrences(List.of(Long.valueOf(1)), errorIds);
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> batches = ArgumentCaptor.forClass(List.class);
+        verify(problemRepository, times(2)).removeOccurrences(eq(List.of(Long.valueOf(1))), batches.capture());
+        assertThat(batches.getAllValues().get(0)).hasSize(ProblemDenormalizationService.BATCH_SIZE);
+        assertThat(batches.getAllValues().get(1)).hasSize(1);
+        verify(problemRepository, times(0)).recomputeOccurrences(anyList());
+        verify(cacheInvalidationService).evictAfterCommit(Problem.class.getName(), List.of(Long.valueOf(1)));
+    }
+
+    @Test
+    void recomputeSeenDateTimes_should_run_one_statement_per_batch_of_problems() {
+        // GIVEN
+        final Set<Long> problemIds = LongStream.rangeClosed(1, ProblemDenormalizationService.BATCH_SIZE + 1).boxed().collect(Collectors.toSet());
+
+        // WHEN
+        cut.recomputeSeenDateTimes(problemIds, 42);
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> batches = ArgumentCaptor.forClass(List.class);
+        verify(problemRepository, times(2)).recomputeSeenDateTimes(batches.capture(), eq(42L));
+        assertThat(batches.getAllValues().get(0)).hasSize(ProblemDenormalizationService.BATCH_SIZE);
+        assertThat(batches.getAllValues().get(1)).hasSize(1);
+        verify(cacheInvalidationService).evictAfterCommit(Problem.class.getName(), batches.getAllValues().get(0));
+        verify(cacheInvalidationService).evictAfterCommit(Problem.class.getName(), batches.getAllValues().get(1));
+    }
+
+    @Test
+    void findProblemIds_should_query_by_batch_of_errors() {
+        // GIVEN
+        final List<Long> errorIds = LongStream.rangeClosed(1, ProblemDenormalizationService.BATCH_SIZE + 1).boxed().toList();
+        when(problemRepository.findIdsByErrorIdIn(anyList())).thenReturn(List.of(Long.valueOf(7)), List.of(Long.valueOf(7), Long.valueOf(8)));
+
+        // WHEN
+        final Set<Long> problemIds = cut.findProblemIds(errorIds);
+
+        // THEN
+        assertThat(problemIds).containsExactlyInAnyOrder(Long.valueOf(7), Long.valueOf(8));
+        verify(problemRepository, times(2)).findIdsByErrorIdIn(anyList());
+    }
+
+}
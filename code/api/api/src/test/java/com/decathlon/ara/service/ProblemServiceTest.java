@@ -46,6 +46,8 @@ import org.springframework.data.domain.Sort.Order;
 
 import com.decathlon.ara.Entities;
 import com.decathlon.ara.Messages;
+import com.decathlon.ara.cache.CacheInvalidationService;
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.ci.util.FetchException;
 import com.decathlon.ara.defect.DefectAdapter;
 import com.decathlon.ara.defect.bean.Defect;
@@ -58,8 +60,6 @@ import com.decathlon.ara.repository.ExecutionRepository;
 import com.decathlon.ara.repository.ProblemPatternRepository;
 import com.decathlon.ara.repository.ProblemRepository;
 import com.decathlon.ara.repository.RootCauseRepository;
-import com.decathlon.ara.repository.custom.util.JpaCacheManager;
-import com.decathlon.ara.repository.custom.util.TransactionAppenderUtil;
 import com.decathlon.ara.service.dto.error.ErrorWithExecutedScenarioAndRunAndExecutionDTO;
 import com.decathlon.ara.service.dto.problem.ProblemDTO;
 import com.decathlon.ara.service.exception.BadRequestException;
@@ -113,10 +113,10 @@ class ProblemServiceTest {
     private GenericMapper mapper;
 
     @Mock
-    private JpaCacheManager jpaCacheManager;
+    private CacheInvalidationService cacheInvalidationService;
 
     @Mock
-    private TransactionAppenderUtil transactionService;
+    private DataVersionService dataVersionService;
 
     @InjectMocks
     private ProblemService cut;
@@ -0,0 +1,112 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.decathlon.ara.cache.bean.CacheEvictedEvent;
+import com.decathlon.ara.domain.Project;
+import com.decathlon.ara.repository.ProjectRepository;
+import com.decathlon.ara.service.support.ProjectSummary;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectRegistryTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProjectRegistry cut;
+
+    @BeforeEach
+    void setUp() {
+        cut = new ProjectRegistry(projectRepository, transactionManager);
+    }
+
+    @Test
+    void findByCode_should_resolve_codes_from_memory_once_loaded() {
+        // GIVEN
+        when(projectRepository.findAllByOrderByName()).thenReturn(List.of(project(1, "a"), project(2, "b")));
+
+        // WHEN
+        var a = cut.findByCode("a");
+        var b = cut.findByCode("b");
+
+        // THEN
+        assertThat(a).contains(new ProjectSummary(1, "a", "Project a", false));
+        assertThat(b.map(ProjectSummary::id)).contains(Long.valueOf(2));
+        assertThat(cut.findById(2)).isEqualTo(b);
+        verify(projectRepository, times(1)).findAllByOrderByName();
+    }
+
+    @Test
+    void findByCode_should_not_reload_the_projects_for_each_unknown_code() {
+        // GIVEN
+        when(projectRepository.findAllByOrderByName()).thenReturn(List.of(project(1, "a")));
+
+        // WHEN
+        cut.findByCode("a");
+        var unknown = cut.findByCode("unknown");
+
+        // THEN
+        assertThat(unknown).isEmpty();
+        verify(projectRepository, times(1)).findAllByOrderByName();
+    }
+
+    @Test
+    void onCacheEvicted_should_reload_the_projects_only_when_they_changed() {
+        // GIVEN
+        when(projectRepository.findAllByOrderByName())
+                .thenReturn(List.of(project(1, "a")))
+                .thenReturn(List.of(project(1, "renamed")));
+        cut.findByCode("a");
+
+        // WHEN
+        cut.onCacheEvicted(new CacheEvictedEvent("com.decathlon.ara.domain.Problem", null));
+        var beforeProjectEviction = cut.findByCode("a");
+        cut.onCacheEvicted(new CacheEvictedEvent(ProjectRegistry.PROJECT_REGION, List.of(Long.valueOf(1))));
+
+        // THEN
+        assertThat(beforeProjectEviction).isPresent();
+        assertThat(cut.findByCode("renamed").map(ProjectSummary::id)).contains(Long.valueOf(1));
+        assertThat(cut.findAll()).extracting(ProjectSummary::code).containsExactly("renamed");
+        verify(projectRepository, times(2)).findAllByOrderByName();
+    }
+
+    private static Project project(long id, String code) {
+        Project project = new Project(code, "Project " + code);
+        ReflectionTestUtils.setField(project, "id", Long.valueOf(id));
+        return project;
+    }
+
+}
@@ -0,0 +1,119 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.ci.bean.ExecutionIndexedEvent;
+
+@ExtendWith(MockitoExtension.class)
+class QualityStatusNotifierTest {
+
+    private static final String JOB_URL = "http://build/1/";
+
+    @Mock
+    private ExecutionService executionService;
+
+    @InjectMocks
+    private QualityStatusNotifier cut;
+
+    @Test
+    void awaitQualityStatus_should_complete_right_away_when_the_status_is_already_definitive() {
+        // GIVEN
+        when(executionService.getQualityStatus(1, JOB_URL)).thenReturn("PASSED");
+
+        // WHEN
+        var future = cut.awaitQualityStatus(1, JOB_URL, Duration.ofMinutes(1));
+
+        // THEN
+        assertThat(future).isCompletedWithValue("PASSED");
+        assertThat(cut.getWaitingCount(1, JOB_URL)).isZero();
+    }
+
+    @Test
+    void awaitQualityStatus_should_return_still_computing_after_the_timeout() throws Exception {
+        // GIVEN
+        when(executionService.getQualityStatus(1, JOB_URL)).thenReturn(ExecutionService.STILL_COMPUTING);
+
+        // WHEN
+        var future = cut.awaitQualityStatus(1, JOB_URL, Duration.ofMillis(10));
+
+        // THEN
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(ExecutionService.STILL_COMPUTING);
+        assertThat(cut.getWaitingCount(1, JOB_URL)).isZero();
+    }
+
+    @Test
+    void onExecutionIndexed_should_complete_all_waiting_clients_with_one_read() {
+        // GIVEN
+        when(executionService.getQualityStatus(1, JOB_URL)).thenReturn(ExecutionService.STILL_COMPUTING, ExecutionService.STILL_COMPUTING, "FAILED");
+        var first = cut.awaitQualityStatus(1, JOB_URL, Duration.ofMinutes(1));
+        var second = cut.awaitQualityStatus(1, JOB_URL, Duration.ofMinutes(1));
+        assertThat(cut.getWaitingCount(1, JOB_URL)).isEqualTo(2);
+
+        // WHEN
+        cut.onExecutionIndexed(new ExecutionIndexedEvent(1, JOB_URL));
+
+        // THEN
+        assertThat(first).isCompletedWithValue("FAILED");
+        assertThat(second).isCompletedWithValue("FAILED");
+        assertThat(cut.getWaitingCount(1, JOB_URL)).isZero();
+        verify(executionService, times(3)).getQualityStatus(1, JOB_URL);
+    }
+
+    @Test
+    void onExecutionIndexed_should_keep_clients_waiting_when_the_status_is_still_computing() {
+        // GIVEN
+        when(executionService.getQualityStatus(1, JOB_URL)).thenReturn(ExecutionService.STILL_COMPUTING);
+        var future = cut.awaitQualityStatus(1, JOB_URL, Duration.ofMinutes(1));
+
+        // WHEN
+        cut.onExecutionIndexed(new ExecutionIndexedEvent(1, JOB_URL));
+
+        // THEN
+        assertThat(future).isNotDone();
+        assertThat(cut.getWaitingCount(1, JOB_URL)).isEqualTo(1);
+        future.cancel(true);
+        assertThat(cut.getWaitingCount(1, JOB_URL)).isZero();
+    }
+
+    @Test
+    void onExecutionIndexed_should_not_read_the_status_when_nobody_waits() {
+        // WHEN
+        cut.onExecutionIndexed(new ExecutionIndexedEvent(1, JOB_URL));
+
+        // THEN
+        verify(executionService, never()).getQualityStatus(anyLong(), anyString());
+    }
+
+}
@@ -0,0 +1,161 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.decathlon.ara.domain.ScheduledJobLease;
+import com.decathlon.ara.repository.ScheduledJobLeaseRepository;
+import com.decathlon.ara.service.util.DateService;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledJobLeaseServiceTest {
+
+    private static final Duration AT_MOST = Duration.ofMinutes(10);
+
+    private static final Duration AT_LEAST = Duration.ofMinutes(1);
+
+    @Mock
+    private ScheduledJobLeaseRepository scheduledJobLeaseRepository;
+
+    @Mock
+    private DateService dateService;
+
+    @Mock
+    private Runnable job;
+
+    @InjectMocks
+    private ScheduledJobLeaseService cut;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cut, "nodeId", "node-1");
+    }
+
+    @Test
+    void runExclusively_should_run_the_job_and_keep_the_lease_at_least_the_given_duration() {
+        // GIVEN
+        when(dateService.now()).thenReturn(new Date(0), new Date(1000));
+        when(scheduledJobLeaseRepository.lock("job", "node-1", new Date(0), new Date(600000))).thenReturn(1);
+
+        // WHEN
+        boolean ran = cut.runExclusively("job", AT_MOST, AT_LEAST, job);
+
+        // THEN
+        assertThat(ran).isTrue();
+        verify(job).run();
+        verify(scheduledJobLeaseRepository).unlock("job", "node-1", new Date(60000), new Date(0), 1000, true);
+    }
+
+    @Test
+    void runExclusively_should_release_the_lease_at_the_end_of_a_job_longer_than_the_minimum_lease() {
+        // GIVEN
+        when(dateService.now()).thenReturn(new Date(0), new Date(90000));
+        when(scheduledJobLeaseRepository.lock("job", "node-1", new Date(0), new Date(600000))).thenReturn(1);
+
+        // WHEN
+        cut.runExclusively("job", AT_MOST, AT_LEAST, job);
+
+        // THEN
+        verify(scheduledJobLeaseRepository).unlock("job", "node-1", new Date(90000), new Date(0), 90000, true);
+    }
+
+    @Test
+    void runExclusively_should_not_run_the_job_when_another_node_holds_the_lease() {
+        // GIVEN
+        when(dateService.now()).thenReturn(new Date(0));
+        when(scheduledJobLeaseRepository.lock(any(), any(), any(), any())).thenReturn(0);
+        when(scheduledJobLeaseRepository.existsById("job")).thenReturn(true);
+
+        // WHEN
+        boolean ran = cut.runExclusively("job", AT_MOST, AT_LEAST, job);
+
+        // THEN
+        assertThat(ran).isFalse();
+        verify(job, never()).run();
+        verify(scheduledJobLeaseRepository, never()).unlock(any(), any(), any(), any(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    void runExclusively_should_create_the_lease_of_a_job_run_for_the_first_time() {
+        // GIVEN
+        when(dateService.now()).thenReturn(new Date(0));
+        when(scheduledJobLeaseRepository.lock("job", "node-1", new Date(0), new Date(600000))).thenReturn(0, 1);
+        when(scheduledJobLeaseRepository.existsById("job")).thenReturn(false);
+
+        // WHEN
+        boolean ran = cut.runExclusively("job", AT_MOST, AT_LEAST, job);
+
+        // THEN
+        assertThat(ran).isTrue();
+        verify(scheduledJobLeaseRepository).saveAndFlush(any(ScheduledJobLease.class));
+        verify(job).run();
+    }
+
+    @Test
+    void runExclusively_should_not_run_the_job_when_another_node_created_and_took_the_lease_first() {
+        // GIVEN
+        when(dateService.now()).thenReturn(new Date(0));
+        when(scheduledJobLeaseRepository.lock(any(), any(), any(), any())).thenReturn(0);
+        when(scheduledJobLeaseRepository.existsById("job")).thenReturn(false);
+        when(scheduledJobLeaseRepository.saveAndFlush(any(ScheduledJobLease.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // WHEN
+        boolean ran = cut.runExclusively("job", AT_MOST, AT_LEAST, job);
+
+        // THEN
+        assertThat(ran).isFalse();
+        verify(job, never()).run();
+    }
+
+    @Test
+    void runExclusively_should_record_a_failed_run_and_rethrow_its_exception() {
+        // GIVEN
+        when(dateService.now()).thenReturn(new Date(0), new Date(1000));
+        when(scheduledJobLeaseRepository.lock(eq("job"), eq("node-1"), any(), any())).thenReturn(1);
+        doThrow(new IllegalStateException("failure")).when(job).run();
+
+        // WHEN
+        assertThrows(IllegalStateException.class, () -> cut.runExclusively("job", AT_MOST, AT_LEAST, job));
+
+        // THEN
+        verify(scheduledJobLeaseRepository).unlock("job", "node-1", new Date(60000), new Date(0), 1000, false);
+    }
+
+}
@@ -45,6 +45,7 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Setting;
 import com.decathlon.ara.repository.SettingRepository;
 import com.decathlon.ara.service.dto.setting.SettingDTO;
@@ -65,6 +66,9 @@ class SettingServiceTest {
     @Mock
     private SettingProviderService settingProviderService;
 
+    @Mock
+    private DataVersionService dataVersionService;
+
     @Spy
     @InjectMocks
     private SettingService cut;
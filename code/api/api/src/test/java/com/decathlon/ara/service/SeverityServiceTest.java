@@ -36,6 +36,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.decathlon.ara.cache.DataVersionService;
 import com.decathlon.ara.domain.Severity;
 import com.decathlon.ara.repository.SeverityRepository;
 import com.decathlon.ara.service.dto.severity.SeverityDTO;
@@ -50,6 +51,9 @@ class SeverityServiceTest {
     @Mock
     private GenericMapper mapper;
 
+    @Mock
+    private DataVersionService dataVersionService;
+
     @InjectMocks
     private SeverityService cut;
 
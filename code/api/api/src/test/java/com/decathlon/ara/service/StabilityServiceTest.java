@@ -0,0 +1,266 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.ProblemStability;
+import com.decathlon.ara.domain.ScenarioStability;
+import com.decathlon.ara.domain.StabilityWindow;
+import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.decathlon.ara.domain.projection.ExecutedScenarioResult;
+import com.decathlon.ara.repository.CycleDefinitionRepository;
+import com.decathlon.ara.repository.ExecutedScenarioRepository;
+import com.decathlon.ara.repository.ExecutionRepository;
+import com.decathlon.ara.repository.ProblemRepository;
+import com.decathlon.ara.repository.ProblemStabilityRepository;
+import com.decathlon.ara.repository.ScenarioStabilityRepository;
+import com.decathlon.ara.service.mapper.GenericMapper;
+
+@ExtendWith(MockitoExtension.class)
+class StabilityServiceTest {
+
+    private static final long PROJECT_ID = 1;
+
+    private static final long CYCLE_DEFINITION_ID = 2;
+
+    @Mock
+    private ExecutionRepository executionRepository;
+
+    @Mock
+    private CycleDefinitionRepository cycleDefinitionRepository;
+
+    @Mock
+    private ExecutedScenarioRepository executedScenarioRepository;
+
+    @Mock
+    private ProblemRepository problemRepository;
+
+    @Mock
+    private ScenarioStabilityRepository scenarioStabilityRepository;
+
+    @Mock
+    private ProblemStabilityRepository problemStabilityRepository;
+
+    @Mock
+    private GenericMapper mapper;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @InjectMocks
+    private StabilityService cut;
+
+    @Test
+    void recordExecution_ShouldDoNothing_WhenExecutionIsNotDone() {
+        // GIVEN
+        Execution execution = mock(Execution.class);
+        when(execution.getStatus()).thenReturn(JobStatus.RUNNING);
+        when(executionRepository.findById(Long.valueOf(42))).thenReturn(Optional.of(execution));
+
+        // WHEN
+        cut.recordExecution(42);
+
+        // THEN
+        verify(cycleDefinitionRepository, never()).findAndLockById(anyLong());
+        verify(problemStabilityRepository, never()).saveAll(anyCollection());
+        verify(dataVersionService, never()).incrementAfterCommit(anyLong());
+    }
+
+    @Test
+    void recordExecution_ShouldDoNothing_WhenExecutionHasNoTestDateTime() {
+        // GIVEN
+        Execution execution = mock(Execution.class);
+        when(execution.getStatus()).thenReturn(JobStatus.DONE);
+        when(execution.getTestDateTime()).thenReturn(null);
+        when(executionRepository.findById(Long.valueOf(42))).thenReturn(Optional.of(execution));
+
+        // WHEN
+        cut.recordExecution(42);
+
+        // THEN
+        verify(cycleDefinitionRepository, never()).findAndLockById(anyLong());
+        verify(scenarioStabilityRepository, never()).saveAll(anyCollection());
+        verify(problemStabilityRepository, never()).saveAll(anyCollection());
+        verify(dataVersionService, never()).incrementAfterCommit(anyLong());
+    }
+
+    @Test
+    void recordExecution_ShouldOnlyRecordOccurringAndFailingProblems_WhenExecutionIsDone() {
+        // GIVEN
+        Execution execution = execution(5, 5000);
+        when(executionRepository.findById(Long.valueOf(5))).thenReturn(Optional.of(execution));
+        when(executedScenarioRepository.findAllResultsByExecutionId(5)).thenReturn(List.of());
+
+        // Problem 10 passed in execution 1, then was left untouched until it occurs again in execution 5
+        ProblemStability passingProblem = new ProblemStability(PROJECT_ID, 10, CYCLE_DEFINITION_ID);
+        passingProblem.getWindow().record(1, new Date(1000), false);
+        // Problem 20 failed in execution 2, so it was recorded as passed in executions 3 and 4, but does not occur anymore
+        ProblemStability failingProblem = new ProblemStability(PROJECT_ID, 20, CYCLE_DEFINITION_ID);
+        failingProblem.getWindow().record(2, new Date(2000), true);
+        failingProblem.getWindow().record(3, new Date(3000), false);
+        failingProblem.getWindow().record(4, new Date(4000), false);
+        when(problemRepository.findIdsOccurringInExecution(5)).thenReturn(List.of(Long.valueOf(10), Long.valueOf(30)));
+        when(problemStabilityRepository.findAllFailingInWindow(CYCLE_DEFINITION_ID)).thenReturn(List.of(failingProblem));
+        when(problemStabilityRepository.findAllByCycleDefinitionIdAndProblemIdIn(CYCLE_DEFINITION_ID, List.of(Long.valueOf(10), Long.valueOf(30))))
+                .thenReturn(List.of(passingProblem));
+        when(executionRepository.countByCycleDefinitionIdAndStatusAndTestDateTimeAfterAndTestDateTimeBefore(CYCLE_DEFINITION_ID,
+                JobStatus.DONE, new Date(1000), new Date(5000))).thenReturn(Long.valueOf(3));
+        when(executionRepository.countByCycleDefinitionIdAndStatusAndTestDateTimeAfterAndTestDateTimeBefore(CYCLE_DEFINITION_ID,
+                JobStatus.DONE, new Date(4000), new Date(5000))).thenReturn(Long.valueOf(0));
+
+        // WHEN
+        cut.recordExecution(5);
+
+        // THEN
+        verify(cycleDefinitionRepository).findAndLockById(CYCLE_DEFINITION_ID);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ProblemStability>> savedStabilities = ArgumentCaptor.forClass(Collection.class);
+        verify(problemStabilityRepository).saveAll(savedStabilities.capture());
+        Map<Long, StabilityWindow> windows = savedStabilities.getValue().stream()
+                .collect(Collectors.toMap(ProblemStability::getProblemId, ProblemStability::getWindow));
+        assertThat(windows).containsOnlyKeys(Long.valueOf(10), Long.valueOf(20), Long.valueOf(30));
+
+        StabilityWindow passingWindow = windows.get(Long.valueOf(10));
+        assertThat(passingWindow.getExecutionCount()).isEqualTo(5);
+        assertThat(passingWindow.getFailureCount()).isEqualTo(1);
+        assertThat(passingWindow.getTransitionCount()).isEqualTo(1);
+        assertThat(passingWindow.isLastFailed()).isTrue();
+        assertThat(passingWindow.getFirstFailingExecutionId()).isEqualTo(5);
+
+        StabilityWindow failingWindow = windows.get(Long.valueOf(20));
+        assertThat(failingWindow.getExecutionCount()).isEqualTo(4);
+        assertThat(failingWindow.getFailureCount()).isEqualTo(1);
+        assertThat(failingWindow.isLastFailed()).isFalse();
+        assertThat(failingWindow.getStreakLength()).isEqualTo(3);
+
+        StabilityWindow newWindow = windows.get(Long.valueOf(30));
+        assertThat(newWindow.getExecutionCount()).isEqualTo(1);
+        assertThat(newWindow.isLastFailed()).isTrue();
+        verify(dataVersionService).incrementAfterCommit(PROJECT_ID);
+    }
+
+    @Test
+    void recordScenarios_ShouldOnlyLoadAndSaveTheStabilitiesOfTheExecutedScenarios() {
+        // GIVEN
+        CycleDefinition cycleDefinition = mock(CycleDefinition.class);
+        when(cycleDefinition.getId()).thenReturn(Long.valueOf(CYCLE_DEFINITION_ID));
+        when(cycleDefinition.getProjectId()).thenReturn(PROJECT_ID);
+        Execution execution = mock(Execution.class);
+        when(execution.getId()).thenReturn(Long.valueOf(5));
+        when(execution.getTestDateTime()).thenReturn(new Date(5000));
+        when(execution.getCycleDefinition()).thenReturn(cycleDefinition);
+        when(executedScenarioRepository.findAllResultsByExecutionId(5)).thenReturn(List.of(
+                new ExecutedScenarioResult("a", "A", "fr", "api", 0),
+                new ExecutedScenarioResult("a", "A", "fr", "api", 1),
+                new ExecutedScenarioResult("b", "B", "fr", "api", 0),
+                new ExecutedScenarioResult("c", "C", "be", "web", 0),
+                new ExecutedScenarioResult(null, "No ID", "fr", "api", 1)));
+
+        // Scenario "a" was recorded in execution 4, scenario "b" was already recorded in execution 5
+        ScenarioStability known = new ScenarioStability(PROJECT_ID, CYCLE_DEFINITION_ID, "a", "fr", "api");
+        known.getWindow().record(4, new Date(4000), false);
+        ScenarioStability alreadyRecorded = new ScenarioStability(PROJECT_ID, CYCLE_DEFINITION_ID, "b", "fr", "api");
+        alreadyRecorded.getWindow().record(5, new Date(5000), false);
+        when(scenarioStabilityRepository.findAllByCycleDefinitionIdAndCucumberIdIn(anyLong(), anyCollection()))
+                .thenReturn(List.of(known, alreadyRecorded));
+
+        // WHEN
+        cut.recordScenarios(execution);
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> loadedCucumberIds = ArgumentCaptor.forClass(Collection.class);
+        verify(scenarioStabilityRepository).findAllByCycleDefinitionIdAndCucumberIdIn(anyLong(), loadedCucumberIds.capture());
+        assertThat(loadedCucumberIds.getValue()).containsExactlyInAnyOrder("a", "b", "c");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ScenarioStability>> savedStabilities = ArgumentCaptor.forClass(Collection.class);
+        verify(scenarioStabilityRepository).saveAll(savedStabilities.capture());
+        Map<String, StabilityWindow> windows = savedStabilities.getValue().stream()
+                .collect(Collectors.toMap(ScenarioStability::getCucumberId, ScenarioStability::getWindow));
+        assertThat(windows).containsOnlyKeys("a", "c");
+        assertThat(windows.get("a").getExecutionCount()).isEqualTo(2);
+        assertThat(windows.get("a").isLastFailed()).isTrue();
+        assertThat(windows.get("c").getExecutionCount()).isEqualTo(1);
+        assertThat(windows.get("c").isLastFailed()).isFalse();
+    }
+
+    @Test
+    void deleteStaleStabilities_ShouldDeleteScenarioAndProblemStabilities() {
+        // GIVEN
+        Date purgeThresholdDate = new Date(1000);
+        when(scenarioStabilityRepository.deleteByProjectIdAndLastTestDateTimeBefore(PROJECT_ID, purgeThresholdDate)).thenReturn(3);
+        when(problemStabilityRepository.deleteByProjectIdAndLastTestDateTimeBefore(PROJECT_ID, purgeThresholdDate)).thenReturn(2);
+
+        // WHEN
+        int deletedStabilities = cut.deleteStaleStabilities(PROJECT_ID, purgeThresholdDate);
+
+        // THEN
+        assertThat(deletedStabilities).isEqualTo(5);
+    }
+
+    @Test
+    void findFlakiestProblems_ShouldCapTheLimit_WhenTooHigh() {
+        // GIVEN
+        when(problemStabilityRepository.findFlakiest(PROJECT_ID, 5, StabilityService.MAX_LIMIT)).thenReturn(List.of());
+        when(problemRepository.findAllById(anyCollection())).thenReturn(List.of());
+
+        // WHEN
+        cut.findFlakiestProblems(PROJECT_ID, 5, 10000);
+
+        // THEN
+        verify(problemStabilityRepository).findFlakiest(PROJECT_ID, 5, StabilityService.MAX_LIMIT);
+    }
+
+    private static Execution execution(long id, long testDateTime) {
+        CycleDefinition cycleDefinition = mock(CycleDefinition.class);
+        when(cycleDefinition.getId()).thenReturn(Long.valueOf(CYCLE_DEFINITION_ID));
+        when(cycleDefinition.getProjectId()).thenReturn(PROJECT_ID);
+        Execution execution = mock(Execution.class);
+        when(execution.getId()).thenReturn(Long.valueOf(id));
+        when(execution.getStatus()).thenReturn(JobStatus.DONE);
+        when(execution.getTestDateTime()).thenReturn(new Date(testDateTime));
+        when(execution.getCycleDefinition()).thenReturn(cycleDefinition);
+        return execution;
+    }
+
+}
@@ -33,6 +33,9 @@ import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Assertions;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 public final class TestUtil {
 
@@ -75,6 +78,13 @@ public final class TestUtil {
         return null;
     }
 
+    /**
+     * @return a GET request without any If-None-Match header, for controllers validating ETags
+     */
+    public static ServletWebRequest getRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
+
     public static Long[] longs(int... integers) {
         return Arrays.stream(integers).asLongStream().boxed().toArray(Long[]::new);
     }
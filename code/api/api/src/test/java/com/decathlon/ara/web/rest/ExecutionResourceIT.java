@@ -18,6 +18,7 @@
 package com.decathlon.ara.web.rest;
 
 import static com.decathlon.ara.util.TestUtil.NONEXISTENT;
+import static com.decathlon.ara.util.TestUtil.getRequest;
 import static com.decathlon.ara.util.TestUtil.header;
 import static com.decathlon.ara.util.TestUtil.longs;
 import static com.decathlon.ara.util.TestUtil.timestamp;
@@ -42,13 +43,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.TestExecutionListeners;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.decathlon.ara.ci.bean.PlannedIndexation;
@@ -279,7 +284,7 @@ class ExecutionResourceIT {
     @DatabaseSetup("/dbunit/ExecutionRepository-getLatestEligibleVersions.xml")
     void testGetLatestEligibleVersions() {
         // WHEN
-        final ResponseEntity<List<ExecutionDTO>> response = cut.getLatestEligibleVersions(PROJECT_CODE);
+        final ResponseEntity<List<ExecutionDTO>> response = cut.getLatestEligibleVersions(PROJECT_CODE, getRequest());
 
         // THEN
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -310,6 +315,26 @@ class ExecutionResourceIT {
         assertThat(execution.get(1).getAcceptance()).isEqualTo(ExecutionAcceptance.NEW);
     }
 
+    @Test
+    @DatabaseSetup("/dbunit/ExecutionRepository-getLatestEligibleVersions.xml")
+    void getLatestEligibleVersions_answerNotModified_whenTheClientHasTheCurrentETag() {
+        // GIVEN
+        final ServletWebRequest firstRequest = getRequest();
+        cut.getLatestEligibleVersions(PROJECT_CODE, firstRequest);
+        final String eTag = firstRequest.getResponse().getHeader(HttpHeaders.ETAG);
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        final ResponseEntity<List<ExecutionDTO>> entity = cut.getLatestEligibleVersions(PROJECT_CODE, new ServletWebRequest(request, response));
+
+        // THEN
+        assertThat(eTag).isNotNull();
+        assertThat(entity).isNull();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
     @Test
     @DatabaseSetup("/dbunit/brand-new-project-dataset.xml")
     void testUploadPostman() throws IOException {
@@ -35,6 +35,7 @@ import org.springframework.test.context.transaction.TransactionalTestExecutionLi
 import javax.transaction.Transactional;
 import java.util.List;
 
+import static com.decathlon.ara.util.TestUtil.getRequest;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @Disabled
@@ -57,7 +58,7 @@ class FunctionalityResourceGetAllIT {
 
     @Test
     void testGetAll() {
-        ResponseEntity<List<FunctionalityWithChildrenDTO>> response = cut.getAll(PROJECT_CODE);
+        ResponseEntity<List<FunctionalityWithChildrenDTO>> response = cut.getAll(PROJECT_CODE, getRequest());
         final List<FunctionalityWithChildrenDTO> tree = response.getBody();
 
         // Root-level nodes (check first node completely, and other nodes superficially to just check correct order)
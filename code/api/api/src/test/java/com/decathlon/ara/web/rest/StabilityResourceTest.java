@@ -0,0 +1,127 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.decathlon.ara.cache.DataVersionService;
+import com.decathlon.ara.service.ProjectService;
+import com.decathlon.ara.service.StabilityService;
+import com.decathlon.ara.service.dto.stability.ProblemStabilityDTO;
+import com.decathlon.ara.service.dto.stability.ScenarioStabilityDTO;
+import com.decathlon.ara.service.exception.NotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class StabilityResourceTest {
+
+    @Mock
+    private StabilityService service;
+
+    @Mock
+    private ProjectService projectService;
+
+    @Mock
+    private DataVersionService dataVersionService;
+
+    @Mock
+    private ServletWebRequest request;
+
+    @InjectMocks
+    private StabilityResource cut;
+
+    @Test
+    void getFlakiestScenarios_ShouldReturnTheFlakiestScenarios_WhenDataChanged() throws NotFoundException {
+        // GIVEN
+        ScenarioStabilityDTO scenario = mock(ScenarioStabilityDTO.class);
+        when(projectService.toId("p")).thenReturn(Long.valueOf(1));
+        when(dataVersionService.getETag(1)).thenReturn("\"1-2\"");
+        when(request.checkNotModified("\"1-2\"")).thenReturn(false);
+        when(service.findFlakiestScenarios(1, "fr", "api", 5, 50)).thenReturn(List.of(scenario));
+
+        // WHEN
+        ResponseEntity<List<ScenarioStabilityDTO>> response = cut.getFlakiestScenarios("p", "fr", "api", 5, 50, request);
+
+        // THEN
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(scenario);
+    }
+
+    @Test
+    void getFlakiestScenarios_ShouldNotRankScenarios_WhenClientIsUpToDate() throws NotFoundException {
+        // GIVEN
+        when(projectService.toId("p")).thenReturn(Long.valueOf(1));
+        when(dataVersionService.getETag(1)).thenReturn("\"1-2\"");
+        when(request.checkNotModified("\"1-2\"")).thenReturn(true);
+
+        // WHEN
+        ResponseEntity<List<ScenarioStabilityDTO>> response = cut.getFlakiestScenarios("p", null, null, 5, 50, request);
+
+        // THEN
+        assertThat(response).isNull();
+        verify(service, never()).findFlakiestScenarios(anyLong(), isNull(), isNull(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getFlakiestProblems_ShouldReturnTheFlakiestProblems_WhenDataChanged() throws NotFoundException {
+        // GIVEN
+        ProblemStabilityDTO problem = mock(ProblemStabilityDTO.class);
+        when(projectService.toId("p")).thenReturn(Long.valueOf(1));
+        when(dataVersionService.getETag(1)).thenReturn("\"1-2\"");
+        when(request.checkNotModified("\"1-2\"")).thenReturn(false);
+        when(service.findFlakiestProblems(1, 5, 50)).thenReturn(List.of(problem));
+
+        // WHEN
+        ResponseEntity<List<ProblemStabilityDTO>> response = cut.getFlakiestProblems("p", 5, 50, request);
+
+        // THEN
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(problem);
+    }
+
+    @Test
+    void getFlakiestProblems_ShouldReturnNotFound_WhenProjectIsUnknown() throws NotFoundException {
+        // GIVEN
+        when(projectService.toId("unknown")).thenThrow(new NotFoundException("The project does not exist.", "project"));
+
+        // WHEN
+        ResponseEntity<List<ProblemStabilityDTO>> response = cut.getFlakiestProblems("unknown", 5, 50, request);
+
+        // THEN
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(service, never()).findFlakiestProblems(anyLong(), anyInt(), anyInt());
+    }
+
+}
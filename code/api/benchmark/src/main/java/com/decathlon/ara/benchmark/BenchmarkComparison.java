@@ -0,0 +1,109 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compare two JMH JSON result files (generated with {@code -rf json}), typically of two commits, and exit with status
+ * 1 if a benchmark got slower than the allowed threshold.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.decathlon.ara.benchmark.BenchmarkComparison baseline.json candidate.json [max-regression-percent]}
+ * </p>
+ * <p>
+ * All benchmarks are run in average time mode: a higher score is a slower benchmark.
+ * </p>
+ */
+public class BenchmarkComparison {
+
+    private static final double DEFAULT_MAX_REGRESSION_PERCENT = 10;
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json> [max-regression-percent]");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = readScores(new File(args[0]));
+        Map<String, JsonNode> candidate = readScores(new File(args[1]));
+        double maxRegressionPercent = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_MAX_REGRESSION_PERCENT;
+
+        int regressions = 0;
+        System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode baselineMetric = baseline.get(entry.getKey());
+            JsonNode candidateMetric = entry.getValue();
+            double candidateScore = candidateMetric.path("score").asDouble();
+            String unit = candidateMetric.path("scoreUnit").asText();
+            if (baselineMetric == null) {
+                System.out.printf(Locale.ROOT, "%-90s %14s %14.3f %9s %s%n", entry.getKey(), "-", Double.valueOf(candidateScore), "new", unit);
+                continue;
+            }
+            double baselineScore = baselineMetric.path("score").asDouble();
+            double changePercent = baselineScore == 0 ? 0 : (candidateScore - baselineScore) * 100 / baselineScore;
+            // Changes within the measurement errors are noise, whatever their percentage
+            double errors = baselineMetric.path("scoreError").asDouble(0) + candidateMetric.path("scoreError").asDouble(0);
+            boolean regression = changePercent > maxRegressionPercent && candidateScore - baselineScore > errors;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-90s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), Double.valueOf(baselineScore),
+                    Double.valueOf(candidateScore), Double.valueOf(changePercent), unit, regression ? " REGRESSION" : "");
+        }
+        for (String benchmark : baseline.keySet()) {
+            if (!candidate.containsKey(benchmark)) {
+                System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s%n", benchmark, "", "-", "removed");
+            }
+        }
+
+        if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d benchmark(s) got more than %.1f%% slower%n", Integer.valueOf(regressions), Double.valueOf(maxRegressionPercent));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @param resultFile a JMH JSON result file
+     * @return the primary metric of each benchmark of the file, by benchmark name and parameters
+     * @throws IOException if the file cannot be read or is not JSON
+     */
+    static Map<String, JsonNode> readScores(File resultFile) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(resultFile)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            if (!params.isEmpty()) {
+                key.append(params);
+            }
+            scores.put(key.toString(), result.path("primaryMetric"));
+        }
+        return scores;
+    }
+
+}
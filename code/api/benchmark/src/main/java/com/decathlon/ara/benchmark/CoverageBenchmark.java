@@ -0,0 +1,92 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.decathlon.ara.benchmark.fixture.RepositoryStubs;
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.coverage.CountryAxisGenerator;
+import com.decathlon.ara.coverage.CoverageAxisGenerator;
+import com.decathlon.ara.coverage.CoverageService;
+import com.decathlon.ara.coverage.SeverityAxisGenerator;
+import com.decathlon.ara.coverage.TeamAxisGenerator;
+import com.decathlon.ara.domain.Functionality;
+import com.decathlon.ara.repository.CountryRepository;
+import com.decathlon.ara.repository.FunctionalityRepository;
+import com.decathlon.ara.repository.TeamRepository;
+import com.decathlon.ara.service.dto.coverage.CoverageDTO;
+
+/**
+ * Compute the functionality coverage matrix of a project, as done each time the coverage chart is displayed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoverageBenchmark {
+
+    private static final long PROJECT_ID = 1;
+
+    private static final int TEAM_COUNT = 10;
+
+    @Param({ "500", "5000" })
+    public int functionalityCount;
+
+    private CoverageService coverageService;
+
+    @Setup
+    public void setUp() {
+        SyntheticFixtures fixtures = new SyntheticFixtures(SyntheticFixtures.DEFAULT_SEED);
+        // Synthetic functionalities have no name: sort them by ID for none to be lost by the set
+        SortedSet<Functionality> functionalities = new TreeSet<>(Comparator.comparing(Functionality::getId));
+        functionalities.addAll(fixtures.functionalities(functionalityCount, TEAM_COUNT));
+        FunctionalityRepository functionalityRepository = RepositoryStubs.stub(FunctionalityRepository.class,
+                Map.of("findAllByProjectIdAndType", functionalities));
+        CountryRepository countryRepository = RepositoryStubs.stub(CountryRepository.class,
+                Map.of("findAllByProjectIdOrderByCode", fixtures.countries(PROJECT_ID)));
+        TeamRepository teamRepository = RepositoryStubs.stub(TeamRepository.class,
+                Map.of("findAllByProjectIdOrderByName", fixtures.teams(PROJECT_ID, TEAM_COUNT)));
+        coverageService = new CoverageService(functionalityRepository, new CountryAxisGenerator(countryRepository),
+                new SeverityAxisGenerator(), new TeamAxisGenerator(teamRepository), new CoverageAxisGenerator());
+    }
+
+    @Benchmark
+    public CoverageDTO computeCoverage() {
+        return coverageService.computeCoverage(PROJECT_ID);
+    }
+
+}
@@ -0,0 +1,89 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.decathlon.ara.benchmark.fixture.StubAssetService;
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.ci.service.IndexingMetrics;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.scenario.cucumber.bean.Feature;
+import com.decathlon.ara.scenario.cucumber.service.ExecutedScenarioExtractorService;
+import com.decathlon.ara.scenario.cucumber.util.CucumberReportUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Parse a Cucumber report.json and convert it to executed scenarios, as done when indexing a Cucumber run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CucumberParserBenchmark {
+
+    private static final int STEP_DEFINITION_COUNT = 200;
+
+    @Param({ "10", "50" })
+    public int featureCount;
+
+    private String reportJson;
+
+    private List<Feature> features;
+
+    private List<String> stepDefinitions;
+
+    private ExecutedScenarioExtractorService executedScenarioExtractorService;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticFixtures fixtures = new SyntheticFixtures(SyntheticFixtures.DEFAULT_SEED);
+        stepDefinitions = fixtures.stepDefinitions(STEP_DEFINITION_COUNT);
+        reportJson = fixtures.cucumberReport(featureCount, 20, 10, STEP_DEFINITION_COUNT, 20);
+        features = CucumberReportUtil.parseReportJson(reportJson);
+        executedScenarioExtractorService = new ExecutedScenarioExtractorService(new StubAssetService(), new IndexingMetrics(new SimpleMeterRegistry()), Runnable::run);
+    }
+
+    @Benchmark
+    public List<Feature> parseReportJson() throws IOException {
+        return CucumberReportUtil.parseReportJson(reportJson);
+    }
+
+    @Benchmark
+    public List<ExecutedScenario> extractExecutedScenarios() {
+        return executedScenarioExtractorService.extractExecutedScenarios(features, stepDefinitions, "http://ci/job/1/");
+    }
+
+}
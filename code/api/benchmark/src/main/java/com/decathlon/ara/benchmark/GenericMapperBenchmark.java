@@ -0,0 +1,85 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Functionality;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.service.dto.executedscenario.ExecutedScenarioDTO;
+import com.decathlon.ara.service.dto.functionality.FunctionalityDTO;
+import com.decathlon.ara.service.mapper.GenericMapper;
+
+/**
+ * Map entities to DTOs, as done by most REST resources before serializing their responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericMapperBenchmark {
+
+    @Param({ "100", "5000" })
+    public int entityCount;
+
+    private List<ExecutedScenario> executedScenarios;
+
+    private List<Functionality> functionalities;
+
+    private GenericMapper mapper;
+
+    @Setup
+    public void setUp() {
+        SyntheticFixtures fixtures = new SyntheticFixtures(SyntheticFixtures.DEFAULT_SEED);
+        executedScenarios = fixtures.execution(1, 1, entityCount, 10).getRuns().stream()
+                .map(Run::getExecutedScenarios)
+                .flatMap(Collection::stream)
+                .toList();
+        functionalities = fixtures.functionalities(entityCount, 10);
+        mapper = new GenericMapper();
+    }
+
+    @Benchmark
+    public List<ExecutedScenarioDTO> mapExecutedScenarios() {
+        return mapper.mapCollection(executedScenarios, ExecutedScenarioDTO.class);
+    }
+
+    @Benchmark
+    public List<FunctionalityDTO> mapFunctionalities() {
+        return mapper.mapCollection(functionalities, FunctionalityDTO.class);
+    }
+
+}
@@ -0,0 +1,66 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.scenario.postman.util.JavaScriptCommentRemover;
+
+/**
+ * Remove the comments of Postman scripts, as done for each request of each indexed Newman report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaScriptCommentRemoverBenchmark {
+
+    @Param({ "20", "1000" })
+    public int lineCount;
+
+    private String sourceCode;
+
+    private JavaScriptCommentRemover javaScriptCommentRemover;
+
+    @Setup
+    public void setUp() {
+        sourceCode = new SyntheticFixtures(SyntheticFixtures.DEFAULT_SEED).javaScript(lineCount);
+        javaScriptCommentRemover = new JavaScriptCommentRemover();
+    }
+
+    @Benchmark
+    public String removeComments() {
+        return javaScriptCommentRemover.removeComments(sourceCode);
+    }
+
+}
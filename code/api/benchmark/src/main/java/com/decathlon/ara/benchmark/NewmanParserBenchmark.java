@@ -0,0 +1,100 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.decathlon.ara.benchmark.fixture.StubAssetService;
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.ci.service.IndexingMetrics;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.domain.Source;
+import com.decathlon.ara.domain.Type;
+import com.decathlon.ara.scenario.postman.model.NewmanParsingResult;
+import com.decathlon.ara.scenario.postman.service.PostmanService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Stream a Newman report.json and convert it to executed scenarios, as done when indexing a Postman run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewmanParserBenchmark {
+
+    @Param({ "10", "50" })
+    public int folderCount;
+
+    private byte[] report;
+
+    private ObjectMapper objectMapper;
+
+    private PostmanService postmanService;
+
+    private Run run;
+
+    @Setup
+    public void setUp() {
+        report = new SyntheticFixtures(SyntheticFixtures.DEFAULT_SEED).newmanReport(folderCount, 20, 20).getBytes(StandardCharsets.UTF_8);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        postmanService = new PostmanService(objectMapper, new StubAssetService(), new IndexingMetrics(new SimpleMeterRegistry()), Runnable::run);
+        Source source = new Source();
+        source.setCode("postman");
+        Type type = new Type();
+        type.setSource(source);
+        run = new Run();
+        run.setType(type);
+        run.setJobUrl("http://ci/job/1/");
+    }
+
+    @Benchmark
+    public List<ExecutedScenario> parseAndPostProcess() throws IOException {
+        NewmanParsingResult result = new NewmanParsingResult();
+        try (JsonParser parser = objectMapper.getFactory().createParser(report)) {
+            postmanService.parse(parser, result);
+            return postmanService.postProcess(run, result, "collections/synthetic.json", new AtomicInteger());
+        } finally {
+            postmanService.deleteTempFiles(result);
+        }
+    }
+
+}
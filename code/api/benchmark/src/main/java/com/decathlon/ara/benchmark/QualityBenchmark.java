@@ -0,0 +1,79 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.decathlon.ara.benchmark.fixture.RepositoryStubs;
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.ci.service.QualityService;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.repository.SeverityRepository;
+import com.decathlon.ara.service.mapper.GenericMapper;
+
+/**
+ * Compute the quality status of an execution against its thresholds, as done at the end of each execution indexing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QualityBenchmark {
+
+    private static final long PROJECT_ID = 1;
+
+    @Param({ "1000", "20000" })
+    public int executedScenarioCount;
+
+    private Execution execution;
+
+    private QualityService qualityService;
+
+    @Setup
+    public void setUp() {
+        SyntheticFixtures fixtures = new SyntheticFixtures(SyntheticFixtures.DEFAULT_SEED);
+        execution = fixtures.execution(PROJECT_ID, 10, executedScenarioCount / 10, 5);
+        SeverityRepository severityRepository = RepositoryStubs.stub(SeverityRepository.class,
+                Map.of("findAllByProjectIdOrderByPosition", fixtures.severities(PROJECT_ID)));
+        qualityService = new QualityService(Jackson2ObjectMapperBuilder.json().build(), severityRepository, new GenericMapper());
+    }
+
+    @Benchmark
+    public String computeQuality() {
+        qualityService.computeQuality(execution);
+        return execution.getQualitySeverities();
+    }
+
+}
@@ -0,0 +1,91 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.domain.Scenario;
+import com.decathlon.ara.domain.Source;
+import com.decathlon.ara.scenario.cucumber.bean.Feature;
+import com.decathlon.ara.scenario.cucumber.util.CucumberReportUtil;
+import com.decathlon.ara.scenario.cucumber.util.ScenarioExtractorUtil;
+
+/**
+ * Extract the scenarios of a Cucumber dry-run report and their functionality IDs, as done when uploading scenarios
+ * for coverage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScenarioExtractorBenchmark {
+
+    @Param({ "10", "100" })
+    public int featureCount;
+
+    private Source source;
+
+    private List<Feature> features;
+
+    private List<String> scenarioNames;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticFixtures fixtures = new SyntheticFixtures(SyntheticFixtures.DEFAULT_SEED);
+        source = new Source();
+        source.setId(Long.valueOf(1));
+        source.setProjectId(1);
+        source.setCode("cucumber");
+        features = CucumberReportUtil.parseReportJson(fixtures.cucumberReport(featureCount, 20, 8, 100, 0));
+        scenarioNames = ScenarioExtractorUtil.extractScenarios(source, features).stream()
+                .map(Scenario::getName)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Scenario> extractScenarios() {
+        return ScenarioExtractorUtil.extractScenarios(source, features);
+    }
+
+    @Benchmark
+    public void extractFunctionalityIds(Blackhole blackhole) {
+        for (String scenarioName : scenarioNames) {
+            blackhole.consume(ScenarioExtractorUtil.extractFunctionalityIds(scenarioName));
+            blackhole.consume(ScenarioExtractorUtil.removeFunctionalitiesFromScenarioName(scenarioName));
+        }
+    }
+
+}
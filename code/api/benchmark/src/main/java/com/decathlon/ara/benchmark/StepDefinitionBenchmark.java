@@ -0,0 +1,82 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.scenario.cucumber.bean.Element;
+import com.decathlon.ara.scenario.cucumber.bean.Feature;
+import com.decathlon.ara.scenario.cucumber.bean.Step;
+import com.decathlon.ara.scenario.cucumber.util.CucumberReportUtil;
+import com.decathlon.ara.scenario.cucumber.util.StepDefinitionUtil;
+
+/**
+ * Match the steps of a Cucumber report against its step definitions, as done for each step of each indexed scenario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepDefinitionBenchmark {
+
+    @Param({ "50", "500" })
+    public int stepDefinitionCount;
+
+    private List<String> stepDefinitions;
+
+    private List<Step> steps;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticFixtures fixtures = new SyntheticFixtures(SyntheticFixtures.DEFAULT_SEED);
+        stepDefinitions = fixtures.stepDefinitions(stepDefinitionCount);
+        steps = new ArrayList<>();
+        for (Feature feature : CucumberReportUtil.parseReportJson(fixtures.cucumberReport(2, 10, 10, stepDefinitionCount, 20))) {
+            for (Element element : feature.getElements()) {
+                steps.addAll(List.of(element.getSteps()));
+            }
+        }
+    }
+
+    @Benchmark
+    public void extractStepDefinition(Blackhole blackhole) {
+        for (Step step : steps) {
+            blackhole.consume(StepDefinitionUtil.extractStepDefinition(step, null, stepDefinitions));
+        }
+    }
+
+}
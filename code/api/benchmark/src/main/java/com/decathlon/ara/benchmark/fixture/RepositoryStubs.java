@@ -0,0 +1,55 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark.fixture;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Implement Spring Data repository interfaces with fixed results, so services can be benchmarked without a database
+ * (and without the noise of a mocking framework).
+ */
+public final class RepositoryStubs {
+
+    private RepositoryStubs() {
+    }
+
+    /**
+     * @param repositoryType the repository interface to implement
+     * @param results        the value returned by each stubbed method, by method name, whatever the arguments
+     * @param <T>            the type of the repository
+     * @return a repository returning the given results, and throwing {@link UnsupportedOperationException} for other methods
+     */
+    public static <T> T stub(Class<T> repositoryType, Map<String, Object> results) {
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[] { repositoryType }, (instance, method, args) -> {
+            if (results.containsKey(method.getName())) {
+                return results.get(method.getName());
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> Boolean.valueOf(instance == args[0]);
+                    case "hashCode" -> Integer.valueOf(System.identityHashCode(instance));
+                    default -> repositoryType.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + method.getName() + " is not stubbed");
+        });
+        return repositoryType.cast(proxy);
+    }
+
+}
@@ -0,0 +1,37 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark.fixture;
+
+import com.decathlon.ara.scenario.cucumber.asset.AssetService;
+
+/**
+ * Pretend to save assets, so benchmarks measure report processing and not disk or network access.
+ */
+public class StubAssetService implements AssetService {
+
+    @Override
+    public String saveScreenshot(byte[] screenshot, String scenarioName) {
+        return "http://assets/screenshots/" + scenarioName + ".png";
+    }
+
+    @Override
+    public String saveHttpLogs(String html) {
+        return "http://assets/http-logs/" + html.length() + ".html";
+    }
+
+}
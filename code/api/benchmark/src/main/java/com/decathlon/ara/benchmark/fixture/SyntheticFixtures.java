@@ -0,0 +1,478 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark.fixture;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.util.ReflectionUtils;
+
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.CycleDefinition;
+import com.decathlon.ara.domain.Error;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Execution;
+import com.decathlon.ara.domain.Functionality;
+import com.decathlon.ara.domain.Run;
+import com.decathlon.ara.domain.Severity;
+import com.decathlon.ara.domain.Team;
+import com.decathlon.ara.domain.Type;
+import com.decathlon.ara.domain.enumeration.FunctionalityType;
+import com.decathlon.ara.domain.enumeration.JobStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Generate deterministic synthetic fixtures: the same seed and sizes always give the same reports and entities, so
+ * benchmark results of two commits are comparable.
+ */
+public class SyntheticFixtures {
+
+    public static final long DEFAULT_SEED = 20191001L;
+
+    public static final String[] COUNTRY_CODES = { "be", "cn", "de", "es", "fr", "it", "nl", "pt" };
+
+    public static final String[] SEVERITY_CODES = { "sanity-check", "high", "medium" };
+
+    /**
+     * The size of the screenshots embedded in failed scenarios of Cucumber reports.
+     */
+    public static final int SCREENSHOT_BYTES = 20 * 1024;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Random random;
+
+    public SyntheticFixtures(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @param count the number of step definitions to generate
+     * @return the content of a Cucumber stepDefinitions.json file
+     */
+    public List<String> stepDefinitions(int count) {
+        List<String> stepDefinitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                stepDefinitions.add("^the user does action " + i + " on \"([^\"]*)\"$");
+            } else {
+                stepDefinitions.add("^the user sees (\\d+) items? in list " + i + "$");
+            }
+        }
+        return stepDefinitions;
+    }
+
+    /**
+     * @param features             the number of features in the report
+     * @param scenariosPerFeature  the number of scenarios of each feature
+     * @param stepsPerScenario     the number of steps of each scenario
+     * @param stepDefinitionCount  the number of step definitions matched by steps (see {@link #stepDefinitions(int)})
+     * @param failurePercent       the percentage of failed scenarios
+     * @return the content of a Cucumber report.json file
+     */
+    public String cucumberReport(int features, int scenariosPerFeature, int stepsPerScenario, int stepDefinitionCount, int failurePercent) {
+        return cucumberReport(0, features, scenariosPerFeature, stepsPerScenario, stepDefinitionCount, failurePercent, 0);
+    }
+
+    /**
+     * @param firstFeature         the index of the first feature, for features of several reports of a run to be distinct
+     * @param features             the number of features in the report
+     * @param scenariosPerFeature  the number of scenarios of each feature
+     * @param stepsPerScenario     the number of steps of each scenario
+     * @param stepDefinitionCount  the number of step definitions matched by steps (see {@link #stepDefinitions(int)})
+     * @param failurePercent       the percentage of failed scenarios
+     * @param screenshots          the maximum number of failed scenarios embedding a PNG screenshot of
+     *                             {@link #SCREENSHOT_BYTES} bytes
+     * @return the content of a Cucumber report.json file
+     */
+    public String cucumberReport(int firstFeature, int features, int scenariosPerFeature, int stepsPerScenario, int stepDefinitionCount,
+            int failurePercent, int screenshots) {
+        List<Map<String, Object>> report = new ArrayList<>(features);
+        int remainingScreenshots = screenshots;
+        for (int f = firstFeature; f < firstFeature + features; f++) {
+            String featureId = "feature-" + f;
+            List<Map<String, Object>> elements = new ArrayList<>();
+            elements.add(element(featureId + ";", "", "background", "Background", 3, steps(2, stepDefinitionCount, false, false)));
+            for (int s = 0; s < scenariosPerFeature; s++) {
+                boolean failed = random.nextInt(100) < failurePercent;
+                boolean screenshot = failed && remainingScreenshots > 0;
+                if (screenshot) {
+                    remainingScreenshots--;
+                }
+                Map<String, Object> scenario = element(cucumberScenarioId(f, s, scenariosPerFeature), cucumberScenarioName(f, s, scenariosPerFeature),
+                        "scenario", "Scenario", 10 + s * (stepsPerScenario + 3), steps(stepsPerScenario, stepDefinitionCount, failed, screenshot));
+                scenario.put("tags", List.of(
+                        tag("@country-" + COUNTRY_CODES[random.nextInt(COUNTRY_CODES.length)]),
+                        tag("@severity-" + SEVERITY_CODES[random.nextInt(SEVERITY_CODES.length)])));
+                scenario.put("before", List.of(hook("Hooks.beforeScenario(Scenario)")));
+                scenario.put("after", List.of(hook("Hooks.afterScenario(Scenario)")));
+                elements.add(scenario);
+            }
+            Map<String, Object> feature = new LinkedHashMap<>();
+            feature.put("id", featureId);
+            feature.put("name", "Feature " + f);
+            feature.put("uri", cucumberFeatureUri(f));
+            feature.put("keyword", "Feature");
+            feature.put("line", Integer.valueOf(1));
+            feature.put("tags", List.of(tag("@country-all")));
+            feature.put("elements", elements);
+            report.add(feature);
+        }
+        return toJson(report);
+    }
+
+    /**
+     * @param feature             the index of the feature of the scenario
+     * @param scenario            the index of the scenario in its feature
+     * @param scenariosPerFeature the number of scenarios of each feature
+     * @return the name of the scenario in reports generated by {@link #cucumberReport(int, int, int, int, int, int, int)}:
+     * each scenario covers two functionalities
+     */
+    public static String cucumberScenarioName(int feature, int scenario, int scenariosPerFeature) {
+        int functionalityId = (feature * scenariosPerFeature + scenario) * 2 + 1;
+        return "Functionality " + functionalityId + ", " + (functionalityId + 1) + ": Scenario " + scenario + " of feature " + feature;
+    }
+
+    /**
+     * @param feature             the index of the feature of the scenario
+     * @param scenario            the index of the scenario in its feature
+     * @param scenariosPerFeature the number of scenarios of each feature
+     * @return the ID of the scenario in reports generated by {@link #cucumberReport(int, int, int, int, int, int, int)}: like
+     * Cucumber, the ID of the feature followed by the lower-cased name of the scenario, with dashes instead of spaces
+     */
+    public static String cucumberScenarioId(int feature, int scenario, int scenariosPerFeature) {
+        return "feature-" + feature + ";" + cucumberScenarioName(feature, scenario, scenariosPerFeature).toLowerCase(Locale.ROOT).replace(' ', '-');
+    }
+
+    /**
+     * @param feature the index of a feature
+     * @return the URI of the feature in reports generated by {@link #cucumberReport(int, int, int, int, int, int, int)}
+     */
+    public static String cucumberFeatureUri(int feature) {
+        return "features/feature-" + feature + ".feature";
+    }
+
+    private Map<String, Object> element(String id, String name, String type, String keyword, int line, List<Map<String, Object>> steps) {
+        Map<String, Object> element = new LinkedHashMap<>();
+        element.put("id", id);
+        element.put("name", name);
+        element.put("type", type);
+        element.put("keyword", keyword);
+        element.put("line", Integer.valueOf(line));
+        element.put("steps", steps);
+        return element;
+    }
+
+    private List<Map<String, Object>> steps(int count, int stepDefinitionCount, boolean failed, boolean screenshot) {
+        List<Map<String, Object>> steps = new ArrayList<>(count);
+        int failedStep = failed ? random.nextInt(count) : -1;
+        for (int i = 0; i < count; i++) {
+            int definition = random.nextInt(stepDefinitionCount);
+            String name;
+            Map<String, Object> argument = new LinkedHashMap<>();
+            if (definition % 2 == 0) {
+                String value = "value-" + random.nextInt(1000);
+                name = "the user does action " + definition + " on \"" + value + "\"";
+                argument.put("val", value);
+                argument.put("offset", Integer.valueOf(name.indexOf('"') + 1));
+            } else {
+                String value = String.valueOf(random.nextInt(100));
+                name = "the user sees " + value + " items in list " + definition;
+                argument.put("val", value);
+                argument.put("offset", Integer.valueOf("the user sees ".length()));
+            }
+            String status = i == failedStep ? "failed" : i > failedStep && failedStep >= 0 ? "skipped" : "passed";
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("status", status);
+            result.put("duration", Long.valueOf(1_000_000L + random.nextInt(100_000_000)));
+            if (i == failedStep) {
+                result.put("error_message", "java.lang.AssertionError: expected <" + random.nextInt(100) + "> but was <" + random.nextInt(100) + ">\n" +
+                        "\tat org.junit.Assert.fail(Assert.java:88)\n" +
+                        "\tat com.example.steps.Steps.step" + definition + "(Steps.java:" + (100 + definition) + ")\n" +
+                        "\tat ✖.When " + name + "(features/feature.feature:" + (10 + i) + ")\n");
+            }
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("name", name);
+            step.put("keyword", i == 0 ? "Given " : "When ");
+            step.put("line", Integer.valueOf(10 + i));
+            step.put("match", Map.of("location", "Steps.step" + definition + "(String)", "arguments", List.of(argument)));
+            step.put("result", result);
+            if (i == failedStep && screenshot) {
+                byte[] png = new byte[SCREENSHOT_BYTES];
+                random.nextBytes(png);
+                step.put("embeddings", List.of(Map.of("mime_type", "image/png", "data", Base64.getEncoder().encodeToString(png))));
+            }
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    private static Map<String, Object> tag(String name) {
+        return Map.of("name", name, "line", Integer.valueOf(1));
+    }
+
+    private static Map<String, Object> hook(String location) {
+        return Map.of("match", Map.of("location", location), "result", Map.of("status", "passed", "duration", Long.valueOf(1_000_000L)));
+    }
+
+    /**
+     * @param folders           the number of folders of the collection
+     * @param requestsPerFolder the number of requests of each folder
+     * @param failurePercent    the percentage of failed requests
+     * @return the content of a Newman report.json file
+     */
+    public String newmanReport(int folders, int requestsPerFolder, int failurePercent) {
+        List<Map<String, Object>> folderItems = new ArrayList<>(folders);
+        List<Map<String, Object>> executions = new ArrayList<>();
+        List<Map<String, Object>> failures = new ArrayList<>();
+        int functionalityId = 1;
+        for (int f = 0; f < folders; f++) {
+            List<Map<String, Object>> requests = new ArrayList<>(requestsPerFolder);
+            for (int r = 0; r < requestsPerFolder; r++) {
+                String id = "request-" + f + "-" + r;
+                String name = "Functionality " + functionalityId++ + ": Request " + r;
+                List<String> path = List.of("api", "folder" + f, "resource" + r);
+                Map<String, Object> url = new LinkedHashMap<>();
+                url.put("protocol", "https");
+                url.put("host", List.of("api", "example", "com"));
+                url.put("path", path);
+                Map<String, Object> request = new LinkedHashMap<>();
+                request.put("url", url);
+                request.put("method", r % 3 == 0 ? "POST" : "GET");
+                requests.add(Map.of("id", id, "name", name, "request", request));
+
+                boolean failed = random.nextInt(100) < failurePercent;
+                Map<String, Object> assertion = new LinkedHashMap<>();
+                assertion.put("assertion", "Status code is 200");
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("status", failed ? "Internal Server Error" : "OK");
+                response.put("code", Integer.valueOf(failed ? 500 : 200));
+                response.put("responseTime", Long.valueOf(random.nextInt(2000)));
+                Map<String, Object> execution = new LinkedHashMap<>();
+                execution.put("item", Map.of("id", id));
+                execution.put("request", request);
+                execution.put("response", response);
+                execution.put("assertions", List.of(assertion));
+                executions.add(execution);
+                if (failed) {
+                    Map<String, Object> error = new LinkedHashMap<>();
+                    error.put("name", "AssertionError");
+                    error.put("index", Integer.valueOf(0));
+                    error.put("message", "expected response to have status code 200 but got 500");
+                    error.put("stack", "AssertionError: expected response to have status code 200 but got 500\n   at Object.eval test.js:1:1)");
+                    failures.add(Map.of("error", error, "at", "assertion:0 in test-script", "source", Map.of("id", id, "name", name)));
+                }
+            }
+            folderItems.add(Map.of("name", "@severity-" + SEVERITY_CODES[f % SEVERITY_CODES.length] + " Folder " + f, "item", requests));
+        }
+        Map<String, Object> collection = new LinkedHashMap<>();
+        collection.put("info", Map.of("name", "Synthetic collection"));
+        collection.put("item", folderItems);
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("executions", executions);
+        run.put("failures", failures);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("collection", collection);
+        report.put("run", run);
+        return toJson(report);
+    }
+
+    /**
+     * @param index          the index of the scenario in its run, for reports of a run to be distinct
+     * @param failurePercent the percentage of chance for the scenario to have failed
+     * @return the content of a generic executed scenario report file
+     */
+    public String genericReport(int index, int failurePercent) {
+        boolean failed = random.nextInt(100) < failurePercent;
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String status = failed && i == 4 ? "failed" : "passed";
+            steps.add(Map.of("line", Long.valueOf(10L + i), "status", status, "value", Long.valueOf(random.nextInt(1000)), "content", "Step " + i));
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("code", "scenario-" + index);
+        report.put("name", "Scenario " + index);
+        report.put("cartography", List.of(Long.valueOf(index + 1L)));
+        report.put("feature", Map.of("name", "Feature " + index / 10, "file", "features/feature-" + index / 10 + ".feature", "tags", List.of("@country-all")));
+        report.put("description", Map.of("steps", steps, "start_line", Integer.valueOf(9)));
+        report.put("start", "2026-01-01T00:00:00");
+        report.put("tags", List.of("@severity-" + SEVERITY_CODES[random.nextInt(SEVERITY_CODES.length)]));
+        report.put("severity", SEVERITY_CODES[random.nextInt(SEVERITY_CODES.length)]);
+        report.put("server", "server-" + random.nextInt(5));
+        if (failed) {
+            report.put("errors", List.of(Map.of("line_number", Long.valueOf(14), "trace", "java.lang.AssertionError: failed at step 4",
+                    "scenario_line", "Step 4", "scenario_line_description", "Step 4")));
+        }
+        return toJson(report);
+    }
+
+    /**
+     * @param lines the number of lines of code
+     * @return a Postman test script with line comments, block comments and strings looking like comments
+     */
+    public String javaScript(int lines) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            switch (random.nextInt(5)) {
+                case 0 -> builder.append("// Check the response ").append(i).append('\n');
+                case 1 -> builder.append("/* Block comment ").append(i).append("\n * spanning lines */\n");
+                case 2 -> builder.append("var url").append(i).append(" = \"https://example.com/api/").append(i).append("\"; // trailing\n");
+                case 3 -> builder.append("pm.test('Status ").append(i).append(" /* not a comment */', function () { pm.response.to.have.status(200); });\n");
+                default -> builder.append("var value").append(i).append(" = pm.response.json().items[").append(i % 10).append("];\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param count the number of functionalities
+     * @param teams the number of teams functionalities are assigned to (with IDs from 1)
+     * @return functionalities spread over countries and teams
+     */
+    public List<Functionality> functionalities(int count, int teams) {
+        List<Functionality> functionalities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Functionality functionality = new Functionality();
+            functionality.setId(Long.valueOf(i + 1L));
+            functionality.setType(FunctionalityType.FUNCTIONALITY);
+            functionality.setCountryCodes(COUNTRY_CODES[random.nextInt(COUNTRY_CODES.length)] + "," + COUNTRY_CODES[random.nextInt(COUNTRY_CODES.length)]);
+            functionality.setTeamId(Long.valueOf(1L + random.nextInt(teams)));
+            functionality.setStarted(Boolean.valueOf(random.nextBoolean()));
+            functionalities.add(functionality);
+        }
+        return functionalities;
+    }
+
+    /**
+     * @param projectId the ID of the project of the countries
+     * @return the countries of {@link #COUNTRY_CODES}
+     */
+    public List<Country> countries(long projectId) {
+        List<Country> countries = new ArrayList<>(COUNTRY_CODES.length);
+        for (int i = 0; i < COUNTRY_CODES.length; i++) {
+            Country country = new Country();
+            country.setId(Long.valueOf(i + 1L));
+            country.setProjectId(projectId);
+            // Countries have no setters for their code and name
+            setField(country, "code", COUNTRY_CODES[i]);
+            setField(country, "name", "Country " + COUNTRY_CODES[i]);
+            countries.add(country);
+        }
+        return countries;
+    }
+
+    /**
+     * @param projectId the ID of the project of the teams
+     * @param count     the number of teams, assignable to functionalities, with IDs from 1
+     * @return the teams
+     */
+    public List<Team> teams(long projectId, int count) {
+        List<Team> teams = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            teams.add(new Team(Long.valueOf(i + 1L), projectId, "Team " + (i + 1), true, true, new ArrayList<>()));
+        }
+        return teams;
+    }
+
+    /**
+     * @param projectId the ID of the project of the severities
+     * @return the severities of {@link #SEVERITY_CODES}, the last one being the default one
+     */
+    public List<Severity> severities(long projectId) {
+        List<Severity> severities = new ArrayList<>(SEVERITY_CODES.length);
+        for (int i = 0; i < SEVERITY_CODES.length; i++) {
+            String code = SEVERITY_CODES[i];
+            severities.add(new Severity(Long.valueOf(i + 1L), projectId, code, i + 1, code, code, code.substring(0, 1), i == SEVERITY_CODES.length - 1));
+        }
+        return severities;
+    }
+
+    /**
+     * @param projectId        the ID of the project of the execution
+     * @param runs             the number of runs of the execution
+     * @param scenariosPerRun  the number of executed scenarios of each run
+     * @param failurePercent   the percentage of failed executed scenarios
+     * @return an execution with runs to include in quality thresholds
+     */
+    public Execution execution(long projectId, int runs, int scenariosPerRun, int failurePercent) {
+        CycleDefinition cycleDefinition = new CycleDefinition();
+        cycleDefinition.setProjectId(projectId);
+        Execution execution = new Execution();
+        execution.setCycleDefinition(cycleDefinition);
+        Map<String, Map<String, Integer>> thresholds = new LinkedHashMap<>();
+        for (String severityCode : SEVERITY_CODES) {
+            thresholds.put(severityCode, Map.of("failure", Integer.valueOf(90), "warning", Integer.valueOf(95)));
+        }
+        execution.setQualityThresholds(toJson(thresholds));
+        List<Run> allRuns = new ArrayList<>(runs);
+        for (int r = 0; r < runs; r++) {
+            // Runs are sorted by country and type in their execution: give them distinct types for none to be lost
+            Type type = new Type();
+            type.setProjectId(projectId);
+            setField(type, "code", "type-" + r);
+            Run run = new Run();
+            run.setType(type);
+            run.setStatus(JobStatus.DONE);
+            run.setIncludeInThresholds(Boolean.TRUE);
+            run.setSeverityTags("all");
+            for (int s = 0; s < scenariosPerRun; s++) {
+                ExecutedScenario executedScenario = new ExecutedScenario();
+                executedScenario.setName("Functionality " + s + ": Scenario " + s);
+                executedScenario.setLine(s + 1);
+                executedScenario.setFeatureFile("features/feature-" + r + ".feature");
+                executedScenario.setSeverity(SEVERITY_CODES[random.nextInt(SEVERITY_CODES.length)]);
+                if (random.nextInt(100) < failurePercent) {
+                    Error error = new Error();
+                    error.setStep("the user does action " + s);
+                    error.setStepDefinition("^the user does action " + s + "$");
+                    error.setException("java.lang.AssertionError: failed");
+                    executedScenario.addErrors(List.of(error));
+                }
+                run.addExecutedScenario(executedScenario);
+            }
+            allRuns.add(run);
+        }
+        execution.addRuns(allRuns);
+        return execution;
+    }
+
+    private static void setField(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        if (field == null) {
+            throw new IllegalStateException("No field " + fieldName + " in " + target.getClass().getSimpleName());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize a synthetic fixture", e);
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Call the ARA API over HTTP, like CI pipelines and the web UI do.
+ */
+public class AraClient {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+
+    private String authorization;
+
+    /**
+     * @param baseUrl the URL of the API, without trailing slash (eg. "http://localhost:8080")
+     */
+    public AraClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * @param token the bearer token sent with all requests
+     */
+    public void useToken(String token) {
+        this.authorization = "Bearer " + token;
+    }
+
+    /**
+     * Get a bearer token with the OAuth2 client credentials flow, and send it with all requests.
+     *
+     * @param tokenUrl          the token endpoint of the OAuth2 provider
+     * @param clientCredentials the Base64 of "clientId:clientSecret"
+     * @throws IOException if the token cannot be obtained
+     */
+    public void logIn(String tokenUrl, String clientCredentials) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(tokenUrl))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Basic " + clientCredentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=client_credentials"))
+                .build();
+        HttpResponse<String> response = send(request);
+        if (response.statusCode() != 200) {
+            throw new IOException("Cannot get an OAuth2 token: HTTP " + response.statusCode() + " " + response.body());
+        }
+        useToken(objectMapper.readTree(response.body()).path("access_token").asText());
+    }
+
+    public HttpResponse<String> get(String path) throws IOException {
+        return send(request(path).GET().build());
+    }
+
+    public JsonNode getJson(String path) throws IOException {
+        HttpResponse<String> response = get(path);
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + path + " failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    public HttpResponse<String> postJson(String path, Object body) throws IOException {
+        return send(request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build());
+    }
+
+    public HttpResponse<String> putJson(String path, Object body) throws IOException {
+        return send(request(path)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build());
+    }
+
+    /**
+     * @param projectCode the code of the project of the execution
+     * @param branch      the branch of the cycle definition of the execution
+     * @param cycle       the name of the cycle definition of the execution
+     * @param zip         the ZIP of the execution reports
+     * @return the response of the upload
+     * @throws IOException on network error
+     */
+    public HttpResponse<String> uploadExecution(String projectCode, String branch, String cycle, byte[] zip) throws IOException {
+        String boundary = "----ara-load-test-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(zip.length + 512);
+        body.writeBytes(("--" + boundary + "\r\n" +
+                "Content-Disposition: form-data; name=\"zip\"; filename=\"execution.zip\"\r\n" +
+                "Content-Type: application/zip\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(zip);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        String path = "/api/projects/" + projectCode + "/executions/upload?branch=" + encode(branch) + "&cycle=" + encode(cycle);
+        return send(request(path)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build());
+    }
+
+    public static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calling " + request.uri(), e);
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record the latencies of the operations of a load test, and summarize them as throughput and percentiles.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, List<Long>> latencies = new LinkedHashMap<>();
+
+    private final Map<String, Integer> failures = new LinkedHashMap<>();
+
+    /**
+     * The summary of an operation.
+     *
+     * @param operation           the name of the operation
+     * @param count               the number of successful operations
+     * @param failures            the number of failed operations
+     * @param throughputPerSecond the number of successful operations per second of the phase
+     * @param p50Millis           the median latency
+     * @param p90Millis           the 90th percentile latency
+     * @param p99Millis           the 99th percentile latency
+     * @param maxMillis           the maximum latency
+     */
+    public record Summary(String operation, int count, int failures, double throughputPerSecond, double p50Millis, double p90Millis,
+            double p99Millis, double maxMillis) {
+    }
+
+    /**
+     * @param operation    the name of the operation
+     * @param elapsedNanos the latency of the successful operation
+     */
+    public synchronized void record(String operation, long elapsedNanos) {
+        latencies.computeIfAbsent(operation, o -> new ArrayList<>()).add(Long.valueOf(elapsedNanos));
+    }
+
+    /**
+     * @param operation the name of the failed operation
+     */
+    public synchronized void fail(String operation) {
+        latencies.computeIfAbsent(operation, o -> new ArrayList<>());
+        failures.merge(operation, Integer.valueOf(1), Integer::sum);
+    }
+
+    /**
+     * @param operation  the name of the operation
+     * @param phaseNanos the duration of the phase during which the operations ran, to compute the throughput
+     * @return the summary of the operation
+     */
+    public synchronized Summary summarize(String operation, long phaseNanos) {
+        long[] sorted = latencies.getOrDefault(operation, List.of()).stream().mapToLong(Long::longValue).sorted().toArray();
+        double phaseSeconds = phaseNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return new Summary(operation,
+                sorted.length,
+                failures.getOrDefault(operation, Integer.valueOf(0)).intValue(),
+                phaseSeconds > 0 ? sorted.length / phaseSeconds : 0,
+                percentile(sorted, 50),
+                percentile(sorted, 90),
+                percentile(sorted, 99),
+                sorted.length == 0 ? 0 : toMillis(sorted[sorted.length - 1]));
+    }
+
+    /**
+     * @param sorted  the latencies, in ascending order
+     * @param percent the percentile to compute
+     * @return the latency in milliseconds under which are the given percentage of latencies (nearest-rank method)
+     */
+    static double percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return toMillis(sorted[Math.max(0, rank - 1)]);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
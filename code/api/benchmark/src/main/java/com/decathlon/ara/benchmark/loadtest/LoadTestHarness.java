@@ -0,0 +1,381 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.domain.enumeration.Technology;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Load-test a running ARA API: create a project with countries, types and a cycle definition matching the generated
+ * reports, upload and index synthetic executions, then query them, and report the throughput and latency percentiles
+ * of each operation.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.decathlon.ara.benchmark.loadtest.LoadTestHarness [--option=value]...}
+ * (see {@link #USAGE} for the options).
+ * </p>
+ */
+public class LoadTestHarness {
+
+    static final String USAGE = """
+            Options (all optional):
+              --url=http://localhost:8080      the URL of the ARA API
+              --token=...                      a bearer token to call the API with
+              --token-url=...                  or the OAuth2 token endpoint to get a token from...
+              --client-credentials=...         ...with the Base64 of "clientId:clientSecret"
+              --project=load-test              the code of the project to create (if needed) and load
+              --data-dir=...                   where the API should unzip uploaded executions (default: its setting)
+              --executions=20                  the number of executions to upload and index
+              --concurrency=2                  the number of concurrent uploads and queries
+              --countries=2                    the number of countries of each execution
+              --technologies=cucumber,postman  the technologies of the runs of each country (cucumber, cypress, postman, generic)
+              --scenarios=100                  the number of executed scenarios of each run
+              --failure-percent=10             the percentage of failed scenarios
+              --screenshots=5                  the maximum number of screenshots of each Cucumber or Cypress run
+              --seed=20191001                  the seed of the report generator
+              --queries=100                    the number of calls to each query endpoint
+              --index-timeout-seconds=600      the maximum time to wait for an execution to be indexed
+              --output=...                     a JSON file where to also write the results
+            """;
+
+    static final String UPLOAD = "upload";
+
+    static final String INDEX = "upload to quality status";
+
+    static final String QUERY_PAGE = "GET executions";
+
+    static final String QUERY_LATEST = "GET executions/latest";
+
+    static final String QUERY_ONE = "GET executions/{id}";
+
+    private static final String STILL_COMPUTING = "STILL_COMPUTING";
+
+    private static final long WAIT_SECONDS = 25;
+
+    private static final String ERROR_HEADER = "X-ara-error";
+
+    private static final String NOT_UNIQUE = "error.not_unique";
+
+    private final AraClient client;
+
+    private final String projectCode;
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private final Map<String, Object> results = new LinkedHashMap<>();
+
+    LoadTestHarness(AraClient client, String projectCode) {
+        this.client = client;
+        this.projectCode = projectCode;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("help")) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        AraClient client = new AraClient(options.getOrDefault("url", "http://localhost:8080"));
+        if (options.containsKey("token")) {
+            client.useToken(options.get("token"));
+        } else if (options.containsKey("token-url")) {
+            client.logIn(options.get("token-url"), options.get("client-credentials"));
+        }
+
+        Set<Technology> technologies = EnumSet.noneOf(Technology.class);
+        for (String technology : options.getOrDefault("technologies", "cucumber,postman").split(",")) {
+            technologies.add(Technology.valueOf(technology.trim().toUpperCase(Locale.ROOT)));
+        }
+        ReportTreeSpec spec = new ReportTreeSpec(
+                Long.parseLong(options.getOrDefault("seed", String.valueOf(SyntheticFixtures.DEFAULT_SEED))),
+                intOption(options, "countries", 2),
+                technologies,
+                intOption(options, "scenarios", 100),
+                intOption(options, "failure-percent", 10),
+                intOption(options, "screenshots", 5));
+
+        LoadTestHarness harness = new LoadTestHarness(client, options.getOrDefault("project", "load-test"));
+        harness.setUpProject(spec, options.get("data-dir"));
+        harness.runIndexing(spec, options.getOrDefault("url", "http://localhost:8080"),
+                intOption(options, "executions", 20), intOption(options, "concurrency", 2),
+                Duration.ofSeconds(intOption(options, "index-timeout-seconds", 600)));
+        harness.runQueries(intOption(options, "queries", 100), intOption(options, "concurrency", 2));
+
+        if (options.containsKey("output")) {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(new File(options.get("output")), harness.results);
+            System.out.println("Results written to " + options.get("output"));
+        }
+    }
+
+    /**
+     * Create the project and its settings, if they do not exist yet: entities already existing are kept as is.
+     *
+     * @param spec    the size of the executions to upload
+     * @param dataDir where the API should unzip uploaded executions, or null to keep the project setting
+     * @throws IOException on network error
+     */
+    void setUpProject(ReportTreeSpec spec, String dataDir) throws IOException {
+        boolean exists = false;
+        for (JsonNode project : client.getJson("/api/projects")) {
+            exists |= projectCode.equals(project.path("code").asText());
+        }
+        if (!exists) {
+            create("/api/projects", Map.of("code", projectCode, "name", "Load test " + projectCode));
+        }
+
+        String projectPath = "/api/projects/" + projectCode;
+        String[] severities = SyntheticFixtures.SEVERITY_CODES;
+        for (int i = 0; i < severities.length; i++) {
+            Map<String, Object> severity = new LinkedHashMap<>();
+            severity.put("code", severities[i]);
+            severity.put("position", Integer.valueOf(i + 1));
+            severity.put("name", severities[i]);
+            severity.put("shortName", severities[i]);
+            severity.put("initials", severities[i].substring(0, 1).toUpperCase(Locale.ROOT));
+            severity.put("defaultOnMissing", Boolean.valueOf(i == severities.length - 1));
+            create(projectPath + "/severities", severity);
+        }
+        for (String country : spec.countryCodes()) {
+            create(projectPath + "/countries", Map.of("code", country, "name", "Country " + country));
+        }
+        for (Technology technology : spec.technologies()) {
+            String code = ReportTreeSpec.typeCode(technology);
+            Map<String, Object> source = new LinkedHashMap<>();
+            source.put("code", code);
+            source.put("name", "Load " + technology.name().toLowerCase(Locale.ROOT));
+            // Cucumber and Cypress both start with a C
+            source.put("letter", technology == Technology.CYPRESS ? "Y" : technology.name().substring(0, 1));
+            source.put("technology", technology.name());
+            source.put("vcsUrl", "http://vcs/{{branch}}/" + code);
+            source.put("defaultBranch", ReportTreeGenerator.BRANCH);
+            source.put("postmanCountryRootFolders", Boolean.FALSE);
+            create(projectPath + "/sources", source);
+            create(projectPath + "/types", Map.of("code", code, "name", "Load " + technology.name().toLowerCase(Locale.ROOT),
+                    "browser", Boolean.FALSE, "mobile", Boolean.FALSE, "sourceCode", code));
+        }
+        create(projectPath + "/cycle-definitions", Map.of("branch", ReportTreeGenerator.BRANCH, "name", ReportTreeGenerator.CYCLE,
+                "branchPosition", Integer.valueOf(1)));
+
+        if (dataDir != null) {
+            setting("execution.indexer.file.executionBasePath", new File(dataDir).getAbsolutePath() + "/{{project}}/{{branch}}/{{cycle}}");
+        }
+        setting("execution.indexer.file.deleteAfterIndexingAsDone", "true");
+    }
+
+    /**
+     * Upload executions concurrently, and wait for each of them to get a quality status.
+     *
+     * @param spec         the size of the executions to upload
+     * @param baseUrl      the base URL of the job URLs of the executions
+     * @param executions   the number of executions to upload
+     * @param concurrency  the number of concurrent uploads
+     * @param indexTimeout the maximum time to wait for an execution to be indexed, before counting it as failed
+     * @throws InterruptedException if interrupted while waiting for the executions
+     */
+    void runIndexing(ReportTreeSpec spec, String baseUrl, int executions, int concurrency, Duration indexTimeout) throws InterruptedException {
+        ReportTreeGenerator generator = new ReportTreeGenerator(spec, baseUrl + "/load-test/", System.currentTimeMillis());
+        AtomicInteger scenarios = new AtomicInteger();
+        AtomicLong uploadedBytes = new AtomicLong();
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < executions; i++) {
+            int index = i;
+            executor.execute(() -> {
+                ReportTreeGenerator.GeneratedExecution execution = generator.generate(index);
+                if (uploadAndWait(execution, indexTimeout)) {
+                    scenarios.addAndGet(execution.scenarios());
+                    uploadedBytes.addAndGet(execution.zip().length);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        double hours = elapsed / (double) TimeUnit.HOURS.toNanos(1);
+        int indexed = recorder.summarize(INDEX, elapsed).count();
+        System.out.printf(Locale.ROOT, "%nIndexing: %d/%d executions (%d scenarios, %.1f MB) in %.1f s: %.0f executions/hour, %.0f scenarios/hour%n",
+                Integer.valueOf(indexed), Integer.valueOf(executions), Integer.valueOf(scenarios.get()), Double.valueOf(uploadedBytes.get() / 1_048_576.0),
+                Double.valueOf(elapsed / 1e9), Double.valueOf(indexed / hours), Double.valueOf(scenarios.get() / hours));
+        Map<String, Object> indexing = new LinkedHashMap<>();
+        indexing.put("spec", spec);
+        indexing.put("executions", Integer.valueOf(executions));
+        indexing.put("concurrency", Integer.valueOf(concurrency));
+        indexing.put("indexedExecutions", Integer.valueOf(indexed));
+        indexing.put("indexedScenarios", Integer.valueOf(scenarios.get()));
+        indexing.put("elapsedSeconds", Double.valueOf(elapsed / 1e9));
+        indexing.put("executionsPerHour", Double.valueOf(indexed / hours));
+        indexing.put("operations", report(elapsed, UPLOAD, INDEX));
+        results.put("indexing", indexing);
+    }
+
+    private boolean uploadAndWait(ReportTreeGenerator.GeneratedExecution execution, Duration indexTimeout) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> upload = client.uploadExecution(projectCode, ReportTreeGenerator.BRANCH, ReportTreeGenerator.CYCLE, execution.zip());
+            if (upload.statusCode() / 100 != 2) {
+                System.err.println("Upload of " + execution.jobUrl() + " failed: HTTP " + upload.statusCode() + " " + upload.body());
+                recorder.fail(UPLOAD);
+                recorder.fail(INDEX);
+                return false;
+            }
+            recorder.record(UPLOAD, System.nanoTime() - start);
+
+            long deadline = start + indexTimeout.toNanos();
+            String path = "/api/projects/" + projectCode + "/executions/quality-status/wait?jobUrl=" + AraClient.encode(execution.jobUrl()) +
+                    "&timeoutInSeconds=" + WAIT_SECONDS;
+            while (System.nanoTime() < deadline) {
+                HttpResponse<String> status = client.get(path);
+                if (status.statusCode() == 200 && !status.body().contains(STILL_COMPUTING)) {
+                    recorder.record(INDEX, System.nanoTime() - start);
+                    return true;
+                }
+                if (status.statusCode() != 200) {
+                    // Do not hammer the API if waiting is not supported or failing
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+                }
+            }
+            System.err.println("Execution " + execution.jobUrl() + " was not indexed after " + indexTimeout.toSeconds() + " seconds");
+        } catch (IOException e) {
+            System.err.println("Upload of " + execution.jobUrl() + " failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        recorder.fail(INDEX);
+        return false;
+    }
+
+    /**
+     * Call the execution query endpoints concurrently.
+     *
+     * @param queries     the number of calls of each endpoint
+     * @param concurrency the number of concurrent calls
+     * @throws IOException          if the executions cannot be listed
+     * @throws InterruptedException if interrupted while waiting for the queries
+     */
+    void runQueries(int queries, int concurrency) throws IOException, InterruptedException {
+        String executionsPath = "/api/projects/" + projectCode + "/executions";
+        List<String> executionIds = new ArrayList<>();
+        for (JsonNode execution : client.getJson(executionsPath + "?page=0&size=20").path("content")) {
+            executionIds.add(execution.path("id").asText());
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < queries; i++) {
+            int index = i;
+            executor.execute(() -> query(QUERY_PAGE, executionsPath + "?page=" + index % 5 + "&size=10"));
+            executor.execute(() -> query(QUERY_LATEST, executionsPath + "/latest"));
+            if (!executionIds.isEmpty()) {
+                executor.execute(() -> query(QUERY_ONE, executionsPath + "/" + executionIds.get(index % executionIds.size())));
+            }
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf(Locale.ROOT, "%nQueries: %d calls per endpoint in %.1f s%n", Integer.valueOf(queries), Double.valueOf(elapsed / 1e9));
+        Map<String, Object> querying = new LinkedHashMap<>();
+        querying.put("queries", Integer.valueOf(queries));
+        querying.put("concurrency", Integer.valueOf(concurrency));
+        querying.put("elapsedSeconds", Double.valueOf(elapsed / 1e9));
+        querying.put("operations", report(elapsed, QUERY_PAGE, QUERY_LATEST, QUERY_ONE));
+        results.put("queries", querying);
+    }
+
+    private void query(String operation, String path) {
+        long start = System.nanoTime();
+        try {
+            if (client.get(path).statusCode() == 200) {
+                recorder.record(operation, System.nanoTime() - start);
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println(operation + " failed: " + e.getMessage());
+        }
+        recorder.fail(operation);
+    }
+
+    private List<LatencyRecorder.Summary> report(long elapsed, String... operations) {
+        List<LatencyRecorder.Summary> summaries = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-26s %7s %7s %9s %10s %10s %10s %10s%n", "Operation", "OK", "Failed", "Ops/s", "p50 (ms)", "p90 (ms)", "p99 (ms)", "max (ms)");
+        for (String operation : operations) {
+            LatencyRecorder.Summary summary = recorder.summarize(operation, elapsed);
+            summaries.add(summary);
+            System.out.printf(Locale.ROOT, "%-26s %7d %7d %9.2f %10.1f %10.1f %10.1f %10.1f%n", operation, Integer.valueOf(summary.count()),
+                    Integer.valueOf(summary.failures()), Double.valueOf(summary.throughputPerSecond()), Double.valueOf(summary.p50Millis()),
+                    Double.valueOf(summary.p90Millis()), Double.valueOf(summary.p99Millis()), Double.valueOf(summary.maxMillis()));
+        }
+        return summaries;
+    }
+
+    private void create(String path, Map<String, Object> entity) throws IOException {
+        HttpResponse<String> response = client.postJson(path, entity);
+        if (response.statusCode() == 400 && NOT_UNIQUE.equals(response.headers().firstValue(ERROR_HEADER).orElse(null))) {
+            return;
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("POST " + path + " " + entity + " failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private void setting(String code, String value) throws IOException {
+        String path = "/api/projects/" + projectCode + "/settings/" + code;
+        HttpResponse<String> response = client.putJson(path, Map.of("value", value));
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("PUT " + path + " failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument " + arg + "\n" + USAGE);
+            }
+            int equals = arg.indexOf('=');
+            options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals), equals < 0 ? "" : arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+}
@@ -0,0 +1,228 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.decathlon.ara.benchmark.fixture.SyntheticFixtures;
+import com.decathlon.ara.domain.enumeration.Technology;
+import com.decathlon.ara.scenario.cucumber.util.ScenarioExtractorUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Generate the ZIP of an execution, as uploaded by CI pipelines to {@code /api/projects/{projectCode}/executions/upload}:
+ * <pre>
+ * {execution}/buildInformation.json
+ * {execution}/cycleDefinition.json
+ * {execution}/{country}/buildInformation.json
+ * {execution}/{country}/{type}/buildInformation.json
+ * {execution}/{country}/{type}/... the reports of the type's technology, at their default setting paths
+ * </pre>
+ * The content of the execution of a given index only depends on the seed of the {@link ReportTreeSpec}.
+ */
+public class ReportTreeGenerator {
+
+    public static final String PLATFORM = "integ";
+
+    public static final String BRANCH = "master";
+
+    public static final String CYCLE = "load";
+
+    private static final int STEPS_PER_SCENARIO = 8;
+
+    private static final int STEP_DEFINITION_COUNT = 100;
+
+    private static final String BUILD_INFORMATION = "buildInformation.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ReportTreeSpec spec;
+
+    private final String jobBaseUrl;
+
+    private final long runId;
+
+    /**
+     * @param spec       the size of the trees to generate
+     * @param jobBaseUrl the base URL of the fake CI jobs of the executions, ending with a slash
+     * @param runId      the identifier of the load test, for executions of different load tests to have different job URLs
+     */
+    public ReportTreeGenerator(ReportTreeSpec spec, String jobBaseUrl, long runId) {
+        this.spec = spec;
+        this.jobBaseUrl = jobBaseUrl;
+        this.runId = runId;
+    }
+
+    /**
+     * The result of the generation of an execution.
+     *
+     * @param jobUrl    the URL of the job of the execution, to query its quality status
+     * @param zip       the ZIP to upload
+     * @param scenarios the number of executed scenarios of all runs of the execution
+     */
+    public record GeneratedExecution(String jobUrl, byte[] zip, int scenarios) {
+    }
+
+    /**
+     * @param index the index of the execution in the load test
+     * @return the generated execution
+     */
+    public GeneratedExecution generate(int index) {
+        SyntheticFixtures fixtures = new SyntheticFixtures(spec.seed() + index);
+        // The execution folder must be named by digits only for the upload to find it
+        String executionFolder = runId + String.format("%06d", Integer.valueOf(index));
+        String jobUrl = jobBaseUrl + "execution/" + executionFolder + "/";
+        long timestamp = runId + index * 1000L;
+        int scenarios = 0;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            String root = executionFolder + "/";
+            write(zip, root + BUILD_INFORMATION, build(jobUrl, timestamp));
+            write(zip, root + "cycleDefinition.json", cycleDefinition());
+            for (String country : spec.countryCodes()) {
+                String countryUrl = jobUrl + country + "/";
+                write(zip, root + country + "/" + BUILD_INFORMATION, build(countryUrl, timestamp));
+                for (Technology technology : new TreeSet<>(spec.technologies())) {
+                    String type = ReportTreeSpec.typeCode(technology);
+                    String typeFolder = root + country + "/" + type + "/";
+                    write(zip, typeFolder + BUILD_INFORMATION, build(countryUrl + type + "/", timestamp));
+                    scenarios += writeReports(zip, typeFolder, technology, fixtures);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot generate execution " + index, e);
+        }
+        return new GeneratedExecution(jobUrl, bytes.toByteArray(), scenarios);
+    }
+
+    private int writeReports(ZipOutputStream zip, String typeFolder, Technology technology, SyntheticFixtures fixtures) throws IOException {
+        int features = (spec.scenarios() + ReportTreeSpec.SCENARIOS_PER_FEATURE - 1) / ReportTreeSpec.SCENARIOS_PER_FEATURE;
+        switch (technology) {
+            case CUCUMBER -> {
+                write(zip, typeFolder + "report.json", fixtures.cucumberReport(0, features, ReportTreeSpec.SCENARIOS_PER_FEATURE,
+                        STEPS_PER_SCENARIO, STEP_DEFINITION_COUNT, spec.failurePercent(), spec.screenshots()));
+                write(zip, typeFolder + "stepDefinitions.json", toJson(fixtures.stepDefinitions(STEP_DEFINITION_COUNT)));
+                return features * ReportTreeSpec.SCENARIOS_PER_FEATURE;
+            }
+            case CYPRESS -> {
+                String stepDefinitions = toJson(fixtures.stepDefinitions(STEP_DEFINITION_COUNT));
+                List<Map<String, Object>> medias = new ArrayList<>(features);
+                int remainingSnapshots = spec.screenshots();
+                for (int f = 0; f < features; f++) {
+                    write(zip, typeFolder + "reports/cucumber/feature-" + f + ".cucumber.json", fixtures.cucumberReport(f, 1,
+                            ReportTreeSpec.SCENARIOS_PER_FEATURE, STEPS_PER_SCENARIO, STEP_DEFINITION_COUNT, spec.failurePercent(), 0));
+                    write(zip, typeFolder + "stepDefinitions/feature-" + f + ".stepDefinitions.json", stepDefinitions);
+                    List<Map<String, Object>> snapshots = new ArrayList<>();
+                    for (int s = 0; s < ReportTreeSpec.SCENARIOS_PER_FEATURE && remainingSnapshots > 0; s++, remainingSnapshots--) {
+                        String id = ScenarioExtractorUtil.removeFunctionalitiesFromScenarioCucumberId(SyntheticFixtures.cucumberScenarioId(f, s, ReportTreeSpec.SCENARIOS_PER_FEATURE));
+                        snapshots.add(Map.of("id", id, "name", "Snapshot " + s, "url", "http://media/feature-" + f + "/" + s + ".png"));
+                    }
+                    Map<String, Object> media = new LinkedHashMap<>();
+                    media.put("feature", SyntheticFixtures.cucumberFeatureUri(f));
+                    media.put("video", Map.of("url", "http://media/feature-" + f + ".mp4"));
+                    media.put("snapshots", snapshots);
+                    medias.add(media);
+                }
+                write(zip, typeFolder + "media.json", toJson(medias));
+                return features * ReportTreeSpec.SCENARIOS_PER_FEATURE;
+            }
+            case POSTMAN -> {
+                int folders = (spec.scenarios() + ReportTreeSpec.REQUESTS_PER_FOLDER - 1) / ReportTreeSpec.REQUESTS_PER_FOLDER;
+                write(zip, typeFolder + "reports/collection.json", fixtures.newmanReport(folders, ReportTreeSpec.REQUESTS_PER_FOLDER, spec.failurePercent()));
+                write(zip, typeFolder + "reports/result.txt", spec.failurePercent() > 0 ? "FAILURE" : "SUCCESS");
+                return folders * ReportTreeSpec.REQUESTS_PER_FOLDER;
+            }
+            case GENERIC -> {
+                for (int i = 0; i < spec.scenarios(); i++) {
+                    write(zip, typeFolder + "reports/scenario-" + i + ".json", fixtures.genericReport(i, spec.failurePercent()));
+                }
+                return spec.scenarios();
+            }
+            default -> throw new IllegalArgumentException("Unsupported technology: " + technology);
+        }
+    }
+
+    private String build(String url, long timestamp) {
+        Map<String, Object> build = new LinkedHashMap<>();
+        build.put("url", url);
+        build.put("link", url.substring(jobBaseUrl.length() - 1));
+        build.put("result", "SUCCESS");
+        build.put("building", Boolean.FALSE);
+        build.put("duration", Long.valueOf(60_000));
+        build.put("estimatedDuration", Long.valueOf(60_000));
+        build.put("timestamp", Long.valueOf(timestamp));
+        build.put("release", "load-test");
+        build.put("version", String.valueOf(runId));
+        build.put("versionTimestamp", Long.valueOf(timestamp));
+        return toJson(build);
+    }
+
+    private String cycleDefinition() {
+        String testTypes = new TreeSet<>(spec.technologies()).stream()
+                .map(ReportTreeSpec::typeCode)
+                .collect(Collectors.joining(","));
+        List<Map<String, Object>> rules = new ArrayList<>();
+        for (String country : spec.countryCodes()) {
+            Map<String, Object> rule = new LinkedHashMap<>();
+            rule.put("country", country);
+            rule.put("testTypes", testTypes);
+            rule.put("countryTags", country);
+            rule.put("severityTags", "all");
+            rule.put("enabled", Boolean.TRUE);
+            rule.put("blockingValidation", Boolean.TRUE);
+            rules.add(rule);
+        }
+        Map<String, Object> qualityThresholds = new LinkedHashMap<>();
+        for (String severity : SyntheticFixtures.SEVERITY_CODES) {
+            qualityThresholds.put(severity, Map.of("failure", Integer.valueOf(90), "warning", Integer.valueOf(95)));
+        }
+        Map<String, Object> cycleDefinition = new LinkedHashMap<>();
+        cycleDefinition.put("blockingValidation", Boolean.TRUE);
+        cycleDefinition.put("qualityThresholds", qualityThresholds);
+        cycleDefinition.put("platforms_rules", Map.of(PLATFORM, rules));
+        return toJson(cycleDefinition);
+    }
+
+    private static void write(ZipOutputStream zip, String path, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(path));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize a generated report", e);
+        }
+    }
+
+}
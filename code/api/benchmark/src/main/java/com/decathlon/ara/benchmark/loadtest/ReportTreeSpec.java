@@ -0,0 +1,84 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.benchmark.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.decathlon.ara.domain.enumeration.Technology;
+
+/**
+ * The size of the execution report trees to generate.
+ *
+ * @param seed              the seed of the generator: the same seed gives the same trees
+ * @param countries         the number of countries of each execution (and of the project)
+ * @param technologies      the technologies of the runs of each country: one type (and source) per technology
+ * @param scenarios         the number of executed scenarios of each run
+ * @param failurePercent    the percentage of failed scenarios
+ * @param screenshots       the maximum number of screenshots of each Cucumber or Cypress run
+ */
+public record ReportTreeSpec(long seed, int countries, Set<Technology> technologies, int scenarios, int failurePercent, int screenshots) {
+
+    /**
+     * The number of Cucumber scenarios per feature, or generic reports per feature folder.
+     */
+    static final int SCENARIOS_PER_FEATURE = 10;
+
+    /**
+     * The number of Postman requests per collection folder.
+     */
+    static final int REQUESTS_PER_FOLDER = 10;
+
+    public ReportTreeSpec {
+        if (countries < 1 || countries > 26 * 26) {
+            throw new IllegalArgumentException("The number of countries must be between 1 and " + 26 * 26);
+        }
+        if (technologies.isEmpty()) {
+            throw new IllegalArgumentException("At least one technology is needed");
+        }
+        if (scenarios < 1) {
+            throw new IllegalArgumentException("At least one scenario per run is needed");
+        }
+        if (failurePercent < 0 || failurePercent > 100) {
+            throw new IllegalArgumentException("The failure percentage must be between 0 and 100");
+        }
+        technologies = Set.copyOf(technologies);
+    }
+
+    /**
+     * @return the codes of the countries: "aa", "ab", "ac"...
+     */
+    public List<String> countryCodes() {
+        List<String> codes = new ArrayList<>(countries);
+        for (int i = 0; i < countries; i++) {
+            codes.add("" + (char) ('a' + i / 26) + (char) ('a' + i % 26));
+        }
+        return codes;
+    }
+
+    /**
+     * @param technology a technology of the runs
+     * @return the code of the type (and of its source) of the runs of this technology
+     */
+    public static String typeCode(Technology technology) {
+        return "load-" + technology.name().toLowerCase(Locale.ROOT);
+    }
+
+}
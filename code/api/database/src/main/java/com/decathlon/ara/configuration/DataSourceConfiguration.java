@@ -24,6 +24,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
 import org.springframework.retry.annotation.EnableRetry;
 
 /**
@@ -47,7 +48,8 @@ public class DataSourceConfiguration {
 
         @Override
         public Object postProcessBeforeInitialization(Object bean, String beanName) {
-            if (bean instanceof DataSource) {
+            // Proxies (like the one routing to the read-only replicas) delegate to a data source already retrying
+            if (bean instanceof DataSource && !(bean instanceof DelegatingDataSource)) {
                 bean = new RetryableDataSource((DataSource) bean);
             }
             return bean;
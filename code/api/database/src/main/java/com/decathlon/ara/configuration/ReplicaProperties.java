@@ -0,0 +1,143 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>The read-only replicas of the database (see {@link ReplicaRouter}).</p>
+ * <p>
+ * When enabled, the read-only transactions are run on one of the healthy replicas (in turn), and all other queries on
+ * the primary database configured by "spring.datasource.*". All replicas share the driver of the primary database.
+ * </p>
+ */
+@Configuration
+@ConfigurationProperties("ara.database.replicas")
+public class ReplicaProperties {
+
+    /**
+     * True to run the read-only transactions on the replicas.
+     */
+    private boolean enabled;
+
+    /**
+     * The JDBC URLs of the replicas.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * The user connecting to the replicas.
+     */
+    private String username;
+
+    /**
+     * The password of the user connecting to the replicas.
+     */
+    private String password;
+
+    /**
+     * How long to wait for a connection to a replica before falling back to the primary database.
+     */
+    private long connectionTimeoutInMilliseconds = 2000;
+
+    /**
+     * A query returning the replication lag of a replica, in seconds, or empty if the database cannot tell it: the lag is
+     * then considered to be zero.
+     */
+    private String lagQuery;
+
+    /**
+     * A replica lagging more than this behind the primary database is not used until it catches up.
+     */
+    private long maxLagInMilliseconds = 10000;
+
+    /**
+     * After a write on this node, the replicas are not used during their lag plus this margin, for the next reads to see
+     * the write.
+     */
+    private long readYourWritesMarginInMilliseconds = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public long getConnectionTimeoutInMilliseconds() {
+        return connectionTimeoutInMilliseconds;
+    }
+
+    public void setConnectionTimeoutInMilliseconds(long connectionTimeoutInMilliseconds) {
+        this.connectionTimeoutInMilliseconds = connectionTimeoutInMilliseconds;
+    }
+
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+
+    public long getMaxLagInMilliseconds() {
+        return maxLagInMilliseconds;
+    }
+
+    public void setMaxLagInMilliseconds(long maxLagInMilliseconds) {
+        this.maxLagInMilliseconds = maxLagInMilliseconds;
+    }
+
+    public long getReadYourWritesMarginInMilliseconds() {
+        return readYourWritesMarginInMilliseconds;
+    }
+
+    public void setReadYourWritesMarginInMilliseconds(long readYourWritesMarginInMilliseconds) {
+        this.readYourWritesMarginInMilliseconds = readYourWritesMarginInMilliseconds;
+    }
+
+}
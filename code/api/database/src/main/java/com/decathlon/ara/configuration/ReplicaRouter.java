@@ -0,0 +1,228 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.configuration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * <p>Chooses the database running each query, when read-only replicas are configured (see {@link ReplicaProperties}).</p>
+ * <p>
+ * Read-only transactions run on the healthy replicas in turn, and everything else on the primary database. The replicas
+ * are checked every few seconds: a replica failing its check, or lagging too much behind the primary database, is not
+ * used until a next check succeeds. Without any usable replica, everything runs on the primary database.
+ * </p>
+ * <p>
+ * Replicas lag behind the primary database: after a write on this node (an indexed execution, an evicted cache...),
+ * {@link #recordWrite()} makes reads go to the primary database for the measured lag of the replicas plus a margin, so
+ * that clients (and the second-level cache) do not read stale data from a replica.
+ * </p>
+ */
+@Component
+public class ReplicaRouter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    private final ReplicaProperties properties;
+
+    private final List<Replica> replicas;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private volatile long lastWriteMillis;
+
+    @Autowired
+    public ReplicaRouter(ReplicaProperties properties, DataSourceProperties dataSourceProperties) {
+        this(properties, properties.isEnabled() ? createReplicaDataSources(properties, dataSourceProperties) : List.of());
+    }
+
+    ReplicaRouter(ReplicaProperties properties, List<DataSource> replicaDataSources) {
+        this.properties = properties;
+        this.replicas = new ArrayList<>();
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            replicas.add(new Replica("replica-" + (i + 1), replicaDataSources.get(i)));
+        }
+    }
+
+    private static List<DataSource> createReplicaDataSources(ReplicaProperties properties, DataSourceProperties dataSourceProperties) {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (String url : properties.getUrls()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + (dataSources.size() + 1));
+            dataSource.setDriverClassName(dataSourceProperties.getDriverClassName());
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(properties.getUsername());
+            dataSource.setPassword(properties.getPassword());
+            dataSource.setReadOnly(true);
+            dataSource.setConnectionTimeout(properties.getConnectionTimeoutInMilliseconds());
+            dataSources.add(dataSource);
+        }
+        return dataSources;
+    }
+
+    /**
+     * @return true if read-only transactions can run on replicas
+     */
+    public boolean isEnabled() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * Record a write committed on this node (or replayed from another one): until the replicas replicated it, the next
+     * reads will go to the primary database.
+     */
+    public void recordWrite() {
+        if (isEnabled()) {
+            lastWriteMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return the replica to run the current query on, or empty to run it on the primary database: outside of a
+     * read-only transaction, when no replica is healthy, or when the replicas did not replicate the last write yet
+     */
+    Optional<Replica> selectReplica() {
+        if (!isEnabled() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Optional.empty();
+        }
+        final long sinceLastWriteMillis = System.currentTimeMillis() - lastWriteMillis;
+        final List<Replica> usableReplicas = replicas.stream()
+                .filter(replica -> replica.isHealthy()
+                        && replica.getLagMillis() <= properties.getMaxLagInMilliseconds()
+                        && replica.getLagMillis() + properties.getReadYourWritesMarginInMilliseconds() < sinceLastWriteMillis)
+                .collect(Collectors.toList());
+        if (usableReplicas.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(usableReplicas.get(Math.floorMod(nextReplica.getAndIncrement(), usableReplicas.size())));
+    }
+
+    /**
+     * Check the connection to each replica, and measure its lag behind the primary database.
+     */
+    @Scheduled(fixedDelayString = "${ara.database.replicas.health-check-delay-in-milliseconds:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.getDataSource().getConnection()) {
+                final int timeoutSeconds = (int) Math.max(1, properties.getConnectionTimeoutInMilliseconds() / 1000);
+                if (!connection.isValid(timeoutSeconds)) {
+                    throw new SQLException("The connection is not valid");
+                }
+                replica.up(measureLagMillis(connection));
+            } catch (SQLException | RuntimeException e) {
+                replica.down(e);
+            }
+        }
+    }
+
+    private long measureLagMillis(Connection connection) throws SQLException {
+        if (StringUtils.isBlank(properties.getLagQuery())) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+            return resultSet.next() ? Math.round(resultSet.getDouble(1) * 1000) : 0;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.getDataSource() instanceof HikariDataSource) {
+                ((HikariDataSource) replica.getDataSource()).close();
+            }
+        }
+    }
+
+    /**
+     * A replica, with the result of its last check. It is not used before a first successful check.
+     */
+    static class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean checked;
+
+        private volatile boolean healthy;
+
+        private volatile long lagMillis;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void up(long newLagMillis) {
+            if (!healthy) {
+                LOG.info("DATABASE|The {} database is up: read-only transactions can run on it", name);
+            }
+            lagMillis = newLagMillis;
+            healthy = true;
+            checked = true;
+        }
+
+        void down(Exception cause) {
+            if (healthy || !checked) {
+                LOG.warn("DATABASE|The {} database is down: read-only transactions will run on the other databases", name, cause);
+            }
+            healthy = false;
+            checked = true;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        DataSource getDataSource() {
+            return dataSource;
+        }
+
+        boolean isHealthy() {
+            return healthy;
+        }
+
+        long getLagMillis() {
+            return lagMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.configuration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Gives connections to the replica chosen by the {@link ReplicaRouter}, or to the primary database. If the chosen replica
+ * cannot give a connection, it is considered down until its next successful check, and the primary database is used.<br>
+ * Wrap it in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transactions ask for their
+ * connection before being flagged as read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+
+    private final ReplicaRouter router;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaRouter router) {
+        this.primary = primary;
+        this.router = router;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        final Optional<ReplicaRouter.Replica> replica = router.selectReplica();
+        if (replica.isPresent()) {
+            try {
+                return replica.get().getDataSource().getConnection();
+            } catch (SQLException | RuntimeException e) {
+                replica.get().down(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+}
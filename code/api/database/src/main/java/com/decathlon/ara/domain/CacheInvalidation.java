@@ -0,0 +1,101 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Lob;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * A second-level cache eviction made by an ARA node, logged for the other nodes of the cluster to replay it on their
+ * own cache.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "creation_date_time"))
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cache_invalidation_id")
+    @SequenceGenerator(name = "cache_invalidation_id", sequenceName = "cache_invalidation_id", allocationSize = 1)
+    private Long id;
+
+    /**
+     * The evicted cache region: an entity name or a collection role (in form [owner-entity-name].[collection-property-name]).
+     */
+    @Column(length = 255, nullable = false)
+    private String region;
+
+    /**
+     * The comma-separated identifiers of the evicted entities or collection owners, or null if the whole region was
+     * evicted.
+     */
+    @Lob
+    @org.hibernate.annotations.Type(type = "org.hibernate.type.TextType")
+    private String ownerIds;
+
+    /**
+     * The identifier of the node that made the eviction, and that must not replay it.
+     */
+    @Column(length = 255)
+    private String node;
+
+    @Column(name = "creation_date_time", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date creationDateTime;
+
+    public CacheInvalidation() {
+    }
+
+    public CacheInvalidation(String region, String ownerIds, String node, Date creationDateTime) {
+        this.region = region;
+        this.ownerIds = ownerIds;
+        this.node = node;
+        this.creationDateTime = creationDateTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getOwnerIds() {
+        return ownerIds;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public Date getCreationDateTime() {
+        return creationDateTime;
+    }
+
+}
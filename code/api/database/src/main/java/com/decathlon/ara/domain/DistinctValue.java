@@ -0,0 +1,139 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+
+import com.decathlon.ara.domain.enumeration.DistinctProperty;
+
+/**
+ * One distinct value of an error property in a project, with the number of indexed rows having it: the dictionaries
+ * of the problem pattern editor are read from here instead of scanning all errors of the project.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "project_id", "property", "value_hash" }),
+        indexes = @Index(columnList = "project_id, property, property_value"))
+public class DistinctValue {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "distinct_value_id")
+    @SequenceGenerator(name = "distinct_value_id", sequenceName = "distinct_value_id", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32, nullable = false)
+    private DistinctProperty property;
+
+    @Column(name = "property_value", length = 2048, nullable = false)
+    private String value;
+
+    /**
+     * The {@link #hash(String) hash} of the value: values are too long to be unique keys of all databases.
+     */
+    @Column(name = "value_hash", length = 64, nullable = false)
+    private String valueHash;
+
+    /**
+     * The number of executions (releases), runs (countries, types and platforms), executed scenarios (features and
+     * scenario names) or errors (steps) having this value.
+     */
+    @Column(name = "occurrence_count", nullable = false)
+    private long occurrenceCount;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "last_seen_date_time")
+    private Date lastSeenDateTime;
+
+    public DistinctValue() {
+    }
+
+    public DistinctValue(long projectId, DistinctProperty property, String value, long occurrenceCount, Date lastSeenDateTime) {
+        this.projectId = projectId;
+        this.property = property;
+        this.value = value;
+        this.valueHash = hash(value);
+        this.occurrenceCount = occurrenceCount;
+        this.lastSeenDateTime = lastSeenDateTime;
+    }
+
+    /**
+     * @param value a distinct value
+     * @return the lowercase hexadecimal SHA-256 of the UTF-8 value (also computed by the database migrations)
+     */
+    public static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is supported by all Java platforms", e);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public DistinctProperty getProperty() {
+        return property;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getValueHash() {
+        return valueHash;
+    }
+
+    public long getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public Date getLastSeenDateTime() {
+        return lastSeenDateTime;
+    }
+
+}
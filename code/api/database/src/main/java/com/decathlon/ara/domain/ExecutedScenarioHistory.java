@@ -0,0 +1,112 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Compact, time-ordered copy of the keys of an {@link ExecutedScenario}, used to read the history of a scenario without
+ * joining {@link ExecutedScenario}, {@link Run}, {@link Execution}, {@link CycleDefinition}, {@link Country} and
+ * {@link Type}.<br>
+ * Rows are appended when an execution is indexed, and are deleted by database cascade with their executed scenario.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "project_id, cucumber_id, test_date_time"))
+public class ExecutedScenarioHistory {
+
+    @Id
+    @Column(name = "executed_scenario_id")
+    private Long executedScenarioId;
+
+    @Column(name = "project_id", nullable = false)
+    private long projectId;
+
+    @Column(length = 640)
+    private String cucumberId;
+
+    @Column(name = "execution_id", nullable = false)
+    private long executionId;
+
+    @Column(name = "run_id", nullable = false)
+    private long runId;
+
+    @Column(length = 16)
+    private String branch;
+
+    @Column(length = 16)
+    private String cycleName;
+
+    @Column(length = 2)
+    private String countryCode;
+
+    @Column(length = 16)
+    private String typeCode;
+
+    @Column(name = "test_date_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date testDateTime;
+
+    public Long getExecutedScenarioId() {
+        return executedScenarioId;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public String getCucumberId() {
+        return cucumberId;
+    }
+
+    public long getExecutionId() {
+        return executionId;
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public String getBranch() {
+        return branch;
+    }
+
+    public String getCycleName() {
+        return cycleName;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public String getTypeCode() {
+        return typeCode;
+    }
+
+    public Date getTestDateTime() {
+        return testDateTime;
+    }
+
+}
@@ -163,6 +163,11 @@ public class Execution {
      */
     private Long estimatedDuration;
 
+    /**
+     * True if the execution was restored from its archive after having been purged: it is then never purged again.
+     */
+    private boolean restored;
+
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "execution", orphanRemoval = true)
     @OnDelete(action = OnDeleteAction.CASCADE)
     // Run, Country & Type have compareTo(other) implementing "ORDER BY country.name ASC, type.name ASC"
@@ -373,6 +378,14 @@ public class Execution {
         this.estimatedDuration = estimatedDuration;
     }
 
+    public boolean isRestored() {
+        return restored;
+    }
+
+    public void setRestored(boolean restored) {
+        this.restored = restored;
+    }
+
     public Set<Run> getRuns() {
         return runs;
     }
@@ -124,6 +124,12 @@ public class Problem implements Comparable<Problem> {
     @Temporal(TemporalType.TIMESTAMP)
     private Date lastSeenDateTime;
 
+    /**
+     * This is a de-normalized field holding the number of errors assigned to this problem by its patterns.
+     */
+    @Column(name = "occurrence_count")
+    private long occurrenceCount;
+
     /**
      * @return the status effectively displayed for the problem (REAPPEARED effectiveStatus can hide the CLOSED status
      * if the problem reappeared after its closing date)
@@ -298,4 +304,12 @@ public class Problem implements Comparable<Problem> {
         this.lastSeenDateTime = lastSeenDateTime;
     }
 
+    public long getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(long occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+
 }
@@ -0,0 +1,86 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * The stability of a problem across the executions of a cycle: the problem "fails" in an execution when at least one
+ * of its patterns matched an error of that execution.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "problem_id", "cycle_definition_id" }),
+        indexes = @Index(columnList = "project_id, flakiness"))
+public class ProblemStability {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "problem_stability_id")
+    @SequenceGenerator(name = "problem_stability_id", sequenceName = "problem_stability_id", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private long projectId;
+
+    @Column(name = "problem_id", nullable = false)
+    private long problemId;
+
+    @Column(name = "cycle_definition_id", nullable = false)
+    private long cycleDefinitionId;
+
+    @Embedded
+    private StabilityWindow window = new StabilityWindow();
+
+    public ProblemStability() {
+    }
+
+    public ProblemStability(long projectId, long problemId, long cycleDefinitionId) {
+        this.projectId = projectId;
+        this.problemId = problemId;
+        this.cycleDefinitionId = cycleDefinitionId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public long getProblemId() {
+        return problemId;
+    }
+
+    public long getCycleDefinitionId() {
+        return cycleDefinitionId;
+    }
+
+    public StabilityWindow getWindow() {
+        return window;
+    }
+
+}
@@ -0,0 +1,65 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * The version of the data of a project, incremented each time an execution is indexed or an admin changes the
+ * project: REST clients use it to validate what they cached (see ETag and If-None-Match HTTP headers).
+ */
+@Entity
+public class ProjectDataVersion {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Incremented only when the functionalities of the project or their coverage change, with {@link #version}.
+     */
+    @Column(name = "functionality_version", nullable = false)
+    private long functionalityVersion;
+
+    public ProjectDataVersion() {
+    }
+
+    public ProjectDataVersion(Long projectId, long version, long functionalityVersion) {
+        this.projectId = projectId;
+        this.version = version;
+        this.functionalityVersion = functionalityVersion;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getFunctionalityVersion() {
+        return functionalityVersion;
+    }
+
+}
@@ -0,0 +1,98 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * The progress of the running (or last) purge of a project, saved by the node running the purge so that any node can
+ * report it.
+ */
+@Entity
+public class ProjectPurgeProgress {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(length = 16, nullable = false)
+    private String status;
+
+    private long executionsToDelete;
+
+    private long deletedExecutions;
+
+    private long deletedRows;
+
+    @Column(name = "start_date_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date startDateTime;
+
+    @Column(name = "end_date_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date endDateTime;
+
+    public ProjectPurgeProgress() {
+    }
+
+    public ProjectPurgeProgress(Long projectId, String status, long executionsToDelete, long deletedExecutions, long deletedRows,
+            Date startDateTime, Date endDateTime) {
+        this.projectId = projectId;
+        this.status = status;
+        this.executionsToDelete = executionsToDelete;
+        this.deletedExecutions = deletedExecutions;
+        this.deletedRows = deletedRows;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getExecutionsToDelete() {
+        return executionsToDelete;
+    }
+
+    public long getDeletedExecutions() {
+        return deletedExecutions;
+    }
+
+    public long getDeletedRows() {
+        return deletedRows;
+    }
+
+    public Date getStartDateTime() {
+        return startDateTime;
+    }
+
+    public Date getEndDateTime() {
+        return endDateTime;
+    }
+
+}
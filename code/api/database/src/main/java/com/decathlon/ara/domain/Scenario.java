@@ -17,6 +17,8 @@
 
 package com.decathlon.ara.domain;
 
+import org.apache.commons.lang3.StringUtils;
+
 import javax.persistence.*;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -26,6 +28,7 @@ import java.util.Set;
 import static java.util.Comparator.*;
 
 @Entity
+@Table(indexes = @Index(columnList = "source_id, functionality_errors"))
 public class Scenario implements Comparable<Scenario> {
 
     public static final String COUNTRY_CODES_SEPARATOR = ",";
@@ -82,6 +85,20 @@ public class Scenario implements Comparable<Scenario> {
 
     private int line;
 
+    /**
+     * The number of functionalities covered by this scenario, maintained alongside the functionality_coverage links so
+     * listings do not have to count them for each scenario.
+     */
+    @Column(name = "functionality_count")
+    private int functionalityCount;
+
+    /**
+     * True if the scenario covers no functionality, or if its functionality IDs, country codes or severity are missing
+     * or wrong: maintained by {@link #updateFunctionalityErrors()} each time one of these properties change.
+     */
+    @Column(name = "functionality_errors")
+    private boolean functionalityErrors;
+
     @Lob
     @org.hibernate.annotations.Type(type = "org.hibernate.type.TextType")
     private String content;
@@ -99,6 +116,18 @@ public class Scenario implements Comparable<Scenario> {
         functionality.getScenarios().remove(this);
     }
 
+    /**
+     * Recompute {@link #functionalityErrors} from the current {@link #functionalityCount} and the wrong* properties.
+     */
+    public void updateFunctionalityErrors() {
+        this.functionalityErrors = functionalityCount == 0
+                || StringUtils.isNotEmpty(wrongFunctionalityIds)
+                || StringUtils.isEmpty(countryCodes)
+                || StringUtils.isNotEmpty(wrongCountryCodes)
+                || StringUtils.isEmpty(severity)
+                || StringUtils.isNotEmpty(wrongSeverityCode);
+    }
+
     @Override
     public int compareTo(Scenario other) {
         Comparator<Scenario> sourceComparator = comparing(Scenario::getSource, nullsFirst(naturalOrder()));
@@ -241,6 +270,18 @@ public class Scenario implements Comparable<Scenario> {
         this.line = line;
     }
 
+    public int getFunctionalityCount() {
+        return functionalityCount;
+    }
+
+    public void setFunctionalityCount(int functionalityCount) {
+        this.functionalityCount = functionalityCount;
+    }
+
+    public boolean hasFunctionalityErrors() {
+        return functionalityErrors;
+    }
+
     public String getContent() {
         return content;
     }
@@ -0,0 +1,112 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * The stability of a scenario, for one country and type, across the executions of a cycle.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "cycle_definition_id", "cucumber_id", "country_code", "type_code" }),
+        indexes = @Index(columnList = "project_id, flakiness"))
+public class ScenarioStability {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scenario_stability_id")
+    @SequenceGenerator(name = "scenario_stability_id", sequenceName = "scenario_stability_id", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private long projectId;
+
+    @Column(name = "cycle_definition_id", nullable = false)
+    private long cycleDefinitionId;
+
+    @Column(name = "cucumber_id", length = 640)
+    private String cucumberId;
+
+    @Column(length = 512)
+    private String name;
+
+    @Column(name = "country_code", length = 2)
+    private String countryCode;
+
+    @Column(name = "type_code", length = 16)
+    private String typeCode;
+
+    @Embedded
+    private StabilityWindow window = new StabilityWindow();
+
+    public ScenarioStability() {
+    }
+
+    public ScenarioStability(long projectId, long cycleDefinitionId, String cucumberId, String countryCode, String typeCode) {
+        this.projectId = projectId;
+        this.cycleDefinitionId = cycleDefinitionId;
+        this.cucumberId = cucumberId;
+        this.countryCode = countryCode;
+        this.typeCode = typeCode;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getProjectId() {
+        return projectId;
+    }
+
+    public long getCycleDefinitionId() {
+        return cycleDefinitionId;
+    }
+
+    public String getCucumberId() {
+        return cucumberId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public String getTypeCode() {
+        return typeCode;
+    }
+
+    public StabilityWindow getWindow() {
+        return window;
+    }
+
+}
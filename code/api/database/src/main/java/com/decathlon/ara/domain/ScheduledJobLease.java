@@ -0,0 +1,105 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * The lease of a scheduled job, shared by all ARA nodes of a cluster so that only the node holding the lease runs the
+ * job.<br>
+ * A node holds the lease until {@link #lockedUntil}: if it dies, another node takes the lease over once it expired.
+ */
+@Entity
+public class ScheduledJobLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(length = 255)
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lockedAt;
+
+    @Column(name = "locked_until")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lockedUntil;
+
+    @Column(length = 255)
+    private String lastRunBy;
+
+    @Column(name = "last_run_start_date_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastRunStartDateTime;
+
+    /**
+     * The duration of the last run, in milliseconds.
+     */
+    private Long lastRunDuration;
+
+    private Boolean lastRunSucceeded;
+
+    public ScheduledJobLease() {
+    }
+
+    public ScheduledJobLease(String name, Date lockedUntil) {
+        this.name = name;
+        this.lockedUntil = lockedUntil;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getLockedBy() {
+        return lockedBy;
+    }
+
+    public Date getLockedAt() {
+        return lockedAt;
+    }
+
+    public Date getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public String getLastRunBy() {
+        return lastRunBy;
+    }
+
+    public Date getLastRunStartDateTime() {
+        return lastRunStartDateTime;
+    }
+
+    public Long getLastRunDuration() {
+        return lastRunDuration;
+    }
+
+    public Boolean getLastRunSucceeded() {
+        return lastRunSucceeded;
+    }
+
+}
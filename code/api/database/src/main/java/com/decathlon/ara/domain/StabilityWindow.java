@@ -0,0 +1,205 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Pass/fail statistics of something (a scenario, a problem...) observed across the successive executions of a cycle.<br>
+ * Statistics are updated incrementally, one execution at a time, in test date-time order: executions older than the
+ * last recorded one are ignored.<br>
+ * Counts and flakiness only cover the last {@link #SIZE} recorded executions, so that they reflect the current
+ * behavior of the observed thing instead of accumulating forever.
+ */
+@Embeddable
+public class StabilityWindow {
+
+    /**
+     * The number of last recorded executions covered by the counts and flakiness of the window.
+     */
+    public static final int SIZE = Long.SIZE;
+
+    /**
+     * The results of the last recorded executions, one bit per execution (set if the observed thing failed): the
+     * lowest bit is the last recorded execution.
+     */
+    @Column(name = "recent_results")
+    private long recentResults;
+
+    /**
+     * The number of executions in which the observed thing was recorded, within the window.
+     */
+    private int executionCount;
+
+    /**
+     * The number of executions in which the observed thing failed, within the window.
+     */
+    private int failureCount;
+
+    /**
+     * The number of times the observed thing went from passed to failed, or from failed to passed, between two
+     * successive executions of the window.
+     */
+    private int transitionCount;
+
+    /**
+     * True if the observed thing failed in the last recorded execution.
+     */
+    private boolean lastFailed;
+
+    /**
+     * The number of successive executions (ending with the last recorded one) having the same result.
+     */
+    private int streakLength;
+
+    /**
+     * The first execution of the current failing streak, or null if the last recorded execution passed.
+     */
+    @Column(name = "first_failing_execution_id")
+    private Long firstFailingExecutionId;
+
+    @Column(name = "first_failing_date_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date firstFailingDateTime;
+
+    @Column(name = "last_execution_id")
+    private Long lastExecutionId;
+
+    @Column(name = "last_test_date_time")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastTestDateTime;
+
+    /**
+     * From 0 (always the same result) to 1 (the result changed at each execution): the ratio of transitions over the
+     * number of possible transitions. Stored to be able to rank the flakiest things in database.
+     */
+    private double flakiness;
+
+    /**
+     * Record the result of a new execution.
+     *
+     * @param executionId  the ID of the execution
+     * @param testDateTime the test date-time of the execution
+     * @param failed       true if the observed thing failed in this execution
+     * @return true if the execution was recorded, false if it has no test date-time, was already recorded or is older
+     * than the last one
+     */
+    public boolean record(long executionId, Date testDateTime, boolean failed) {
+        if (testDateTime == null) {
+            return false;
+        }
+        if (lastTestDateTime != null && (Long.valueOf(executionId).equals(lastExecutionId) || !testDateTime.after(lastTestDateTime))) {
+            return false;
+        }
+
+        if (failed && (executionCount == 0 || !lastFailed)) {
+            firstFailingExecutionId = executionId;
+            firstFailingDateTime = testDateTime;
+        } else if (!failed) {
+            firstFailingExecutionId = null;
+            firstFailingDateTime = null;
+        }
+        shift(1, failed);
+        lastExecutionId = executionId;
+        lastTestDateTime = testDateTime;
+        return true;
+    }
+
+    /**
+     * Record passed results for executions that were not recorded one by one, because the observed thing did not
+     * occur in them (eg. a problem not matching any error of these executions).
+     *
+     * @param count the number of passed executions to record, after the last recorded one
+     */
+    public void recordPasses(int count) {
+        if (count <= 0) {
+            return;
+        }
+        firstFailingExecutionId = null;
+        firstFailingDateTime = null;
+        shift(count, false);
+    }
+
+    private void shift(int count, boolean lastOneFailed) {
+        if (executionCount == 0 || lastOneFailed != lastFailed) {
+            streakLength = count;
+        } else {
+            streakLength += count;
+        }
+
+        recentResults = (count >= SIZE ? 0 : recentResults << count) | (lastOneFailed ? 1 : 0);
+        executionCount = Math.min(SIZE, executionCount + count);
+        lastFailed = lastOneFailed;
+
+        long windowMask = mask(executionCount);
+        failureCount = Long.bitCount(recentResults & windowMask);
+        // A transition is a bit differing from its previous one (the next higher bit), within the window
+        transitionCount = Long.bitCount((recentResults ^ (recentResults >>> 1)) & mask(executionCount - 1));
+        flakiness = executionCount > 1 ? (double) transitionCount / (executionCount - 1) : 0;
+    }
+
+    private static long mask(int bits) {
+        return bits >= SIZE ? -1L : (1L << bits) - 1;
+    }
+
+    public int getExecutionCount() {
+        return executionCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public int getTransitionCount() {
+        return transitionCount;
+    }
+
+    public boolean isLastFailed() {
+        return lastFailed;
+    }
+
+    public int getStreakLength() {
+        return streakLength;
+    }
+
+    public Long getFirstFailingExecutionId() {
+        return firstFailingExecutionId;
+    }
+
+    public Date getFirstFailingDateTime() {
+        return firstFailingDateTime;
+    }
+
+    public Long getLastExecutionId() {
+        return lastExecutionId;
+    }
+
+    public Date getLastTestDateTime() {
+        return lastTestDateTime;
+    }
+
+    public double getFlakiness() {
+        return flakiness;
+    }
+
+}
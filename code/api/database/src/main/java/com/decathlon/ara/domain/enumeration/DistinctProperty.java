@@ -0,0 +1,73 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain.enumeration;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The properties of errors whose distinct values are kept in dictionaries, to fill the problem pattern editor.
+ */
+public enum DistinctProperty {
+
+    RELEASES("releases"),
+
+    /**
+     * Values are country codes.
+     */
+    COUNTRIES("countries"),
+
+    /**
+     * Values are type codes.
+     */
+    TYPES("types"),
+
+    PLATFORMS("platforms"),
+
+    FEATURE_NAMES("featureNames"),
+
+    FEATURE_FILES("featureFiles"),
+
+    SCENARIO_NAMES("scenarioNames"),
+
+    STEPS("steps"),
+
+    STEP_DEFINITIONS("stepDefinitions");
+
+    /**
+     * The name of the property in REST URLs.
+     */
+    private final String code;
+
+    DistinctProperty(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * @param code the name of the property in REST URLs
+     * @return the property with this code, if any
+     */
+    public static Optional<DistinctProperty> fromCode(String code) {
+        return Arrays.stream(values()).filter(property -> property.code.equals(code)).findFirst();
+    }
+
+}
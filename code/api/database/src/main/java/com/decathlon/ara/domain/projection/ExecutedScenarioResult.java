@@ -0,0 +1,83 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain.projection;
+
+import com.decathlon.ara.domain.Country;
+import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.Type;
+
+/**
+ * The pass/fail result of an {@link ExecutedScenario}, with the keys identifying the scenario across executions.
+ */
+public class ExecutedScenarioResult {
+
+    private String cucumberId;
+
+    private String name;
+
+    /**
+     * The {@link Country#code} of the run of this scenario.
+     */
+    private String countryCode;
+
+    /**
+     * The {@link Type#code} of the run of this scenario.
+     */
+    private String typeCode;
+
+    /**
+     * The number of errors of this scenario: 0 if the scenario succeeded.
+     */
+    private long errorCount;
+
+    public ExecutedScenarioResult() {
+    }
+
+    public ExecutedScenarioResult(String cucumberId, String name, String countryCode, String typeCode, long errorCount) {
+        this.cucumberId = cucumberId;
+        this.name = name;
+        this.countryCode = countryCode;
+        this.typeCode = typeCode;
+        this.errorCount = errorCount;
+    }
+
+    public String getCucumberId() {
+        return cucumberId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public String getTypeCode() {
+        return typeCode;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public boolean isFailed() {
+        return errorCount > 0;
+    }
+
+}
@@ -24,14 +24,16 @@ public class FirstAndLastProblemOccurrence {
     private Long problemId;
     private Date firstSeenDateTime;
     private Date lastSeenDateTime;
+    private Long occurrenceCount;
 
     public FirstAndLastProblemOccurrence() {
     }
 
-    public FirstAndLastProblemOccurrence(Long problemId, Date firstSeenDateTime, Date lastSeenDateTime) {
+    public FirstAndLastProblemOccurrence(Long problemId, Date firstSeenDateTime, Date lastSeenDateTime, Long occurrenceCount) {
         this.problemId = problemId;
         this.firstSeenDateTime = firstSeenDateTime;
         this.lastSeenDateTime = lastSeenDateTime;
+        this.occurrenceCount = occurrenceCount;
     }
 
     public Long getProblemId() {
@@ -46,4 +48,8 @@ public class FirstAndLastProblemOccurrence {
         return lastSeenDateTime;
     }
 
+    public Long getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
 }
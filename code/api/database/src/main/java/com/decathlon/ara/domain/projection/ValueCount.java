@@ -0,0 +1,45 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.domain.projection;
+
+/**
+ * The number of rows having a given value in a column.
+ */
+public class ValueCount {
+
+    private String value;
+
+    private long count;
+
+    public ValueCount() {
+    }
+
+    public ValueCount(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+}
@@ -0,0 +1,70 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.domain.CacheInvalidation;
+
+/**
+ * Spring Data JPA repository for the CacheInvalidation entity.<br>
+ * Invalidations are logged after the commit of the transaction that made them: they are saved in a transaction of their own.
+ */
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    <S extends CacheInvalidation> S save(S invalidation);
+
+    /**
+     * @param node                the identifier of the polling node, whose own invalidations are already applied
+     * @param minCreationDateTime the date and time since which to get the invalidations
+     * @return the invalidations made by the other nodes since the given date and time, in the order they were made
+     */
+    List<CacheInvalidation> findAllByNodeNotAndCreationDateTimeGreaterThanEqualOrderById(String node, Date minCreationDateTime);
+
+    /**
+     * @param node                the identifier of the polling node, whose own invalidations are already applied
+     * @param minCreationDateTime the date and time since which to get the invalidations
+     * @return the identifiers of the invalidations made by the other nodes since the given date and time
+     */
+    @Query("select invalidation.id from CacheInvalidation invalidation " +
+            "where invalidation.node <> :node and invalidation.creationDateTime >= :minCreationDateTime")
+    List<Long> findIdsByNodeNotAndCreationDateTimeGreaterThanEqual(@Param("node") String node,
+            @Param("minCreationDateTime") Date minCreationDateTime);
+
+    /**
+     * @param maxCreationDateTime the date and time before which the invalidations were applied by all nodes
+     * @return the number of deleted invalidations
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidation invalidation where invalidation.creationDateTime < :maxCreationDateTime")
+    int deleteByCreationDateTimeBefore(@Param("maxCreationDateTime") Date maxCreationDateTime);
+
+}
@@ -19,6 +19,9 @@ package com.decathlon.ara.repository;
 
 import com.decathlon.ara.domain.CountryDeployment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -29,4 +32,8 @@ public interface CountryDeploymentRepository extends JpaRepository<CountryDeploy
 
     boolean existsByCountryId(long countryId);
 
+    @Modifying
+    @Query("delete from CountryDeployment countryDeployment where countryDeployment.execution.id = :executionId")
+    int deleteByExecutionId(@Param("executionId") long executionId);
+
 }
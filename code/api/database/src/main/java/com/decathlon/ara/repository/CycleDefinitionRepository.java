@@ -19,8 +19,11 @@ package com.decathlon.ara.repository;
 
 import com.decathlon.ara.domain.CycleDefinition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,4 +41,15 @@ public interface CycleDefinitionRepository extends JpaRepository<CycleDefinition
 
     Optional<CycleDefinition> findByProjectIdAndBranchAndName(Long projectId, String branch, String name);
 
+    /**
+     * Lock the cycle definition until the end of the current transaction, to serialize the updates of its
+     * statistics across all ARA nodes.
+     *
+     * @param id the ID of the cycle definition to lock
+     * @return the locked cycle definition, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT cycleDefinition FROM CycleDefinition cycleDefinition WHERE cycleDefinition.id = ?1")
+    Optional<CycleDefinition> findAndLockById(long id);
+
 }
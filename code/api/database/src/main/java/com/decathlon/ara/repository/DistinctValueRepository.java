@@ -0,0 +1,154 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.domain.DistinctValue;
+import com.decathlon.ara.domain.enumeration.DistinctProperty;
+import com.decathlon.ara.domain.projection.ValueCount;
+
+/**
+ * Spring Data JPA repository for the DistinctValue entity.
+ */
+@Repository
+public interface DistinctValueRepository extends JpaRepository<DistinctValue, Long> {
+
+    /**
+     * The escape character of the patterns given to {@link #findByPrefix(long, DistinctProperty, String, Pageable)}
+     * (not a backslash, which MySQL also interprets in string literals).
+     */
+    char LIKE_ESCAPE = '!';
+
+    /**
+     * Insert a new value in a transaction of its own: if another node inserted it meanwhile, the unique key violation
+     * does not roll back the caller's transaction, which can then {@link #increment(long, DistinctProperty, String, long, Date)} it.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    <S extends DistinctValue> S saveAndFlush(S value);
+
+    @Query("select distinctValue.value from DistinctValue distinctValue " +
+            "where distinctValue.projectId = :projectId and distinctValue.property = :property and distinctValue.occurrenceCount > 0 " +
+            "order by distinctValue.value")
+    List<String> findValues(@Param("projectId") long projectId, @Param("property") DistinctProperty property);
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @param property  the property of the values
+     * @param pattern   a LIKE pattern escaped with {@link #LIKE_ESCAPE}
+     * @param pageable  the maximum number of values to return
+     * @return the values matching the pattern, the most frequent first
+     */
+    @Query("select distinctValue from DistinctValue distinctValue " +
+            "where distinctValue.projectId = :projectId and distinctValue.property = :property and distinctValue.occurrenceCount > 0 " +
+            "and distinctValue.value like :pattern escape '!' " +
+            "order by distinctValue.occurrenceCount desc, distinctValue.value")
+    List<DistinctValue> findByPrefix(@Param("projectId") long projectId, @Param("property") DistinctProperty property,
+            @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * @return the number of updated values: 0 if the value is not in the dictionary yet
+     */
+    @Modifying
+    @Query("update DistinctValue distinctValue " +
+            "set distinctValue.occurrenceCount = distinctValue.occurrenceCount + :count, " +
+            "distinctValue.lastSeenDateTime = case " +
+            "  when distinctValue.lastSeenDateTime is null or distinctValue.lastSeenDateTime < :seenDateTime then :seenDateTime " +
+            "  else distinctValue.lastSeenDateTime end " +
+            "where distinctValue.projectId = :projectId and distinctValue.property = :property and distinctValue.value = :value")
+    int increment(@Param("projectId") long projectId, @Param("property") DistinctProperty property, @Param("value") String value,
+            @Param("count") long count, @Param("seenDateTime") Date seenDateTime);
+
+    @Modifying
+    @Query("update DistinctValue distinctValue " +
+            "set distinctValue.occurrenceCount = distinctValue.occurrenceCount - :count " +
+            "where distinctValue.projectId = :projectId and distinctValue.property = :property and distinctValue.value = :value")
+    int decrement(@Param("projectId") long projectId, @Param("property") DistinctProperty property, @Param("value") String value,
+            @Param("count") long count);
+
+    @Modifying
+    @Query("delete from DistinctValue distinctValue where distinctValue.projectId = :projectId and distinctValue.occurrenceCount <= 0")
+    int deleteUnused(@Param("projectId") long projectId);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(execution.release, count(execution)) " +
+            "from Execution execution " +
+            "where execution.id = :executionId and execution.release is not null " +
+            "group by execution.release")
+    List<ValueCount> countReleasesByExecutionId(@Param("executionId") long executionId);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(run.country.code, count(run)) " +
+            "from Run run " +
+            "where run.execution.id = :executionId " +
+            "group by run.country.code")
+    List<ValueCount> countCountriesByExecutionId(@Param("executionId") long executionId);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(run.type.code, count(run)) " +
+            "from Run run " +
+            "where run.execution.id = :executionId " +
+            "group by run.type.code")
+    List<ValueCount> countTypesByExecutionId(@Param("executionId") long executionId);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(run.platform, count(run)) " +
+            "from Run run " +
+            "where run.execution.id = :executionId and run.platform is not null " +
+            "group by run.platform")
+    List<ValueCount> countPlatformsByExecutionId(@Param("executionId") long executionId);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(executedScenario.featureName, count(executedScenario)) " +
+            "from ExecutedScenario executedScenario " +
+            "where executedScenario.id in :executedScenarioIds and executedScenario.featureName is not null " +
+            "group by executedScenario.featureName")
+    List<ValueCount> countFeatureNamesByExecutedScenarioIdIn(@Param("executedScenarioIds") Collection<Long> executedScenarioIds);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(executedScenario.featureFile, count(executedScenario)) " +
+            "from ExecutedScenario executedScenario " +
+            "where executedScenario.id in :executedScenarioIds and executedScenario.featureFile is not null " +
+            "group by executedScenario.featureFile")
+    List<ValueCount> countFeatureFilesByExecutedScenarioIdIn(@Param("executedScenarioIds") Collection<Long> executedScenarioIds);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(executedScenario.name, count(executedScenario)) " +
+            "from ExecutedScenario executedScenario " +
+            "where executedScenario.id in :executedScenarioIds and executedScenario.name is not null " +
+            "group by executedScenario.name")
+    List<ValueCount> countScenarioNamesByExecutedScenarioIdIn(@Param("executedScenarioIds") Collection<Long> executedScenarioIds);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(error.step, count(error)) " +
+            "from Error error " +
+            "where error.id in :errorIds and error.step is not null " +
+            "group by error.step")
+    List<ValueCount> countStepsByErrorIdIn(@Param("errorIds") Collection<Long> errorIds);
+
+    @Query("select new com.decathlon.ara.domain.projection.ValueCount(error.stepDefinition, count(error)) " +
+            "from Error error " +
+            "where error.id in :errorIds and error.stepDefinition is not null " +
+            "group by error.stepDefinition")
+    List<ValueCount> countStepDefinitionsByErrorIdIn(@Param("errorIds") Collection<Long> errorIds);
+
+}
@@ -18,6 +18,7 @@
 package com.decathlon.ara.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +27,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -49,18 +51,6 @@ public interface ErrorRepository extends JpaRepository<Error, Long>, JpaSpecific
             "WHERE error.executedScenario.run.execution.cycleDefinition.projectId = ?1 AND error.id = ?2")
     Error findByProjectIdAndId(long projectId, long id);
 
-    @Query("SELECT DISTINCT error.step " +
-            "FROM Error error " +
-            "WHERE error.executedScenario.run.execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY error.step")
-    List<String> findDistinctStepByProjectId(long projectId);
-
-    @Query("SELECT DISTINCT error.stepDefinition " +
-            "FROM Error error " +
-            "WHERE error.executedScenario.run.execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY error.stepDefinition")
-    List<String> findDistinctStepDefinitionByProjectId(long projectId);
-
     default Page<Error> findByProjectIdAndProblemPattern(@Param("projectId") long projectId, @Param("pattern") ProblemPattern problemPattern, Pageable pageable) {
         return findAll(SpecificationUtil.toErrorSpecification(projectId, problemPattern, null), pageable);
     }
@@ -89,4 +79,11 @@ public interface ErrorRepository extends JpaRepository<Error, Long>, JpaSpecific
         return errorProblems;
     }
 
+    @Query("select error.id from Error error where error.executedScenario.id in (:executedScenarioIds)")
+    List<Long> findIdsByExecutedScenarioIdIn(@Param("executedScenarioIds") Collection<Long> executedScenarioIds);
+
+    @Modifying
+    @Query("delete from Error error where error.id in (:ids)")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
 }
@@ -0,0 +1,141 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import java.time.Period;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.decathlon.ara.domain.ExecutedScenarioHistory;
+import com.decathlon.ara.repository.util.SpecificationUtil;
+
+/**
+ * Spring Data JPA repository for the ExecutedScenarioHistory entity.
+ */
+@Repository
+public interface ExecutedScenarioHistoryRepository extends JpaRepository<ExecutedScenarioHistory, Long>, JpaSpecificationExecutor<ExecutedScenarioHistory> {
+
+    /**
+     * Copy the keys of all executed scenarios of an execution into the history table, in one statement.
+     * The execution and its children must have been flushed before calling this method.<br>
+     * An execution without test date-time gets its build date-time, or the current date-time, in the history: the test
+     * date-time is the partition key of a partitioned history.
+     *
+     * @param executionId the ID of the execution to append to the history
+     * @return the number of inserted history rows
+     */
+    @Modifying
+    @Query("""
+            insert into ExecutedScenarioHistory (executedScenarioId, projectId, cucumberId, executionId, runId,
+              branch, cycleName, countryCode, typeCode, testDateTime)
+            select executedScenario.id, cycleDefinition.projectId, executedScenario.cucumberId, execution.id, run.id,
+              execution.branch, execution.name, country.code, runType.code,
+              coalesce(execution.testDateTime, execution.buildDateTime, current_timestamp)
+            from ExecutedScenario executedScenario
+            join executedScenario.run run
+            join run.execution execution
+            join execution.cycleDefinition cycleDefinition
+            join run.country country
+            join run.type runType
+            where execution.id = :executionId
+            """)
+    int appendExecution(@Param("executionId") long executionId);
+
+    @Modifying
+    @Query("delete from ExecutedScenarioHistory history where history.executionId = :executionId")
+    int deleteByExecutionId(@Param("executionId") long executionId);
+
+    /**
+     * @param projectId   the ID of the project in which to work
+     * @param cucumberId  the mandatory cucumberId of the scenario
+     * @param branch      optional branch filter (null for all)
+     * @param cycleName   optional cycle name filter (null for all)
+     * @param countryCode optional country code filter (null for all)
+     * @param runTypeCode optional type code filter (null for all)
+     * @param startDate   the date-time after which to search
+     * @param pageable    the first page, of the maximum number of executions to return: no count query is run
+     * @return the IDs of the most recent executions having run the scenario, the latest first
+     */
+    @Query("""
+            select history.executionId
+            from ExecutedScenarioHistory history
+            where history.projectId = :projectId
+            and history.cucumberId = :cucumberId
+            and (:branch is null or history.branch = :branch)
+            and (:cycleName is null or history.cycleName = :cycleName)
+            and (:countryCode is null or history.countryCode = :countryCode)
+            and (:runTypeCode is null or history.typeCode = :runTypeCode)
+            and history.testDateTime > :startDate
+            group by history.testDateTime, history.executionId
+            order by history.testDateTime desc, history.executionId desc
+            """)
+    List<Long> findLatestExecutionIds(@Param("projectId") long projectId, @Param("cucumberId") String cucumberId,
+            @Param("branch") String branch, @Param("cycleName") String cycleName, @Param("countryCode") String countryCode,
+            @Param("runTypeCode") String runTypeCode, @Param("startDate") Date startDate, Pageable pageable);
+
+    /**
+     * @param projectId   the ID of the project in which to work
+     * @param cucumberId  the mandatory cucumberId of the scenario
+     * @param branch      optional branch filter
+     * @param cycleName   optional cycle name filter
+     * @param countryCode optional country code filter
+     * @param runTypeCode optional type code filter
+     * @param duration    optional period before now in which to search
+     * @param limit       optional maximum number of the most recent executions in which to return the scenario (null or
+     *                    not positive for all): all history rows of these executions are returned, whatever their
+     *                    countries and types
+     * @return the history rows of the scenario, ordered by test date-time ascending
+     */
+    default List<ExecutedScenarioHistory> findHistory(long projectId, String cucumberId, String branch, String cycleName,
+            String countryCode, String runTypeCode, Optional<Period> duration, Integer limit) {
+        if (limit == null || limit <= 0) {
+            return findAll(SpecificationUtil.toExecutedScenarioHistorySpecification(projectId, cucumberId, branch, cycleName, countryCode, runTypeCode, duration, false));
+        }
+
+        // Find the latest executions first, then read their rows only: no row of an older execution is read
+        List<Long> executionIds = findLatestExecutionIds(projectId, cucumberId, StringUtils.defaultIfEmpty(branch, null),
+                StringUtils.defaultIfEmpty(cycleName, null), StringUtils.defaultIfEmpty(countryCode, null),
+                StringUtils.defaultIfEmpty(runTypeCode, null), SpecificationUtil.toStartDate(duration).orElse(new Date(0)),
+                PageRequest.of(0, limit.intValue()));
+        if (executionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Specification<ExecutedScenarioHistory> inExecutions = (root, criteriaQuery, criteriaBuilder) -> root.get("executionId").in(executionIds);
+        return findAll(SpecificationUtil.toExecutedScenarioHistorySpecification(projectId, cucumberId, branch, cycleName, countryCode, runTypeCode,
+                Optional.empty(), false).and(inExecutions));
+    }
+
+    @Modifying
+    @Query("delete from ExecutedScenarioHistory history where history.executedScenarioId in (:executedScenarioIds)")
+    int deleteByExecutedScenarioIdIn(@Param("executedScenarioIds") Collection<Long> executedScenarioIds);
+
+}
@@ -17,20 +17,21 @@
 
 package com.decathlon.ara.repository;
 
-import java.time.Period;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.decathlon.ara.domain.ExecutedScenario;
+import com.decathlon.ara.domain.projection.ExecutedScenarioResult;
 import com.decathlon.ara.domain.projection.ExecutedScenarioWithErrorAndProblemJoin;
-import com.decathlon.ara.repository.util.SpecificationUtil;
 
 /**
  * Spring Data JPA repository for the ExecutedScenario entity.
@@ -38,24 +39,6 @@ import com.decathlon.ara.repository.util.SpecificationUtil;
 @Repository
 public interface ExecutedScenarioRepository extends JpaRepository<ExecutedScenario, Long>, JpaSpecificationExecutor<ExecutedScenario> {
 
-    @Query("SELECT DISTINCT executedScenario.featureName " +
-            "FROM ExecutedScenario executedScenario " +
-            "WHERE executedScenario.run.execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY executedScenario.featureName")
-    List<String> findDistinctFeatureNameByProjectId(long projectId);
-
-    @Query("SELECT DISTINCT executedScenario.featureFile " +
-            "FROM ExecutedScenario executedScenario " +
-            "WHERE executedScenario.run.execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY executedScenario.featureFile")
-    List<String> findDistinctFeatureFileByProjectId(long projectId);
-
-    @Query("SELECT DISTINCT executedScenario.name " +
-            "FROM ExecutedScenario executedScenario " +
-            "WHERE executedScenario.run.execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY executedScenario.name")
-    List<String> findDistinctNameByProjectId(long projectId);
-
     @Query("SELECT es " +
             "FROM ExecutedScenario es " +
             "WHERE es.run.execution.cycleDefinition.projectId = ?1 " +
@@ -96,8 +79,36 @@ public interface ExecutedScenarioRepository extends JpaRepository<ExecutedScenar
             """)
     List<ExecutedScenarioWithErrorAndProblemJoin> findAllErrorAndProblemCounts(@Param("runIds") Set<Long> runIds);
 
-    default List<ExecutedScenario> findHistory(long projectId, String cucumberId, String branch, String cycleName, String countryCode, String runTypeCode, Optional<Period> duration) {
-        return findAll(SpecificationUtil.toExecutedScenarioSpecification(projectId, cucumberId, branch, cycleName, countryCode, runTypeCode, duration));
-    }
+    /**
+     * @param executionId the ID of the execution where to find ExecutedScenarios
+     * @return the pass/fail result of all executed scenarios of the execution
+     */
+    @Query("""
+            select new com.decathlon.ara.domain.projection.ExecutedScenarioResult(executedScenario.cucumberId,
+              executedScenario.name,
+              country.code,
+              runType.code,
+              count(error.id))
+            from ExecutedScenario executedScenario
+            join executedScenario.run run
+            join run.country country
+            join run.type runType
+            left join executedScenario.errors error
+            where run.execution.id = :executionId
+            group by executedScenario.id, executedScenario.cucumberId, executedScenario.name, country.code, runType.code
+            """)
+    List<ExecutedScenarioResult> findAllResultsByExecutionId(@Param("executionId") long executionId);
+
+    /**
+     * @param runIds   the IDs of the runs where to find ExecutedScenarios
+     * @param pageable the maximum number of IDs to return
+     * @return the IDs of (some of) the executed scenarios of the runs
+     */
+    @Query("select executedScenario.id from ExecutedScenario executedScenario where executedScenario.run.id in (:runIds) order by executedScenario.id")
+    List<Long> findIdsByRunIdIn(@Param("runIds") Collection<Long> runIds, Pageable pageable);
+
+    @Modifying
+    @Query("delete from ExecutedScenario executedScenario where executedScenario.id in (:ids)")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 
 }
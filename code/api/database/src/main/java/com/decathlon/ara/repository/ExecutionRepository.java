@@ -26,6 +26,7 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -47,12 +48,6 @@ public interface ExecutionRepository extends JpaRepository<Execution, Long> {
             "ORDER BY execution.testDateTime DESC")
     Page<Execution> findAllByProjectIdOrderByTestDateTimeDesc(long projectId, Pageable pageable);
 
-    @Query("SELECT DISTINCT execution.release " +
-            "FROM Execution execution " +
-            "WHERE execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY execution.release")
-    List<String> findDistinctReleaseByProjectId(long projectId);
-
     @Query("SELECT execution.jobUrl FROM Execution execution WHERE execution.status = ?1 AND execution.jobUrl IN ?2")
     List<String> findJobUrls(JobStatus jobStatus, Collection<String> jobUrls);
 
@@ -80,7 +75,13 @@ public interface ExecutionRepository extends JpaRepository<Execution, Long> {
 
     boolean existsByCycleDefinitionId(Long id);
 
-    List<Execution> findByCycleDefinitionProjectIdAndTestDateTimeBefore(long projectId, Date startDate);
+    boolean existsByCycleDefinitionIdAndTestDateTime(Long cycleDefinitionId, Date testDateTime);
+
+    long countByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredFalse(long projectId, Date startDate);
+
+    boolean existsByCycleDefinitionProjectIdAndTestDateTimeBeforeAndRestoredTrue(long projectId, Date startDate);
+
+    long countByCycleDefinitionIdAndStatusAndTestDateTimeAfterAndTestDateTimeBefore(long cycleDefinitionId, JobStatus status, Date after, Date before);
 
     List<Execution> findTop10ByCycleDefinitionProjectIdAndCycleDefinitionBranchAndCycleDefinitionNameOrderByTestDateTimeDesc(long projectId, String branch, String name);
 
@@ -157,4 +158,26 @@ public interface ExecutionRepository extends JpaRepository<Execution, Long> {
         });
         return executions;
     }
+
+    /**
+     * @param projectId    the ID of the project in which to work
+     * @param testDateTime the date before which executions are to be purged
+     * @param pageable     the maximum number of IDs to return
+     * @return the IDs of the oldest executions tested before the given date, the oldest first (restored executions
+     * are never purged)
+     */
+    @Query("""
+            select execution.id
+            from Execution execution
+            where execution.cycleDefinition.projectId = :projectId
+            and execution.testDateTime < :testDateTime
+            and execution.restored = false
+            order by execution.testDateTime, execution.id
+            """)
+    List<Long> findIdsToPurge(@Param("projectId") long projectId, @Param("testDateTime") Date testDateTime, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Execution execution where execution.id = :executionId")
+    int deleteExecutionById(@Param("executionId") long executionId);
+
 }
@@ -17,6 +17,8 @@
 
 package com.decathlon.ara.repository;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -72,4 +74,19 @@ public interface FunctionalityRepository extends JpaRepository<Functionality, Lo
         return findAllByTypeAndProjectId(FunctionalityType.FUNCTIONALITY, projectId).stream().collect(Collectors.toMap(FunctionalityTeam::getId, FunctionalityTeam::getTeamId));
     }
 
+    List<FunctionalityTeam> findAllByTypeAndProjectIdAndIdIn(FunctionalityType type, long projectId, Collection<Long> ids);
+
+    /**
+     * @param projectId        the ID of the project in which to work
+     * @param functionalityIds the IDs of the only functionalities to read
+     * @return the team IDs of these functionalities, by functionality ID (unknown IDs are absent)
+     */
+    default Map<Long, Long> getFunctionalityTeamIds(long projectId, Collection<Long> functionalityIds) {
+        if (functionalityIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return findAllByTypeAndProjectIdAndIdIn(FunctionalityType.FUNCTIONALITY, projectId, functionalityIds).stream()
+                .collect(Collectors.toMap(FunctionalityTeam::getId, FunctionalityTeam::getTeamId));
+    }
+
 }
@@ -1,9 +1,18 @@
 package com.decathlon.ara.repository;
 
+import java.util.Collection;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.decathlon.ara.domain.ProblemOccurrence;
 
 public interface ProblemOccurrenceRepository extends JpaRepository<ProblemOccurrence, ProblemOccurrence.ProblemOccurrenceId> {
 
+    @Modifying
+    @Query("delete from ProblemOccurrence problemOccurrence where problemOccurrence.problemOccurrenceId.errorId in (:errorIds)")
+    int deleteByErrorIdIn(@Param("errorIds") Collection<Long> errorIds);
+
 }
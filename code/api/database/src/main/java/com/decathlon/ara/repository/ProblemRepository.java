@@ -19,21 +19,27 @@ package com.decathlon.ara.repository;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.decathlon.ara.domain.Problem;
 import com.decathlon.ara.domain.Team;
 import com.decathlon.ara.domain.enumeration.DefectExistence;
+import com.decathlon.ara.domain.enumeration.ProblemStatus;
 import com.decathlon.ara.domain.filter.ProblemFilter;
 import com.decathlon.ara.domain.projection.FirstAndLastProblemOccurrence;
 import com.decathlon.ara.repository.util.SpecificationUtil;
@@ -46,8 +52,6 @@ public interface ProblemRepository extends JpaRepository<Problem, Long>, JpaSpec
 
     List<Problem> findByProjectId(long projectId);
 
-    List<Problem> findByProjectIdAndDefectExistenceIsNotAndDefectIdIsNotNull(long projectId, DefectExistence defectExistence);
-
     Problem findByProjectIdAndId(long projectId, long id);
 
     Problem findByProjectIdAndName(long projectId, String name);
@@ -66,15 +70,50 @@ public interface ProblemRepository extends JpaRepository<Problem, Long>, JpaSpec
         return findAllByProjectIdAndDefectIdIsNotNullAndDefectIdNotNullAndDefectIdNot(projectId, "").stream().filter(problem -> !problem.getDefectId().isBlank()).toList();
     }
 
+    /**
+     * Set the defect-existence, status and closing date-time of several problems at once.<br>
+     * The persistence context is cleared afterwards: managed problems would be stale.
+     *
+     * @param ids             the IDs of the problems to update
+     * @param defectExistence the new defect-existence of the problems
+     * @param status          the new status of the problems
+     * @param closingDateTime the new closing date-time of the problems (can be null)
+     * @return the number of updated problems
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Problem problem
+            set problem.defectExistence = :defectExistence, problem.status = :status, problem.closingDateTime = :closingDateTime
+            where problem.id in (:ids)
+            """)
+    int updateDefectStates(@Param("ids") Collection<Long> ids, @Param("defectExistence") DefectExistence defectExistence,
+            @Param("status") ProblemStatus status, @Param("closingDateTime") Date closingDateTime);
+
+    /**
+     * Set the defect-existence of all problems with a defect to the given value, without loading them.
+     *
+     * @param projectId       the ID of the project in which to work
+     * @param defectExistence the new defect-existence of the problems
+     * @return the number of updated problems
+     */
+    @Modifying
+    @Query("""
+            update Problem problem
+            set problem.defectExistence = :defectExistence
+            where problem.projectId = :projectId and problem.defectExistence <> :defectExistence and problem.defectId is not null
+            """)
+    int updateDefectExistenceByProjectId(@Param("projectId") long projectId, @Param("defectExistence") DefectExistence defectExistence);
+
     /**
      * For a list of problems, return the problem IDs with the date and time of their first and last
-     * execution.testDateTime error occurrences. Problems without occurrence are not returned in the resulting list.
+     * execution.testDateTime error occurrences, and their number of errors. Problems without occurrence are not returned
+     * in the resulting list.
      *
      * @param problems a list of problems to search  for first and last execution date-times occurrences
-     * @return a list of aggregates containing problem ID and first and last occurrence date and times
+     * @return a list of aggregates containing problem ID, first and last occurrence date and times and occurrence count
      */
     @Query("""
-            select new com.decathlon.ara.domain.projection.FirstAndLastProblemOccurrence(problem.id, min(problemOccurrence.error.executedScenario.run.execution.testDateTime), max(problemOccurrence.error.executedScenario.run.execution.testDateTime))
+            select new com.decathlon.ara.domain.projection.FirstAndLastProblemOccurrence(problem.id, min(problemOccurrence.error.executedScenario.run.execution.testDateTime), max(problemOccurrence.error.executedScenario.run.execution.testDateTime), count(distinct problemOccurrence.error.id))
             from Problem problem
             join problem.patterns problemPattern
             join problemPattern.problemOccurrences problemOccurrence
@@ -83,6 +122,152 @@ public interface ProblemRepository extends JpaRepository<Problem, Long>, JpaSpec
             """)
     List<FirstAndLastProblemOccurrence> findFirstAndLastProblemOccurrences(Collection<Problem> problems);
 
+    /**
+     * Push the first and last seen date-times of problems to the test date-time of an execution, and add its new errors
+     * to their occurrence count, without reading their older occurrences: the new errors can only move the date-times
+     * away and add occurrences.<br>
+     * Problems loaded in the persistence context are not updated: do not save them afterwards.
+     *
+     * @param problemIds   the IDs of the problems to which the new errors were assigned
+     * @param errorIds     the IDs of the new errors of the execution, assigned to problems
+     * @param testDateTime the test date-time of the execution of the new errors
+     * @return the number of updated problems
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "problem"))
+    @Query(nativeQuery = true, value = """
+            update problem
+            set first_seen_date_time = case when first_seen_date_time is null or first_seen_date_time > :testDateTime then :testDateTime else first_seen_date_time end,
+            last_seen_date_time = case when last_seen_date_time is null or last_seen_date_time < :testDateTime then :testDateTime else last_seen_date_time end,
+            occurrence_count = occurrence_count + (
+                select count(distinct occurrence.error_id)
+                from problem_occurrence occurrence
+                join problem_pattern pattern on pattern.id = occurrence.problem_pattern_id
+                where pattern.problem_id = problem.id and occurrence.error_id in (:errorIds))
+            where id in (:problemIds)
+            """)
+    int addOccurrences(@Param("problemIds") Collection<Long> problemIds, @Param("errorIds") Collection<Long> errorIds,
+            @Param("testDateTime") Date testDateTime);
+
+    /**
+     * Subtract the occurrences about to be deleted from the occurrence count of problems, without reading their other
+     * occurrences: to be run before deleting the occurrences of the given errors, in the same transaction.<br>
+     * Problems loaded in the persistence context are not updated: do not save them afterwards.
+     *
+     * @param problemIds the IDs of the problems to which the errors are assigned
+     * @param errorIds   the IDs of the errors whose occurrences are about to be deleted
+     * @return the number of updated problems
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "problem"))
+    @Query(nativeQuery = true, value = """
+            update problem
+            set occurrence_count = occurrence_count - (
+                select count(distinct occurrence.error_id)
+                from problem_occurrence occurrence
+                join problem_pattern pattern on pattern.id = occurrence.problem_pattern_id
+                where pattern.problem_id = problem.id and occurrence.error_id in (:errorIds))
+            where id in (:problemIds)
+            """)
+    int removeOccurrences(@Param("problemIds") Collection<Long> problemIds, @Param("errorIds") Collection<Long> errorIds);
+
+    /**
+     * Recompute the first and last seen date-times of problems whose occurrences of an execution were just deleted,
+     * only where they could come from this execution: the first seen date-time if it is not before the test date-time
+     * of the execution, the last seen date-time if it is not after. The other problems keep older and newer
+     * occurrences, and are not read.<br>
+     * Problems loaded in the persistence context are not updated: do not save them afterwards.
+     *
+     * @param problemIds  the IDs of the problems whose occurrences were deleted
+     * @param executionId the ID of the execution of the deleted occurrences (not deleted yet)
+     * @return the number of updated problems
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "problem"))
+    @Query(nativeQuery = true, value = """
+            update problem
+            set first_seen_date_time = case when first_seen_date_time >= (select test_date_time from execution where id = :executionId) then (
+                select min(execution.test_date_time)
+                from problem_pattern pattern
+                join problem_occurrence occurrence on occurrence.problem_pattern_id = pattern.id
+                join error on error.id = occurrence.error_id
+                join executed_scenario on executed_scenario.id = error.executed_scenario_id
+                join run on run.id = executed_scenario.run_id
+                join execution on execution.id = run.execution_id
+                where pattern.problem_id = problem.id) else first_seen_date_time end,
+            last_seen_date_time = case when last_seen_date_time <= (select test_date_time from execution where id = :executionId) then (
+                select max(execution.test_date_time)
+                from problem_pattern pattern
+                join problem_occurrence occurrence on occurrence.problem_pattern_id = pattern.id
+                join error on error.id = occurrence.error_id
+                join executed_scenario on executed_scenario.id = error.executed_scenario_id
+                join run on run.id = executed_scenario.run_id
+                join execution on execution.id = run.execution_id
+                where pattern.problem_id = problem.id) else last_seen_date_time end
+            where id in (:problemIds)
+            and (first_seen_date_time >= (select test_date_time from execution where id = :executionId)
+            or last_seen_date_time <= (select test_date_time from execution where id = :executionId))
+            """)
+    int recomputeSeenDateTimes(@Param("problemIds") Collection<Long> problemIds, @Param("executionId") long executionId);
+
+    /**
+     * Recompute the first and last seen date-times and the occurrence count of problems from all their occurrences, in
+     * one statement: needed when occurrences are deleted.<br>
+     * Problems loaded in the persistence context are not updated: do not save them afterwards.
+     *
+     * @param problemIds the IDs of the problems to update
+     * @return the number of updated problems
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.NATIVE_SPACES, value = "problem"))
+    @Query(nativeQuery = true, value = """
+            update problem
+            set first_seen_date_time = (
+                select min(execution.test_date_time)
+                from problem_pattern pattern
+                join problem_occurrence occurrence on occurrence.problem_pattern_id = pattern.id
+                join error on error.id = occurrence.error_id
+                join executed_scenario on executed_scenario.id = error.executed_scenario_id
+                join run on run.id = executed_scenario.run_id
+                join execution on execution.id = run.execution_id
+                where pattern.problem_id = problem.id),
+            last_seen_date_time = (
+                select max(execution.test_date_time)
+                from problem_pattern pattern
+                join problem_occurrence occurrence on occurrence.problem_pattern_id = pattern.id
+                join error on error.id = occurrence.error_id
+                join executed_scenario on executed_scenario.id = error.executed_scenario_id
+                join run on run.id = executed_scenario.run_id
+                join execution on execution.id = run.execution_id
+                where pattern.problem_id = problem.id),
+            occurrence_count = (
+                select count(distinct occurrence.error_id)
+                from problem_pattern pattern
+                join problem_occurrence occurrence on occurrence.problem_pattern_id = pattern.id
+                where pattern.problem_id = problem.id)
+            where id in (:problemIds)
+            """)
+    int recomputeOccurrences(@Param("problemIds") Collection<Long> problemIds);
+
+    /**
+     * @param projectId the ID of the project in which to work
+     * @return the IDs of all problems of the project
+     */
+    @Query("select problem.id from Problem problem where problem.projectId = :projectId")
+    List<Long> findIdsByProjectId(@Param("projectId") long projectId);
+
+    /**
+     * @param errorIds the IDs of some errors
+     * @return the IDs of the problems to which these errors are assigned
+     */
+    @Query("""
+            select distinct pattern.problem.id
+            from ProblemOccurrence occurrence
+            join occurrence.problemPattern pattern
+            where occurrence.problemOccurrenceId.errorId in (:errorIds)
+            """)
+    List<Long> findIdsByErrorIdIn(@Param("errorIds") Collection<Long> errorIds);
+
     @Query("""
             select problem.id,
             count(distinct problemPattern),
@@ -121,6 +306,19 @@ public interface ProblemRepository extends JpaRepository<Problem, Long>, JpaSpec
         return findAll(SpecificationUtil.toProblemSpecification(filter), pageable);
     }
 
+    /**
+     * @param executionId the ID of an execution
+     * @return the IDs of all problems having at least one occurrence in the execution
+     */
+    @Query("""
+            select distinct problem.id
+            from Problem problem
+            join problem.patterns pattern
+            join pattern.problemOccurrences occurrence
+            where occurrence.error.executedScenario.run.execution.id = :executionId
+            """)
+    List<Long> findIdsOccurringInExecution(@Param("executionId") long executionId);
+
     @Query("""
             select distinct problem.id, occurrence.error.executedScenario.run.execution.id
             from Problem problem
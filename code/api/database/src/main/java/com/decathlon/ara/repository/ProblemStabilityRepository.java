@@ -0,0 +1,76 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.decathlon.ara.domain.ProblemStability;
+
+/**
+ * Spring Data JPA repository for the ProblemStability entity.
+ */
+@Repository
+public interface ProblemStabilityRepository extends JpaRepository<ProblemStability, Long> {
+
+    Sort FLAKIEST_FIRST = Sort.by(Sort.Order.desc("window.flakiness"), Sort.Order.desc("window.transitionCount"), Sort.Order.asc("id"));
+
+    List<ProblemStability> findAllByCycleDefinitionId(long cycleDefinitionId);
+
+    List<ProblemStability> findAllByCycleDefinitionIdAndProblemIdIn(long cycleDefinitionId, Collection<Long> problemIds);
+
+    /**
+     * @param cycleDefinitionId the ID of the cycle definition in which to work
+     * @return the stabilities of the problems having failed at least once in the window of the cycle: the ones whose
+     * statistics still change when they do not occur in a new execution
+     */
+    @Query("select stability from ProblemStability stability where stability.cycleDefinitionId = :cycleDefinitionId and stability.window.failureCount > 0")
+    List<ProblemStability> findAllFailingInWindow(@Param("cycleDefinitionId") long cycleDefinitionId);
+
+    List<ProblemStability> findAllByProjectIdAndWindowExecutionCountGreaterThanEqual(long projectId, int minExecutionCount, Pageable pageable);
+
+    /**
+     * @param projectId         the ID of the project in which to work
+     * @param minExecutionCount the minimum number of recorded executions for a problem to be ranked
+     * @param limit             the maximum number of problems to return
+     * @return the flakiest problems of the project, the flakiest first
+     */
+    default List<ProblemStability> findFlakiest(long projectId, int minExecutionCount, int limit) {
+        return findAllByProjectIdAndWindowExecutionCountGreaterThanEqual(projectId, minExecutionCount, PageRequest.of(0, limit, FLAKIEST_FIRST));
+    }
+
+    /**
+     * @param projectId    the ID of the project in which to work
+     * @param testDateTime the date before which executions are purged
+     * @return the number of deleted stabilities: the ones last recorded in a purged execution
+     */
+    @Modifying
+    @Query("delete from ProblemStability stability where stability.projectId = :projectId and stability.window.lastTestDateTime < :testDateTime")
+    int deleteByProjectIdAndLastTestDateTimeBefore(@Param("projectId") long projectId, @Param("testDateTime") Date testDateTime);
+
+}
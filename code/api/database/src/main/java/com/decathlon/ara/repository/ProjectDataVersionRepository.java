@@ -0,0 +1,68 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.decathlon.ara.domain.ProjectDataVersion;
+
+/**
+ * Spring Data JPA repository for the ProjectDataVersion entity.
+ */
+@Repository
+public interface ProjectDataVersionRepository extends JpaRepository<ProjectDataVersion, Long> {
+
+    /**
+     * @param projectId the ID of the project
+     * @return the current data version of the project, if it has one
+     */
+    @Query("select dataVersion.version from ProjectDataVersion dataVersion where dataVersion.projectId = :projectId")
+    Optional<Long> findVersionByProjectId(@Param("projectId") long projectId);
+
+    /**
+     * @param projectId the ID of the project
+     * @return the current functionality version of the project, if it has one
+     */
+    @Query("select dataVersion.functionalityVersion from ProjectDataVersion dataVersion where dataVersion.projectId = :projectId")
+    Optional<Long> findFunctionalityVersionByProjectId(@Param("projectId") long projectId);
+
+    /**
+     * @param projectId the ID of the project whose data changed
+     * @return the number of incremented versions: 0 if the project has no version yet
+     */
+    @Modifying
+    @Query("update ProjectDataVersion dataVersion set dataVersion.version = dataVersion.version + 1 where dataVersion.projectId = :projectId")
+    int incrementVersion(@Param("projectId") long projectId);
+
+    /**
+     * @param projectId the ID of the project whose functionalities changed
+     * @return the number of incremented versions: 0 if the project has no version yet
+     */
+    @Modifying
+    @Query("update ProjectDataVersion dataVersion " +
+            "set dataVersion.version = dataVersion.version + 1, dataVersion.functionalityVersion = dataVersion.functionalityVersion + 1 " +
+            "where dataVersion.projectId = :projectId")
+    int incrementVersionAndFunctionalityVersion(@Param("projectId") long projectId);
+
+}
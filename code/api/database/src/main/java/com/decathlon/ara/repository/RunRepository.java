@@ -17,12 +17,12 @@
 
 package com.decathlon.ara.repository;
 
-import com.decathlon.ara.domain.Country;
 import com.decathlon.ara.domain.Run;
-import com.decathlon.ara.domain.Type;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -33,24 +33,13 @@ public interface RunRepository extends JpaRepository<Run, Long> {
 
     boolean existsByCountryId(long countryId);
 
-    @Query("SELECT DISTINCT run.country " +
-            "FROM Run run " +
-            "WHERE run.execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY run.country.name")
-    List<Country> findDistinctCountryByProjectId(long projectId);
-
-    @Query("SELECT DISTINCT run.type " +
-            "FROM Run run " +
-            "WHERE run.execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY run.type.name")
-    List<Type> findDistinctTypeByProjectId(long projectId);
+    boolean existsByTypeId(long typeId);
 
-    @Query("SELECT DISTINCT run.platform " +
-            "FROM Run run " +
-            "WHERE run.execution.cycleDefinition.projectId = ?1 " +
-            "ORDER BY run.platform")
-    List<String> findDistinctPlatformByProjectId(long projectId);
+    @Query("select run.id from Run run where run.execution.id = :executionId")
+    List<Long> findIdsByExecutionId(@Param("executionId") long executionId);
 
-    boolean existsByTypeId(long typeId);
+    @Modifying
+    @Query("delete from Run run where run.execution.id = :executionId")
+    int deleteByExecutionId(@Param("executionId") long executionId);
 
 }
@@ -25,9 +25,11 @@ import com.decathlon.ara.domain.projection.IgnoredScenario;
 import com.decathlon.ara.domain.projection.ScenarioIgnoreCount;
 import com.decathlon.ara.domain.projection.ScenarioSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -84,38 +86,79 @@ public interface ScenarioRepository extends JpaRepository<Scenario, Long> {
             """)
     List<ScenarioIgnoreCount> findIgnoreCounts(long projectId);
 
-    @Query(value = """
-            SELECT new com.decathlon.ara.domain.projection.ScenarioSummary(
+    /**
+     * @param projectId the ID of the project in which to work
+     * @return all scenarios of the project flagged with {@link Scenario#hasFunctionalityErrors()}, ordered by source
+     * code, feature name, scenario name and line
+     */
+    @Query("""
+            select new com.decathlon.ara.domain.projection.ScenarioSummary(
              scenario.id,
              scenario.source,
              scenario.featureFile,
              scenario.featureName,
              scenario.name,
-             (select count(1) from scenario.functionalities functionalities),
-             (CASE WHEN scenario.countryCodes IS NOT NULL AND scenario.countryCodes <> ''
-             THEN TRUE
-             ELSE FALSE
-             END),
-             (CASE WHEN scenario.severity IS NOT NULL AND scenario.severity <> ''
-             THEN TRUE
-             ELSE FALSE
-             END),
+             scenario.functionalityCount,
+             (case when scenario.countryCodes is not null and scenario.countryCodes <> '' then true else false end),
+             (case when scenario.severity is not null and scenario.severity <> '' then true else false end),
              scenario.wrongFunctionalityIds,
              scenario.wrongCountryCodes,
              scenario.wrongSeverityCode
             )
-            FROM Scenario scenario
-            WHERE (select count(1) from scenario.functionalities functionalities) = 0
-                   OR (scenario.wrongFunctionalityIds IS NOT NULL AND scenario.wrongFunctionalityIds <> '')
-                   OR scenario.countryCodes IS NULL
-                   OR scenario.countryCodes = ''
-                   OR (scenario.wrongCountryCodes IS NOT NULL AND scenario.wrongCountryCodes <> '')
-                   OR scenario.severity IS NULL
-                   OR scenario.severity = ''
-                   OR (scenario.wrongSeverityCode IS NOT NULL AND scenario.wrongSeverityCode <> '')
-              AND scenario.source.projectId = ?1
-            ORDER BY scenario.source.code, scenario.featureName, scenario.name, scenario.line
+            from Scenario scenario
+            where scenario.source.projectId = ?1 and scenario.functionalityErrors = true
+            order by scenario.source.code, scenario.featureName, scenario.name, scenario.line
+            """)
+    List<ScenarioSummary> findAllWithFunctionalityErrors(long projectId);
+
+    /**
+     * @param functionalityIds the IDs of some functionalities
+     * @return the IDs of the scenarios covering these functionalities
+     */
+    @Query("""
+            select distinct scenario.id
+            from Functionality functionality
+            join functionality.scenarios scenario
+            where functionality.id in ?1
+            """)
+    List<Long> findIdsByFunctionalityIdIn(Collection<Long> functionalityIds);
+
+    /**
+     * Recount the functionalities covered by the given scenarios, after coverage links were removed by functionality
+     * changes.
+     *
+     * @param scenarioIds the IDs of the scenarios whose coverage changed
+     * @return the number of updated scenarios
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Scenario scenario
+            set scenario.functionalityCount = (
+             select count(functionality.id) from Functionality functionality join functionality.scenarios covered
+             where covered.id = scenario.id)
+            where scenario.id in ?1
+            """)
+    int updateFunctionalityCounts(Collection<Long> scenarioIds);
+
+    /**
+     * Recompute {@link Scenario#hasFunctionalityErrors()} for the given scenarios, the same way as
+     * {@link Scenario#updateFunctionalityErrors()}.
+     *
+     * @param scenarioIds the IDs of the scenarios whose coverage changed
+     * @return the number of updated scenarios
+     */
+    @Modifying
+    @Query("""
+            update Scenario scenario
+            set scenario.functionalityErrors = (case when scenario.functionalityCount = 0
+              or (scenario.wrongFunctionalityIds is not null and scenario.wrongFunctionalityIds <> '')
+              or scenario.countryCodes is null or scenario.countryCodes = ''
+              or (scenario.wrongCountryCodes is not null and scenario.wrongCountryCodes <> '')
+              or scenario.severity is null or scenario.severity = ''
+              or (scenario.wrongSeverityCode is not null and scenario.wrongSeverityCode <> '')
+             then true else false end)
+            where scenario.id in ?1
             """)
-    public List<ScenarioSummary> findAllWithFunctionalityErrors(long projectId);
+    int updateFunctionalityErrors(Collection<Long> scenarioIds);
 
 }
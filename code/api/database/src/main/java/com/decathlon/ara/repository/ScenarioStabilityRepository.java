@@ -0,0 +1,73 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.decathlon.ara.domain.ScenarioStability;
+import com.decathlon.ara.repository.util.SpecificationUtil;
+
+/**
+ * Spring Data JPA repository for the ScenarioStability entity.
+ */
+@Repository
+public interface ScenarioStabilityRepository extends JpaRepository<ScenarioStability, Long>, JpaSpecificationExecutor<ScenarioStability> {
+
+    Sort FLAKIEST_FIRST = Sort.by(Sort.Order.desc("window.flakiness"), Sort.Order.desc("window.transitionCount"), Sort.Order.asc("id"));
+
+    /**
+     * @param cycleDefinitionId the ID of the cycle definition
+     * @param cucumberIds       the cucumber IDs of some scenarios
+     * @return the stabilities of these scenarios in the cycle, for all their countries and types
+     */
+    List<ScenarioStability> findAllByCycleDefinitionIdAndCucumberIdIn(long cycleDefinitionId, Collection<String> cucumberIds);
+
+    /**
+     * @param projectId         the ID of the project in which to work
+     * @param countryCode       optional country code filter
+     * @param typeCode          optional type code filter
+     * @param minExecutionCount the minimum number of recorded executions for a scenario to be ranked
+     * @param limit             the maximum number of scenarios to return
+     * @return the flakiest scenarios of the project, the flakiest first
+     */
+    default List<ScenarioStability> findFlakiest(long projectId, String countryCode, String typeCode, int minExecutionCount, int limit) {
+        return findAll(SpecificationUtil.toScenarioStabilitySpecification(projectId, countryCode, typeCode, minExecutionCount),
+                PageRequest.of(0, limit, FLAKIEST_FIRST)).getContent();
+    }
+
+    /**
+     * @param projectId    the ID of the project in which to work
+     * @param testDateTime the date before which executions are purged
+     * @return the number of deleted stabilities: the ones last recorded in a purged execution
+     */
+    @Modifying
+    @Query("delete from ScenarioStability stability where stability.projectId = :projectId and stability.window.lastTestDateTime < :testDateTime")
+    int deleteByProjectIdAndLastTestDateTimeBefore(@Param("projectId") long projectId, @Param("testDateTime") Date testDateTime);
+
+}
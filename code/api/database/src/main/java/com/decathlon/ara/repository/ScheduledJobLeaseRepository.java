@@ -0,0 +1,82 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository;
+
+import java.util.Date;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.decathlon.ara.domain.ScheduledJobLease;
+
+/**
+ * Spring Data JPA repository for the ScheduledJobLease entity.<br>
+ * Leases are taken and released with UPDATE statements, for the database to arbitrate between concurrent nodes.
+ */
+@Repository
+public interface ScheduledJobLeaseRepository extends JpaRepository<ScheduledJobLease, String> {
+
+    /**
+     * Take the lease of a job if it expired or is already held by the given node.
+     *
+     * @param name        the name of the job
+     * @param node        the identifier of the node taking the lease
+     * @param now         the current date and time
+     * @param lockedUntil the date and time until which the lease is taken
+     * @return 1 if the lease was taken, 0 if another node holds it or if the job has no lease yet
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ScheduledJobLease lease
+            set lease.lockedBy = :node, lease.lockedAt = :now, lease.lockedUntil = :lockedUntil
+            where lease.name = :name
+            and (lease.lockedUntil <= :now or lease.lockedBy = :node)
+            """)
+    int lock(@Param("name") String name, @Param("node") String node, @Param("now") Date now,
+            @Param("lockedUntil") Date lockedUntil);
+
+    /**
+     * Shorten the lease of a job held by the given node, and record the run it just ended.
+     *
+     * @param name                 the name of the job
+     * @param node                 the identifier of the node holding the lease
+     * @param lockedUntil          the new end of the lease
+     * @param lastRunStartDateTime the start date and time of the run
+     * @param lastRunDuration      the duration of the run, in milliseconds
+     * @param lastRunSucceeded     true if the run ended without error
+     * @return 1 if the lease was still held by the node, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ScheduledJobLease lease
+            set lease.lockedUntil = :lockedUntil, lease.lastRunBy = :node, lease.lastRunStartDateTime = :lastRunStartDateTime,
+            lease.lastRunDuration = :lastRunDuration, lease.lastRunSucceeded = :lastRunSucceeded
+            where lease.name = :name
+            and lease.lockedBy = :node
+            """)
+    int unlock(@Param("name") String name, @Param("node") String node, @Param("lockedUntil") Date lockedUntil,
+            @Param("lastRunStartDateTime") Date lastRunStartDateTime, @Param("lastRunDuration") long lastRunDuration,
+            @Param("lastRunSucceeded") boolean lastRunSucceeded);
+
+}
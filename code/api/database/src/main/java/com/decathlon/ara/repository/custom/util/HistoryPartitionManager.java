@@ -0,0 +1,208 @@
+/******************************************************************************
+ * Copyright (C) 2019 by the ARA Contributors                                 *
+ *                                                                            *
+ * Licensed under the Apache License, Version 2.0 (the "License");            *
+ * you may not use this file except in compliance with the License.           *
+ * You may obtain a copy of the License at                                    *
+ *                                                                            *
+ * 	 http://www.apache.org/licenses/LICENSE-2.0                               *
+ *                                                                            *
+ * Unless required by applicable law or agreed to in writing, software        *
+ * distributed under the License is distributed on an "AS IS" BASIS,          *
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.   *
+ * See the License for the specific language governing permissions and        *
+ * limitations under the License.                                             *
+ *                                                                            *
+ ******************************************************************************/
+
+package com.decathlon.ara.repository.custom.util;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains the partitions of the executed scenario history, when the database partitions it (PostgreSQL with the
+ * "partitioning" Liquibase context).<br>
+ * The history is partitioned by project ({@code executed_scenario_history_p<projectId>}), then by month of test
+ * date-time ({@code executed_scenario_history_p<projectId>_<yyyyMM>}). Partitions are created when a project is
+ * created, at startup and by each purge, ahead of time, so that the purge can drop expired months instead of deleting
+ * them row by row. Rows landing in a default partition meanwhile are moved to their own partitions at the next
+ * preparation.
+ */
+@Component
+public class HistoryPartitionManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HistoryPartitionManager.class);
+
+    private static final String TABLE = "executed_scenario_history";
+
+    /**
+     * The number of months after the current one whose partitions are created ahead of time.
+     */
+    static final int MONTHS_AHEAD = 12;
+
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM", Locale.ROOT);
+
+    private final EntityManager entityManager;
+
+    private volatile Boolean partitioned;
+
+    public HistoryPartitionManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @return true if the executed scenario history is a partitioned table
+     */
+    @Transactional(readOnly = true)
+    public boolean isPartitioned() {
+        if (partitioned == null) {
+            String databaseProductName = entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            partitioned = Boolean.valueOf("PostgreSQL".equalsIgnoreCase(databaseProductName)
+                    && ((Number) entityManager.createNativeQuery("select count(*) from pg_partitioned_table pt " +
+                    "join pg_class c on c.oid = pt.partrelid where c.relname = '" + TABLE + "'")
+                    .getSingleResult()).intValue() > 0);
+        }
+        return partitioned.booleanValue();
+    }
+
+    /**
+     * Create the partition of the project if needed, and split its default partition into monthly partitions: one for
+     * each month already present in the default partition, and for the current and {@link #MONTHS_AHEAD} next months.
+     * <br>
+     * Default partitions are only locked when a partition is created, and all monthly partitions are created at once:
+     * called at project creation, at startup and before each purge of the project, few rows land in default partitions.
+     *
+     * @param projectId the ID of the project whose partitions to prepare
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void preparePartitions(long projectId) {
+        String projectPartition = TABLE + "_p" + projectId;
+        if (!exists(projectPartition)) {
+            LOG.info("PARTITION|Creating partition {}", projectPartition);
+            execute("lock table " + TABLE + "_default in exclusive mode");
+            execute("create table " + projectPartition + " (like " + TABLE + ") partition by range (test_date_time)");
+            execute("create table " + projectPartition + "_default partition of " + projectPartition + " default");
+            moveRows(TABLE + "_default", projectPartition, "project_id = " + projectId);
+            execute("alter table " + TABLE + " attach partition " + projectPartition + " for values in (" + projectId + ")");
+        }
+
+        SortedSet<YearMonth> months = new TreeSet<>();
+        @SuppressWarnings("unchecked")
+        List<Date> defaultMonths = entityManager.createNativeQuery("select distinct cast(date_trunc('month', test_date_time) as date) " +
+                "from " + projectPartition + "_default").getResultList();
+        defaultMonths.forEach(month -> months.add(YearMonth.from(toLocalDate(month))));
+        YearMonth currentMonth = YearMonth.now();
+        for (int monthsAhead = 0; monthsAhead <= MONTHS_AHEAD; monthsAhead++) {
+            months.add(currentMonth.plusMonths(monthsAhead));
+        }
+
+        for (YearMonth month : months) {
+            String monthPartition = projectPartition + "_" + month.format(MONTH_SUFFIX);
+            if (!exists(monthPartition)) {
+                LOG.info("PARTITION|Creating partition {}", monthPartition);
+                String from = "'" + month.atDay(1) + "'";
+                String to = "'" + month.plusMonths(1).atDay(1) + "'";
+                execute("lock table " + projectPartition + "_default in exclusive mode");
+                execute("create table " + monthPartition + " (like " + TABLE + ")");
+                moveRows(projectPartition + "_default", monthPartition, "test_date_time >= " + from + " and test_date_time < " + to);
+                execute("alter table " + projectPartition + " attach partition " + monthPartition + " for values from (" + from + ") to (" + to + ")");
+            }
+        }
+    }
+
+    /**
+     * Drop the monthly partitions of the project whose whole month is before the given date-time.
+     *
+     * @param projectId the ID of the project whose partitions to drop
+     * @param before    the date-time before which history is not needed anymore
+     * @return the number of dropped partitions
+     */
+    @Transactional
+    public int dropPartitionsBefore(long projectId, Date before) {
+        String projectPartition = TABLE + "_p" + projectId;
+        LocalDateTime limit = LocalDateTime.ofInstant(before.toInstant(), ZoneId.systemDefault());
+        @SuppressWarnings("unchecked")
+        List<String> partitions = entityManager.createNativeQuery("select c.relname from pg_inherits i " +
+                "join pg_class c on c.oid = i.inhrelid " +
+                "join pg_class p on p.oid = i.inhparent " +
+                "where p.relname = :parent")
+                .setParameter("parent", projectPartition)
+                .getResultList();
+        int dropped = 0;
+        for (String partition : partitions) {
+            YearMonth month = toMonth(projectPartition, partition);
+            if (month != null && isWholeMonthBefore(month, limit)) {
+                LOG.info("PARTITION|Dropping partition {}", partition);
+                execute("drop table " + partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * @param projectPartition the name of the partition of a project
+     * @param partition        the name of one of its partitions
+     * @return the month of the partition, or null if it is not a monthly partition (eg. the default one)
+     */
+    static YearMonth toMonth(String projectPartition, String partition) {
+        String suffix = partition.substring(projectPartition.length() + 1);
+        return suffix.matches("[0-9]{6}") ? YearMonth.parse(suffix, MONTH_SUFFIX) : null;
+    }
+
+    /**
+     * @param month the month of a partition
+     * @param limit the date-time before which history is not needed anymore
+     * @return true if the whole month is before the limit: its partition can be dropped
+     */
+    static boolean isWholeMonthBefore(YearMonth month, LocalDateTime limit) {
+        return !month.plusMonths(1).atDay(1).atStartOfDay().isAfter(limit);
+    }
+
+    private boolean exists(String table) {
+        return entityManager.createNativeQuery("select to_regclass(:table) is not null")
+                .setParameter("table", table)
+                .getSingleResult() == Boolean.TRUE;
+    }
+
+    private void moveRows(String fromTable, String toTable, String condition) {
+        execute("with moved as (delete from " + fromTable + " where " + condition + " returning *) " +
+                "insert into " + toTable + " select * from moved");
+    }
+
+    /**
+     * Run DDL and bulk moves on the JDBC connection: a native query would evict the whole second-level cache.
+     */
+    private void execute(String sql) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            }
+        });
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date instanceof java.sql.Date ? ((java.sql.Date) date).toLocalDate() : LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+}
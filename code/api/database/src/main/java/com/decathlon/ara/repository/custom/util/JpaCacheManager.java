@@ -21,19 +21,30 @@ import java.util.Collection;
 
 import javax.persistence.EntityManager;
 
+import org.hibernate.Cache;
 import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
- * Helper class to manage JPA cache, and evict some regions where needed.
+ * Helper class to manage JPA cache, and evict some regions where needed.<br>
+ * Evicting a whole region is one operation, while evicting keys is one operation per key: above
+ * {@link #bulkEvictionThreshold} keys, the whole region is evicted instead.
  */
 @Component
 public class JpaCacheManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(JpaCacheManager.class);
 
+    /**
+     * The number of keys above which a whole region is evicted rather than its keys one by one.
+     */
+    @Value("${ara.cache.bulk-eviction-threshold:100}")
+    private int bulkEvictionThreshold;
+
     private EntityManager entityManager;
 
     public JpaCacheManager(EntityManager entityManager) {
@@ -48,23 +59,90 @@ public class JpaCacheManager {
      */
     public void evictCollection(String collectionRegion, Long ownerIdentifier) {
         LOG.debug("Evicting collection cache {} for owner entity {}", collectionRegion, ownerIdentifier);
-        entityManager
-                .unwrap(Session.class)
-                .getSessionFactory()
-                .getCache()
-                .evictCollectionData(collectionRegion, ownerIdentifier);
+        getCache().evictCollectionData(collectionRegion, ownerIdentifier);
     }
 
     /**
-     * Evict the cache data for the given identified collection instances.
+     * Evict the cache data for the given identified collection instances, or for all the instances of the collection if
+     * there are more than {@link #bulkEvictionThreshold} identifiers.
      *
      * @param collectionRegion the "collection role" (in form [owner-entity-name].[collection-property-name])
      * @param ownerIdentifiers the identifiers of the owning entities
+     * @return true if the whole collection region was evicted
      */
-    public void evictCollections(String collectionRegion, Collection<Long> ownerIdentifiers) {
+    public boolean evictCollections(String collectionRegion, Collection<Long> ownerIdentifiers) {
+        if (isBulk(ownerIdentifiers)) {
+            evictCollectionRegion(collectionRegion);
+            return true;
+        }
         for (Long ownerIdentifier : ownerIdentifiers) {
             evictCollection(collectionRegion, ownerIdentifier);
         }
+        return false;
+    }
+
+    /**
+     * Evict the cache data for all instances of the given collection.
+     *
+     * @param collectionRegion the "collection role" (in form [owner-entity-name].[collection-property-name])
+     */
+    public void evictCollectionRegion(String collectionRegion) {
+        LOG.debug("Evicting collection cache {}", collectionRegion);
+        getCache().evictCollectionData(collectionRegion);
+    }
+
+    /**
+     * Evict the cache data for the given identified entity instances, or for all the instances of the entity if there
+     * are more than {@link #bulkEvictionThreshold} identifiers.
+     *
+     * @param entityName  the name of the entity (its fully qualified class name)
+     * @param identifiers the identifiers of the entities
+     * @return true if the whole entity region was evicted
+     */
+    public boolean evictEntities(String entityName, Collection<Long> identifiers) {
+        if (isBulk(identifiers)) {
+            LOG.debug("Evicting entity cache {}", entityName);
+            getCache().evictEntityData(entityName);
+            return true;
+        }
+        for (Long identifier : identifiers) {
+            LOG.debug("Evicting entity cache {} for entity {}", entityName, identifier);
+            getCache().evictEntityData(entityName, identifier);
+        }
+        return false;
+    }
+
+    /**
+     * Evict the cache data of an entity or of a collection.
+     *
+     * @param region      the name of an entity or a "collection role" (in form [owner-entity-name].[collection-property-name])
+     * @param identifiers the identifiers of the entities or of the owning entities, or null to evict all instances
+     * @return true if the whole region was evicted
+     */
+    public boolean evict(String region, Collection<Long> identifiers) {
+        final boolean collection = entityManager
+                .unwrap(Session.class)
+                .getSessionFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .collectionPersisters()
+                .containsKey(region);
+        return collection ? evictCollections(region, identifiers) : evictEntities(region, identifiers);
+    }
+
+    /**
+     * @param identifiers the identifiers of the instances to evict, or null to evict all instances
+     * @return true if the whole region is to be evicted rather than the instances one by one
+     */
+    public boolean isBulk(Collection<Long> identifiers) {
+        return identifiers == null || identifiers.size() > bulkEvictionThreshold;
+    }
+
+    private Cache getCache() {
+        return entityManager
+                .unwrap(Session.class)
+                .getSessionFactory()
+                .getCache();
     }
 
 }
@@ -36,7 +36,9 @@ public class TransactionAppenderUtil {
 
     /**
      * Let Hibernate make the INSERT SQL statements now and make sure the commit was successful before executing the
-     * given code. If the transaction is roll-backed, the code will of course not be executed.
+     * given code. If the transaction is roll-backed, the code will of course not be executed.<br>
+     * A failure of the code (eg. a task refused by a full pool) is logged: it does not prevent the other after-commit
+     * code of the transaction from running.
      *
      * @param runnable the code to run after transaction commit
      */
@@ -46,7 +48,11 @@ public class TransactionAppenderUtil {
             final TransactionSynchronization synchronization = new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    runnable.run();
+                    try {
+                        runnable.run();
+                    } catch (RuntimeException e) {
+                        LOG.error("Cannot run an action after the commit of the transaction", e);
+                    }
                 }
             };
             TransactionSynchronizationManager.registerSynchronization(synchronization);
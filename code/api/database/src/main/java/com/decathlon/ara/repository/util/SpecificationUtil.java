@@ -11,6 +11,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import java.time.LocalDateTime;
@@ -22,12 +23,14 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class SpecificationUtil {
 
     private static final String NAME_ATTRIBUTE = "name";
     private static final String CODE_ATTRIBUTE = "code";
     private static final String PROJECT_ID_ATTRIBUTE = "projectId";
+    private static final String TEST_DATE_TIME_ATTRIBUTE = "testDateTime";
     private static final char LIKE_CHAR = '%';
 
     private SpecificationUtil() {
@@ -77,6 +80,13 @@ public class SpecificationUtil {
         }
     }
 
+    private static void addStartDatePredicate(List<Predicate> predicates, CriteriaBuilder criteriaBuilder, Expression<Date> expression, Optional<Period> duration) {
+        var startDate = toStartDate(duration);
+        if (startDate.isPresent()) {
+            predicates.add(criteriaBuilder.greaterThan(expression, startDate.get()));
+        }
+    }
+
     private static void addProblemDefectIdPredicate(List<Predicate> predicates, CriteriaBuilder criteriaBuilder, Path<Problem> problem, String defectId) {
         if (StringUtils.isNotEmpty(defectId)) {
             Path<String> defectIdPath = problem.get("defectId");
@@ -141,35 +151,45 @@ public class SpecificationUtil {
         };
     }
 
-    public static Specification<ExecutedScenario> toExecutedScenarioSpecification(long projectId, String cucumberId, String branch, String cycleName, String countryCode, String runTypeCode, Optional<Period> duration) {
+    public static Optional<Date> toStartDate(Optional<Period> duration) {
+        var today = LocalDateTime.now();
+        return duration
+                .map(today::minus)
+                .map(localDateTime -> localDateTime.atZone(ZoneId.systemDefault()))
+                .map(ChronoZonedDateTime::toInstant)
+                .map(Date::from);
+    }
+
+    public static Specification<ExecutedScenarioHistory> toExecutedScenarioHistorySpecification(long projectId, String cucumberId, String branch, String cycleName, String countryCode, String runTypeCode, Optional<Period> duration, boolean latestFirst) {
         return (root, criteriaQuery, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
-            Path<Run> run = root.get("run");
-            Path<Execution> execution = run.get("execution");
-            Path<Country> country = run.get("country");
-            Path<Type> type = run.get("type");
-            predicates.add(criteriaBuilder.equal(execution.get("cycleDefinition").get(PROJECT_ID_ATTRIBUTE), projectId));
+            predicates.add(criteriaBuilder.equal(root.get(PROJECT_ID_ATTRIBUTE), projectId));
             predicates.add(criteriaBuilder.equal(root.get("cucumberId"), cucumberId));
-            addEqualsPredicate(predicates, criteriaBuilder, execution.get("branch"), branch);
-            addEqualsPredicate(predicates, criteriaBuilder, execution.get(NAME_ATTRIBUTE), cycleName);
-            addEqualsPredicate(predicates, criteriaBuilder, country.get(CODE_ATTRIBUTE), countryCode);
-            addEqualsPredicate(predicates, criteriaBuilder, type.get(CODE_ATTRIBUTE), runTypeCode);
-
-            var today = LocalDateTime.now();
-            var startDate = duration
-                    .map(today::minus)
-                    .map(localDateTime -> localDateTime.atZone(ZoneId.systemDefault()))
-                    .map(ChronoZonedDateTime::toInstant)
-                    .map(Date::from);
-            if (startDate.isPresent()) {
-                predicates.add(criteriaBuilder.greaterThan(execution.get("testDateTime"), startDate.get()));
-            }
+            addEqualsPredicate(predicates, criteriaBuilder, root.get("branch"), branch);
+            addEqualsPredicate(predicates, criteriaBuilder, root.get("cycleName"), cycleName);
+            addEqualsPredicate(predicates, criteriaBuilder, root.get("countryCode"), countryCode);
+            addEqualsPredicate(predicates, criteriaBuilder, root.get("typeCode"), runTypeCode);
+            addStartDatePredicate(predicates, criteriaBuilder, root.get(TEST_DATE_TIME_ATTRIBUTE), duration);
+
+            // Rows of an execution are kept together, then ordered by country, type and line in the run (the executed scenario ID standing for it)
+            Function<Expression<?>, Order> order = expression -> latestFirst ? criteriaBuilder.desc(expression) : criteriaBuilder.asc(expression);
+            criteriaQuery.orderBy(order.apply(root.get(TEST_DATE_TIME_ATTRIBUTE)),
+                    order.apply(root.get("executionId")),
+                    order.apply(root.get("countryCode")),
+                    order.apply(root.get("typeCode")),
+                    order.apply(root.get("executedScenarioId")));
 
-            criteriaQuery.orderBy(criteriaBuilder.asc(execution.get("testDateTime")),
-                    criteriaBuilder.asc(country.get(CODE_ATTRIBUTE)),
-                    criteriaBuilder.asc(type.get(CODE_ATTRIBUTE)),
-                    criteriaBuilder.asc(root.get("line")));
+            return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
+        };
+    }
 
+    public static Specification<ScenarioStability> toScenarioStabilitySpecification(long projectId, String countryCode, String typeCode, int minExecutionCount) {
+        return (root, criteriaQuery, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(criteriaBuilder.equal(root.get(PROJECT_ID_ATTRIBUTE), projectId));
+            addEqualsPredicate(predicates, criteriaBuilder, root.get("countryCode"), countryCode);
+            addEqualsPredicate(predicates, criteriaBuilder, root.get("typeCode"), typeCode);
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("window").get("executionCount"), Integer.valueOf(minExecutionCount)));
             return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
         };
     }